@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.jsonrpc.impl;
+
+import static java.util.Collections.emptySet;
+import static java.util.Collections.unmodifiableSet;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcMarshaller;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcParams;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcRequest;
+import org.eclipse.che.api.core.websocket.commons.WebSocketMessageTransmitter;
+import org.eclipse.che.api.core.websocket.impl.WebSocketSessionRegistry;
+import org.eclipse.che.commons.schedule.ScheduleDelay;
+import org.slf4j.Logger;
+
+/**
+ * Keeps subscriptions of JSON RPC endpoints to notifications about specific topics (e.g. events of
+ * a workspace with a particular identifier) and sends such notifications.
+ *
+ * <p>Subscribers are indexed by notification method and topic, so resolving recipients of a
+ * notification doesn't depend on the count of other subscriptions. Notification is serialized
+ * once and the same message is transmitted to each of the subscribers.
+ *
+ * <p>Clients subscribe once and don't subscribe again after reconnection, so subscriptions of a
+ * disconnected endpoint are kept as long as messages which are sent to it are kept for re-sending
+ * (see {@link org.eclipse.che.api.core.websocket.impl.MessagesReSender}). Subscriptions of
+ * endpoints which have no registered WEB SOCKET session for longer than that are removed.
+ */
+@Singleton
+public class JsonRpcSubscriptionRegistry {
+  private static final Logger LOG = getLogger(JsonRpcSubscriptionRegistry.class);
+
+  private final JsonRpcMarshaller marshaller;
+  private final WebSocketMessageTransmitter transmitter;
+  private final WebSocketSessionRegistry sessionRegistry;
+  private final long maxDisconnectionMs;
+
+  private final Map<Subscription, Set<String>> subscribers = new ConcurrentHashMap<>();
+  private final Map<String, Set<Subscription>> endpointSubscriptions = new ConcurrentHashMap<>();
+  private final Map<String, Long> disconnectedSince = new HashMap<>();
+
+  @Inject
+  public JsonRpcSubscriptionRegistry(
+      JsonRpcMarshaller marshaller,
+      WebSocketMessageTransmitter transmitter,
+      WebSocketSessionRegistry sessionRegistry,
+      @Named("che.core.websocket.resend.max_message_age_s") long maxDisconnectionTime) {
+    this.marshaller = marshaller;
+    this.transmitter = transmitter;
+    this.sessionRegistry = sessionRegistry;
+    this.maxDisconnectionMs = TimeUnit.SECONDS.toMillis(maxDisconnectionTime);
+  }
+
+  /** Subscribes endpoint to notifications with given method about given topic. */
+  public synchronized void subscribe(String method, String topic, String endpointId) {
+    final Subscription subscription = new Subscription(method, topic);
+    subscribers.computeIfAbsent(subscription, k -> ConcurrentHashMap.newKeySet()).add(endpointId);
+    endpointSubscriptions.computeIfAbsent(endpointId, k -> new HashSet<>()).add(subscription);
+  }
+
+  /** Cancels subscription of endpoint to notifications with given method about given topic. */
+  public synchronized void unsubscribe(String method, String topic, String endpointId) {
+    final Subscription subscription = new Subscription(method, topic);
+    final Set<Subscription> subscriptions = endpointSubscriptions.get(endpointId);
+    if (subscriptions != null && subscriptions.remove(subscription)) {
+      if (subscriptions.isEmpty()) {
+        endpointSubscriptions.remove(endpointId);
+      }
+      removeSubscriber(subscription, endpointId);
+    }
+  }
+
+  /** Cancels all the subscriptions of endpoint. */
+  public synchronized void unsubscribe(String endpointId) {
+    final Set<Subscription> subscriptions = endpointSubscriptions.remove(endpointId);
+    if (subscriptions != null) {
+      for (Subscription subscription : subscriptions) {
+        removeSubscriber(subscription, endpointId);
+      }
+    }
+  }
+
+  /** Returns endpoints subscribed to notifications with given method about given topic. */
+  public Set<String> getSubscribers(String method, String topic) {
+    final Set<String> endpointIds = subscribers.get(new Subscription(method, topic));
+    return endpointIds == null ? emptySet() : unmodifiableSet(endpointIds);
+  }
+
+  /**
+   * Sends notification with given method and params to all the endpoints which are subscribed to
+   * given topic.
+   */
+  public void notify(String method, String topic, Object params) {
+    final Set<String> endpointIds = subscribers.get(new Subscription(method, topic));
+    if (endpointIds == null || endpointIds.isEmpty()) {
+      return;
+    }
+    final String message =
+        marshaller.marshall(new JsonRpcRequest(null, method, new JsonRpcParams(params)));
+    for (String endpointId : endpointIds) {
+      transmitter.transmit(endpointId, message);
+    }
+  }
+
+  @ScheduleDelay(initialDelay = 60, delay = 60)
+  void cleanUp() {
+    cleanUp(System.currentTimeMillis());
+  }
+
+  /**
+   * Removes subscriptions of endpoints which have no registered sessions for longer than messages
+   * are kept for re-sending.
+   */
+  synchronized void cleanUp(long currentTimeMillis) {
+    final Set<String> endpointIds = new HashSet<>(endpointSubscriptions.keySet());
+    for (String endpointId : endpointIds) {
+      if (sessionRegistry.get(endpointId).isPresent()) {
+        disconnectedSince.remove(endpointId);
+        continue;
+      }
+      final long since = disconnectedSince.computeIfAbsent(endpointId, id -> currentTimeMillis);
+      if (currentTimeMillis - since > maxDisconnectionMs) {
+        LOG.debug("Removing subscriptions of disconnected endpoint {}", endpointId);
+        disconnectedSince.remove(endpointId);
+        unsubscribe(endpointId);
+      }
+    }
+    disconnectedSince.keySet().retainAll(endpointIds);
+  }
+
+  private void removeSubscriber(Subscription subscription, String endpointId) {
+    subscribers.computeIfPresent(
+        subscription,
+        (k, endpointIds) -> {
+          endpointIds.remove(endpointId);
+          return endpointIds.isEmpty() ? null : endpointIds;
+        });
+  }
+
+  /** Notification method and topic pair. */
+  private static final class Subscription {
+    private final String method;
+    private final String topic;
+
+    private Subscription(String method, String topic) {
+      this.method = method;
+      this.topic = topic;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Subscription)) {
+        return false;
+      }
+      final Subscription that = (Subscription) obj;
+      return Objects.equals(method, that.method) && Objects.equals(topic, that.topic);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(method, topic);
+    }
+  }
+}
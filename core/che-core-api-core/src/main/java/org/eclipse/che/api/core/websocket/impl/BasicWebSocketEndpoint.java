@@ -114,6 +114,7 @@ public abstract class BasicWebSocketEndpoint {
 
       registry.remove(combinedEndpointId);
       sessionMessagesBuffer.remove(session);
+      reSender.takeOver(combinedEndpointId, session);
     } else {
       LOG.warn("Closing unidentified session");
     }
@@ -15,9 +15,12 @@ import static org.slf4j.LoggerFactory.getLogger;
 import java.io.IOException;
 import java.util.Optional;
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
+import javax.websocket.CloseReason;
 import javax.websocket.Session;
 import org.eclipse.che.api.core.websocket.commons.WebSocketMessageTransmitter;
+import org.eclipse.che.commons.schedule.ScheduleDelay;
 import org.slf4j.Logger;
 
 /**
@@ -25,24 +28,51 @@ import org.slf4j.Logger;
  * session is not opened adds messages to re-sender to try to send them when session will be opened
  * again.
  *
+ * <p>Each session has its own {@link OutboundMessagesQueue outbound queue} which is sent
+ * asynchronously, so a slow consumer doesn't block transmission to other endpoints. When the queue
+ * of the session is full the message is either dropped or the session is closed, depending on the
+ * configured overflow policy. Messages left in the queue of the closed session are passed to
+ * re-sender when the session is closed. While re-sender has messages of the endpoint, new messages
+ * are passed to it too, so they are sent after the earlier ones.
+ *
  * @author Dmitry Kuleshov
  */
 @Singleton
 public class BasicWebSocketMessageTransmitter implements WebSocketMessageTransmitter {
   private static final Logger LOG = getLogger(BasicWebSocketMessageTransmitter.class);
 
+  static final String DROP_POLICY = "drop";
+  static final String CLOSE_POLICY = "close";
+
   private final WebSocketSessionRegistry registry;
   private final MessagesReSender reSender;
+  private final OutboundMessagesQueues queues;
+  private final boolean closeOnOverflow;
 
   @Inject
   public BasicWebSocketMessageTransmitter(
-      WebSocketSessionRegistry registry, MessagesReSender reSender) {
+      WebSocketSessionRegistry registry,
+      MessagesReSender reSender,
+      OutboundMessagesQueues queues,
+      @Named("che.core.websocket.outbound.overflow_policy") String overflowPolicy) {
     this.registry = registry;
     this.reSender = reSender;
+    this.queues = queues;
+    switch (overflowPolicy) {
+      case DROP_POLICY:
+        this.closeOnOverflow = false;
+        break;
+      case CLOSE_POLICY:
+        this.closeOnOverflow = true;
+        break;
+      default:
+        throw new IllegalArgumentException(
+            "Websocket outbound queue overflow policy '" + overflowPolicy + "' is not supported");
+    }
   }
 
   @Override
-  public synchronized void transmit(String endpointId, String message) {
+  public void transmit(String endpointId, String message) {
     final Optional<Session> sessionOptional = registry.get(endpointId);
 
     if (!sessionOptional.isPresent() || !sessionOptional.get().isOpen()) {
@@ -52,10 +82,53 @@ public class BasicWebSocketMessageTransmitter implements WebSocketMessageTransmi
     } else {
       LOG.debug("Session registered and open, sending message");
 
-      try {
-        sessionOptional.get().getBasicRemote().sendText(message);
-      } catch (IOException e) {
-        LOG.error("Error while trying to send a message to a basic websocket remote endpoint", e);
+      final Session session = sessionOptional.get();
+      if (reSender.addIfPending(endpointId, message)) {
+        // earlier messages are not re-sent yet, send after them
+        reSender.resend(endpointId);
+        return;
+      }
+      if (queues.offer(endpointId, session, message)) {
+        return;
+      }
+      if (session.isOpen()) {
+        onOverflow(endpointId, session, message);
+      } else {
+        LOG.debug("Session is closed while adding message, adding message to pending");
+
+        reSender.add(endpointId, message);
+      }
+    }
+  }
+
+  private void onOverflow(String endpointId, Session session, String message) {
+    if (!closeOnOverflow) {
+      LOG.warn("Outbound queue of endpoint {} is full, message is dropped", endpointId);
+      return;
+    }
+    LOG.warn("Outbound queue of endpoint {} is full, closing session", endpointId);
+    try {
+      session.close(
+          new CloseReason(
+              CloseReason.CloseCodes.TRY_AGAIN_LATER, "Outbound messages queue overflow"));
+    } catch (IOException e) {
+      LOG.error("Error while trying to close websocket session", e);
+    }
+    reSender.takeOver(endpointId, session);
+    reSender.add(endpointId, message);
+  }
+
+  /**
+   * Passes not sent messages of the sessions which were closed without notification to re-sender
+   * and logs queues statistics.
+   */
+  @ScheduleDelay(initialDelay = 60, delay = 60)
+  void cleanClosedSessionQueues() {
+    for (OutboundMessagesQueue queue : queues.getAll()) {
+      if (!queue.getSession().isOpen()) {
+        reSender.takeOver(queue.getEndpointId(), queue.getSession());
+      } else if (LOG.isDebugEnabled()) {
+        queue.logStatistics();
       }
     }
   }
@@ -10,60 +10,112 @@
  */
 package org.eclipse.che.api.core.websocket.impl;
 
-import com.google.common.collect.EvictingQueue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 import javax.websocket.Session;
 import org.eclipse.che.commons.schedule.ScheduleDelay;
+import org.slf4j.Logger;
 
 /**
  * Instance is responsible for re-sending messages that were not sent during the period when WEB
  * SOCKET session was closed. If session is closed during re-send process it stops and left messages
  * will be re-sent as WEB SOCKET session becomes open again.
  *
+ * <p>Messages of each endpoint are kept in a buffer which is limited by total size and age of the
+ * messages, the oldest messages are dropped first. Messages are re-sent through the {@link
+ * OutboundMessagesQueue outbound queue} of the session all at once and in order of adding, while
+ * the endpoint has buffered messages the messages transmitted to it are buffered too, so they are
+ * never sent before the earlier ones.
+ *
+ * <p>Message is considered to be sent when it's written to the session, messages which are lost
+ * by the network after that are not re-sent.
+ *
  * @author Dmitry Kuleshov
  */
 @Singleton
 public class MessagesReSender {
-
-  private static final int MAX_MESSAGES = 100;
+  private static final Logger LOG = getLogger(MessagesReSender.class);
 
   private final WebSocketSessionRegistry registry;
+  private final OutboundMessagesQueues queues;
+  private final long maxBufferSize;
+  private final long maxMessageAgeMs;
 
-  private final Map<String, Queue<DelayedMessage>> delayedMessageRegistry =
-      new ConcurrentHashMap<>();
+  private final Map<String, DelayedMessages> delayedMessageRegistry = new ConcurrentHashMap<>();
 
   @Inject
-  public MessagesReSender(WebSocketSessionRegistry registry) {
+  public MessagesReSender(
+      WebSocketSessionRegistry registry,
+      OutboundMessagesQueues queues,
+      @Named("che.core.websocket.resend.max_buffer_size") long maxBufferSize,
+      @Named("che.core.websocket.resend.max_message_age_s") long maxMessageAge) {
     this.registry = registry;
+    this.queues = queues;
+    this.maxBufferSize = maxBufferSize;
+    this.maxMessageAgeMs = TimeUnit.SECONDS.toMillis(maxMessageAge);
   }
 
   @ScheduleDelay(initialDelay = 60, delay = 60)
   void cleanStaleMessages() {
     long currentTimeMillis = System.currentTimeMillis();
 
-    delayedMessageRegistry
-        .values()
-        .forEach(it -> it.removeIf(m -> currentTimeMillis - m.timeMillis > 60_000));
-
-    delayedMessageRegistry.values().removeIf(Queue::isEmpty);
+    for (String endpointId : delayedMessageRegistry.keySet()) {
+      delayedMessageRegistry.computeIfPresent(
+          endpointId,
+          (id, messages) -> {
+            messages.evictOlderThan(id, currentTimeMillis);
+            return messages.isEmpty() ? null : messages;
+          });
+    }
   }
 
   public void add(String endpointId, String message) {
+    delayedMessageRegistry.compute(
+        endpointId,
+        (id, messages) -> {
+          final DelayedMessages result = messages == null ? new DelayedMessages() : messages;
+          result.add(id, message);
+          return result;
+        });
+  }
 
-    delayedMessageRegistry
-        .computeIfAbsent(endpointId, k -> EvictingQueue.create(MAX_MESSAGES))
-        .offer(new DelayedMessage(message));
+  /**
+   * Adds message to the messages of the endpoint if it has some, so the message is re-sent after
+   * them.
+   *
+   * @return true if message is added, false if the endpoint doesn't have messages to re-send
+   */
+  public boolean addIfPending(String endpointId, String message) {
+    return delayedMessageRegistry.computeIfPresent(
+            endpointId,
+            (id, messages) -> {
+              messages.add(id, message);
+              return messages;
+            })
+        != null;
   }
 
-  public void resend(String endpointId) {
-    Queue<DelayedMessage> delayedMessages = delayedMessageRegistry.remove(endpointId);
+  /**
+   * Takes over the messages which are left in the outbound queue of the closed session, they are
+   * re-sent when the endpoint opens a new session.
+   */
+  public void takeOver(String endpointId, Session session) {
+    queues.release(session, messages -> messages.forEach(message -> add(endpointId, message)));
+  }
 
-    if (delayedMessages == null || delayedMessages.isEmpty()) {
+  public void resend(String endpointId) {
+    if (!delayedMessageRegistry.containsKey(endpointId)) {
       return;
     }
 
@@ -73,27 +125,17 @@ public class MessagesReSender {
       return;
     }
 
-    Queue<DelayedMessage> backingQueue = EvictingQueue.create(delayedMessages.size());
-    while (!delayedMessages.isEmpty()) {
-      backingQueue.offer(delayedMessages.poll());
-    }
-
     Session session = sessionOptional.get();
-    for (DelayedMessage delayedMessage : backingQueue) {
-      if (session.isOpen()) {
-        session.getAsyncRemote().sendText(delayedMessage.message);
-      } else {
-        delayedMessages.add(delayedMessage);
-      }
-    }
-
-    if (!delayedMessages.isEmpty()) {
-      delayedMessageRegistry.put(endpointId, delayedMessages);
+    if (!session.isOpen()) {
+      return;
     }
+    delayedMessageRegistry.computeIfPresent(
+        endpointId,
+        (id, messages) -> queues.replay(id, session, messages.getAll()) ? null : messages);
+    queues.send(session);
   }
 
-  private static class DelayedMessage {
-
+  private static final class DelayedMessage {
     private final long timeMillis;
     private final String message;
 
@@ -102,4 +144,56 @@ public class MessagesReSender {
       this.timeMillis = System.currentTimeMillis();
     }
   }
+
+  /** Messages of the single endpoint, accessed only while the endpoint entry is computed. */
+  private final class DelayedMessages {
+    private final Deque<DelayedMessage> messages = new ArrayDeque<>();
+
+    private long size;
+
+    void add(String endpointId, String message) {
+      messages.addLast(new DelayedMessage(message));
+      size += message.length();
+      int evicted = 0;
+      while (size > maxBufferSize && !messages.isEmpty()) {
+        evictFirst();
+        evicted++;
+      }
+      if (evicted > 0) {
+        LOG.warn(
+            "Re-send buffer of endpoint {} is full, {} messages are dropped", endpointId, evicted);
+      }
+    }
+
+    void evictOlderThan(String endpointId, long currentTimeMillis) {
+      int evicted = 0;
+      while (!messages.isEmpty()
+          && currentTimeMillis - messages.peekFirst().timeMillis > maxMessageAgeMs) {
+        evictFirst();
+        evicted++;
+      }
+      if (evicted > 0) {
+        LOG.warn(
+            "{} messages of endpoint {} are not re-sent in time and are dropped",
+            evicted,
+            endpointId);
+      }
+    }
+
+    boolean isEmpty() {
+      return messages.isEmpty();
+    }
+
+    List<String> getAll() {
+      final List<String> result = new ArrayList<>(messages.size());
+      for (DelayedMessage message : messages) {
+        result.add(message.message);
+      }
+      return result;
+    }
+
+    private void evictFirst() {
+      size -= messages.removeFirst().message.length();
+    }
+  }
 }
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.websocket.impl;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+import org.slf4j.Logger;
+
+/**
+ * Outbound messages queue of a single WEB SOCKET session.
+ *
+ * <p>Messages are sent with {@link Session#getAsyncRemote()} one frame at a time, the next frame
+ * is sent from the completion handler of the previous one, so the thread which transmits a message
+ * never waits for a slow consumer. When batching is enabled, consecutive JSON objects which are
+ * waiting in the queue are sent as a single JSON array frame (JSON RPC batch) while the frame size
+ * doesn't exceed the configured limit, otherwise each message is sent in its own frame.
+ *
+ * <p>Queue size is limited, when the limit is reached new messages are refused and it's up to the
+ * caller to decide what to do with the consumer that can't keep up. Re-sent messages are not
+ * limited, the re-sender limits them itself.
+ *
+ * <p>Messages are added only by {@link OutboundMessagesQueues}, which never adds them to the
+ * released queue.
+ */
+class OutboundMessagesQueue implements SendHandler {
+  private static final Logger LOG = getLogger(OutboundMessagesQueue.class);
+
+  private final String endpointId;
+  private final Session session;
+  private final int maxSize;
+  private final int maxBatchSize;
+
+  // guarded by this
+  private final Deque<String> messages = new ArrayDeque<>();
+  private List<String> inFlight;
+  private List<String> released;
+  private Consumer<List<String>> unsentConsumer;
+
+  private final AtomicLong sentFrames = new AtomicLong();
+  private final AtomicLong sentMessages = new AtomicLong();
+  private final AtomicLong totalSendNanos = new AtomicLong();
+  private final AtomicLong maxSendNanos = new AtomicLong();
+  private final AtomicInteger maxDepth = new AtomicInteger();
+
+  private volatile long sendStartNanos;
+
+  /**
+   * @param maxSize max count of messages waiting in the queue
+   * @param maxBatchSize max size of a batch frame in characters, 0 disables batching
+   */
+  OutboundMessagesQueue(String endpointId, Session session, int maxSize, int maxBatchSize) {
+    this.endpointId = endpointId;
+    this.session = session;
+    this.maxSize = maxSize;
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  String getEndpointId() {
+    return endpointId;
+  }
+
+  Session getSession() {
+    return session;
+  }
+
+  /**
+   * Adds message to the queue, it is sent by the following {@link #sendNext()}.
+   *
+   * @return false if the queue is full and message is not added, otherwise true
+   */
+  synchronized boolean add(String message) {
+    if (messages.size() >= maxSize) {
+      return false;
+    }
+    messages.addLast(message);
+    maxDepth.accumulateAndGet(messages.size(), Math::max);
+    return true;
+  }
+
+  /**
+   * Adds re-sent messages to the queue regardless of the queue size limit, they are sent by the
+   * following {@link #sendNext()}.
+   */
+  synchronized void addReplayed(Collection<String> replayed) {
+    messages.addAll(replayed);
+    maxDepth.accumulateAndGet(messages.size(), Math::max);
+  }
+
+  /**
+   * Stops sending and passes the messages which are not sent to the given consumer. When a frame
+   * is being sent at the moment, messages are passed once its sending is completed, and messages
+   * of the frame are passed too only if its sending fails, so a message is never both sent and
+   * passed.
+   */
+  void release(Consumer<List<String>> unsentConsumer) {
+    final List<String> unsent;
+    synchronized (this) {
+      this.unsentConsumer = unsentConsumer;
+      unsent = new ArrayList<>(messages);
+      messages.clear();
+      if (inFlight != null) {
+        released = unsent;
+        return;
+      }
+    }
+    handOver(unsent, unsentConsumer);
+  }
+
+  /** Returns count of messages waiting in the queue. */
+  synchronized int size() {
+    return messages.size();
+  }
+
+  /** Logs queue statistics collected since the previous call and resets them. */
+  void logStatistics() {
+    final int depth = size();
+    final long frames = sentFrames.getAndSet(0);
+    final long sent = sentMessages.getAndSet(0);
+    final long avgNanos = frames == 0 ? 0 : totalSendNanos.getAndSet(0) / frames;
+    LOG.debug(
+        "Endpoint: {}, queue size: {}, max queue size: {}, sent messages: {}, sent frames: {}, "
+            + "average send time: {} ms, max send time: {} ms",
+        endpointId,
+        depth,
+        maxDepth.getAndSet(depth),
+        sent,
+        frames,
+        TimeUnit.NANOSECONDS.toMillis(avgNanos),
+        TimeUnit.NANOSECONDS.toMillis(maxSendNanos.getAndSet(0)));
+  }
+
+  @Override
+  public void onResult(SendResult result) {
+    completed(result);
+    sendNext();
+  }
+
+  /** Starts sending of the queued messages if nothing is being sent at the moment. */
+  void sendNext() {
+    while (true) {
+      final List<String> frameMessages;
+      synchronized (this) {
+        if (inFlight != null
+            || unsentConsumer != null
+            || messages.isEmpty()
+            || !session.isOpen()) {
+          return;
+        }
+        frameMessages = pollFrameMessages();
+        inFlight = frameMessages;
+      }
+      sendStartNanos = System.nanoTime();
+      try {
+        session.getAsyncRemote().sendText(toFrame(frameMessages), this);
+        return;
+      } catch (RuntimeException e) {
+        completed(new SendResult(e));
+      }
+    }
+  }
+
+  private void completed(SendResult result) {
+    final long sendNanos = System.nanoTime() - sendStartNanos;
+    final List<String> sent;
+    final List<String> unsent;
+    final Consumer<List<String>> consumer;
+    synchronized (this) {
+      sent = inFlight;
+      unsent = released;
+      inFlight = null;
+      released = null;
+      consumer = unsentConsumer;
+      if (!result.isOK() && consumer == null && !session.isOpen()) {
+        // not sent messages are passed with the rest of the queue when it's released
+        LOG.debug("Session of endpoint {} is closed while sending a message", endpointId);
+        for (int i = sent.size() - 1; i >= 0; i--) {
+          messages.addFirst(sent.get(i));
+        }
+        return;
+      }
+    }
+    if (result.isOK()) {
+      sentFrames.incrementAndGet();
+      sentMessages.addAndGet(sent.size());
+      totalSendNanos.addAndGet(sendNanos);
+      maxSendNanos.accumulateAndGet(sendNanos, Math::max);
+    } else if (consumer == null) {
+      LOG.error(
+          "Error while trying to send a message to an async websocket remote endpoint {}",
+          endpointId,
+          result.getException());
+    }
+    if (consumer != null) {
+      final List<String> notSent = new ArrayList<>();
+      if (!result.isOK()) {
+        notSent.addAll(sent);
+      }
+      if (unsent != null) {
+        notSent.addAll(unsent);
+      }
+      handOver(notSent, consumer);
+    }
+  }
+
+  private List<String> pollFrameMessages() {
+    final List<String> frameMessages = new ArrayList<>();
+    final String first = messages.removeFirst();
+    frameMessages.add(first);
+    if (maxBatchSize <= 0 || !isJsonObject(first)) {
+      return frameMessages;
+    }
+    // 2 is for brackets of the array
+    int frameSize = first.length() + 2;
+    String next;
+    while ((next = messages.peekFirst()) != null
+        && isJsonObject(next)
+        && frameSize + next.length() + 1 <= maxBatchSize) {
+      frameMessages.add(messages.removeFirst());
+      frameSize += next.length() + 1;
+    }
+    return frameMessages;
+  }
+
+  private void handOver(List<String> unsent, Consumer<List<String>> consumer) {
+    if (unsent.isEmpty()) {
+      return;
+    }
+    try {
+      consumer.accept(unsent);
+    } catch (RuntimeException e) {
+      LOG.error("Error while passing not sent messages, endpoint {}", endpointId, e);
+    }
+  }
+
+  private static String toFrame(List<String> frameMessages) {
+    if (frameMessages.size() == 1) {
+      return frameMessages.get(0);
+    }
+    final StringBuilder frame = new StringBuilder("[");
+    for (String message : frameMessages) {
+      if (frame.length() > 1) {
+        frame.append(',');
+      }
+      frame.append(message);
+    }
+    return frame.append(']').toString();
+  }
+
+  private static boolean isJsonObject(String message) {
+    return !message.isEmpty() && message.charAt(0) == '{';
+  }
+}
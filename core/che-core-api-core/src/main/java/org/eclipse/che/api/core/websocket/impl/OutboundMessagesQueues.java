@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.websocket.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import javax.websocket.Session;
+
+/**
+ * Keeps {@link OutboundMessagesQueue outbound queues} of WEB SOCKET sessions.
+ *
+ * <p>Messages are sent one per frame. Client which is able to handle JSON RPC batches may request
+ * batching of the queued messages with {@value #BATCH_PARAMETER}=true query parameter of the WEB
+ * SOCKET URL.
+ */
+@Singleton
+public class OutboundMessagesQueues {
+  /** Query parameter of the WEB SOCKET URL which enables JSON RPC batches for the session. */
+  public static final String BATCH_PARAMETER = "batch";
+
+  private final int maxQueueSize;
+  private final int maxBatchSize;
+  private final Map<Session, OutboundMessagesQueue> queues = new HashMap<>();
+
+  @Inject
+  public OutboundMessagesQueues(
+      @Named("che.core.websocket.outbound.max_queue_size") int maxQueueSize,
+      @Named("che.core.websocket.outbound.max_batch_size") int maxBatchSize) {
+    this.maxQueueSize = maxQueueSize;
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  /**
+   * Adds message to the queue of the given session and starts sending, creates the queue if it
+   * doesn't exist yet and the session is open. The queue is looked up and the message is added
+   * under the same lock as the queue is released, so the message is either sent or passed to the
+   * consumer of the not sent messages of the session.
+   *
+   * @return false if the queue is full or the session is closed and has no queue, so the message
+   *     is not added, otherwise true
+   */
+  boolean offer(String endpointId, Session session, String message) {
+    final OutboundMessagesQueue queue;
+    synchronized (queues) {
+      queue = getOrCreate(endpointId, session);
+      if (queue == null || !queue.add(message)) {
+        return false;
+      }
+    }
+    queue.sendNext();
+    return true;
+  }
+
+  /**
+   * Adds re-sent messages to the queue of the given session regardless of the queue size limit,
+   * see {@link #offer(String, Session, String)}. Messages are not sent until the next call of
+   * {@link #send(Session)} or {@link #offer(String, Session, String)}, so they may be added while
+   * the caller holds its own lock.
+   *
+   * @return false if the session is closed and has no queue, so messages are not added, otherwise
+   *     true
+   */
+  boolean replay(String endpointId, Session session, Collection<String> messages) {
+    synchronized (queues) {
+      final OutboundMessagesQueue queue = getOrCreate(endpointId, session);
+      if (queue == null) {
+        return false;
+      }
+      queue.addReplayed(messages);
+      return true;
+    }
+  }
+
+  /** Starts sending of the messages queued for the given session, if it has a queue. */
+  void send(Session session) {
+    final OutboundMessagesQueue queue;
+    synchronized (queues) {
+      queue = queues.get(session);
+    }
+    if (queue != null) {
+      queue.sendNext();
+    }
+  }
+
+  /** Returns the queues of all the sessions. */
+  Collection<OutboundMessagesQueue> getAll() {
+    synchronized (queues) {
+      return new ArrayList<>(queues.values());
+    }
+  }
+
+  /**
+   * Removes the queue of the given session and passes messages which are not sent to the given
+   * consumer, see {@link OutboundMessagesQueue#release(Consumer)}. Nothing happens if the session
+   * doesn't have a queue.
+   */
+  void release(Session session, Consumer<List<String>> unsentConsumer) {
+    final OutboundMessagesQueue queue;
+    synchronized (queues) {
+      queue = queues.remove(session);
+    }
+    // messages can't be added to the removed queue anymore
+    if (queue != null) {
+      queue.release(unsentConsumer);
+    }
+  }
+
+  private OutboundMessagesQueue getOrCreate(String endpointId, Session session) {
+    OutboundMessagesQueue queue = queues.get(session);
+    if (queue == null && session.isOpen()) {
+      queue =
+          new OutboundMessagesQueue(
+              endpointId, session, maxQueueSize, isBatchingRequested(session) ? maxBatchSize : 0);
+      queues.put(session, queue);
+    }
+    return queue;
+  }
+
+  private static boolean isBatchingRequested(Session session) {
+    final Map<String, List<String>> parameters = session.getRequestParameterMap();
+    if (parameters == null) {
+      return false;
+    }
+    final List<String> values = parameters.get(BATCH_PARAMETER);
+    return values != null && values.contains("true");
+  }
+}
@@ -25,6 +25,10 @@ import org.slf4j.Logger;
 /**
  * Binds WEB SOCKET session to a specific endpoint form which it was opened.
  *
+ * <p>Besides the endpoint to session mapping registry keeps the reverse session to endpoint index,
+ * so that the lookup which is performed for each inbound message doesn't depend on the count of
+ * registered sessions.
+ *
  * @author Dmitry Kuleshov
  */
 @Singleton
@@ -32,21 +36,33 @@ public class WebSocketSessionRegistry {
   private static final Logger LOG = getLogger(WebSocketSessionRegistry.class);
 
   private final Map<String, Session> sessionsMap = new ConcurrentHashMap<>();
+  private final Map<Session, String> endpointIdsMap = new ConcurrentHashMap<>();
 
-  public void add(String endpointId, Session session) {
+  public synchronized void add(String endpointId, Session session) {
     LOG.debug("Registering session with endpoint {}", session.getId(), endpointId);
 
-    sessionsMap.put(endpointId, session);
+    final Session previous = sessionsMap.put(endpointId, session);
+    if (previous != null) {
+      endpointIdsMap.remove(previous, endpointId);
+    }
+    final String previousId = endpointIdsMap.put(session, endpointId);
+    if (previousId != null && !previousId.equals(endpointId)) {
+      sessionsMap.remove(previousId, session);
+    }
   }
 
-  public Optional<Session> remove(String endpointId) {
+  public synchronized Optional<Session> remove(String endpointId) {
     LOG.debug("Cancelling registration for session with endpoint {}", endpointId);
 
-    return Optional.ofNullable(sessionsMap.remove(endpointId));
+    final Session session = sessionsMap.remove(endpointId);
+    if (session != null) {
+      endpointIdsMap.remove(session, endpointId);
+    }
+    return Optional.ofNullable(session);
   }
 
   public Optional<Session> remove(Session session) {
-    return get(session).flatMap(id -> Optional.ofNullable(sessionsMap.remove(id)));
+    return get(session).flatMap(this::remove);
   }
 
   public Optional<Session> get(String endpointId) {
@@ -63,12 +79,7 @@ public class WebSocketSessionRegistry {
   }
 
   public Optional<String> get(Session session) {
-    return sessionsMap
-        .entrySet()
-        .stream()
-        .filter(entry -> entry.getValue().equals(session))
-        .map(Map.Entry::getKey)
-        .findAny();
+    return Optional.ofNullable(endpointIdsMap.get(session));
   }
 
   public Set<Session> getSessions() {
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.jsonrpc.impl;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.Optional;
+import javax.websocket.Session;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcMarshaller;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcRequest;
+import org.eclipse.che.api.core.websocket.commons.WebSocketMessageTransmitter;
+import org.eclipse.che.api.core.websocket.impl.WebSocketSessionRegistry;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests for {@link JsonRpcSubscriptionRegistry} */
+@Listeners(MockitoTestNGListener.class)
+public class JsonRpcSubscriptionRegistryTest {
+  private static final String METHOD = "event:changed";
+  private static final String MESSAGE = "message";
+
+  @Mock private JsonRpcMarshaller marshaller;
+  @Mock private WebSocketMessageTransmitter transmitter;
+  @Mock private WebSocketSessionRegistry sessionRegistry;
+  @Mock private Session session;
+
+  private JsonRpcSubscriptionRegistry registry;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    when(marshaller.marshall(any(JsonRpcRequest.class))).thenReturn(MESSAGE);
+    registry = new JsonRpcSubscriptionRegistry(marshaller, transmitter, sessionRegistry, 600);
+  }
+
+  @Test
+  public void shouldSerializeNotificationOnceAndSendItToAllTopicSubscribers() {
+    registry.subscribe(METHOD, "ws1", "endpoint1");
+    registry.subscribe(METHOD, "ws1", "endpoint2");
+    registry.subscribe(METHOD, "ws2", "endpoint3");
+    registry.subscribe("another", "ws1", "endpoint4");
+
+    registry.notify(METHOD, "ws1", "params");
+
+    verify(marshaller).marshall(any(JsonRpcRequest.class));
+    verify(transmitter).transmit("endpoint1", MESSAGE);
+    verify(transmitter).transmit("endpoint2", MESSAGE);
+    verify(transmitter, times(2)).transmit(anyString(), anyString());
+  }
+
+  @Test
+  public void shouldNotSerializeNotificationWhenTopicHasNoSubscribers() {
+    registry.subscribe(METHOD, "ws1", "endpoint1");
+    registry.unsubscribe(METHOD, "ws1", "endpoint1");
+
+    registry.notify(METHOD, "ws1", "params");
+
+    verify(marshaller, never()).marshall(any(JsonRpcRequest.class));
+    verify(transmitter, never()).transmit(anyString(), anyString());
+  }
+
+  @Test
+  public void shouldRemoveAllSubscriptionsOfEndpoint() {
+    registry.subscribe(METHOD, "ws1", "endpoint1");
+    registry.subscribe(METHOD, "ws2", "endpoint1");
+    registry.subscribe(METHOD, "ws2", "endpoint2");
+
+    registry.unsubscribe("endpoint1");
+
+    assertTrue(registry.getSubscribers(METHOD, "ws1").isEmpty());
+    assertEquals(registry.getSubscribers(METHOD, "ws2"), ImmutableSet.of("endpoint2"));
+  }
+
+  @Test
+  public void shouldRemoveSubscriptionsOfEndpointWhichIsDisconnectedLongerThanResendPeriod() {
+    when(sessionRegistry.get("endpoint1")).thenReturn(Optional.empty());
+    when(sessionRegistry.get("endpoint2")).thenReturn(Optional.of(session));
+    registry.subscribe(METHOD, "ws1", "endpoint1");
+    registry.subscribe(METHOD, "ws1", "endpoint2");
+
+    registry.cleanUp(0);
+    registry.cleanUp(600_000);
+    assertEquals(registry.getSubscribers(METHOD, "ws1"), ImmutableSet.of("endpoint1", "endpoint2"));
+
+    registry.cleanUp(600_001);
+    assertEquals(registry.getSubscribers(METHOD, "ws1"), ImmutableSet.of("endpoint2"));
+  }
+
+  @Test
+  public void shouldKeepSubscriptionsOfEndpointWhichHasReconnected() {
+    when(sessionRegistry.get("endpoint1"))
+        .thenReturn(Optional.empty())
+        .thenReturn(Optional.of(session))
+        .thenReturn(Optional.empty());
+    registry.subscribe(METHOD, "ws1", "endpoint1");
+
+    registry.cleanUp(0);
+    registry.cleanUp(300_000);
+    registry.cleanUp(700_000);
+
+    assertEquals(registry.getSubscribers(METHOD, "ws1"), ImmutableSet.of("endpoint1"));
+  }
+}
@@ -11,17 +11,25 @@
 package org.eclipse.che.api.core.websocket.impl;
 
 import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import javax.websocket.CloseReason;
 import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
 import javax.websocket.Session;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
 import org.testng.annotations.BeforeMethod;
@@ -40,26 +48,39 @@ public class BasicWebSocketMessageTransmitterTest {
 
   @Mock private WebSocketSessionRegistry registry;
   @Mock private MessagesReSender reSender;
-  @InjectMocks private BasicWebSocketMessageTransmitter transmitter;
 
   @Mock private Session session;
-  @Mock private RemoteEndpoint.Basic remote;
+  @Mock private RemoteEndpoint.Async remote;
+
+  private BasicWebSocketMessageTransmitter transmitter;
+  private List<SendHandler> pendingHandlers;
 
   @BeforeMethod
   public void setUp() throws Exception {
-    when(session.getBasicRemote()).thenReturn(remote);
+    when(session.getAsyncRemote()).thenReturn(remote);
     when(session.isOpen()).thenReturn(true);
 
     when(registry.get(ENDPOINT_ID)).thenReturn(Optional.of(session));
     when(registry.getSessions()).thenReturn(emptySet());
+
+    pendingHandlers = new ArrayList<>();
+    doAnswer(
+            invocation -> {
+              pendingHandlers.add(invocation.getArgument(1));
+              return null;
+            })
+        .when(remote)
+        .sendText(anyString(), any(SendHandler.class));
+
+    transmitter = newTransmitter(2, "close");
   }
 
   @Test
   public void shouldSendDirectMessageIfSessionIsOpenAndEndpointIsSet() throws IOException {
     transmitter.transmit(ENDPOINT_ID, MESSAGE);
 
-    verify(session).getBasicRemote();
-    verify(remote).sendText(MESSAGE);
+    verify(session).getAsyncRemote();
+    verify(remote).sendText(eq(MESSAGE), any(SendHandler.class));
     verify(reSender, never()).add(eq(ENDPOINT_ID), anyString());
   }
 
@@ -69,8 +90,81 @@ public class BasicWebSocketMessageTransmitterTest {
 
     transmitter.transmit(ENDPOINT_ID, MESSAGE);
 
-    verify(session, never()).getBasicRemote();
-    verify(remote, never()).sendText(MESSAGE);
+    verify(session, never()).getAsyncRemote();
+    verify(remote, never()).sendText(eq(MESSAGE), any(SendHandler.class));
     verify(reSender).add(ENDPOINT_ID, MESSAGE);
   }
+
+  @Test
+  public void shouldPassMessageToReSenderWhileEndpointHasPendingMessages() throws IOException {
+    when(reSender.addIfPending(ENDPOINT_ID, MESSAGE)).thenReturn(true);
+
+    transmitter.transmit(ENDPOINT_ID, MESSAGE);
+
+    verify(reSender).resend(ENDPOINT_ID);
+    verify(remote, never()).sendText(eq(MESSAGE), any(SendHandler.class));
+  }
+
+  @Test
+  public void shouldSendQueuedJsonMessagesInSeparateFramesByDefault() throws IOException {
+    transmitter = newTransmitter(10, "close");
+
+    transmitter.transmit(ENDPOINT_ID, "{\"id\":1}");
+    transmitter.transmit(ENDPOINT_ID, "{\"id\":2}");
+    transmitter.transmit(ENDPOINT_ID, "{\"id\":3}");
+    pendingHandlers.get(0).onResult(new SendResult());
+    pendingHandlers.get(1).onResult(new SendResult());
+
+    verify(remote).sendText(eq("{\"id\":1}"), any(SendHandler.class));
+    verify(remote).sendText(eq("{\"id\":2}"), any(SendHandler.class));
+    verify(remote).sendText(eq("{\"id\":3}"), any(SendHandler.class));
+  }
+
+  @Test
+  public void shouldSendQueuedJsonMessagesAsBatchWhenClientRequestedBatching()
+      throws IOException {
+    when(session.getRequestParameterMap())
+        .thenReturn(singletonMap(OutboundMessagesQueues.BATCH_PARAMETER, singletonList("true")));
+    transmitter = newTransmitter(10, "close");
+
+    transmitter.transmit(ENDPOINT_ID, "{\"id\":1}");
+    transmitter.transmit(ENDPOINT_ID, "{\"id\":2}");
+    transmitter.transmit(ENDPOINT_ID, "{\"id\":3}");
+    pendingHandlers.get(0).onResult(new SendResult());
+
+    verify(remote).sendText(eq("{\"id\":1}"), any(SendHandler.class));
+    verify(remote).sendText(eq("[{\"id\":2},{\"id\":3}]"), any(SendHandler.class));
+  }
+
+  @Test
+  public void shouldCloseSessionAndResendMessagesWhenQueueIsFull() throws IOException {
+    // first message is in flight, the next two fill the queue
+    transmitter.transmit(ENDPOINT_ID, "1");
+    transmitter.transmit(ENDPOINT_ID, "2");
+    transmitter.transmit(ENDPOINT_ID, "3");
+
+    transmitter.transmit(ENDPOINT_ID, "4");
+
+    verify(session).close(any(CloseReason.class));
+    verify(reSender).takeOver(ENDPOINT_ID, session);
+    verify(reSender).add(ENDPOINT_ID, "4");
+  }
+
+  @Test
+  public void shouldDropMessageWhenQueueIsFullAndDropPolicyIsSet() throws IOException {
+    transmitter = newTransmitter(2, "drop");
+    transmitter.transmit(ENDPOINT_ID, "1");
+    transmitter.transmit(ENDPOINT_ID, "2");
+    transmitter.transmit(ENDPOINT_ID, "3");
+
+    transmitter.transmit(ENDPOINT_ID, "4");
+
+    verify(session, never()).close(any(CloseReason.class));
+    verify(reSender, never()).add(eq(ENDPOINT_ID), anyString());
+  }
+
+  private BasicWebSocketMessageTransmitter newTransmitter(int maxQueueSize, String policy) {
+    return new BasicWebSocketMessageTransmitter(
+        registry, reSender, new OutboundMessagesQueues(maxQueueSize, 1024), policy);
+  }
 }
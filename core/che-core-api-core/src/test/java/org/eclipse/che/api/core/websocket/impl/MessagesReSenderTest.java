@@ -10,16 +10,27 @@
  */
 package org.eclipse.che.api.core.websocket.impl;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
 import javax.websocket.Session;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
 import org.testng.annotations.BeforeMethod;
@@ -37,21 +48,28 @@ public class MessagesReSenderTest {
   private static final String ENDPOINT_ID = "id";
 
   @Mock private WebSocketSessionRegistry sessionRegistry;
-  @InjectMocks private MessagesReSender reSender;
+
+  private OutboundMessagesQueues queues;
+  private MessagesReSender reSender;
 
   @Mock private Session session;
   @Mock private RemoteEndpoint.Async endpoint;
 
+  private boolean sessionOpen;
+
   @BeforeMethod
   public void beforeMethod() {
     when(sessionRegistry.get(anyString())).thenReturn(Optional.of(session));
     when(session.getAsyncRemote()).thenReturn(endpoint);
-    when(session.isOpen()).thenReturn(true);
+    sessionOpen = true;
+    when(session.isOpen()).thenAnswer(invocation -> sessionOpen);
+    acknowledgeSending(true);
   }
 
   @BeforeMethod
   public void before() {
-    reSender = new MessagesReSender(sessionRegistry);
+    queues = new OutboundMessagesQueues(10, 0);
+    reSender = new MessagesReSender(sessionRegistry, queues, 1024, 60);
   }
 
   @Test
@@ -64,7 +82,7 @@ public class MessagesReSenderTest {
 
     verify(sessionRegistry).get(ENDPOINT_ID);
     verify(session, never()).getAsyncRemote();
-    verify(endpoint, never()).sendText(MESSAGE);
+    verify(endpoint, never()).sendText(eq(MESSAGE), any(SendHandler.class));
   }
 
   @Test
@@ -75,13 +93,13 @@ public class MessagesReSenderTest {
     reSender.resend(ENDPOINT_ID);
 
     verify(session, never()).getAsyncRemote();
-    verify(endpoint, never()).sendText(MESSAGE);
+    verify(endpoint, never()).sendText(eq(MESSAGE), any(SendHandler.class));
 
     when(session.isOpen()).thenReturn(true);
     reSender.resend(ENDPOINT_ID);
 
     verify(session).getAsyncRemote();
-    verify(endpoint).sendText(MESSAGE);
+    verify(endpoint).sendText(eq(MESSAGE), any(SendHandler.class));
   }
 
   @Test
@@ -92,7 +110,7 @@ public class MessagesReSenderTest {
 
     verify(sessionRegistry).get(ENDPOINT_ID);
     verify(session).getAsyncRemote();
-    verify(endpoint).sendText(MESSAGE);
+    verify(endpoint).sendText(eq(MESSAGE), any(SendHandler.class));
   }
 
   @Test
@@ -106,7 +124,7 @@ public class MessagesReSenderTest {
     verify(sessionRegistry).get(ENDPOINT_ID);
     verify(sessionRegistry).get("1");
     verify(session, times(2)).getAsyncRemote();
-    verify(endpoint, times(2)).sendText(MESSAGE);
+    verify(endpoint, times(2)).sendText(eq(MESSAGE), any(SendHandler.class));
   }
 
   @Test
@@ -114,14 +132,12 @@ public class MessagesReSenderTest {
     reSender.add(ENDPOINT_ID, MESSAGE);
 
     reSender.resend(ENDPOINT_ID);
-    verify(sessionRegistry).get(ENDPOINT_ID);
     verify(session).getAsyncRemote();
-    verify(endpoint).sendText(MESSAGE);
+    verify(endpoint).sendText(eq(MESSAGE), any(SendHandler.class));
 
     reSender.resend(ENDPOINT_ID);
-    verify(sessionRegistry).get(ENDPOINT_ID);
     verify(session).getAsyncRemote();
-    verify(endpoint).sendText(MESSAGE);
+    verify(endpoint).sendText(eq(MESSAGE), any(SendHandler.class));
   }
 
   @Test
@@ -132,17 +148,139 @@ public class MessagesReSenderTest {
     reSender.resend(ENDPOINT_ID);
     reSender.resend("1");
 
-    verify(sessionRegistry).get(ENDPOINT_ID);
-    verify(sessionRegistry).get("1");
     verify(session, times(2)).getAsyncRemote();
-    verify(endpoint, times(2)).sendText(MESSAGE);
+    verify(endpoint, times(2)).sendText(eq(MESSAGE), any(SendHandler.class));
 
     reSender.resend(ENDPOINT_ID);
     reSender.resend("1");
 
-    verify(sessionRegistry).get(ENDPOINT_ID);
-    verify(sessionRegistry).get("1");
     verify(session, times(2)).getAsyncRemote();
-    verify(endpoint, times(2)).sendText(MESSAGE);
+    verify(endpoint, times(2)).sendText(eq(MESSAGE), any(SendHandler.class));
+  }
+
+  @Test
+  public void shouldResendMessagesInOrderOfAdding() {
+    reSender.add(ENDPOINT_ID, "1");
+    reSender.add(ENDPOINT_ID, "2");
+
+    reSender.resend(ENDPOINT_ID);
+
+    InOrder inOrder = inOrder(endpoint);
+    inOrder.verify(endpoint).sendText(eq("1"), any(SendHandler.class));
+    inOrder.verify(endpoint).sendText(eq("2"), any(SendHandler.class));
+  }
+
+  @Test
+  public void shouldDropOldestMessagesWhenBufferIsFull() {
+    reSender = new MessagesReSender(sessionRegistry, queues, 2, 60);
+    reSender.add(ENDPOINT_ID, "1");
+    reSender.add(ENDPOINT_ID, "2");
+    reSender.add(ENDPOINT_ID, "3");
+
+    reSender.resend(ENDPOINT_ID);
+
+    InOrder inOrder = inOrder(endpoint);
+    inOrder.verify(endpoint).sendText(eq("2"), any(SendHandler.class));
+    inOrder.verify(endpoint).sendText(eq("3"), any(SendHandler.class));
+    verify(endpoint, never()).sendText(eq("1"), any(SendHandler.class));
+  }
+
+  @Test
+  public void shouldAddMessageToPendingOnesOnlyIfEndpointHasThem() {
+    assertFalse(reSender.addIfPending(ENDPOINT_ID, "1"));
+
+    reSender.add(ENDPOINT_ID, "1");
+    assertTrue(reSender.addIfPending(ENDPOINT_ID, "2"));
+    reSender.resend(ENDPOINT_ID);
+
+    InOrder inOrder = inOrder(endpoint);
+    inOrder.verify(endpoint).sendText(eq("1"), any(SendHandler.class));
+    inOrder.verify(endpoint).sendText(eq("2"), any(SendHandler.class));
+    assertFalse(reSender.addIfPending(ENDPOINT_ID, "3"));
+  }
+
+  @Test
+  public void shouldKeepMessagesWhichAreNotSentBecauseSessionIsClosed() {
+    doAnswer(
+            invocation -> {
+              sessionOpen = false;
+              SendHandler handler = invocation.getArgument(1);
+              handler.onResult(new SendResult(new Exception("closed")));
+              return null;
+            })
+        .when(endpoint)
+        .sendText(anyString(), any(SendHandler.class));
+    reSender.add(ENDPOINT_ID, "1");
+    reSender.add(ENDPOINT_ID, "2");
+
+    reSender.resend(ENDPOINT_ID);
+    reSender.takeOver(ENDPOINT_ID, session);
+    verify(endpoint).sendText(eq("1"), any(SendHandler.class));
+    verify(endpoint, never()).sendText(eq("2"), any(SendHandler.class));
+
+    sessionOpen = true;
+    acknowledgeSending(true);
+    reSender.resend(ENDPOINT_ID);
+
+    verify(endpoint, times(2)).sendText(eq("1"), any(SendHandler.class));
+    verify(endpoint).sendText(eq("2"), any(SendHandler.class));
+  }
+
+  @Test
+  public void shouldResendThroughOutboundQueueOfSession() {
+    List<SendHandler> handlers = new ArrayList<>();
+    doAnswer(
+            invocation -> {
+              handlers.add(invocation.getArgument(1));
+              return null;
+            })
+        .when(endpoint)
+        .sendText(anyString(), any(SendHandler.class));
+    queues.offer(ENDPOINT_ID, session, MESSAGE);
+    reSender.add(ENDPOINT_ID, "1");
+
+    reSender.resend(ENDPOINT_ID);
+    verify(endpoint, never()).sendText(eq("1"), any(SendHandler.class));
+
+    handlers.get(0).onResult(new SendResult());
+    verify(endpoint).sendText(eq("1"), any(SendHandler.class));
+  }
+
+  @Test
+  public void shouldResendMessagesLeftInQueueOfClosedSession() {
+    Session closedSession = mock(Session.class);
+    RemoteEndpoint.Async closedEndpoint = mock(RemoteEndpoint.Async.class);
+    List<SendHandler> handlers = new ArrayList<>();
+    doAnswer(
+            invocation -> {
+              handlers.add(invocation.getArgument(1));
+              return null;
+            })
+        .when(closedEndpoint)
+        .sendText(anyString(), any(SendHandler.class));
+    when(closedSession.isOpen()).thenReturn(true);
+    when(closedSession.getAsyncRemote()).thenReturn(closedEndpoint);
+    queues.offer(ENDPOINT_ID, closedSession, MESSAGE);
+    queues.offer(ENDPOINT_ID, closedSession, "2");
+    when(closedSession.isOpen()).thenReturn(false);
+
+    reSender.takeOver(ENDPOINT_ID, closedSession);
+    // the message which was being sent when the session closed is delivered
+    handlers.get(0).onResult(new SendResult());
+    reSender.resend(ENDPOINT_ID);
+
+    verify(endpoint, never()).sendText(eq(MESSAGE), any(SendHandler.class));
+    verify(endpoint).sendText(eq("2"), any(SendHandler.class));
+  }
+
+  private void acknowledgeSending(boolean ok) {
+    doAnswer(
+            invocation -> {
+              SendHandler handler = invocation.getArgument(1);
+              handler.onResult(ok ? new SendResult() : new SendResult(new Exception("error")));
+              return null;
+            })
+        .when(endpoint)
+        .sendText(anyString(), any(SendHandler.class));
   }
 }
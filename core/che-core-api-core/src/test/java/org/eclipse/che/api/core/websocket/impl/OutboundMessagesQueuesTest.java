@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.websocket.impl;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests for {@link OutboundMessagesQueues} */
+@Listeners(MockitoTestNGListener.class)
+public class OutboundMessagesQueuesTest {
+  private static final String ENDPOINT_ID = "id";
+
+  @Mock private Session session;
+  @Mock private RemoteEndpoint.Async remote;
+
+  private OutboundMessagesQueues queues;
+  private List<String> sent;
+  private List<SendHandler> handlers;
+  private List<String> unsent;
+  private boolean sessionOpen;
+
+  @BeforeMethod
+  public void setUp() {
+    sent = new ArrayList<>();
+    handlers = new ArrayList<>();
+    unsent = new ArrayList<>();
+    sessionOpen = true;
+    when(session.isOpen()).thenAnswer(invocation -> sessionOpen);
+    when(session.getAsyncRemote()).thenReturn(remote);
+    doAnswer(
+            invocation -> {
+              sent.add(invocation.getArgument(0));
+              handlers.add(invocation.getArgument(1));
+              return null;
+            })
+        .when(remote)
+        .sendText(anyString(), any(SendHandler.class));
+    queues = new OutboundMessagesQueues(10, 0);
+  }
+
+  @Test
+  public void shouldNotPassMessageWhichIsSentAfterRelease() {
+    queues.offer(ENDPOINT_ID, session, "1");
+    queues.offer(ENDPOINT_ID, session, "2");
+
+    queues.release(session, unsent::addAll);
+    handlers.get(0).onResult(new SendResult());
+
+    assertEquals(sent, singletonList("1"));
+    assertEquals(unsent, singletonList("2"));
+  }
+
+  @Test
+  public void shouldPassMessagesInOrderWhenSendingFailsAfterRelease() {
+    queues.offer(ENDPOINT_ID, session, "1");
+    queues.offer(ENDPOINT_ID, session, "2");
+    sessionOpen = false;
+
+    queues.release(session, unsent::addAll);
+    assertTrue(unsent.isEmpty());
+    handlers.get(0).onResult(new SendResult(new Exception("closed")));
+
+    assertEquals(unsent, asList("1", "2"));
+  }
+
+  @Test
+  public void shouldPassMessagesWhichFailedToBeSentBeforeRelease() {
+    queues.offer(ENDPOINT_ID, session, "1");
+    queues.offer(ENDPOINT_ID, session, "2");
+    sessionOpen = false;
+    handlers.get(0).onResult(new SendResult(new Exception("closed")));
+
+    queues.release(session, unsent::addAll);
+
+    assertEquals(sent, singletonList("1"));
+    assertEquals(unsent, asList("1", "2"));
+  }
+
+  @Test
+  public void shouldNotAddMessageToReleasedQueue() {
+    queues.offer(ENDPOINT_ID, session, "1");
+    sessionOpen = false;
+    queues.release(session, unsent::addAll);
+
+    assertFalse(queues.offer(ENDPOINT_ID, session, "2"));
+    assertTrue(queues.getAll().isEmpty());
+  }
+
+  @Test
+  public void shouldRefuseMessageWhenQueueIsFull() {
+    queues = new OutboundMessagesQueues(1, 0);
+
+    // first message is in flight, the second one fills the queue
+    assertTrue(queues.offer(ENDPOINT_ID, session, "1"));
+    assertTrue(queues.offer(ENDPOINT_ID, session, "2"));
+
+    assertFalse(queues.offer(ENDPOINT_ID, session, "3"));
+  }
+}
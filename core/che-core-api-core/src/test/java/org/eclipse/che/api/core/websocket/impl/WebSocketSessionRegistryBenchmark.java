@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.websocket.impl;
+
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.websocket.Session;
+
+/**
+ * Measures {@link WebSocketSessionRegistry} lookup of endpoint by session which is performed for
+ * each inbound message against the linear scan of all the registered sessions. It is not a part of test suite and should be launched manually, e.g.
+ *
+ * <pre>
+ *     java -cp ... org.eclipse.che.api.core.websocket.impl.WebSocketSessionRegistryBenchmark 10000
+ * </pre>
+ *
+ * where the argument is count of registered sessions.
+ */
+public class WebSocketSessionRegistryBenchmark {
+
+  private static final int ENDPOINTS = 100;
+  private static final int LOOKUPS = 100_000;
+  private static final int WARM_UP_ITERATIONS = 3;
+
+  public static void main(String[] args) {
+    final int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+    final WebSocketSessionRegistry registry = new WebSocketSessionRegistry();
+    final WebsocketIdService idService = new WebsocketIdService();
+    final List<Session> sessions = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      final Session session = mock(Session.class);
+      sessions.add(session);
+      registry.add(idService.getCombinedId("/ws/" + i % ENDPOINTS, "client" + i), session);
+    }
+
+    for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+      sessionLookup(registry, sessions);
+      sessionScan(registry, sessions);
+    }
+
+    System.out.printf(
+        "sessions: %d%n"
+            + "session -> endpoint, indexed: %d ns/op%n"
+            + "session -> endpoint, scan:    %d ns/op%n",
+        count,
+        sessionLookup(registry, sessions),
+        sessionScan(registry, sessions));
+  }
+
+  private static long sessionLookup(WebSocketSessionRegistry registry, List<Session> sessions) {
+    final long start = System.nanoTime();
+    for (int i = 0; i < LOOKUPS; i++) {
+      consume(registry.get(sessions.get(i % sessions.size())));
+    }
+    return (System.nanoTime() - start) / LOOKUPS;
+  }
+
+  /** The way session was looked up before the reverse index was introduced. */
+  private static long sessionScan(WebSocketSessionRegistry registry, List<Session> sessions) {
+    final int lookups = LOOKUPS / 100;
+    final long start = System.nanoTime();
+    for (int i = 0; i < lookups; i++) {
+      final Session session = sessions.get(i * 100 % sessions.size());
+      consume(
+          registry
+              .getSessions()
+              .stream()
+              .filter(session::equals)
+              .findAny()
+              .flatMap(registry::get));
+    }
+    return (System.nanoTime() - start) / lookups;
+  }
+
+  private static int sink;
+
+  private static void consume(Object result) {
+    sink += result.hashCode();
+  }
+}
@@ -13,6 +13,7 @@ package org.eclipse.che.api.core.websocket.impl;
 import static org.mockito.Mockito.mock;
 import static org.testng.Assert.*;
 
+import com.google.common.collect.ImmutableSet;
 import java.util.Optional;
 import javax.websocket.Session;
 import org.mockito.Mock;
@@ -82,4 +83,27 @@ public class WebSocketSessionRegistryTest {
     assertFalse(registry.getSessions().isEmpty());
     assertEquals(2, registry.getSessions().size());
   }
+
+  @Test
+  public void shouldGetEndpointIdBySession() {
+    registry.add("0", session);
+
+    assertEquals(registry.get(session), Optional.of("0"));
+
+    registry.remove("0");
+
+    assertFalse(registry.get(session).isPresent());
+  }
+
+  @Test
+  public void shouldReplaceSessionWhenEndpointIsRegisteredAgain() {
+    final Session another = mock(Session.class);
+    registry.add("client1<-:->/ws", session);
+
+    registry.add("client1<-:->/ws", another);
+
+    assertFalse(registry.get(session).isPresent());
+    assertEquals(registry.get(another), Optional.of("client1<-:->/ws"));
+    assertEquals(registry.getSessions(), ImmutableSet.of(another));
+  }
 }
@@ -19,6 +19,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import org.eclipse.che.dto.server.FreezableDto;
+import org.eclipse.che.dto.server.FrozenDtos;
 import org.eclipse.che.dto.server.JsonArrayImpl;
 import org.eclipse.che.dto.server.JsonSerializable;
 import org.eclipse.che.dto.server.JsonStringMapImpl;
@@ -32,6 +34,8 @@ import org.eclipse.che.dto.shared.JsonStringMap;
 public class DtoImplServerTemplate extends DtoImpl {
   private static final String JSON_ARRAY_IMPL = JsonArrayImpl.class.getCanonicalName();
   private static final String JSON_MAP_IMPL = JsonStringMapImpl.class.getCanonicalName();
+  private static final String FROZEN_DTOS = FrozenDtos.class.getCanonicalName();
+  private static final String CHECK_NOT_FROZEN = "      $checkNotFrozen();\n";
   private static final String SERVER_DTO_MARKER =
       "  @" + DTOImpl.class.getCanonicalName() + "(\"server\")\n";
 
@@ -69,6 +73,7 @@ public class DtoImplServerTemplate extends DtoImpl {
     emitDeserializer(methods, builder);
     emitDeserializerShortcut(builder);
     emitCopyConstructor(methods, builder);
+    emitFreeze(getters, superGetterNames, builder);
     // Delegation DTO methods.
     emitDelegateMethods(builder);
     // "builder" method, it is method that set field and return "this" instance
@@ -375,13 +380,13 @@ public class DtoImplServerTemplate extends DtoImpl {
     builder.append("    }\n\n");
   }
 
-  private static StringBuilder appendNaiveCopyJsonExpression(
-      String inValue, StringBuilder builder) {
+  /** Copies value of 'any' field, the value is written into a new JSON tree without parsing. */
+  private static StringBuilder appendCopyJsonExpression(String inValue, StringBuilder builder) {
     builder.append("((");
     builder.append(inValue);
-    builder.append(") != null ? new JsonParser().parse((");
+    builder.append(") != null ? gson.toJsonTree(");
     builder.append(inValue);
-    builder.append(").toString()) : null)");
+    builder.append(") : null)");
     return builder;
   }
 
@@ -404,7 +409,8 @@ public class DtoImplServerTemplate extends DtoImpl {
     }
     builder.append(" implements ");
     builder.append(dtoInterface.getCanonicalName());
-    builder.append(", JsonSerializable ");
+    builder.append(", JsonSerializable, ");
+    builder.append(FreezableDto.class.getCanonicalName());
     builder.append(" {\n\n");
     emitFactoryMethod(builder);
     emitDefaultConstructor(builder);
@@ -436,6 +442,12 @@ public class DtoImplServerTemplate extends DtoImpl {
       builder.append("(");
       builder.append(fieldName);
       builder.append(")");
+    } else if (isAny(method.getReturnType())) {
+      // JSON of immutable DTO may not be changed by caller
+      builder.append("$frozen ? ");
+      appendCopyJsonExpression(fieldName, builder);
+      builder.append(" : ");
+      builder.append(fieldName);
     } else {
       builder.append(fieldName);
     }
@@ -449,6 +461,7 @@ public class DtoImplServerTemplate extends DtoImpl {
     builder.append("(");
     builder.append(paramType);
     builder.append(" v) {\n");
+    builder.append(CHECK_NOT_FROZEN);
     builder.append("      this.");
     builder.append(fieldName);
     builder.append(" = ");
@@ -481,6 +494,7 @@ public class DtoImplServerTemplate extends DtoImpl {
     builder.append("(");
     builder.append(paramType);
     builder.append(" v) {\n");
+    builder.append(CHECK_NOT_FROZEN);
     builder.append("      this.");
     builder.append(fieldName);
     builder.append(" = ");
@@ -497,7 +511,9 @@ public class DtoImplServerTemplate extends DtoImpl {
     builder.append(getListAdderName(fieldName));
     builder.append("(");
     builder.append(getTypeArgumentImplName((ParameterizedType) method.getGenericReturnType(), 0));
-    builder.append(" v) {\n      ");
+    builder.append(" v) {\n");
+    builder.append(CHECK_NOT_FROZEN);
+    builder.append("      ");
     builder.append(getEnsureName(fieldName));
     builder.append("();\n      ");
     builder.append(fieldName);
@@ -515,7 +531,9 @@ public class DtoImplServerTemplate extends DtoImpl {
     builder.append(getMapPutterName(fieldName));
     builder.append("(String k, ");
     builder.append(getTypeArgumentImplName((ParameterizedType) method.getGenericReturnType(), 1));
-    builder.append(" v) {\n      ");
+    builder.append(" v) {\n");
+    builder.append(CHECK_NOT_FROZEN);
+    builder.append("      ");
     builder.append(getEnsureName(fieldName));
     builder.append("();\n      ");
     builder.append(fieldName);
@@ -530,7 +548,9 @@ public class DtoImplServerTemplate extends DtoImpl {
   private void emitClear(String fieldName, StringBuilder builder) {
     builder.append("    public void ");
     builder.append(getClearName(fieldName));
-    builder.append("() {\n      ");
+    builder.append("() {\n");
+    builder.append(CHECK_NOT_FROZEN);
+    builder.append("      ");
     builder.append(getEnsureName(fieldName));
     builder.append("();\n      ");
     builder.append(fieldName);
@@ -554,6 +574,63 @@ public class DtoImplServerTemplate extends DtoImpl {
     builder.append("    }\n\n");
   }
 
+  /**
+   * Emits implementation of {@link FreezableDto}. Lists and maps declared in this implementation
+   * are replaced with unmodifiable copies, nested DTOs are frozen, inherited fields are frozen by
+   * the super implementation which also holds the flag.
+   */
+  private void emitFreeze(
+      List<Method> getters, Set<String> superGetterNames, StringBuilder builder) {
+    boolean hasSuperImpl = hasSuperImpl();
+    if (!hasSuperImpl) {
+      builder.append("    protected transient volatile boolean $frozen;\n\n");
+      builder.append("    @Override\n");
+      builder.append("    public boolean isFrozen() {\n");
+      builder.append("      return $frozen;\n");
+      builder.append("    }\n\n");
+      builder.append("    protected void $checkNotFrozen() {\n");
+      builder.append("      if ($frozen) {\n");
+      builder.append("        throw new UnsupportedOperationException(\n");
+      builder.append(
+          "            \"Immutable DTO \" + getClass().getName() + \" can't be modified\");\n");
+      builder.append("      }\n");
+      builder.append("    }\n\n");
+    }
+    builder.append("    @Override\n");
+    builder.append("    public void freeze() {\n");
+    builder.append("      if ($frozen) {\n");
+    builder.append("        return;\n");
+    builder.append("      }\n");
+    Set<String> fieldNames = new HashSet<>();
+    for (Method getter : getters) {
+      String fieldName = getJavaFieldName(getter.getName());
+      if (superGetterNames.contains(getter.getName()) || !fieldNames.add(fieldName)) {
+        continue;
+      }
+      Class<?> type = getter.getReturnType();
+      if (isList(type) || isMap(type)) {
+        builder
+            .append("      this.")
+            .append(fieldName)
+            .append(" = ")
+            .append(FROZEN_DTOS)
+            .append(isList(type) ? ".freezeList(" : ".freezeMap(")
+            .append("this.")
+            .append(fieldName)
+            .append(");\n");
+      } else if (getEnclosingTemplate().isDtoInterface(type)) {
+        builder
+            .append("      ")
+            .append(FROZEN_DTOS)
+            .append(".freezeValue(this.")
+            .append(fieldName)
+            .append(");\n");
+      }
+    }
+    builder.append(hasSuperImpl ? "      super.freeze();\n" : "      $frozen = true;\n");
+    builder.append("    }\n\n");
+  }
+
   private void emitDeepCopyForGetters(
       List<Type> expandedTypes,
       int depth,
@@ -602,7 +679,7 @@ public class DtoImplServerTemplate extends DtoImpl {
       builder.append(i).append("}\n");
     } else if (isAny(rawClass)) {
       builder.append(i).append("this.").append(fieldName).append(" = ");
-      appendNaiveCopyJsonExpression(origin + "." + getterName + "()", builder).append(";\n");
+      appendCopyJsonExpression(origin + "." + getterName + "()", builder).append(";\n");
     } else if (getEnclosingTemplate().isDtoInterface(rawClass)) {
       builder
           .append(i)
@@ -161,6 +161,39 @@ public final class DtoFactory {
     return getInstance().clone(origin);
   }
 
+  /**
+   * Creates immutable deep copy of DTO object. The copy and all the nested DTOs, lists and maps of
+   * it can't be modified, so the copy may be created once and shared between requests and threads.
+   * Use {@link #clone(Object)} to get modifiable copy of such DTO.
+   *
+   * @param origin origin DTO object
+   * @return immutable copy or {@code origin} itself if it is already immutable
+   * @throws IllegalArgumentException if specified object isn't DTO or its implementation doesn't
+   *     support immutable copies
+   * @see FreezableDto
+   */
+  public <T> T snapshot(T origin) {
+    if (origin instanceof FreezableDto && ((FreezableDto) origin).isFrozen()) {
+      return origin;
+    }
+    final T copy = clone(origin);
+    if (!(copy instanceof FreezableDto)) {
+      throw new IllegalArgumentException(
+          "Immutable copy of DTO " + origin.getClass() + " is not supported");
+    }
+    ((FreezableDto) copy).freeze();
+    return copy;
+  }
+
+  /**
+   * Shortcut for {@code DtoFactory.getInstance().snapshot(T dtoObject)}
+   *
+   * @see #snapshot(Object)
+   */
+  public static <T> T snapshotDto(T origin) {
+    return getInstance().snapshot(origin);
+  }
+
   public <T> String toJson(T dto) {
     if (dto instanceof JsonSerializable) {
       return ((JsonSerializable) dto).toJson();
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.dto.server;
+
+/**
+ * DTO implementation which can be made immutable, generated server DTO implementations implement
+ * it. Immutable DTO may be converted once and shared between threads and requests.
+ *
+ * @see DtoFactory#snapshot(Object)
+ */
+public interface FreezableDto {
+
+  /**
+   * Makes this DTO immutable. Nested DTOs are frozen as well, lists and maps are replaced with
+   * unmodifiable copies. Setters, {@code with} methods and modification of returned lists and maps
+   * throw {@link UnsupportedOperationException} after that. Values of 'any' fields are copied when
+   * they are read from frozen DTO.
+   *
+   * <p>Note that nested DTOs are frozen in place, use {@link DtoFactory#snapshot(Object)} to get
+   * immutable copy without affecting the origin DTO.
+   */
+  void freeze();
+
+  /** Returns true if this DTO is immutable. */
+  boolean isFrozen();
+}
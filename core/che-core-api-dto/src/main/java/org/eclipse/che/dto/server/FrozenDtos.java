@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.dto.server;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Support of the generated {@link FreezableDto#freeze()} implementations. */
+public final class FrozenDtos {
+
+  /**
+   * Returns unmodifiable copy of the given list, elements of the list are frozen with {@link
+   * #freezeValue(Object)}. Returns empty list if the given list is null.
+   */
+  public static <T> List<T> freezeList(List<T> list) {
+    if (list == null || list.isEmpty()) {
+      return emptyList();
+    }
+    List<T> copy = new ArrayList<>(list.size());
+    for (T element : list) {
+      copy.add(freezeValue(element));
+    }
+    return unmodifiableList(copy);
+  }
+
+  /**
+   * Returns unmodifiable copy of the given map, values of the map are frozen with {@link
+   * #freezeValue(Object)}. Returns empty map if the given map is null.
+   */
+  public static <V> Map<String, V> freezeMap(Map<String, V> map) {
+    if (map == null || map.isEmpty()) {
+      return emptyMap();
+    }
+    Map<String, V> copy = new LinkedHashMap<>((int) (map.size() / 0.75f) + 1);
+    for (Map.Entry<String, V> entry : map.entrySet()) {
+      copy.put(entry.getKey(), freezeValue(entry.getValue()));
+    }
+    return unmodifiableMap(copy);
+  }
+
+  /**
+   * Freezes DTO and returns it, returns unmodifiable copies of lists and maps, other values are
+   * returned as is.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> T freezeValue(T value) {
+    if (value instanceof FreezableDto) {
+      ((FreezableDto) value).freeze();
+    } else if (value instanceof List) {
+      return (T) freezeList((List<?>) value);
+    } else if (value instanceof Map) {
+      return (T) freezeMap((Map<String, ?>) value);
+    }
+    return value;
+  }
+
+  private FrozenDtos() {}
+}
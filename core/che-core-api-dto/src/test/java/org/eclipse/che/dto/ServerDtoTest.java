@@ -35,6 +35,7 @@ import org.eclipse.che.dto.definitions.model.Model;
 import org.eclipse.che.dto.definitions.model.ModelComponentDto;
 import org.eclipse.che.dto.definitions.model.ModelDto;
 import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.dto.server.FreezableDto;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -183,6 +184,78 @@ public class ServerDtoTest {
     assertEquals(expJson, json);
   }
 
+  @Test
+  public void shouldNotShareAnyValuesWithClone() throws Exception {
+    JsonObject stuff = new JsonObject();
+    stuff.addProperty("name", "value");
+    DtoWithAny dto = dtoFactory.createDto(DtoWithAny.class).withStuff(stuff);
+
+    DtoWithAny copy = dtoFactory.clone(dto);
+    stuff.addProperty("name", "changed");
+
+    JsonObject expected = new JsonObject();
+    expected.addProperty("name", "value");
+    assertEquals(copy.getStuff(), expected);
+  }
+
+  @Test
+  public void shouldCreateImmutableSnapshot() throws Exception {
+    SimpleDto simpleDto = dtoFactory.createDto(SimpleDto.class).withName("name").withId(1);
+    ComplicatedDto dto =
+        dtoFactory
+            .createDto(ComplicatedDto.class)
+            .withStrings(new ArrayList<>(asList("a", "b")))
+            .withSimpleDtos(new ArrayList<>(singletonList(simpleDto)))
+            .withMap(new HashMap<>(singletonMap("key", simpleDto)));
+
+    ComplicatedDto snapshot = dtoFactory.snapshot(dto);
+    String json = dtoFactory.toJson(dto);
+    dto.getStrings().add("c");
+    simpleDto.withName("changed");
+
+    assertTrue(((FreezableDto) snapshot).isFrozen());
+    assertFalse(((FreezableDto) dto).isFrozen());
+    assertEquals(dtoFactory.toJson(snapshot), json);
+    assertTrue(dtoFactory.snapshot(snapshot) == snapshot);
+    assertFalse(((FreezableDto) dtoFactory.clone(snapshot)).isFrozen());
+  }
+
+  @Test(expectedExceptions = UnsupportedOperationException.class)
+  public void shouldNotBeAbleToModifySnapshot() throws Exception {
+    SimpleDto snapshot = dtoFactory.snapshot(dtoFactory.createDto(SimpleDto.class));
+
+    snapshot.withName("name");
+  }
+
+  @Test(expectedExceptions = UnsupportedOperationException.class)
+  public void shouldNotBeAbleToModifyListOfSnapshot() throws Exception {
+    ComplicatedDto snapshot = dtoFactory.snapshot(dtoFactory.createDto(ComplicatedDto.class));
+
+    snapshot.getStrings().add("a");
+  }
+
+  @Test(expectedExceptions = UnsupportedOperationException.class)
+  public void shouldNotBeAbleToModifyNestedDtoOfSnapshot() throws Exception {
+    SimpleDto simpleDto = dtoFactory.createDto(SimpleDto.class);
+    ComplicatedDto snapshot =
+        dtoFactory.snapshot(
+            dtoFactory.createDto(ComplicatedDto.class).withSimpleDtos(singletonList(simpleDto)));
+
+    snapshot.getSimpleDtos().get(0).setDefault("default");
+  }
+
+  @Test
+  public void shouldNotExposeAnyValuesOfSnapshot() throws Exception {
+    JsonObject stuff = new JsonObject();
+    stuff.addProperty("name", "value");
+    DtoWithAny snapshot =
+        dtoFactory.snapshot(dtoFactory.createDto(DtoWithAny.class).withStuff(stuff));
+
+    ((JsonObject) snapshot.getStuff()).addProperty("name", "changed");
+
+    assertEquals(snapshot.getStuff(), stuff);
+  }
+
   @Test
   public void testShadowedFields() throws Exception {
     GrandchildDto dto1 = dtoFactory.createDto(GrandchildDto.class);
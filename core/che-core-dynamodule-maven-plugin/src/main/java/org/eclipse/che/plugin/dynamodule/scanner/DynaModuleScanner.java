@@ -23,9 +23,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Enumeration;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.stream.Stream;
@@ -45,8 +45,8 @@ public class DynaModuleScanner {
 
   private List<UrlTime> times = new ArrayList<>();
 
-  /** List of the classes that are containing DynaModules. */
-  private Set<String> matchingClasses = new HashSet<>();
+  /** List of the classes that are containing DynaModules, sorted to make the index reproducible. */
+  private Set<String> matchingClasses = new TreeSet<>();
 
   private final List<String> skipResources = new ArrayList<>();
 
@@ -125,38 +125,46 @@ public class DynaModuleScanner {
     times.add(new UrlTime(url, (end - start)));
   }
 
-  /** scan the given directory */
+  /**
+   * scan the given directory, all the nested directories are scanned so modules from deep packages
+   * of unpacked wars are also indexed
+   */
   protected void scanDirectory(Path directory) throws IOException {
-    final int maxDepth = 10;
-    Stream<Path> matches =
-        java.nio.file.Files.find(
-            directory, maxDepth, (path, basicFileAttributes) -> path.toString().endsWith(".class"));
-    matches.forEach(
-        file -> {
-          try {
-            scanFile(file);
-          } catch (IOException e) {
-            throw new IllegalStateException("Unable to scan the file", e);
-          }
-        });
-
-    matches =
-        java.nio.file.Files.find(
-            directory, maxDepth, (path, basicFileAttributes) -> path.toString().endsWith(".jar"));
-    matches.forEach(
-        file -> {
-          boolean skip =
-              skipResources.stream().anyMatch(pattern -> file.toString().matches(pattern));
-          if (skip) {
-            LOGGER.debug("skipping jar file {} inside directory {}", file.toFile(), directory);
-          } else {
-            try (JarFile jarFile = new JarFile(file.toFile())) {
-              scanJar(jarFile);
+    try (Stream<Path> matches =
+        Files.find(
+            directory,
+            Integer.MAX_VALUE,
+            (path, basicFileAttributes) -> path.toString().endsWith(".class"))) {
+      matches.forEach(
+          file -> {
+            try {
+              scanFile(file);
             } catch (IOException e) {
               throw new IllegalStateException("Unable to scan the file", e);
             }
-          }
-        });
+          });
+    }
+
+    try (Stream<Path> matches =
+        Files.find(
+            directory,
+            Integer.MAX_VALUE,
+            (path, basicFileAttributes) -> path.toString().endsWith(".jar"))) {
+      matches.forEach(
+          file -> {
+            boolean skip =
+                skipResources.stream().anyMatch(pattern -> file.toString().matches(pattern));
+            if (skip) {
+              LOGGER.debug("skipping jar file {} inside directory {}", file.toFile(), directory);
+            } else {
+              try (JarFile jarFile = new JarFile(file.toFile())) {
+                scanJar(jarFile);
+              } catch (IOException e) {
+                throw new IllegalStateException("Unable to scan the file", e);
+              }
+            }
+          });
+    }
   }
 
   /** scan the given .class file */
@@ -186,7 +194,9 @@ public class DynaModuleScanner {
         if (skip) {
           LOGGER.debug("skipping jar entry from jarFile {}", jarFile);
         } else {
-          scanInputStream(jarFile.getInputStream(jarEntry));
+          try (InputStream is = jarFile.getInputStream(jarEntry)) {
+            scanInputStream(is);
+          }
         }
       }
     }
@@ -10,13 +10,21 @@
  */
 package org.eclipse.che.plugin.dynamodule.scanner;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
+import java.io.InputStream;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import org.eclipse.che.plugin.dynamodule.MyCustomModule;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.Mockito;
 
 /**
@@ -26,6 +34,8 @@ import org.mockito.Mockito;
  */
 public class DynaModuleScannerTest {
 
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
   /**
    * First, check that a file is scanned and then check that if a file is excluded, it is not
    * scanned.
@@ -73,4 +83,26 @@ public class DynaModuleScannerTest {
     dynaModuleScanner.scan(testExcludedUrl);
     verify(dynaModuleScanner, never()).performScan(testExcludedUrl);
   }
+
+  /**
+   * Check that classes of deep packages are found, e.g. WEB-INF/classes of an unpacked war.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void checkScanOfDeepDirectories() throws Exception {
+    Path directory = temporaryFolder.getRoot().toPath();
+    Path classFile = directory.resolve("WEB-INF/classes/a/b/c/d/e/f/g/h/i/j/MyCustomModule.class");
+    Files.createDirectories(classFile.getParent());
+    try (InputStream is = MyCustomModule.class.getResourceAsStream("MyCustomModule.class")) {
+      Files.copy(is, classFile);
+    }
+
+    DynaModuleScanner dynaModuleScanner = new DynaModuleScanner();
+    dynaModuleScanner.scanDirectory(directory);
+
+    assertEquals(
+        Collections.singleton(MyCustomModule.class.getName()),
+        dynaModuleScanner.getDynaModuleClasses());
+  }
 }
@@ -47,6 +47,7 @@ import javax.servlet.ServletContextEvent;
 import org.eclipse.che.inject.lifecycle.DestroyModule;
 import org.eclipse.che.inject.lifecycle.Destroyer;
 import org.eclipse.che.inject.lifecycle.InitModule;
+import org.eclipse.che.inject.lifecycle.StartupProfiler;
 import org.everrest.guice.servlet.EverrestGuiceContextListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -66,6 +67,7 @@ import org.slf4j.LoggerFactory;
  *       (visible as prefixed with "sys.")
  *   <li>Thanks to Everrest integration injects all the properly annotated (see Everrest docs) REST
  *       Resources. Providers and ExceptionMappers and inject necessary dependencies
+ *   <li>Logs the slowest bindings provisioned on start
  * </ul>
  *
  * <p>Configuration properties are bound as a {@code &#064Named}. For example: Following entry in
@@ -117,7 +119,17 @@ public class CheBootstrap extends EverrestGuiceContextListener {
 
   private static final String NULL = "NULL";
 
+  private static final int PROFILE_REPORT_LIMIT = 20;
+
   private final List<Module> modules = new ArrayList<>();
+  private final StartupProfiler startupProfiler = new StartupProfiler();
+
+  @Override
+  public void contextInitialized(ServletContextEvent sce) {
+    super.contextInitialized(sce);
+    LOG.info(startupProfiler.report(PROFILE_REPORT_LIMIT));
+    startupProfiler.stop();
+  }
 
   @Override
   public void contextDestroyed(ServletContextEvent sce) {
@@ -133,6 +145,7 @@ public class CheBootstrap extends EverrestGuiceContextListener {
   protected List<Module> getModules() {
     // based on logic that getServletModule() is called BEFORE getModules() in the
     // EverrestGuiceContextListener
+    modules.add(startupProfiler);
     modules.add(new InitModule(PostConstruct.class));
     modules.add(new DestroyModule(PreDestroy.class, LOG_HANDLER));
     modules.add(new URIConverter());
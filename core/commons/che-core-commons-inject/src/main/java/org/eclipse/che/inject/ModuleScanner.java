@@ -13,7 +13,9 @@ package org.eclipse.che.inject;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.inject.Module;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.ServiceLoader;
 import java.util.Set;
 import javax.servlet.ServletContainerInitializer;
@@ -31,12 +33,35 @@ public class ModuleScanner implements ServletContainerInitializer {
   @VisibleForTesting static final List<Module> modules = new ArrayList<>();
 
   public static List<Module> findModules() {
+    long start = System.currentTimeMillis();
+    // modules found by the servlet container go first, index may list the same module classes
+    Map<Class<?>, Module> found = new LinkedHashMap<>();
+    modules.forEach(module -> found.putIfAbsent(module.getClass(), module));
+    int scanned = found.size();
+
     // also search if classes are provided through service loader mechanism
     // It's useful when the scanning is disabled or ServletContainerInitializer is disabled.
     // onStartup may not be called at all so it's another way of plugging modules.
     ServiceLoader<ModuleFinder> moduleFinderServiceLoader = ServiceLoader.load(ModuleFinder.class);
-    moduleFinderServiceLoader.forEach(moduleFinder -> modules.addAll(moduleFinder.getModules()));
-    return new ArrayList<>(modules);
+    moduleFinderServiceLoader.forEach(
+        moduleFinder ->
+            moduleFinder
+                .getModules()
+                .forEach(module -> found.putIfAbsent(module.getClass(), module)));
+
+    if (scanned > 0) {
+      LOG.warn(
+          "{} modules are found by scanning of the classpath by the servlet container. Startup "
+              + "is faster when modules are listed by che-core-dynamodule-maven-plugin and jar "
+              + "scanning is disabled in META-INF/context.xml",
+          scanned);
+    }
+    LOG.info(
+        "Found {} modules annotated with @{} in {} ms",
+        found.size(),
+        DynaModule.class.getSimpleName(),
+        System.currentTimeMillis() - start);
+    return new ArrayList<>(found.values());
   }
 
   @Override
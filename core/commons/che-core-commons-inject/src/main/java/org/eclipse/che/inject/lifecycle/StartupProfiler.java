@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.inject.lifecycle;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Key;
+import com.google.inject.matcher.Matchers;
+import com.google.inject.spi.ProvisionListener;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures time spent on provisioning of each binding while the application starts.
+ *
+ * <p>Total time of a binding includes provisioning of its dependencies, own time doesn't. Both
+ * include invocation of init methods. Measuring stops on {@link #stop()}.
+ */
+public final class StartupProfiler extends AbstractModule implements ProvisionListener {
+  private final Map<Key<?>, Measurement> measurements = new ConcurrentHashMap<>();
+  /** Time spent on nested provisions of the provisions in progress on the current thread. */
+  private final ThreadLocal<Deque<AtomicLong>> nested = ThreadLocal.withInitial(ArrayDeque::new);
+
+  private volatile boolean stopped;
+
+  @Override
+  protected void configure() {
+    bindListener(Matchers.any(), this);
+  }
+
+  @Override
+  public <T> void onProvision(ProvisionInvocation<T> provision) {
+    if (stopped) {
+      provision.provision();
+      return;
+    }
+    Deque<AtomicLong> stack = nested.get();
+    AtomicLong nestedTime = new AtomicLong();
+    stack.push(nestedTime);
+    long start = System.nanoTime();
+    try {
+      provision.provision();
+    } finally {
+      long total = System.nanoTime() - start;
+      stack.pop();
+      if (!stack.isEmpty()) {
+        stack.peek().addAndGet(total);
+      }
+      measurements
+          .computeIfAbsent(provision.getBinding().getKey(), key -> new Measurement())
+          .add(total, total - nestedTime.get());
+    }
+  }
+
+  /** Stops measuring and forgets collected measurements. */
+  public void stop() {
+    stopped = true;
+    measurements.clear();
+  }
+
+  /**
+   * Returns report which describes bindings with the longest own provisioning time.
+   *
+   * @param limit maximal count of described bindings
+   */
+  public String report(int limit) {
+    StringBuilder report = new StringBuilder("Provisioning of the slowest bindings:");
+    measurements
+        .entrySet()
+        .stream()
+        .sorted(
+            Comparator.comparingLong((Map.Entry<Key<?>, Measurement> e) -> e.getValue().own.get())
+                .reversed())
+        .limit(limit)
+        .forEach(
+            entry ->
+                report
+                    .append("\n  ")
+                    .append(NANOSECONDS.toMillis(entry.getValue().own.get()))
+                    .append(" ms own, ")
+                    .append(NANOSECONDS.toMillis(entry.getValue().total.get()))
+                    .append(" ms total, ")
+                    .append(entry.getValue().count.get())
+                    .append(" time(s): ")
+                    .append(entry.getKey()));
+    return report.toString();
+  }
+
+  private static class Measurement {
+    final AtomicLong count = new AtomicLong();
+    final AtomicLong total = new AtomicLong();
+    final AtomicLong own = new AtomicLong();
+
+    void add(long totalTime, long ownTime) {
+      count.incrementAndGet();
+      total.addAndGet(totalTime);
+      own.addAndGet(ownTime);
+    }
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.commons.xml;
+
+import static java.lang.Character.isWhitespace;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.System.arraycopy;
+
+/**
+ * Gap buffer over xml bytes which is used by {@link XMLTree} while batch is in progress.
+ *
+ * <p>The buffer keeps free space (gap) at the position of the last edit, so a sequence of edits
+ * which are close to each other (e.g. adding a lot of dependencies to the same parent) costs
+ * proportionally to the size of inserted content instead of copying the whole document on each
+ * edit.
+ *
+ * <p>Indexes used by buffer methods are logical indexes, the same as indexes of the array
+ * returned by {@link #toByteArray()}.
+ */
+final class ByteGapBuffer {
+
+  private static final int MIN_GAP_SIZE = 1024;
+
+  private byte[] buffer;
+  private int gapStart;
+  private int gapEnd;
+
+  ByteGapBuffer(byte[] src) {
+    buffer = new byte[src.length + MIN_GAP_SIZE];
+    arraycopy(src, 0, buffer, 0, src.length);
+    gapStart = src.length;
+    gapEnd = buffer.length;
+  }
+
+  /** Returns count of content bytes. */
+  int length() {
+    return buffer.length - (gapEnd - gapStart);
+  }
+
+  /** Returns content byte with given logical index. */
+  byte byteAt(int idx) {
+    return idx < gapStart ? buffer[idx] : buffer[idx + gapEnd - gapStart];
+  }
+
+  /**
+   * Replaces content bytes between left and right anchors(both are included) with given bytes,
+   * behaves the same as {@link XMLTreeUtil#insertBetween(byte[], int, int, String)}.
+   */
+  void replace(int left, int right, byte[] content) {
+    moveGap(left);
+    // removing is just an extension of the gap
+    gapEnd += right - left + 1;
+    insert(left, content);
+  }
+
+  /**
+   * Inserts content bytes at given position, behaves the same as {@link
+   * XMLTreeUtil#insertInto(byte[], int, String)}
+   */
+  void insert(int pos, byte[] content) {
+    moveGap(pos);
+    ensureGap(content.length);
+    arraycopy(content, 0, buffer, gapStart, content.length);
+    gapStart += content.length;
+  }
+
+  /** Same as {@link XMLTreeUtil#lastIndexOf(byte[], char, int)} */
+  int lastIndexOf(char c, int fromIdx) {
+    for (int i = min(fromIdx, length() - 1); i >= 0; i--) {
+      if (byteAt(i) == c) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** Same as {@link XMLTreeUtil#indexOf(byte[], byte[], int)} */
+  int indexOf(byte[] target, int fromIdx) {
+    final int to = length() - target.length + 1;
+    for (int i = fromIdx; i < to; i++) {
+      if (byteAt(i) == target[0]) {
+        boolean equals = true;
+        for (int j = 1, k = i + 1; j < target.length && equals; j++, k++) {
+          if (byteAt(k) != target[j]) {
+            equals = false;
+          }
+        }
+        if (equals) {
+          return i;
+        }
+      }
+    }
+    return -1;
+  }
+
+  /** Same as {@link XMLTreeUtil#indexOfAttributeName(byte[], byte[], int)} */
+  int indexOfAttributeName(byte[] target, int fromIdx) {
+    int idx = indexOf(target, fromIdx);
+    while (idx != -1) {
+      final int next = idx + target.length;
+      if (next == length() || isWhitespace(byteAt(next)) || byteAt(next) == '=') {
+        return idx;
+      }
+      idx = indexOf(target, idx + 1);
+    }
+    return -1;
+  }
+
+  /** Returns copy of content bytes. */
+  byte[] toByteArray() {
+    final byte[] result = new byte[length()];
+    arraycopy(buffer, 0, result, 0, gapStart);
+    arraycopy(buffer, gapEnd, result, gapStart, buffer.length - gapEnd);
+    return result;
+  }
+
+  /** Moves gap so it starts from given logical position. */
+  private void moveGap(int pos) {
+    if (pos < gapStart) {
+      final int count = gapStart - pos;
+      arraycopy(buffer, pos, buffer, gapEnd - count, count);
+      gapStart -= count;
+      gapEnd -= count;
+    } else if (pos > gapStart) {
+      final int count = pos - gapStart;
+      arraycopy(buffer, gapEnd, buffer, gapStart, count);
+      gapStart += count;
+      gapEnd += count;
+    }
+  }
+
+  /** Grows the buffer if gap is smaller than required size. */
+  private void ensureGap(int required) {
+    final int gapSize = gapEnd - gapStart;
+    if (gapSize >= required) {
+      return;
+    }
+    final int newGapSize = max(required, max(MIN_GAP_SIZE, buffer.length / 2));
+    final byte[] newBuffer = new byte[length() + newGapSize];
+    final int tailLength = buffer.length - gapEnd;
+    arraycopy(buffer, 0, newBuffer, 0, gapStart);
+    arraycopy(buffer, gapEnd, newBuffer, newBuffer.length - tailLength, tailLength);
+    gapEnd = newBuffer.length - tailLength;
+    buffer = newBuffer;
+  }
+}
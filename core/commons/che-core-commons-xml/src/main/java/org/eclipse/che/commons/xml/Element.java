@@ -64,6 +64,15 @@ public final class Element {
     return delegate.getTagName();
   }
 
+  /**
+   * Returns tree which this element belongs to
+   *
+   * @return element tree
+   */
+  public XMLTree getTree() {
+    return xmlTree;
+  }
+
   /**
    * Returns local name of element
    *
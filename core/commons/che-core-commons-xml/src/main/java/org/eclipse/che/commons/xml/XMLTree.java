@@ -13,6 +13,7 @@ package org.eclipse.che.commons.xml;
 import static com.google.common.collect.Maps.newHashMapWithExpectedSize;
 import static com.google.common.io.ByteStreams.toByteArray;
 import static java.nio.file.Files.readAllBytes;
+import static java.util.Comparator.comparingInt;
 import static java.util.Objects.requireNonNull;
 import static javax.xml.XMLConstants.FEATURE_SECURE_PROCESSING;
 import static javax.xml.XMLConstants.XML_NS_URI;
@@ -58,6 +59,7 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import javax.xml.namespace.QName;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -154,6 +156,7 @@ public final class XMLTree {
   private static final String ROOT_TEMPLATE =
       "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<%s>\n</%s>";
   private static final int EXPECTED_NAMESPACES_SIZE = 2;
+  private static final int EXPECTED_SHIFTS_SIZE = 64;
 
   /** Factories configuration. */
   static {
@@ -186,6 +189,12 @@ public final class XMLTree {
   private Map<String, String> namespaces;
   private List<Element> elements;
   private byte[] xml;
+  // not null only while batch is in progress, holds actual source bytes
+  private ByteGapBuffer batch;
+  // shifts which are not applied to segments yet, used only while batch is in progress
+  private int[] shiftsFrom;
+  private int[] shiftsOffset;
+  private int shiftsCount;
 
   private XMLTree(byte[] xml) {
     if (xml.length == 0) {
@@ -329,13 +338,91 @@ public final class XMLTree {
     single(getElements(expression)).remove();
   }
 
+  /**
+   * Starts batch of updates. Until {@link #commitBatch()} is called all the updates are applied to
+   * the gap buffer instead of rewriting whole source bytes on each update and positions of existing
+   * elements are shifted lazily - only when element is updated or batch is committed. It makes a
+   * lot of updates (e.g. adding dozens of dependencies to pom.xml) linear instead of quadratic.
+   *
+   * <p>Tree may be used as usual while batch is in progress, the only difference is in the way
+   * source bytes are stored.
+   *
+   * @throws XMLTreeException when batch is already in progress
+   * @see #batch(Consumer)
+   */
+  public void beginBatch() {
+    if (batch != null) {
+      throw new XMLTreeException("Batch is already in progress");
+    }
+    batch = new ByteGapBuffer(xml);
+    shiftsFrom = new int[EXPECTED_SHIFTS_SIZE];
+    shiftsOffset = new int[EXPECTED_SHIFTS_SIZE];
+  }
+
+  /**
+   * Applies all the updates made since {@link #beginBatch()} to the source bytes in a single pass.
+   *
+   * @throws XMLTreeException when batch is not in progress
+   */
+  public void commitBatch() {
+    if (batch == null) {
+      throw new XMLTreeException("Batch is not in progress");
+    }
+    applyShiftsToAllElements();
+    for (Element element : elements) {
+      resetShifts(element);
+    }
+    xml = batch.toByteArray();
+    batch = null;
+    shiftsFrom = null;
+    shiftsOffset = null;
+    shiftsCount = 0;
+  }
+
+  /** Returns {@code true} if batch is in progress, otherwise returns {@code false}. */
+  public boolean isBatchInProgress() {
+    return batch != null;
+  }
+
+  /**
+   * Performs given updates as a single batch. Batch is committed even if updates fail, so the tree
+   * stays consistent with the updates applied before the failure. If batch is already in progress
+   * updates become a part of it.
+   *
+   * <pre>
+   *     For example:
+   *
+   *     tree.batch(t -> {
+   *         for (NewElement dependency : dependencies) {
+   *             t.appendChild("/project/dependencies", dependency);
+   *         }
+   *     });
+   * </pre>
+   *
+   * @param updates updates to perform
+   * @see #beginBatch()
+   */
+  public void batch(Consumer<XMLTree> updates) {
+    if (batch != null) {
+      updates.accept(this);
+      return;
+    }
+    beginBatch();
+    try {
+      updates.accept(this);
+    } finally {
+      commitBatch();
+    }
+  }
+
   /** Returns copy of source bytes. TODO: write replacement explanation */
   public byte[] getBytes() {
+    final byte[] src = batch != null ? batch.toByteArray() : xml;
     final String separator = System.getProperty("line.separator");
     if (!"\n".equals(separator)) {
-      return replaceAll(xml, "\n".getBytes(), separator.getBytes());
+      return replaceAll(src, "\n".getBytes(), separator.getBytes());
     }
-    return Arrays.copyOf(xml, xml.length);
+    return src == xml ? Arrays.copyOf(xml, xml.length) : src;
   }
 
   /** Writes copy of source bytes to output stream. Doesn't close the stream */
@@ -592,12 +679,13 @@ public final class XMLTree {
    * otherwise only first text segment will be used for update, other text segments will be removed.
    */
   void updateText(Element target) {
+    applyShifts(target);
     // it may be null when target element doesn't contain
     // text <element></element> so CHARACTERS event was not processed
     if (target.text == null) {
       target.text = new LinkedList<>();
       // updateSegmentContent will set up right bound
-      target.text.add(new Segment(target.start.right + 1, target.start.right));
+      target.text.add(newSegment(target.start.right + 1, target.start.right));
     }
     final Iterator<Segment> segIt = target.text.iterator();
     final Segment first = segIt.next();
@@ -611,19 +699,20 @@ public final class XMLTree {
   }
 
   void updateAttributeValue(Attribute attribute, String oldValue) {
+    applyShifts(attribute.getElement());
     final Segment segment = valueSegment(attribute, oldValue);
     updateSegmentContent(segment, attribute.getValue());
   }
 
   /** Adds new element to the end of children list with given parent. */
   void appendChild(NewElement newElement, Element relatedToNew, Element parent) {
+    applyShifts(parent);
     final int level = level(parent) + 1;
-    final int lengthBefore = xml.length;
-    final int insertHere = lastIndexOf(xml, '>', parent.end.left) + 1;
+    final int insertHere = lastIndexOfSource('>', parent.end.left) + 1;
     // inserting new element bytes to tree bytes
-    xml = insertInto(xml, insertHere, '\n' + tabulate(newElement.asString(), level));
+    final int offset = insertIntoSource(insertHere, '\n' + tabulate(newElement.asString(), level));
     // shift existing segments which are after parent start
-    shiftSegments(insertHere, xml.length - lengthBefore);
+    shiftSegments(insertHere, offset);
     // create and set up start, end, text segments to created element
     applySegments(newElement, relatedToNew, insertHere - 1, level);
     // let tree know about added element
@@ -632,12 +721,13 @@ public final class XMLTree {
 
   /** Inserts element after referenced one */
   void insertAfter(NewElement newElement, Element relatedToNew, Element refElement) {
+    applyShifts(refElement);
     final int level = level(refElement);
-    final int lengthBefore = xml.length;
     // inserting new element bytes to tree bytes
-    xml = insertInto(xml, refElement.end.right + 1, '\n' + tabulate(newElement.asString(), level));
+    final int offset =
+        insertIntoSource(refElement.end.right + 1, '\n' + tabulate(newElement.asString(), level));
     // shift existing segments which are after parent start
-    shiftSegments(refElement.end.right, xml.length - lengthBefore);
+    shiftSegments(refElement.end.right, offset);
     // create and set up start, end, text segments to created element
     // +1 because of \n
     applySegments(newElement, relatedToNew, refElement.end.right, level);
@@ -651,12 +741,13 @@ public final class XMLTree {
    * sibling or after element parent if element doesn't have previous sibling
    */
   void insertAfterParent(NewElement newElement, Element relatedToNew, Element parent) {
+    applyShifts(parent);
     final int level = level(parent) + 1;
-    final int lengthBefore = xml.length;
     // inserting after parent
-    xml = insertInto(xml, parent.start.right + 1, '\n' + tabulate(newElement.asString(), level));
+    final int offset =
+        insertIntoSource(parent.start.right + 1, '\n' + tabulate(newElement.asString(), level));
     // shift existing segments which are after parent start
-    shiftSegments(parent.start.right, xml.length - lengthBefore);
+    shiftSegments(parent.start.right, offset);
     // create and set up start, end, text segments to created element
     applySegments(newElement, relatedToNew, parent.start.right, level);
     // let tree know about inserted element
@@ -687,39 +778,40 @@ public final class XMLTree {
    * because it will produce not pretty formatting for good and pretty formatted before document.
    */
   void removeElement(Element element) {
-    final int leftBound = lastIndexOf(xml, '>', element.start.left) + 1;
-    final int lengthBefore = xml.length;
+    applyShifts(element);
+    applyShifts(element.getParent());
+    final int leftBound = lastIndexOfSource('>', element.start.left) + 1;
     // if text segment before removal element
     // exists it should go to hell with removal
     if (leftBound != element.start.left - 1) {
       removeSegmentFromElement(element.getParent(), leftBound);
     }
     // replacing content with nothing
-    xml = insertBetween(xml, leftBound, element.end.right, "");
+    final int offset = insertBetweenSource(leftBound, element.end.right, "");
     // shift all elements which are right from removed element
-    shiftSegments(element.end.right, xml.length - lengthBefore);
+    shiftSegments(element.end.right, offset);
     // let tree know that element is not a family member
     unregisterElement(element);
   }
 
   /** Inserts new attribute value content to tree bytes */
   void insertAttribute(NewAttribute attribute, Element owner) {
-    final int len = xml.length;
+    applyShifts(owner);
     // inserting new attribute content
-    xml = insertInto(xml, owner.start.right, ' ' + attribute.asString());
+    final int offset = insertIntoSource(owner.start.right, ' ' + attribute.asString());
     // shift all elements which are right from removed element
-    shiftSegments(owner.start.left - 1, xml.length - len);
+    shiftSegments(owner.start.left - 1, offset);
   }
 
   /** Removes element bytes from tree */
   void removeAttribute(Attribute attribute) {
     final Element element = attribute.getElement();
-    final int lengthBefore = xml.length;
+    applyShifts(element);
     final Segment segment = attributeSegment(attribute);
     // replacing attribute segment with nothing
-    xml = insertBetween(xml, segment.left - 1, segment.right, "");
+    final int offset = insertBetweenSource(segment.left - 1, segment.right, "");
     // shift all elements which are left from owner left
-    shiftSegments(element.start.left, xml.length - lengthBefore);
+    shiftSegments(element.start.left, offset);
   }
 
   // TODO should it be public?
@@ -757,8 +849,23 @@ public final class XMLTree {
     }
   }
 
-  /** Iterates all existed elements and shifts their segments if needed */
+  /**
+   * Iterates all existed elements and shifts their segments if needed. While batch is in progress
+   * shift is only remembered and applied to element segments later.
+   *
+   * @see #applyShifts(Element)
+   */
   private void shiftSegments(int fromIdx, int offset) {
+    if (batch != null) {
+      if (shiftsCount == shiftsFrom.length) {
+        shiftsFrom = Arrays.copyOf(shiftsFrom, shiftsCount * 2);
+        shiftsOffset = Arrays.copyOf(shiftsOffset, shiftsCount * 2);
+      }
+      shiftsFrom[shiftsCount] = fromIdx;
+      shiftsOffset[shiftsCount] = offset;
+      shiftsCount++;
+      return;
+    }
     for (Element element : elements) {
       if (element.end.left > fromIdx) {
         shiftSegment(element.start, fromIdx, offset);
@@ -772,14 +879,136 @@ public final class XMLTree {
     }
   }
 
+  /**
+   * Applies shifts remembered while batch is in progress to element segments, so the element
+   * positions become actual. Each segment knows how many shifts were already applied to it, so
+   * the only missed shifts are applied. Does nothing if batch is not in progress.
+   */
+  private void applyShifts(Element element) {
+    if (batch == null || element == null) {
+      return;
+    }
+    applyShifts(element.start);
+    if (element.end != element.start) {
+      applyShifts(element.end);
+    }
+    if (element.text != null) {
+      for (Segment textSegment : element.text) {
+        applyShifts(textSegment);
+      }
+    }
+  }
+
+  /**
+   * Applies shifts remembered while batch is in progress to segments of all the elements.
+   *
+   * <p>Segments which weren't touched while batch is in progress have positions of the moment the
+   * batch was started and keep their order, so each shift moves a suffix of these segments sorted
+   * by position. Instead of applying each shift to each segment, the segments are sorted once, the
+   * first shifted segment is found by binary search for each shift and its offset is added to a
+   * tree of prefix sums, so the offset of a segment is the prefix sum at its index. Touched
+   * segments (there are usually few of them) have the missed shifts applied one by one.
+   */
+  private void applyShiftsToAllElements() {
+    final List<Segment> untouched = new ArrayList<>();
+    for (Element element : elements) {
+      collectUntouched(element.start, untouched);
+      if (element.end != element.start) {
+        collectUntouched(element.end, untouched);
+      }
+      if (element.text != null) {
+        for (Segment textSegment : element.text) {
+          collectUntouched(textSegment, untouched);
+        }
+      }
+    }
+    untouched.sort(comparingInt(segment -> segment.left));
+
+    // Fenwick tree, prefix sum at index i is the offset of i-th untouched segment
+    final int[] offsets = new int[untouched.size() + 1];
+    for (int i = 0; i < shiftsCount; i++) {
+      final int first = firstShifted(untouched, offsets, shiftsFrom[i]);
+      for (int idx = first + 1; idx < offsets.length; idx += idx & -idx) {
+        offsets[idx] += shiftsOffset[i];
+      }
+    }
+    for (int i = 0; i < untouched.size(); i++) {
+      final Segment segment = untouched.get(i);
+      final int offset = offsetOf(offsets, i);
+      segment.left += offset;
+      segment.right += offset;
+      segment.shifts = shiftsCount;
+    }
+  }
+
+  private void collectUntouched(Segment segment, List<Segment> untouched) {
+    if (segment.shifts == 0) {
+      untouched.add(segment);
+    } else {
+      applyShifts(segment);
+    }
+  }
+
+  /** Returns index of the first segment which left bound is greater than given index. */
+  private static int firstShifted(List<Segment> sorted, int[] offsets, int fromIdx) {
+    int low = 0;
+    int high = sorted.size();
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (sorted.get(mid).left + offsetOf(offsets, mid) > fromIdx) {
+        high = mid;
+      } else {
+        low = mid + 1;
+      }
+    }
+    return low;
+  }
+
+  /** Returns prefix sum of the Fenwick tree of offsets at given index. */
+  private static int offsetOf(int[] offsets, int index) {
+    int offset = 0;
+    for (int idx = index + 1; idx > 0; idx -= idx & -idx) {
+      offset += offsets[idx];
+    }
+    return offset;
+  }
+
+  private void applyShifts(Segment segment) {
+    for (int i = segment.shifts; i < shiftsCount; i++) {
+      if (segment.left > shiftsFrom[i]) {
+        segment.left += shiftsOffset[i];
+        segment.right += shiftsOffset[i];
+      }
+    }
+    segment.shifts = shiftsCount;
+  }
+
+  private void resetShifts(Element element) {
+    element.start.shifts = 0;
+    element.end.shifts = 0;
+    if (element.text != null) {
+      for (Segment textSegment : element.text) {
+        textSegment.shifts = 0;
+      }
+    }
+  }
+
+  /**
+   * Creates segment with actual positions, if batch is in progress segment is marked as the one
+   * which has all the remembered shifts applied.
+   */
+  private Segment newSegment(int left, int right) {
+    final Segment segment = new Segment(left, right);
+    segment.shifts = shiftsCount;
+    return segment;
+  }
+
   /**
    * Removes given segment from source bytes and shifts segments left on offset equal to removal
    * segment length
    */
   private void removeSegment(Segment segment) {
-    final int lengthBefore = xml.length;
-    xml = insertBetween(xml, segment.left, segment.right, "");
-    shiftSegments(segment.left, xml.length - lengthBefore);
+    shiftSegments(segment.left, insertBetweenSource(segment.left, segment.right, ""));
   }
 
   /**
@@ -787,12 +1016,59 @@ public final class XMLTree {
    * to difference between new and old source bytes length
    */
   private void updateSegmentContent(Segment segment, String content) {
-    final int lengthBefore = xml.length;
-    xml = insertBetween(xml, segment.left, segment.right, content);
-    shiftSegments(segment.left, xml.length - lengthBefore);
+    shiftSegments(segment.left, insertBetweenSource(segment.left, segment.right, content));
     segment.right = segment.left + content.length() - 1;
   }
 
+  /**
+   * Inserts content into source bytes, uses batch buffer if batch is in progress.
+   *
+   * @return difference between new and old source bytes length
+   * @see XMLTreeUtil#insertInto(byte[], int, String)
+   */
+  private int insertIntoSource(int pos, String content) {
+    if (batch != null) {
+      final byte[] contentSrc = content.getBytes(UTF_8);
+      batch.insert(pos, contentSrc);
+      return contentSrc.length;
+    }
+    final int lengthBefore = xml.length;
+    xml = insertInto(xml, pos, content);
+    return xml.length - lengthBefore;
+  }
+
+  /**
+   * Replaces source bytes between left and right anchors with content, uses batch buffer if batch
+   * is in progress.
+   *
+   * @return difference between new and old source bytes length
+   * @see XMLTreeUtil#insertBetween(byte[], int, int, String)
+   */
+  private int insertBetweenSource(int left, int right, String content) {
+    if (batch != null) {
+      final byte[] contentSrc = content.getBytes(UTF_8);
+      batch.replace(left, right, contentSrc);
+      return contentSrc.length - (right - left + 1);
+    }
+    final int lengthBefore = xml.length;
+    xml = insertBetween(xml, left, right, content);
+    return xml.length - lengthBefore;
+  }
+
+  private int lastIndexOfSource(char c, int fromIdx) {
+    return batch != null ? batch.lastIndexOf(c, fromIdx) : lastIndexOf(xml, c, fromIdx);
+  }
+
+  private int indexOfSource(byte[] target, int fromIdx) {
+    return batch != null ? batch.indexOf(target, fromIdx) : indexOf(xml, target, fromIdx);
+  }
+
+  private int indexOfAttributeNameInSource(byte[] target, int fromIdx) {
+    return batch != null
+        ? batch.indexOfAttributeName(target, fromIdx)
+        : indexOfAttributeName(xml, target, fromIdx);
+  }
+
   /** Adds element and it children to tree */
   private void registerElement(Element element) {
     elements.add(element);
@@ -817,10 +1093,10 @@ public final class XMLTree {
     final byte[] value = attribute.getValue().getBytes();
 
     final int attrLeft =
-        indexOfAttributeName(xml, name, owner.start.left + owner.getName().length());
-    final int valueLeft = indexOf(xml, value, attrLeft + name.length);
+        indexOfAttributeNameInSource(name, owner.start.left + owner.getName().length());
+    final int valueLeft = indexOfSource(value, attrLeft + name.length);
 
-    return new Segment(attrLeft, valueLeft + value.length);
+    return newSegment(attrLeft, valueLeft + value.length);
   }
 
   /** Retrieves attribute value segment */
@@ -831,10 +1107,10 @@ public final class XMLTree {
     final byte[] value = oldValue.getBytes();
 
     final int attrLeft =
-        indexOfAttributeName(xml, name, owner.start.left + owner.getName().length());
-    final int valueLeft = indexOf(xml, value, attrLeft + name.length);
+        indexOfAttributeNameInSource(name, owner.start.left + owner.getName().length());
+    final int valueLeft = indexOfSource(value, attrLeft + name.length);
 
-    return new Segment(valueLeft, valueLeft + value.length - 1);
+    return newSegment(valueLeft, valueLeft + value.length - 1);
   }
 
   /** Creates segments for newly created element and related children */
@@ -862,12 +1138,12 @@ public final class XMLTree {
     if (parent.text == null) {
       parent.text = new LinkedList<>();
     }
-    parent.text.add(new Segment(prevElementCloseRight + 1, beforeOpenLeft));
+    parent.text.add(newSegment(prevElementCloseRight + 1, beforeOpenLeft));
 
     // pos of open tag right '>'
     final int openRight = beforeOpenLeft + openTagLength(newElement);
 
-    relatedToNew.start = new Segment(beforeOpenLeft + 1, openRight);
+    relatedToNew.start = newSegment(beforeOpenLeft + 1, openRight);
     // if element is void it doesn't have children and text
     // and it has same start and end so we can initialize
     // only start and end segments
@@ -899,9 +1175,9 @@ public final class XMLTree {
     } else {
       beforeCloseLeft = childRight + newElement.getText().length();
     }
-    relatedToNew.text.add(new Segment(childRight + 1, beforeCloseLeft));
+    relatedToNew.text.add(newSegment(childRight + 1, beforeCloseLeft));
     relatedToNew.end =
-        new Segment(beforeCloseLeft + 1, beforeCloseLeft + closeTagLength(newElement));
+        newSegment(beforeCloseLeft + 1, beforeCloseLeft + closeTagLength(newElement));
     return relatedToNew.end.right;
   }
 
@@ -920,6 +1196,8 @@ public final class XMLTree {
   static class Segment {
     int left;
     int right;
+    // count of batch shifts which are already applied to this segment
+    int shifts;
 
     Segment(int left, int right) {
       this.left = left;
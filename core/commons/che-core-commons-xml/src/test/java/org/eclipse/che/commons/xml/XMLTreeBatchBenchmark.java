@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.commons.xml;
+
+import static org.eclipse.che.commons.xml.NewElement.createElement;
+
+/**
+ * Compares plain and batched {@link XMLTree} updates over large generated pom.xml. It is not a
+ * part of test suite and should be launched manually, e.g.
+ *
+ * <pre>
+ *     java -cp ... org.eclipse.che.commons.xml.XMLTreeBatchBenchmark 3000 2000
+ * </pre>
+ *
+ * where the first argument is count of existing dependencies and plugins in generated pom.xml and
+ * the second one is count of dependencies which are going to be added.
+ */
+public class XMLTreeBatchBenchmark {
+
+  private static final int WARM_UP_ITERATIONS = 3;
+  private static final int ITERATIONS = 5;
+
+  public static void main(String[] args) {
+    final int existing = args.length > 0 ? Integer.parseInt(args[0]) : 3000;
+    final int added = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+    final String pom = generatePom(existing);
+
+    for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+      plain(pom, added);
+      batched(pom, added);
+    }
+
+    long plainTotal = 0;
+    long batchedTotal = 0;
+    for (int i = 0; i < ITERATIONS; i++) {
+      plainTotal += plain(pom, added);
+      batchedTotal += batched(pom, added);
+    }
+
+    System.out.printf(
+        "pom size: %d bytes, added dependencies: %d%nplain:   %d ms%nbatched: %d ms%n",
+        pom.length(),
+        added,
+        plainTotal / ITERATIONS / 1_000_000,
+        batchedTotal / ITERATIONS / 1_000_000);
+  }
+
+  private static long plain(String pom, int added) {
+    final XMLTree tree = XMLTree.from(pom);
+    final long start = System.nanoTime();
+    addDependencies(tree, added);
+    tree.getBytes();
+    return System.nanoTime() - start;
+  }
+
+  private static long batched(String pom, int added) {
+    final XMLTree tree = XMLTree.from(pom);
+    final long start = System.nanoTime();
+    tree.batch(t -> addDependencies(t, added));
+    tree.getBytes();
+    return System.nanoTime() - start;
+  }
+
+  private static void addDependencies(XMLTree tree, int count) {
+    final Element dependencies = tree.getSingleElement("/project/dependencies");
+    for (int i = 0; i < count; i++) {
+      dependencies.appendChild(
+          createElement(
+              "dependency",
+              createElement("groupId", "added.group" + i),
+              createElement("artifactId", "added-artifact" + i),
+              createElement("version", "1.0")));
+    }
+  }
+
+  private static String generatePom(int count) {
+    final StringBuilder sb = new StringBuilder();
+    sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+        .append("<project>\n")
+        .append("    <modelVersion>4.0.0</modelVersion>\n")
+        .append("    <dependencies>\n");
+    for (int i = 0; i < count; i++) {
+      sb.append("        <dependency>\n")
+          .append("            <groupId>group")
+          .append(i)
+          .append("</groupId>\n")
+          .append("            <artifactId>artifact")
+          .append(i)
+          .append("</artifactId>\n")
+          .append("        </dependency>\n");
+    }
+    sb.append("    </dependencies>\n").append("    <build>\n").append("        <plugins>\n");
+    for (int i = 0; i < count; i++) {
+      sb.append("            <plugin>\n")
+          .append("                <artifactId>plugin")
+          .append(i)
+          .append("</artifactId>\n")
+          .append("            </plugin>\n");
+    }
+    return sb.append("        </plugins>\n")
+        .append("    </build>\n")
+        .append("</project>\n")
+        .toString();
+  }
+}
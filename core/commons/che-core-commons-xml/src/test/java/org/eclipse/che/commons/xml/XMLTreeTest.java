@@ -1901,6 +1901,95 @@ public class XMLTreeTest {
         tree.toString(), "<parent \r\n\r\n\r\n attr1=\"v\"><child>new text</child></parent>");
   }
 
+  @Test
+  public void shouldProduceSameContentWhenUpdatesAreBatched() {
+    final XMLTree plainTree = XMLTree.from(XML_CONTENT);
+    final XMLTree batchedTree = XMLTree.from(XML_CONTENT);
+
+    updateDependencies(plainTree);
+    batchedTree.batch(XMLTreeTest::updateDependencies);
+
+    assertFalse(batchedTree.isBatchInProgress());
+    assertEquals(batchedTree.toString(), plainTree.toString());
+    assertEquals(XMLTree.from(batchedTree.getBytes()).toString(), plainTree.toString());
+  }
+
+  @Test
+  public void shouldProduceSameContentWhenRemovalsAndUpdatesAreBatched() {
+    final XMLTree plainTree = XMLTree.from(XML_CONTENT);
+    final XMLTree batchedTree = XMLTree.from(XML_CONTENT);
+
+    removeAndUpdateElements(plainTree);
+    batchedTree.batch(XMLTreeTest::removeAndUpdateElements);
+
+    assertEquals(batchedTree.toString(), plainTree.toString());
+    assertEquals(batchedTree.getSingleText("/project/name"), "Updated name");
+    assertEquals(XMLTree.from(batchedTree.getBytes()).toString(), plainTree.toString());
+  }
+
+  @Test
+  public void shouldBeAbleToUseTreeWhileBatchIsInProgress() {
+    final XMLTree tree = XMLTree.from(XML_CONTENT);
+
+    tree.beginBatch();
+    tree.updateText("/project/name", "new name");
+    tree.getSingleElement("/project/configuration/items").setAttribute("combine.children", "merge");
+
+    assertTrue(tree.isBatchInProgress());
+    assertEquals(tree.getSingleText("/project/name"), "new name");
+    assertTrue(tree.toString().contains("<name>new name</name>"));
+    assertTrue(tree.toString().contains("<items combine.children=\"merge\">"));
+
+    tree.commitBatch();
+    tree.updateText("/project/artifactId", "new-artifact");
+
+    assertTrue(tree.toString().contains("<name>new name</name>"));
+    assertTrue(tree.toString().contains("<artifactId>new-artifact</artifactId>"));
+  }
+
+  @Test(expectedExceptions = XMLTreeException.class)
+  public void shouldThrowExceptionWhenCommittingBatchWhichIsNotInProgress() {
+    XMLTree.from(XML_CONTENT).commitBatch();
+  }
+
+  @Test(expectedExceptions = XMLTreeException.class)
+  public void shouldThrowExceptionWhenBatchIsAlreadyInProgress() {
+    final XMLTree tree = XMLTree.from(XML_CONTENT);
+    tree.beginBatch();
+    tree.beginBatch();
+  }
+
+  private static void removeAndUpdateElements(XMLTree tree) {
+    tree.updateText("/project/artifactId", "updated-artifact-id");
+    tree.removeElement("/project/dependencies/dependency[2]");
+    tree.getSingleElement("/project/configuration/items").setAttribute("combine.children", "x");
+    tree.removeElement("/project/parent/version");
+    tree.getSingleElement("/project/dependencies")
+        .appendChild(NewElement.createElement("dependency", NewElement.createElement("a", "b")));
+    tree.updateText("/project/name", "Updated name");
+    tree.removeElement("/project/configuration/items/item[1]");
+  }
+
+  private static void updateDependencies(XMLTree tree) {
+    final Element dependencies = tree.getSingleElement("/project/dependencies");
+    for (int i = 0; i < 50; i++) {
+      dependencies.appendChild(
+          NewElement.createElement(
+              "dependency",
+              NewElement.createElement("groupId", "group-" + i),
+              NewElement.createElement("artifactId", "artifact-" + i)));
+    }
+    tree.getSingleElement("/project/dependencies/dependency[1]")
+        .insertBefore(
+            NewElement.createElement(
+                "dependency", NewElement.createElement("artifactId", "first")));
+    tree.getSingleElement("/project/dependencies/dependency[3]").remove();
+    tree.updateText("/project/dependencies/dependency[last()]/artifactId", "last");
+    tree.getSingleElement("/project/configuration/items").setAttribute("combine.children", "merge");
+    tree.getSingleElement("/project/configuration/properties").removeAttribute("combine.self");
+    tree.updateText("/project/name", "name updated after dependencies");
+  }
+
   @Test(dataProvider = "custom-xml-files")
   public void shouldBeAbleToCreateTreeFromCustomXML(File xml) throws IOException {
     // should be able to parse file
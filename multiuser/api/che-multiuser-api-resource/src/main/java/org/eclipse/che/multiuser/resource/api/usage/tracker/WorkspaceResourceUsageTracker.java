@@ -10,17 +10,13 @@
  */
 package org.eclipse.che.multiuser.resource.api.usage.tracker;
 
-import java.util.List;
 import java.util.Optional;
 import javax.inject.Inject;
-import javax.inject.Provider;
 import javax.inject.Singleton;
 import org.eclipse.che.account.api.AccountManager;
 import org.eclipse.che.account.shared.model.Account;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
-import org.eclipse.che.api.workspace.server.WorkspaceManager;
-import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
 import org.eclipse.che.multiuser.resource.api.ResourceUsageTracker;
 import org.eclipse.che.multiuser.resource.api.type.WorkspaceResourceType;
 import org.eclipse.che.multiuser.resource.model.Resource;
@@ -33,13 +29,13 @@ import org.eclipse.che.multiuser.resource.spi.impl.ResourceImpl;
  */
 @Singleton
 public class WorkspaceResourceUsageTracker implements ResourceUsageTracker {
-  private final Provider<WorkspaceManager> workspaceManagerProvider;
+  private final WorkspaceUsageCounters usageCounters;
   private final AccountManager accountManager;
 
   @Inject
   public WorkspaceResourceUsageTracker(
-      Provider<WorkspaceManager> workspaceManagerProvider, AccountManager accountManager) {
-    this.workspaceManagerProvider = workspaceManagerProvider;
+      WorkspaceUsageCounters usageCounters, AccountManager accountManager) {
+    this.usageCounters = usageCounters;
     this.accountManager = accountManager;
   }
 
@@ -47,12 +43,10 @@ public class WorkspaceResourceUsageTracker implements ResourceUsageTracker {
   public Optional<Resource> getUsedResource(String accountId)
       throws NotFoundException, ServerException {
     final Account account = accountManager.getById(accountId);
-    final List<WorkspaceImpl> accountWorkspaces =
-        workspaceManagerProvider.get().getByNamespace(account.getName(), false);
-    if (!accountWorkspaces.isEmpty()) {
+    final long usedWorkspaces = usageCounters.getWorkspaces(account.getName());
+    if (usedWorkspaces > 0) {
       return Optional.of(
-          new ResourceImpl(
-              WorkspaceResourceType.ID, accountWorkspaces.size(), WorkspaceResourceType.UNIT));
+          new ResourceImpl(WorkspaceResourceType.ID, usedWorkspaces, WorkspaceResourceType.UNIT));
     } else {
       return Optional.empty();
     }
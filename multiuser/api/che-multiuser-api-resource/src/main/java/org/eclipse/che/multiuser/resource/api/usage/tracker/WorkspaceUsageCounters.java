@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.resource.api.usage.tracker;
+
+import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.STARTING;
+import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.STOPPED;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.model.workspace.Workspace;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.notification.EventSubscriber;
+import org.eclipse.che.api.machine.shared.dto.event.MachineStatusEvent;
+import org.eclipse.che.api.workspace.server.WorkspaceManager;
+import org.eclipse.che.api.workspace.server.event.WorkspaceCreatedEvent;
+import org.eclipse.che.api.workspace.server.event.WorkspaceRemovedEvent;
+import org.eclipse.che.api.workspace.server.model.impl.EnvironmentImpl;
+import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
+import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceStatusEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps per namespace counters of workspaces, running workspaces and RAM used by running
+ * workspaces.
+ *
+ * <p>Counters of the namespace are loaded from the database on the first request and then are
+ * updated from workspace lifecycle events, so usage checks don't need to load all the workspaces
+ * of the namespace each time. Loaded counters are reconciled with the database by reloading them
+ * on the first request after the reconciliation period expires.
+ *
+ * <p>Events that can't be applied to loaded counters (e.g. events of the namespace which is being
+ * loaded at the moment) make counters of that namespace which are loaded concurrently stale, such
+ * counters are returned to the caller but are not cached. Status events of the workspaces which
+ * namespace is not known make stale all the counters loaded at the moment.
+ */
+@Singleton
+public class WorkspaceUsageCounters {
+  private static final Logger LOG = LoggerFactory.getLogger(WorkspaceUsageCounters.class);
+
+  private final Provider<WorkspaceManager> workspaceManagerProvider;
+  private final EnvironmentRamCalculator environmentRamCalculator;
+  private final EventService eventService;
+  private final long reconciliationPeriodMs;
+
+  private final ConcurrentMap<String, NamespaceUsage> namespaces;
+  private final ConcurrentMap<String, String> workspaceNamespaces;
+  private final Set<Loading> loadings;
+
+  private final EventSubscriber<WorkspaceCreatedEvent> createdSubscriber;
+  private final EventSubscriber<WorkspaceRemovedEvent> removedSubscriber;
+  private final EventSubscriber<WorkspaceStatusEvent> statusSubscriber;
+  private final EventSubscriber<MachineStatusEvent> machineStatusSubscriber;
+
+  @Inject
+  public WorkspaceUsageCounters(
+      Provider<WorkspaceManager> workspaceManagerProvider,
+      EnvironmentRamCalculator environmentRamCalculator,
+      EventService eventService,
+      @Named("che.limits.workspace.usage.reconciliation_period_s") long reconciliationPeriod) {
+    this.workspaceManagerProvider = workspaceManagerProvider;
+    this.environmentRamCalculator = environmentRamCalculator;
+    this.eventService = eventService;
+    this.reconciliationPeriodMs = TimeUnit.SECONDS.toMillis(reconciliationPeriod);
+    this.namespaces = new ConcurrentHashMap<>();
+    this.workspaceNamespaces = new ConcurrentHashMap<>();
+    this.loadings = ConcurrentHashMap.newKeySet();
+    this.createdSubscriber = event -> onCreated(event.getWorkspace());
+    this.removedSubscriber = event -> onRemoved(event.getWorkspace());
+    this.statusSubscriber =
+        event -> {
+          if (event.getStatus() != null) {
+            onStatusChanged(event.getWorkspaceId(), event.getStatus() == STOPPED);
+          }
+        };
+    this.machineStatusSubscriber =
+        event -> {
+          switch (event.getEventType()) {
+            case RUNNING:
+            case DESTROYED:
+              onStatusChanged(event.getWorkspaceId(), false);
+              break;
+            default:
+              // do nothing
+          }
+        };
+  }
+
+  @PostConstruct
+  void subscribe() {
+    eventService.subscribe(createdSubscriber, WorkspaceCreatedEvent.class);
+    eventService.subscribe(removedSubscriber, WorkspaceRemovedEvent.class);
+    eventService.subscribe(statusSubscriber, WorkspaceStatusEvent.class);
+    eventService.subscribe(machineStatusSubscriber, MachineStatusEvent.class);
+  }
+
+  @PreDestroy
+  void unsubscribe() {
+    eventService.unsubscribe(createdSubscriber, WorkspaceCreatedEvent.class);
+    eventService.unsubscribe(removedSubscriber, WorkspaceRemovedEvent.class);
+    eventService.unsubscribe(statusSubscriber, WorkspaceStatusEvent.class);
+    eventService.unsubscribe(machineStatusSubscriber, MachineStatusEvent.class);
+  }
+
+  /** Returns count of workspaces in the given namespace. */
+  public long getWorkspaces(String namespace) throws ServerException {
+    return getUsage(namespace).getWorkspaces();
+  }
+
+  /** Returns count of not stopped workspaces in the given namespace. */
+  public long getRuntimes(String namespace) throws ServerException {
+    return getUsage(namespace).getRuntimes();
+  }
+
+  /** Returns amount of RAM in megabytes used by not stopped workspaces in the given namespace. */
+  public long getRam(String namespace) throws ServerException {
+    return getUsage(namespace).getRam();
+  }
+
+  private NamespaceUsage getUsage(String namespace) throws ServerException {
+    final NamespaceUsage cached = namespaces.get(namespace);
+    if (cached != null) {
+      if (System.currentTimeMillis() - cached.loaded < reconciliationPeriodMs) {
+        return cached;
+      }
+      // events which come while counters are reloaded must not be applied to the outdated ones
+      namespaces.remove(namespace, cached);
+    }
+
+    final Loading loading = new Loading(namespace);
+    loadings.add(loading);
+    try {
+      final NamespaceUsage loaded = load(namespace);
+      if (loading.stale) {
+        return loaded;
+      }
+      loaded.getWorkspaceIds().forEach(id -> workspaceNamespaces.put(id, namespace));
+      if (namespaces.putIfAbsent(namespace, loaded) == null && loading.stale) {
+        // some events have come before the counters were cached and were not applied to them
+        namespaces.remove(namespace, loaded);
+      }
+      return loaded;
+    } finally {
+      loadings.remove(loading);
+    }
+  }
+
+  /**
+   * Marks counters of the given namespace which are loaded at the moment as stale, counters of all
+   * the namespaces are marked if the namespace is not known.
+   */
+  private void markLoadingsStale(String namespace) {
+    for (Loading loading : loadings) {
+      if (namespace == null || namespace.equals(loading.namespace)) {
+        loading.stale = true;
+      }
+    }
+  }
+
+  private NamespaceUsage load(String namespace) throws ServerException {
+    final NamespaceUsage usage = new NamespaceUsage();
+    for (WorkspaceImpl workspace : workspaceManagerProvider.get().getByNamespace(namespace, true)) {
+      usage.putWorkspace(workspace.getId());
+      if (workspace.getStatus() != STOPPED) {
+        usage.putRuntime(workspace.getId(), calculateRam(workspace));
+      }
+    }
+    return usage;
+  }
+
+  private void onCreated(Workspace workspace) {
+    final NamespaceUsage usage = namespaces.get(workspace.getNamespace());
+    if (usage == null) {
+      markLoadingsStale(workspace.getNamespace());
+      return;
+    }
+    workspaceNamespaces.put(workspace.getId(), workspace.getNamespace());
+    usage.putWorkspace(workspace.getId());
+  }
+
+  private void onRemoved(Workspace workspace) {
+    workspaceNamespaces.remove(workspace.getId());
+    final NamespaceUsage usage = namespaces.get(workspace.getNamespace());
+    if (usage == null) {
+      markLoadingsStale(workspace.getNamespace());
+      return;
+    }
+    usage.removeWorkspace(workspace.getId());
+  }
+
+  private void onStatusChanged(String workspaceId, boolean stopped) {
+    final String namespace = workspaceNamespaces.get(workspaceId);
+    final NamespaceUsage usage = namespace == null ? null : namespaces.get(namespace);
+    if (usage == null) {
+      markLoadingsStale(namespace);
+      return;
+    }
+    if (stopped) {
+      usage.removeRuntime(workspaceId);
+      return;
+    }
+    try {
+      final WorkspaceImpl workspace = workspaceManagerProvider.get().getWorkspace(workspaceId);
+      if (workspace.getStatus() == STOPPED) {
+        usage.removeRuntime(workspaceId);
+      } else {
+        usage.putRuntime(workspaceId, calculateRam(workspace));
+      }
+    } catch (NotFoundException | ServerException | RuntimeException e) {
+      LOG.warn(
+          "Failed to update resources usage of workspace '{}'. Cause: {}",
+          workspaceId,
+          e.getMessage());
+      // counters will be reloaded on the next request
+      namespaces.remove(namespace, usage);
+    }
+  }
+
+  private long calculateRam(WorkspaceImpl workspace) throws ServerException {
+    if (STARTING.equals(workspace.getStatus())) {
+      // starting workspace may not have all machine in runtime
+      // it is need to calculate ram from environment config
+      EnvironmentImpl activeEnvironmentConfig =
+          workspace.getConfig().getEnvironments().get(workspace.getRuntime().getActiveEnv());
+      return environmentRamCalculator.calculate(activeEnvironmentConfig);
+    }
+    return workspace
+        .getRuntime()
+        .getMachines()
+        .stream()
+        .mapToInt(machine -> machine.getConfig().getLimits().getRam())
+        .sum();
+  }
+
+  /** Loading of counters of the namespace which is in progress. */
+  private static class Loading {
+    private final String namespace;
+    private volatile boolean stale;
+
+    Loading(String namespace) {
+      this.namespace = namespace;
+    }
+  }
+
+  /** Counters of the single namespace. */
+  private static class NamespaceUsage {
+    private final long loaded = System.currentTimeMillis();
+    private final Set<String> workspaces = new HashSet<>();
+    private final Map<String, Long> runtimesRam = new HashMap<>();
+    private long ram;
+
+    synchronized void putWorkspace(String workspaceId) {
+      workspaces.add(workspaceId);
+    }
+
+    synchronized void removeWorkspace(String workspaceId) {
+      workspaces.remove(workspaceId);
+      removeRuntime(workspaceId);
+    }
+
+    synchronized void putRuntime(String workspaceId, long ramMb) {
+      final Long previous = runtimesRam.put(workspaceId, ramMb);
+      ram += ramMb - (previous == null ? 0 : previous);
+    }
+
+    synchronized void removeRuntime(String workspaceId) {
+      final Long previous = runtimesRam.remove(workspaceId);
+      if (previous != null) {
+        ram -= previous;
+      }
+    }
+
+    synchronized Set<String> getWorkspaceIds() {
+      return new HashSet<>(workspaces);
+    }
+
+    synchronized long getWorkspaces() {
+      return workspaces.size();
+    }
+
+    synchronized long getRuntimes() {
+      return runtimesRam.size();
+    }
+
+    synchronized long getRam() {
+      return ram;
+    }
+  }
+}
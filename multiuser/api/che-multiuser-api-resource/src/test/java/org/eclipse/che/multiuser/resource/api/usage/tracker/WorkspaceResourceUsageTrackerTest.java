@@ -11,30 +11,22 @@
 package org.eclipse.che.multiuser.resource.api.usage.tracker;
 
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.Optional;
-import javax.inject.Provider;
 import org.eclipse.che.account.api.AccountManager;
 import org.eclipse.che.account.shared.model.Account;
 import org.eclipse.che.api.core.NotFoundException;
-import org.eclipse.che.api.workspace.server.WorkspaceManager;
-import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
 import org.eclipse.che.multiuser.resource.api.type.WorkspaceResourceType;
 import org.eclipse.che.multiuser.resource.model.Resource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
-import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
 
@@ -44,18 +36,12 @@ import org.testng.annotations.Test;
  */
 @Listeners(MockitoTestNGListener.class)
 public class WorkspaceResourceUsageTrackerTest {
-  @Mock private Provider<WorkspaceManager> workspaceManagerProvider;
-  @Mock private WorkspaceManager workspaceManager;
+  @Mock private WorkspaceUsageCounters usageCounters;
   @Mock private AccountManager accountManager;
   @Mock private Account account;
 
   @InjectMocks private WorkspaceResourceUsageTracker workspaceResourceUsageTracker;
 
-  @BeforeMethod
-  public void setUp() throws Exception {
-    when(workspaceManagerProvider.get()).thenReturn(workspaceManager);
-  }
-
   @Test(
     expectedExceptions = NotFoundException.class,
     expectedExceptionsMessageRegExp = "Account was not found"
@@ -71,33 +57,27 @@ public class WorkspaceResourceUsageTrackerTest {
   public void shouldReturnEmptyOptionalWhenAccountDoesNotUseWorkspaces() throws Exception {
     when(accountManager.getById(any())).thenReturn(account);
     when(account.getName()).thenReturn("testAccount");
+    when(usageCounters.getWorkspaces(anyString())).thenReturn(0L);
 
-    when(workspaceManager.getByNamespace(anyString(), anyBoolean()))
-        .thenReturn(Collections.emptyList());
+    Optional<Resource> usedOpt = workspaceResourceUsageTracker.getUsedResource("account123");
 
-    Optional<Resource> usedWorkspacesOpt =
-        workspaceResourceUsageTracker.getUsedResource("account123");
-
-    assertFalse(usedWorkspacesOpt.isPresent());
+    assertFalse(usedOpt.isPresent());
   }
 
   @Test
   public void shouldReturnUsedWorkspacesForGivenAccount() throws Exception {
     when(accountManager.getById(any())).thenReturn(account);
     when(account.getName()).thenReturn("testAccount");
+    when(usageCounters.getWorkspaces(anyString())).thenReturn(3L);
 
-    when(workspaceManager.getByNamespace(anyString(), anyBoolean()))
-        .thenReturn(Arrays.asList(new WorkspaceImpl(), new WorkspaceImpl(), new WorkspaceImpl()));
-
-    Optional<Resource> usedWorkspacesOpt =
-        workspaceResourceUsageTracker.getUsedResource("account123");
+    Optional<Resource> usedOpt = workspaceResourceUsageTracker.getUsedResource("account123");
 
-    assertTrue(usedWorkspacesOpt.isPresent());
-    Resource usedWorkspaces = usedWorkspacesOpt.get();
-    assertEquals(usedWorkspaces.getType(), WorkspaceResourceType.ID);
-    assertEquals(usedWorkspaces.getAmount(), 3);
-    assertEquals(usedWorkspaces.getUnit(), WorkspaceResourceType.UNIT);
-    verify(accountManager).getById(eq("account123"));
-    verify(workspaceManager).getByNamespace(eq("testAccount"), eq(false));
+    assertTrue(usedOpt.isPresent());
+    Resource used = usedOpt.get();
+    assertEquals(used.getType(), WorkspaceResourceType.ID);
+    assertEquals(used.getAmount(), 3L);
+    assertEquals(used.getUnit(), WorkspaceResourceType.UNIT);
+    verify(accountManager).getById("account123");
+    verify(usageCounters).getWorkspaces("testAccount");
   }
 }
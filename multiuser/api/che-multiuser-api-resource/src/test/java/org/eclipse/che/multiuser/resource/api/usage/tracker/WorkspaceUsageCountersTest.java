@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.resource.api.usage.tracker;
+
+import static java.util.Arrays.asList;
+import static org.eclipse.che.dto.server.DtoFactory.newDto;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.inject.Provider;
+import org.eclipse.che.account.spi.AccountImpl;
+import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.machine.server.model.impl.MachineConfigImpl;
+import org.eclipse.che.api.machine.server.model.impl.MachineImpl;
+import org.eclipse.che.api.machine.server.model.impl.MachineLimitsImpl;
+import org.eclipse.che.api.workspace.server.WorkspaceManager;
+import org.eclipse.che.api.workspace.server.event.WorkspaceCreatedEvent;
+import org.eclipse.che.api.workspace.server.event.WorkspaceRemovedEvent;
+import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
+import org.eclipse.che.api.workspace.server.model.impl.WorkspaceRuntimeImpl;
+import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceStatusEvent;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests for {@link WorkspaceUsageCounters} */
+@Listeners(MockitoTestNGListener.class)
+public class WorkspaceUsageCountersTest {
+  private static final String NAMESPACE = "testAccount";
+
+  @Mock private Provider<WorkspaceManager> workspaceManagerProvider;
+  @Mock private WorkspaceManager workspaceManager;
+  @Mock private EnvironmentRamCalculator environmentRamCalculator;
+
+  private EventService eventService;
+  private WorkspaceUsageCounters usageCounters;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    when(workspaceManagerProvider.get()).thenReturn(workspaceManager);
+    eventService = new EventService();
+    usageCounters =
+        new WorkspaceUsageCounters(
+            workspaceManagerProvider, environmentRamCalculator, eventService, 600);
+    usageCounters.subscribe();
+  }
+
+  @Test
+  public void shouldLoadCountersOfNamespaceOnlyOnce() throws Exception {
+    when(workspaceManager.getByNamespace(NAMESPACE, true))
+        .thenReturn(
+            asList(
+                createWorkspace("ws1", WorkspaceStatus.RUNNING, 1000, 500),
+                createWorkspace("ws2", WorkspaceStatus.STOPPED)));
+
+    assertEquals(usageCounters.getWorkspaces(NAMESPACE), 2);
+    assertEquals(usageCounters.getRuntimes(NAMESPACE), 1);
+    assertEquals(usageCounters.getRam(NAMESPACE), 1500);
+
+    verify(workspaceManager).getByNamespace(NAMESPACE, true);
+  }
+
+  @Test
+  public void shouldUpdateCountersOnWorkspaceLifecycleEvents() throws Exception {
+    when(workspaceManager.getByNamespace(NAMESPACE, true))
+        .thenReturn(asList(createWorkspace("ws1", WorkspaceStatus.STOPPED)));
+    assertEquals(usageCounters.getWorkspaces(NAMESPACE), 1);
+
+    final WorkspaceImpl created = createWorkspace("ws2", WorkspaceStatus.STOPPED);
+    eventService.publish(new WorkspaceCreatedEvent(created));
+    assertEquals(usageCounters.getWorkspaces(NAMESPACE), 2);
+    assertEquals(usageCounters.getRuntimes(NAMESPACE), 0);
+
+    when(workspaceManager.getWorkspace("ws2"))
+        .thenReturn(createWorkspace("ws2", WorkspaceStatus.RUNNING, 2000));
+    eventService.publish(statusEvent("ws2", WorkspaceStatus.RUNNING));
+    assertEquals(usageCounters.getRuntimes(NAMESPACE), 1);
+    assertEquals(usageCounters.getRam(NAMESPACE), 2000);
+
+    eventService.publish(statusEvent("ws2", WorkspaceStatus.STOPPED));
+    assertEquals(usageCounters.getRuntimes(NAMESPACE), 0);
+    assertEquals(usageCounters.getRam(NAMESPACE), 0);
+
+    eventService.publish(new WorkspaceRemovedEvent(created));
+    assertEquals(usageCounters.getWorkspaces(NAMESPACE), 1);
+
+    verify(workspaceManager).getByNamespace(NAMESPACE, true);
+  }
+
+  @Test
+  public void shouldReloadCountersAfterReconciliationPeriod() throws Exception {
+    usageCounters =
+        new WorkspaceUsageCounters(
+            workspaceManagerProvider, environmentRamCalculator, eventService, 0);
+    when(workspaceManager.getByNamespace(NAMESPACE, true))
+        .thenReturn(asList(createWorkspace("ws1", WorkspaceStatus.STOPPED)));
+
+    usageCounters.getWorkspaces(NAMESPACE);
+    usageCounters.getWorkspaces(NAMESPACE);
+
+    verify(workspaceManager, times(2)).getByNamespace(NAMESPACE, true);
+  }
+
+  @Test
+  public void shouldNotCacheCountersWhenEventComesWhileTheyAreLoaded() throws Exception {
+    final List<WorkspaceImpl> workspaces =
+        new ArrayList<>(asList(createWorkspace("ws1", WorkspaceStatus.STOPPED)));
+    when(workspaceManager.getByNamespace(NAMESPACE, true))
+        .thenAnswer(
+            invocation -> {
+              final List<WorkspaceImpl> loaded = new ArrayList<>(workspaces);
+              if (workspaces.size() == 1) {
+                // workspace is created right after the namespace workspaces have been fetched
+                final WorkspaceImpl created = createWorkspace("ws2", WorkspaceStatus.STOPPED);
+                workspaces.add(created);
+                eventService.publish(new WorkspaceCreatedEvent(created));
+              }
+              return loaded;
+            });
+
+    assertEquals(usageCounters.getWorkspaces(NAMESPACE), 1);
+    assertEquals(usageCounters.getWorkspaces(NAMESPACE), 2);
+    assertEquals(usageCounters.getWorkspaces(NAMESPACE), 2);
+
+    verify(workspaceManager, times(2)).getByNamespace(NAMESPACE, true);
+  }
+
+  @Test
+  public void shouldCacheCountersWhenEventOfOtherNamespaceComesWhileTheyAreLoaded()
+      throws Exception {
+    when(workspaceManager.getByNamespace(NAMESPACE, true))
+        .thenAnswer(
+            invocation -> {
+              eventService.publish(
+                  new WorkspaceCreatedEvent(
+                      WorkspaceImpl.builder()
+                          .setId("ws2")
+                          .setAccount(new AccountImpl("account456", "otherAccount", "test"))
+                          .setStatus(WorkspaceStatus.STOPPED)
+                          .build()));
+              return asList(createWorkspace("ws1", WorkspaceStatus.STOPPED));
+            });
+
+    assertEquals(usageCounters.getWorkspaces(NAMESPACE), 1);
+    assertEquals(usageCounters.getWorkspaces(NAMESPACE), 1);
+
+    verify(workspaceManager).getByNamespace(NAMESPACE, true);
+  }
+
+  private static WorkspaceStatusEvent statusEvent(String workspaceId, WorkspaceStatus status) {
+    return newDto(WorkspaceStatusEvent.class).withWorkspaceId(workspaceId).withStatus(status);
+  }
+
+  private static WorkspaceImpl createWorkspace(
+      String id, WorkspaceStatus status, Integer... machineRams) {
+    final List<MachineImpl> machines = new ArrayList<>();
+    for (Integer machineRam : machineRams) {
+      machines.add(
+          MachineImpl.builder()
+              .setConfig(
+                  MachineConfigImpl.builder().setLimits(new MachineLimitsImpl(machineRam)).build())
+              .build());
+    }
+    return WorkspaceImpl.builder()
+        .setId(id)
+        .setAccount(new AccountImpl("account123", NAMESPACE, "test"))
+        .setRuntime(
+            status == WorkspaceStatus.STOPPED
+                ? null
+                : new WorkspaceRuntimeImpl(null, null, machines, null))
+        .setStatus(status)
+        .build();
+  }
+}
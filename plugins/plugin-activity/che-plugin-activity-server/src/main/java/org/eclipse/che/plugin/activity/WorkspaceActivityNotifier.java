@@ -10,7 +10,12 @@
  */
 package org.eclipse.che.plugin.activity;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -22,6 +27,10 @@ import org.slf4j.LoggerFactory;
 /**
  * Notifies master about activity in workspace, but not more often than once per given threshold.
  *
+ * <p>Notifications are sent asynchronously by the single thread, so the thread which reports the
+ * activity (e.g. the one that serves HTTP request to the agent) never waits for master response,
+ * and there is at most one notification request at a time.
+ *
  * @author Mihail Kuznyetsov
  * @author Anton Korneta
  */
@@ -30,13 +39,13 @@ public class WorkspaceActivityNotifier {
   private static final Logger LOG = LoggerFactory.getLogger(WorkspaceActivityNotifier.class);
 
   private final AtomicBoolean activeDuringThreshold;
+  private final AtomicLong lastUpdateTime;
+  private final ExecutorService executor;
   private final HttpJsonRequestFactory httpJsonRequestFactory;
   private final String apiEndpoint;
   private final String wsId;
   private final long threshold;
 
-  private long lastUpdateTime;
-
   @Inject
   public WorkspaceActivityNotifier(
       HttpJsonRequestFactory httpJsonRequestFactory,
@@ -48,6 +57,13 @@ public class WorkspaceActivityNotifier {
     this.wsId = wsId;
     this.activeDuringThreshold = new AtomicBoolean(false);
     this.threshold = threshold;
+    this.lastUpdateTime = new AtomicLong();
+    this.executor =
+        Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder()
+                .setNameFormat("WorkspaceActivityNotifier-%d")
+                .setDaemon(true)
+                .build());
   }
 
   /**
@@ -59,21 +75,27 @@ public class WorkspaceActivityNotifier {
    */
   public void onActivity() {
     long currentTime = System.currentTimeMillis();
-    if (currentTime < (lastUpdateTime + threshold)) {
+    long lastUpdate = lastUpdateTime.get();
+    if (currentTime < (lastUpdate + threshold)
+        || !lastUpdateTime.compareAndSet(lastUpdate, currentTime)) {
       activeDuringThreshold.set(true);
     } else {
-      notifyActivity();
-      lastUpdateTime = currentTime;
+      executor.execute(this::notifyActivity);
     }
   }
 
   @ScheduleRate(periodParameterName = "workspace.activity.schedule_period_s")
   private void scheduleActivityNotification() {
     if (activeDuringThreshold.compareAndSet(true, false)) {
-      notifyActivity();
+      executor.execute(this::notifyActivity);
     }
   }
 
+  @PreDestroy
+  private void shutdown() {
+    executor.shutdownNow();
+  }
+
   private void notifyActivity() {
     try {
       httpJsonRequestFactory.fromUrl(apiEndpoint + "/activity/" + wsId).usePutMethod().request();
@@ -11,13 +11,21 @@
 package org.eclipse.che.plugin.activity;
 
 import static org.eclipse.che.activity.shared.Constants.ACTIVITY_CHECKER;
+import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.RUNNING;
 import static org.eclipse.che.api.workspace.shared.Constants.WORKSPACE_STOPPED_BY;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Named;
 import javax.inject.Singleton;
 import org.eclipse.che.api.core.ConflictException;
@@ -41,6 +49,15 @@ import org.slf4j.LoggerFactory;
  * one minute rate. If workspace idle timeout is negative, then workspace would not be stopped
  * automatically.
  *
+ * <p>Expiration times are indexed by the delay queue which contains at most one element per
+ * active workspace, so each scheduler tick touches only workspaces whose expiration time has come.
+ * Activity updates do not reorder the queue, when the element of the workspace which was active
+ * after it had been queued is polled, it's queued again with the actual expiration time. Expired
+ * workspaces are stopped in parallel by the pool of fixed size.
+ *
+ * <p>Activities reported by clients are coalesced per workspace and applied to the expiration
+ * index in bulk on each scheduler tick, see {@link #recordActivity(String, long)}.
+ *
  * @author Anton Korneta
  */
 @Singleton
@@ -48,8 +65,14 @@ public class WorkspaceActivityManager {
 
   private static final Logger LOG = LoggerFactory.getLogger(WorkspaceActivityManager.class);
 
+  private static final int DEFAULT_STOP_THREADS = 5;
+
   private final long timeout;
+  private final long expiryLagThreshold;
   private final Map<String, Long> activeWorkspaces;
+  private final Map<String, Long> pendingActivities;
+  private final DelayQueue<Expiration> expirations;
+  private final ExecutorService stopExecutor;
   private final EventService eventService;
   private final EventSubscriber<?> workspaceEventsSubscriber;
 
@@ -59,11 +82,23 @@ public class WorkspaceActivityManager {
   public WorkspaceActivityManager(
       WorkspaceManager workspaceManager,
       EventService eventService,
-      @Named("che.workspace.agent.dev.inactive_stop_timeout_ms") long timeout) {
+      @Named("che.workspace.agent.dev.inactive_stop_timeout_ms") long timeout,
+      @Named("che.workspace.activity_check_scheduler_period_s") long checkPeriod,
+      @Named("che.workspace.activity_stop_threads") int stopThreads) {
     this.timeout = timeout;
+    this.expiryLagThreshold = TimeUnit.SECONDS.toMillis(checkPeriod) * 2;
     this.workspaceManager = workspaceManager;
     this.eventService = eventService;
     this.activeWorkspaces = new ConcurrentHashMap<>();
+    this.pendingActivities = new ConcurrentHashMap<>();
+    this.expirations = new DelayQueue<>();
+    this.stopExecutor =
+        Executors.newFixedThreadPool(
+            stopThreads > 0 ? stopThreads : DEFAULT_STOP_THREADS,
+            new ThreadFactoryBuilder()
+                .setNameFormat("WorkspaceActivityManager-Stop-%d")
+                .setDaemon(true)
+                .build());
     this.workspaceEventsSubscriber =
         new EventSubscriber<WorkspaceStatusEvent>() {
           @Override
@@ -83,6 +118,7 @@ public class WorkspaceActivityManager {
                 update(event.getWorkspaceId(), System.currentTimeMillis());
                 break;
               case STOPPED:
+                pendingActivities.remove(event.getWorkspaceId());
                 activeWorkspaces.remove(event.getWorkspaceId());
                 break;
               default:
@@ -92,6 +128,23 @@ public class WorkspaceActivityManager {
         };
   }
 
+  public WorkspaceActivityManager(
+      WorkspaceManager workspaceManager, EventService eventService, long timeout) {
+    this(workspaceManager, eventService, timeout, 60, DEFAULT_STOP_THREADS);
+  }
+
+  /**
+   * Records the activity of the workspace, the expiry period of the workspace will be updated on
+   * the next scheduler tick. Consecutive activities of the same workspace which come between ticks
+   * are coalesced, so the expiry period is updated only once with the time of the latest activity.
+   *
+   * @param wsId active workspace identifier
+   * @param activityTime moment in which the activity occurred
+   */
+  public void recordActivity(String wsId, long activityTime) {
+    pendingActivities.merge(wsId, activityTime, Math::max);
+  }
+
   /**
    * Update the expiry period the workspace if it exists, otherwise add new one
    *
@@ -102,7 +155,10 @@ public class WorkspaceActivityManager {
     try {
       long timeout = getIdleTimeout(wsId);
       if (timeout > 0) {
-        activeWorkspaces.put(wsId, activityTime + timeout);
+        final long expiration = activityTime + timeout;
+        if (activeWorkspaces.put(wsId, expiration) == null) {
+          expirations.add(new Expiration(wsId, expiration));
+        }
       }
     } catch (NotFoundException | ServerException e) {
       LOG.error(e.getLocalizedMessage(), e);
@@ -118,28 +174,72 @@ public class WorkspaceActivityManager {
   }
 
   @ScheduleRate(periodParameterName = "che.workspace.activity_check_scheduler_period_s")
-  private void invalidate() {
+  @VisibleForTesting
+  void invalidate() {
+    flushActivities();
     final long currentTime = System.currentTimeMillis();
-    for (Map.Entry<String, Long> workspaceExpireEntry : activeWorkspaces.entrySet()) {
-      if (workspaceExpireEntry.getValue() <= currentTime) {
-        try {
-          String workspaceId = workspaceExpireEntry.getKey();
-          Workspace workspace = workspaceManager.getWorkspace(workspaceId);
-          workspace.getAttributes().put(WORKSPACE_STOPPED_BY, ACTIVITY_CHECKER);
-          workspaceManager.updateWorkspace(workspaceId, workspace);
-          workspaceManager.stopWorkspace(workspaceId);
-        } catch (NotFoundException ignored) {
-          // workspace no longer exists, no need to do anything
-        } catch (ConflictException e) {
-          LOG.warn(e.getLocalizedMessage());
-        } catch (Exception ex) {
-          LOG.error(ex.getLocalizedMessage());
-          LOG.debug(ex.getLocalizedMessage(), ex);
-        } finally {
-          activeWorkspaces.remove(workspaceExpireEntry.getKey());
+    int expired = 0;
+    long maxLag = 0;
+    Expiration expiration;
+    while ((expiration = expirations.poll()) != null) {
+      final String workspaceId = expiration.workspaceId;
+      final Long actualExpiration = activeWorkspaces.get(workspaceId);
+      if (actualExpiration == null) {
+        // workspace is stopped, or its element is queued once more by concurrent update
+        continue;
+      }
+      if (actualExpiration > currentTime) {
+        // workspace was active since the element had been queued
+        expirations.add(new Expiration(workspaceId, actualExpiration));
+      } else if (activeWorkspaces.remove(workspaceId, actualExpiration)) {
+        expired++;
+        maxLag = Math.max(maxLag, currentTime - actualExpiration);
+        stopExecutor.execute(() -> stopExpired(workspaceId, actualExpiration));
+      } else {
+        // expiration is concurrently updated, keep the workspace in the queue
+        final Long updatedExpiration = activeWorkspaces.get(workspaceId);
+        if (updatedExpiration != null) {
+          expirations.add(new Expiration(workspaceId, updatedExpiration));
         }
       }
     }
+    if (expired > 0) {
+      LOG.debug("Found {} expired workspaces, max expiration lag is {} ms", expired, maxLag);
+    }
+  }
+
+  /** Applies coalesced activities to the expiration index. */
+  private void flushActivities() {
+    for (String wsId : pendingActivities.keySet()) {
+      final Long activityTime = pendingActivities.remove(wsId);
+      if (activityTime != null) {
+        update(wsId, activityTime);
+      }
+    }
+  }
+
+  private void stopExpired(String workspaceId, long expiration) {
+    final long lag = System.currentTimeMillis() - expiration;
+    if (lag > expiryLagThreshold) {
+      LOG.warn("Workspace '{}' is stopped {} ms later than it has expired", workspaceId, lag);
+    }
+    try {
+      Workspace workspace = workspaceManager.getWorkspace(workspaceId);
+      if (workspace.getStatus() != RUNNING) {
+        // workspace is already stopped or is stopping, e.g. by the master shutdown
+        return;
+      }
+      workspace.getAttributes().put(WORKSPACE_STOPPED_BY, ACTIVITY_CHECKER);
+      workspaceManager.updateWorkspace(workspaceId, workspace);
+      workspaceManager.stopWorkspace(workspaceId);
+    } catch (NotFoundException ignored) {
+      // workspace no longer exists, no need to do anything
+    } catch (ConflictException e) {
+      LOG.warn(e.getLocalizedMessage());
+    } catch (Exception ex) {
+      LOG.error(ex.getLocalizedMessage());
+      LOG.debug(ex.getLocalizedMessage(), ex);
+    }
   }
 
   @VisibleForTesting
@@ -147,4 +247,30 @@ public class WorkspaceActivityManager {
   public void subscribe() {
     eventService.subscribe(workspaceEventsSubscriber);
   }
+
+  @PreDestroy
+  void shutdown() {
+    stopExecutor.shutdownNow();
+  }
+
+  /** Element of the expiration queue, keeps expiration time of the workspace at queue time. */
+  private static class Expiration implements Delayed {
+    private final String workspaceId;
+    private final long expiration;
+
+    private Expiration(String workspaceId, long expiration) {
+      this.workspaceId = workspaceId;
+      this.expiration = expiration;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return unit.convert(expiration - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed that) {
+      return Long.compare(expiration, ((Expiration) that).expiration);
+    }
+  }
 }
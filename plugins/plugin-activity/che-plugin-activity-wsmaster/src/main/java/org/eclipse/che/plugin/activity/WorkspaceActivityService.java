@@ -62,8 +62,8 @@ public class WorkspaceActivityService extends Service {
       throws ForbiddenException, NotFoundException, ServerException {
     final WorkspaceImpl workspace = workspaceManager.getWorkspace(wsId);
     if (workspace.getStatus() == RUNNING) {
-      workspaceActivityManager.update(wsId, System.currentTimeMillis());
-      LOG.debug("Updated activity on workspace {}", wsId);
+      workspaceActivityManager.recordActivity(wsId, System.currentTimeMillis());
+      LOG.debug("Recorded activity on workspace {}", wsId);
     }
   }
 }
@@ -10,7 +10,12 @@
  */
 package org.eclipse.che.plugin.activity;
 
+import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.RUNNING;
+import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.STOPPED;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
@@ -18,7 +23,10 @@ import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
 import java.lang.reflect.Field;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.eclipse.che.account.api.AccountManager;
 import org.eclipse.che.account.shared.model.Account;
 import org.eclipse.che.api.core.notification.EventService;
@@ -64,6 +72,8 @@ public class WorkspaceActivityManagerTest {
 
     when(workspaceManager.getWorkspace(anyString())).thenReturn(workspace);
     when(workspace.getNamespace()).thenReturn("accountName");
+    when(workspace.getAttributes()).thenReturn(new HashMap<>());
+    when(workspace.getStatus()).thenReturn(RUNNING);
   }
 
   @Test
@@ -133,6 +143,92 @@ public class WorkspaceActivityManagerTest {
     assertTrue(activeWorkspaces.isEmpty());
   }
 
+  @Test
+  public void shouldStopExpiredWorkspaces() throws Exception {
+    final String expiredWsId = "expiredWsId";
+    final String activeWsId = "activeWsId";
+    activityManager.update(expiredWsId, System.currentTimeMillis() - EXPIRE_PERIOD_MS * 2);
+    activityManager.update(activeWsId, System.currentTimeMillis());
+
+    activityManager.invalidate();
+
+    verify(workspaceManager, timeout(1000)).stopWorkspace(expiredWsId);
+    verify(workspaceManager, never()).stopWorkspace(activeWsId);
+    final Map<String, Long> activeWorkspaces = getActiveWorkspaces(activityManager);
+    assertFalse(activeWorkspaces.containsKey(expiredWsId));
+    assertTrue(activeWorkspaces.containsKey(activeWsId));
+  }
+
+  @Test
+  public void shouldNotStopExpiredWorkspaceWhichIsNotRunning() throws Exception {
+    final String wsId = "testWsId";
+    final Map<String, String> attributes = new HashMap<>();
+    when(workspace.getAttributes()).thenReturn(attributes);
+    when(workspace.getStatus()).thenReturn(STOPPED);
+    activityManager.update(wsId, System.currentTimeMillis() - EXPIRE_PERIOD_MS * 2);
+
+    activityManager.invalidate();
+
+    verify(workspaceManager, timeout(1000)).getWorkspace(wsId);
+    verify(workspaceManager, never()).updateWorkspace(anyString(), any());
+    verify(workspaceManager, never()).stopWorkspace(wsId);
+    assertTrue(attributes.isEmpty());
+  }
+
+  @Test
+  public void shouldNotStopWorkspaceWhichWasActiveAfterItHadBeenQueued() throws Exception {
+    final String wsId = "testWsId";
+    activityManager.update(wsId, System.currentTimeMillis() - EXPIRE_PERIOD_MS * 2);
+    activityManager.update(wsId, System.currentTimeMillis());
+
+    activityManager.invalidate();
+
+    verify(workspaceManager, never()).stopWorkspace(wsId);
+    assertTrue(getActiveWorkspaces(activityManager).containsKey(wsId));
+  }
+
+  @Test
+  public void shouldStopWorkspaceWhichExpirationIsUpdatedWhileInvalidating() throws Exception {
+    final String wsId = "testWsId";
+    final long activityTime = System.currentTimeMillis() - EXPIRE_PERIOD_MS;
+    final AtomicBoolean updated = new AtomicBoolean();
+    setActiveWorkspaces(
+        activityManager,
+        new ConcurrentHashMap<String, Long>() {
+          @Override
+          public boolean remove(Object key, Object value) {
+            // workspace is active between the check of its expiration and the removal
+            if (updated.compareAndSet(false, true)) {
+              activityManager.update(wsId, activityTime - 1000L);
+            }
+            return super.remove(key, value);
+          }
+        });
+    activityManager.update(wsId, activityTime - EXPIRE_PERIOD_MS);
+
+    activityManager.invalidate();
+
+    assertTrue(updated.get());
+    verify(workspaceManager, timeout(1000)).stopWorkspace(wsId);
+    assertFalse(getActiveWorkspaces(activityManager).containsKey(wsId));
+  }
+
+  @Test
+  public void shouldApplyLatestOfCoalescedActivitiesOnInvalidation() throws Exception {
+    final String wsId = "testWsId";
+    final long activityTime = System.currentTimeMillis();
+    activityManager.update(wsId, activityTime);
+    activityManager.recordActivity(wsId, activityTime + 2000L);
+    activityManager.recordActivity(wsId, activityTime + 1000L);
+    final Map<String, Long> activeWorkspaces = getActiveWorkspaces(activityManager);
+    final long expirationBeforeInvalidation = activeWorkspaces.get(wsId);
+
+    activityManager.invalidate();
+
+    assertEquals(expirationBeforeInvalidation, activityTime + EXPIRE_PERIOD_MS);
+    assertEquals((long) activeWorkspaces.get(wsId), activityTime + 2000L + EXPIRE_PERIOD_MS);
+  }
+
   @SuppressWarnings("unchecked")
   private Map<String, Long> getActiveWorkspaces(WorkspaceActivityManager workspaceActivityManager)
       throws Exception {
@@ -144,4 +240,12 @@ public class WorkspaceActivityManagerTest {
     }
     throw new IllegalAccessException();
   }
+
+  private void setActiveWorkspaces(
+      WorkspaceActivityManager workspaceActivityManager, Map<String, Long> activeWorkspaces)
+      throws Exception {
+    final Field field = WorkspaceActivityManager.class.getDeclaredField("activeWorkspaces");
+    field.setAccessible(true);
+    field.set(workspaceActivityManager, activeWorkspaces);
+  }
 }
@@ -83,7 +83,7 @@ public class WorkspaceActivityServiceTest {
 
     // then
     assertEquals(response.getStatusCode(), 204);
-    verify(workspaceActivityManager).update(eq(WORKSPACE_ID), anyLong());
+    verify(workspaceActivityManager).recordActivity(eq(WORKSPACE_ID), anyLong());
   }
 
   @Test(dataProvider = "wsStatus")
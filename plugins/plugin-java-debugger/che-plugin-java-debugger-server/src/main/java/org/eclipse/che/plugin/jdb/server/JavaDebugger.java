@@ -41,7 +41,6 @@ import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.Lock;
@@ -76,6 +75,7 @@ import org.eclipse.che.plugin.jdb.server.expression.ExpressionParser;
 import org.eclipse.che.plugin.jdb.server.model.JdbLocation;
 import org.eclipse.che.plugin.jdb.server.model.JdbMethod;
 import org.eclipse.che.plugin.jdb.server.model.JdbStackFrame;
+import org.eclipse.che.plugin.jdb.server.model.JdbValue;
 import org.eclipse.che.plugin.jdb.server.utils.JavaDebuggerUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -117,6 +117,11 @@ public class JavaDebugger implements EventsHandler, Debugger {
   private ThreadReference thread;
   /** Current stack frame. Not <code>null</code> is thread suspended, e.g breakpoint reached. */
   private JdbStackFrame stackFrame;
+  /**
+   * Stack frames requested by thread ID and frame index while target Java VM is suspended. Frames
+   * keep values of variables which were read, so they are dropped once the VM is resumed.
+   */
+  private final ConcurrentMap<String, JdbStackFrame> stackFrames = new ConcurrentHashMap<>();
   /** Lock for synchronization debug processes. */
   private Lock lock = new ReentrantLock();
 
@@ -377,7 +382,7 @@ public class JavaDebugger implements EventsHandler, Debugger {
   public StackFrameDump getStackFrameDump(long threadId, int frameIndex) throws DebuggerException {
     lock.lock();
     try {
-      return new JdbStackFrame(getJdiStackFrame(threadId, frameIndex));
+      return getStackFrame(threadId, frameIndex);
     } finally {
       lock.unlock();
     }
@@ -470,43 +475,39 @@ public class JavaDebugger implements EventsHandler, Debugger {
   @Override
   public SimpleValue getValue(VariablePath variablePath, long threadId, int frameIndex)
       throws DebuggerException {
-    JdbStackFrame jdbStackFrame = new JdbStackFrame(getJdiStackFrame(threadId, frameIndex));
-
-    Optional<? extends Variable> targetVar;
-
-    List<String> path = variablePath.getPath();
-    int offset;
-    if ("this".equals(path.get(0)) || "static".equals(path.get(0))) {
-      targetVar =
-          jdbStackFrame.getFields().stream().filter(f -> f.getName().equals(path.get(1))).findAny();
-      offset = 2;
-    } else {
-      targetVar =
-          jdbStackFrame
-              .getVariables()
-              .stream()
-              .filter(f -> f.getName().equals(path.get(0)))
-              .findAny();
-      offset = 1;
-    }
+    lock.lock();
+    try {
+      JdbStackFrame jdbStackFrame = getStackFrame(threadId, frameIndex);
+
+      Variable targetVar;
+
+      List<String> path = variablePath.getPath();
+      int offset;
+      if ("this".equals(path.get(0)) || "static".equals(path.get(0))) {
+        targetVar = findVariable(jdbStackFrame.getFields(), path.get(1));
+        offset = 2;
+      } else {
+        targetVar = findVariable(jdbStackFrame.getVariables(), path.get(0));
+        offset = 1;
+      }
 
-    for (int i = offset; targetVar.isPresent() && i < path.size(); i++) {
-      final int index = i;
-      targetVar =
-          targetVar
-              .get()
-              .getValue()
-              .getVariables()
-              .stream()
-              .filter(v -> v.getName().equals(path.get(index)))
-              .findAny();
-    }
+      for (int i = offset; targetVar != null && i < path.size(); i++) {
+        SimpleValue value = targetVar.getValue();
+        if (value instanceof JdbValue) {
+          targetVar = ((JdbValue) value).getVariable(path.get(i));
+        } else {
+          targetVar = findVariable(value.getVariables(), path.get(i));
+        }
+      }
 
-    if (!targetVar.isPresent()) {
-      return null;
+      return targetVar == null ? null : targetVar.getValue();
+    } finally {
+      lock.unlock();
     }
+  }
 
-    return targetVar.get().getValue();
+  private static Variable findVariable(List<? extends Variable> variables, String name) {
+    return variables.stream().filter(v -> v.getName().equals(name)).findAny().orElse(null);
   }
 
   @Override
@@ -711,9 +712,22 @@ public class JavaDebugger implements EventsHandler, Debugger {
       return parser.evaluate(new Evaluator(vm, jdiStackFrame));
     } catch (ExpressionException e) {
       throw new DebuggerException(e.getMessage(), e);
+    } finally {
+      // evaluation may change values of variables or invoke methods which invalidates frames
+      invalidateCurrentFrame();
     }
   }
 
+  private JdbStackFrame getStackFrame(long threadId, int frameIndex) throws DebuggerException {
+    String key = threadId + ":" + frameIndex;
+    JdbStackFrame jdbStackFrame = stackFrames.get(key);
+    if (jdbStackFrame == null) {
+      jdbStackFrame = new JdbStackFrame(getJdiStackFrame(threadId, frameIndex));
+      stackFrames.put(key, jdbStackFrame);
+    }
+    return jdbStackFrame;
+  }
+
   private StackFrame getJdiStackFrame(long threadId, int frameIndex) throws DebuggerException {
     try {
       for (ThreadReference t : vm.allThreads()) {
@@ -752,12 +766,13 @@ public class JavaDebugger implements EventsHandler, Debugger {
   }
 
   private void setCurrentThread(ThreadReference t) {
-    stackFrame = null;
+    invalidateCurrentFrame();
     thread = t;
   }
 
   private void invalidateCurrentFrame() {
     stackFrame = null;
+    stackFrames.clear();
   }
 
   private void invalidateCurrentThread() {
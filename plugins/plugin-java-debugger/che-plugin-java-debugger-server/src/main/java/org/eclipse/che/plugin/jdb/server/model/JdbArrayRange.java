@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.plugin.jdb.server.model;
+
+import com.sun.jdi.ArrayReference;
+import com.sun.jdi.Value;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.eclipse.che.api.debug.shared.model.SimpleValue;
+import org.eclipse.che.api.debug.shared.model.Variable;
+import org.eclipse.che.api.debug.shared.model.VariablePath;
+import org.eclipse.che.api.debug.shared.model.impl.VariablePathImpl;
+
+/**
+ * Page of elements of a large array, e.g. <i>[100..199]</i>.
+ *
+ * <p>Arrays longer than {@link #PAGE_SIZE} are split into pages, so only elements of the expanded
+ * page are read from the target VM. Pages are nested when there are more than {@link #PAGE_SIZE}
+ * of them. Elements of a page keep the path of the array element, e.g. ['array', '[150]'].
+ */
+public class JdbArrayRange implements Variable {
+  public static final int PAGE_SIZE = 100;
+
+  private final ArrayReference array;
+  private final int from;
+  private final int to;
+  private final VariablePath arrayPath;
+  private final SimpleValue value;
+
+  /**
+   * @param array the array
+   * @param from index of the first element of the page
+   * @param to index after the last element of the page
+   * @param arrayPath path of the array
+   */
+  public JdbArrayRange(ArrayReference array, int from, int to, VariablePath arrayPath) {
+    this.array = array;
+    this.from = from;
+    this.to = to;
+    this.arrayPath = arrayPath;
+    this.value = new RangeValue();
+  }
+
+  /**
+   * Returns elements of the array between the given indexes, or pages of them if there are more
+   * than {@link #PAGE_SIZE} elements. Elements are read from the target VM at once.
+   */
+  public static List<Variable> split(
+      ArrayReference array, int from, int to, VariablePath arrayPath) {
+    int length = to - from;
+    List<Variable> variables = new ArrayList<>(Math.min(length, PAGE_SIZE));
+    if (length <= PAGE_SIZE) {
+      if (length > 0) {
+        List<Value> values = array.getValues(from, length);
+        for (int i = 0; i < length; i++) {
+          variables.add(new JdbArrayElement(values.get(i), from + i, arrayPath));
+        }
+      }
+      return variables;
+    }
+
+    long pageSize = PAGE_SIZE;
+    while (pageSize * PAGE_SIZE < length) {
+      pageSize *= PAGE_SIZE;
+    }
+    for (long start = from; start < to; start += pageSize) {
+      variables.add(
+          new JdbArrayRange(array, (int) start, (int) Math.min(start + pageSize, to), arrayPath));
+    }
+    return variables;
+  }
+
+  @Override
+  public String getName() {
+    return "[" + from + ".." + (to - 1) + "]";
+  }
+
+  @Override
+  public boolean isPrimitive() {
+    return false;
+  }
+
+  @Override
+  public SimpleValue getValue() {
+    return value;
+  }
+
+  @Override
+  public String getType() {
+    return array.type().name();
+  }
+
+  @Override
+  public VariablePath getVariablePath() {
+    List<String> pathEntries = new LinkedList<>(arrayPath.getPath());
+    pathEntries.add(getName());
+    return new VariablePathImpl(pathEntries);
+  }
+
+  private class RangeValue implements SimpleValue {
+    private final AtomicReference<List<Variable>> variables = new AtomicReference<>();
+
+    @Override
+    public String getString() {
+      return getName();
+    }
+
+    @Override
+    public List<Variable> getVariables() {
+      if (variables.get() == null) {
+        synchronized (variables) {
+          if (variables.get() == null) {
+            variables.set(split(array, from, to, arrayPath));
+          }
+        }
+      }
+      return variables.get();
+    }
+  }
+}
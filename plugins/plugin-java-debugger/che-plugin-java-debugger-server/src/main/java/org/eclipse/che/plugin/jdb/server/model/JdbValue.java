@@ -15,7 +15,6 @@ import com.sun.jdi.ObjectReference;
 import com.sun.jdi.PrimitiveValue;
 import com.sun.jdi.Value;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
@@ -52,12 +51,8 @@ public class JdbValue implements SimpleValue {
           if (isPrimitive()) {
             variables.set(Collections.emptyList());
           } else if (isArray()) {
-            variables.set(new LinkedList<>());
-
             ArrayReference array = (ArrayReference) jdiValue;
-            for (int i = 0; i < array.length(); i++) {
-              variables.get().add(new JdbArrayElement(array.getValue(i), i, variablePath));
-            }
+            variables.set(JdbArrayRange.split(array, 0, array.length(), variablePath));
           } else {
             ObjectReference object = (ObjectReference) jdiValue;
             variables.set(
@@ -76,6 +71,37 @@ public class JdbValue implements SimpleValue {
     return variables.get();
   }
 
+  /**
+   * Returns nested variable with the given name or <code>null</code> if there is no such variable.
+   * Elements and pages of arrays are found by their indexes without reading the whole array.
+   */
+  public Variable getVariable(String name) {
+    if (isArray() && name.startsWith("[") && name.endsWith("]")) {
+      ArrayReference array = (ArrayReference) jdiValue;
+      String indexes = name.substring(1, name.length() - 1);
+      int separator = indexes.indexOf("..");
+      try {
+        if (separator == -1) {
+          int index = Integer.parseInt(indexes);
+          if (index >= 0 && index < array.length()) {
+            return new JdbArrayElement(array.getValue(index), index, variablePath);
+          }
+        } else {
+          int from = Integer.parseInt(indexes.substring(0, separator));
+          int to = Integer.parseInt(indexes.substring(separator + 2)) + 1;
+          if (from >= 0 && from < to && to <= array.length()) {
+            return new JdbArrayRange(array, from, to, variablePath);
+          }
+        }
+      } catch (NumberFormatException e) {
+        return null;
+      }
+      return null;
+    }
+
+    return getVariables().stream().filter(v -> v.getName().equals(name)).findAny().orElse(null);
+  }
+
   private boolean isArray() {
     return jdiValue instanceof ArrayReference;
   }
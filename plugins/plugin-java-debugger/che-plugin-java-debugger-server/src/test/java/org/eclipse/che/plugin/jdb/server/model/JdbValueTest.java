@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.plugin.jdb.server.model;
+
+import static java.util.Collections.nCopies;
+import static java.util.stream.Collectors.toList;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import com.google.common.collect.ImmutableList;
+import com.sun.jdi.ArrayReference;
+import com.sun.jdi.Value;
+import java.util.List;
+import org.eclipse.che.api.debug.shared.model.Variable;
+import org.eclipse.che.api.debug.shared.model.impl.VariablePathImpl;
+import org.testng.annotations.Test;
+
+/** Test for {@link JdbValue} */
+public class JdbValueTest {
+
+  @Test
+  public void shouldReadElementsOfSmallArrayAtOnce() throws Exception {
+    ArrayReference array = mockArray(3);
+
+    List<Variable> variables = new JdbValue(array, new VariablePathImpl("array")).getVariables();
+
+    assertEquals(names(variables), ImmutableList.of("[0]", "[1]", "[2]"));
+    verify(array).getValues(0, 3);
+    verify(array, never()).getValue(anyInt());
+  }
+
+  @Test
+  public void shouldSplitLargeArrayIntoPages() throws Exception {
+    ArrayReference array = mockArray(250);
+
+    List<Variable> pages = new JdbValue(array, new VariablePathImpl("array")).getVariables();
+
+    assertEquals(names(pages), ImmutableList.of("[0..99]", "[100..199]", "[200..249]"));
+    verify(array, never()).getValues(anyInt(), anyInt());
+
+    List<? extends Variable> elements = pages.get(2).getValue().getVariables();
+
+    assertEquals(elements.size(), 50);
+    assertEquals(elements.get(0).getName(), "[200]");
+    assertEquals(elements.get(0).getVariablePath().getPath(), ImmutableList.of("array", "[200]"));
+    verify(array).getValues(200, 50);
+  }
+
+  @Test
+  public void shouldNestPagesOfVeryLargeArray() throws Exception {
+    ArrayReference array = mockArray(20_000);
+
+    List<Variable> pages = new JdbValue(array, new VariablePathImpl("array")).getVariables();
+
+    assertEquals(names(pages), ImmutableList.of("[0..9999]", "[10000..19999]"));
+    List<? extends Variable> nestedPages = pages.get(1).getValue().getVariables();
+    assertEquals(nestedPages.size(), 100);
+    Variable nestedPage = nestedPages.get(0);
+    assertEquals(nestedPage.getName(), "[10000..10099]");
+    assertEquals(
+        nestedPage.getVariablePath().getPath(), ImmutableList.of("array", "[10000..10099]"));
+  }
+
+  @Test
+  public void shouldFindArrayElementsAndPagesByName() throws Exception {
+    ArrayReference array = mockArray(20_000);
+    JdbValue value = new JdbValue(array, new VariablePathImpl("array"));
+
+    Variable element = value.getVariable("[150]");
+    Variable page = value.getVariable("[10000..10099]");
+
+    assertEquals(element.getVariablePath().getPath(), ImmutableList.of("array", "[150]"));
+    verify(array).getValue(150);
+    assertEquals(page.getValue().getVariables().size(), 100);
+    verify(array).getValues(10000, 100);
+    assertNull(value.getVariable("[20000]"));
+    assertNull(value.getVariable("[a]"));
+  }
+
+  private static ArrayReference mockArray(int length) {
+    ArrayReference array = mock(ArrayReference.class);
+    when(array.length()).thenReturn(length);
+    when(array.getValues(anyInt(), anyInt()))
+        .thenAnswer(invocation -> nCopies(invocation.getArgument(1), (Value) null));
+    return array;
+  }
+
+  private static List<String> names(List<? extends Variable> variables) {
+    return variables.stream().map(Variable::getName).collect(toList());
+  }
+}
@@ -16,6 +16,7 @@ import com.google.inject.name.Named;
 import javax.annotation.PostConstruct;
 import org.eclipse.che.api.project.server.ProjectManager;
 import org.eclipse.che.api.project.server.ProjectRegistry;
+import org.eclipse.che.commons.annotation.Nullable;
 import org.eclipse.che.core.internal.resources.Workspace;
 import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.internal.utils.Messages;
@@ -193,22 +194,33 @@ public class ResourcesPlugin {
   private static Workspace workspace = null;
 
   private static String indexPath;
+  private static String sharedIndexPath;
   private static String workspacePath;
   private static String pluginId;
 
   @Inject
   public ResourcesPlugin(
       @Named("che.jdt.workspace.index.dir") String indexPath,
+      @Nullable @Named("che.jdt.shared.index.dir") String sharedIndexPath,
       @Named("che.user.workspaces.storage") String workspacePath,
       Provider<ProjectRegistry> projectRegistry,
       Provider<ProjectManager> projectManager) {
     ResourcesPlugin.indexPath = indexPath;
+    ResourcesPlugin.sharedIndexPath = sharedIndexPath;
     ResourcesPlugin.workspacePath = workspacePath;
     pluginId = "cheWsPlugin";
     EFS.setWsPath(workspacePath);
     workspace = new Workspace(workspacePath, projectRegistry, projectManager);
   }
 
+  public ResourcesPlugin(
+      String indexPath,
+      String workspacePath,
+      Provider<ProjectRegistry> projectRegistry,
+      Provider<ProjectManager> projectManager) {
+    this(indexPath, null, workspacePath, projectRegistry, projectManager);
+  }
+
   public static String getPathToWorkspace() {
     return workspacePath;
   }
@@ -217,6 +229,14 @@ public class ResourcesPlugin {
     return indexPath;
   }
 
+  /**
+   * Returns path to the read-only store of pre-built indexes shared between workspaces or {@code
+   * null} if the store is not configured.
+   */
+  public static String getSharedIndexPath() {
+    return sharedIndexPath;
+  }
+
   public static String getPluginId() {
     return pluginId;
   }
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.util;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * SHA-1 checksums of jar contents, which identify the same jar regardless of its location.
+ *
+ * <p>Checksum is cached by the jar path while size and modification time of the jar are not
+ * changed, so the jar isn't read each time its checksum is requested. The cache is shared by all
+ * the users of jar checksums, e.g. the store of pre-built indexes and the cache of generated
+ * sources.
+ */
+public final class JarChecksums {
+  private static final Logger LOG = LoggerFactory.getLogger(JarChecksums.class);
+
+  private static final Map<String, JarChecksum> CHECKSUMS = new ConcurrentHashMap<>();
+
+  private JarChecksums() {}
+
+  /** Returns checksum of the jar content or null if the jar can't be read. */
+  public static String sha1(File jar) {
+    final String key = jar.getAbsolutePath();
+    final long length = jar.length();
+    final long lastModified = jar.lastModified();
+    final JarChecksum cached = CHECKSUMS.get(key);
+    if (cached != null && cached.length == length && cached.lastModified == lastModified) {
+      return cached.checksum;
+    }
+    try {
+      final String checksum = Files.asByteSource(jar).hash(Hashing.sha1()).toString();
+      CHECKSUMS.put(key, new JarChecksum(length, lastModified, checksum));
+      return checksum;
+    } catch (IOException e) {
+      LOG.warn("Unable to count checksum of {}: {}", jar, e.getMessage());
+      return null;
+    }
+  }
+
+  private static class JarChecksum {
+    final long length;
+    final long lastModified;
+    final String checksum;
+
+    JarChecksum(long length, long lastModified, String checksum) {
+      this.length = length;
+      this.lastModified = lastModified;
+      this.checksum = checksum;
+    }
+  }
+}
@@ -275,7 +275,8 @@ public class JavaModelManager {
     this.cache = new JavaModelCache();
     optionsCache = new Hashtable<>(defaultOptions);
     javaModel = new org.eclipse.jdt.internal.core.JavaModel();
-    this.indexManager = new IndexManager(ResourcesPlugin.getIndexPath());
+    this.indexManager =
+        new IndexManager(ResourcesPlugin.getIndexPath(), ResourcesPlugin.getSharedIndexPath());
     deltaState = new DeltaProcessingState(this);
     this.nonChainingJars = new HashSet(); // loadClasspathListCache(NON_CHAINING_JARS_CACHE);
     this.invalidArchives = new HashSet(); // loadClasspathListCache(INVALID_ARCHIVES_CACHE);
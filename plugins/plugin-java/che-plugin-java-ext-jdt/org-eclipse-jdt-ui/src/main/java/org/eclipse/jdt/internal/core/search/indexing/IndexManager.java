@@ -92,9 +92,17 @@ public class IndexManager extends JobManager implements IIndexConstants {
   private SimpleLookupTable participantsContainers = null;
   private boolean participantUpdated = false;
   private String indexLocation;
+  // read-only store of pre-built indexes of jars, null if it isn't configured
+  private final SharedIndexStore sharedIndexStore;
 
   public IndexManager(String indexLocation) {
+    this(indexLocation, null);
+  }
+
+  public IndexManager(String indexLocation, String sharedIndexLocation) {
     this.indexLocation = indexLocation;
+    this.sharedIndexStore =
+        sharedIndexLocation == null ? null : new SharedIndexStore(new File(sharedIndexLocation));
     indexNamesMapFile = new File(getSavedIndexesDirectory(), "indexNamesMap.txt");
     savedIndexNamesFile = new File(getSavedIndexesDirectory(), "savedIndexNames.txt");
     participantIndexNamesFile = new File(getSavedIndexesDirectory(), "participantsIndexNames.txt");
@@ -374,6 +382,9 @@ public class IndexManager extends JobManager implements IIndexConstants {
         }
         if (currentIndexState == REUSE_STATE) {
           // supposed to be in reuse state but error in the index file, so reindex.
+          if (this.sharedIndexStore != null && this.sharedIndexStore.contains(indexLocation)) {
+            this.sharedIndexStore.rejected(indexLocation);
+          }
           if (JobManager.VERBOSE)
             Util.verbose(
                 "-> cannot reuse given index: "
@@ -658,6 +669,8 @@ public class IndexManager extends JobManager implements IIndexConstants {
       } else {
         indexFile = IndexLocation.createIndexLocation(indexURL);
       }
+    } else if (this.sharedIndexStore != null && !hasSavedIndex(path)) {
+      indexFile = findSharedIndex(JavaModelManager.getTarget(path, true));
     }
     //        if (JavaCore.getPlugin() == null) return;
     IndexRequest request = null;
@@ -683,6 +696,9 @@ public class IndexManager extends JobManager implements IIndexConstants {
     this.indexLocations.put(containerPath, indexFile);
     Index index = getIndex(containerPath, indexFile, true, false);
     if (index == null) {
+      if (this.sharedIndexStore != null && this.sharedIndexStore.contains(indexFile)) {
+        this.sharedIndexStore.rejected(indexFile);
+      }
       indexFile.close();
       this.indexLocations.put(containerPath, null);
       return false;
@@ -730,7 +746,37 @@ public class IndexManager extends JobManager implements IIndexConstants {
 
   /** No more job awaiting. */
   protected void notifyIdle(long idlingTime) {
-    if (idlingTime > 1000 && this.needToSave) saveIndexes();
+    if (idlingTime > 1000 && this.needToSave) {
+      saveIndexes();
+      if (this.sharedIndexStore != null) this.sharedIndexStore.logStatistics();
+    }
+  }
+
+  /** Returns store of pre-built indexes shared by workspaces or null if it isn't configured. */
+  public SharedIndexStore getSharedIndexStore() {
+    return this.sharedIndexStore;
+  }
+
+  /** Returns true if the index of the given container is saved in the workspace index folder. */
+  private synchronized boolean hasSavedIndex(IPath containerPath) {
+    return getIndexStates().get(computeIndexLocation(containerPath)) == SAVED_STATE;
+  }
+
+  /**
+   * Returns location of the pre-built index of the given jar in the shared index store or null if
+   * the store isn't configured or doesn't have index of the jar.
+   */
+  private IndexLocation findSharedIndex(Object target) {
+    if (this.sharedIndexStore == null) return null;
+    File jar = null;
+    if (target instanceof File) {
+      jar = (File) target;
+    } else if (target instanceof IFile && ((IFile) target).getLocation() != null) {
+      jar = ((IFile) target).getLocation().toFile();
+    }
+    if (jar == null) return null;
+    URL sharedIndexURL = this.sharedIndexStore.find(jar);
+    return sharedIndexURL == null ? null : IndexLocation.createIndexLocation(sharedIndexURL);
   }
 
   /** Name of the background process */
@@ -773,6 +819,10 @@ public class IndexManager extends JobManager implements IIndexConstants {
       if (JavaProject.hasJavaNature(p)) request = new IndexAllProject(p, this);
     } else if (target instanceof IFolder) {
       request = new IndexBinaryFolder((IFolder) target, this);
+    } else if (this.sharedIndexStore != null
+        && (target instanceof IFile || target instanceof File)) {
+      // index is rebuilt in the manager lock, so checksum of the jar is counted by the job
+      request = new AddJarFileWithSharedIndex(containerPath, target);
     } else if (target instanceof IFile) {
       request = new AddJarFileToIndex((IFile) target, null, this);
     } else if (target instanceof File) {
@@ -1363,4 +1413,33 @@ public class IndexManager extends JobManager implements IIndexConstants {
       }
     }
   }
+
+  /**
+   * Looks the pre-built index of a jar up in the shared index store and requests indexing of the
+   * jar reusing the found index if there is one. Lookup counts checksum of the jar, so it is
+   * performed by the indexing thread and doesn't hold the index manager lock.
+   */
+  private class AddJarFileWithSharedIndex extends IndexRequest {
+    private final Object target;
+
+    AddJarFileWithSharedIndex(IPath containerPath, Object target) {
+      super(containerPath, IndexManager.this);
+      this.target = target;
+    }
+
+    public boolean execute(IProgressMonitor progressMonitor) {
+      if (this.isCancelled || progressMonitor != null && progressMonitor.isCanceled()) return true;
+      IndexLocation sharedIndex = findSharedIndex(this.target);
+      if (this.target instanceof IFile) {
+        request(new AddJarFileToIndex((IFile) this.target, sharedIndex, IndexManager.this));
+      } else {
+        request(new AddJarFileToIndex(this.containerPath, sharedIndex, IndexManager.this));
+      }
+      return true;
+    }
+
+    public String toString() {
+      return "looking up shared index of " + this.containerPath; // $NON-NLS-1$
+    }
+  }
 }
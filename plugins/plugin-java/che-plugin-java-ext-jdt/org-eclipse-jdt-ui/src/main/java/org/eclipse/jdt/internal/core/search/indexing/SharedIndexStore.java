@@ -0,0 +1,127 @@
+/**
+ * ***************************************************************************** Copyright (c)
+ * 2012-2017 Red Hat, Inc. All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * <p>Contributors: Red Hat, Inc. - initial API and implementation
+ * *****************************************************************************
+ */
+package org.eclipse.jdt.internal.core.search.indexing;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.che.jdt.util.JarChecksums;
+import org.eclipse.jdt.internal.core.index.IndexLocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Read-only store of pre-built indexes of jars which is shared between workspaces.
+ *
+ * <p>Store is a folder which contains index files named by SHA-1 checksum of the jar content, e.g.
+ * {@code 0a1b...ff.index}, so the same index is found for the same jar regardless of its location.
+ * Store may be populated at image build time or mounted as a volume shared by several workspaces,
+ * {@link IndexManager} never modifies or deletes files of the store.
+ */
+public class SharedIndexStore {
+  private static final Logger LOG = LoggerFactory.getLogger(SharedIndexStore.class);
+
+  private static final String INDEX_FILE_SUFFIX = ".index";
+
+  private final File storeDir;
+  private final Set<File> rejected;
+  private final AtomicLong hits;
+  private final AtomicLong misses;
+  private final AtomicLong rejects;
+
+  private volatile long loggedLookups;
+
+  public SharedIndexStore(File storeDir) {
+    this.storeDir = storeDir;
+    this.rejected = ConcurrentHashMap.newKeySet();
+    this.hits = new AtomicLong();
+    this.misses = new AtomicLong();
+    this.rejects = new AtomicLong();
+  }
+
+  /**
+   * Returns URL of the pre-built index of the given jar or {@code null} if the store doesn't have
+   * index for the jar or the index has been already rejected.
+   */
+  public URL find(File jar) {
+    if (!jar.isFile()) {
+      return null;
+    }
+    final String checksum = JarChecksums.sha1(jar);
+    if (checksum == null) {
+      return null;
+    }
+    final File index = new File(storeDir, checksum + INDEX_FILE_SUFFIX);
+    if (!index.isFile() || rejected.contains(index)) {
+      misses.incrementAndGet();
+      LOG.debug("Shared index of {} is not found", jar);
+      return null;
+    }
+    try {
+      final URL url = index.toURI().toURL();
+      hits.incrementAndGet();
+      LOG.debug("Shared index {} is found for {}", index, jar);
+      return url;
+    } catch (MalformedURLException e) {
+      misses.incrementAndGet();
+      LOG.warn("Unable to use shared index {}: {}", index, e.getMessage());
+      return null;
+    }
+  }
+
+  /** Returns true if the given index location points to the index of this store. */
+  public boolean contains(IndexLocation location) {
+    final File indexFile = location.getIndexFile();
+    return indexFile != null && storeDir.equals(indexFile.getParentFile());
+  }
+
+  /**
+   * Records that the index found in the store can't be read, e.g. it is corrupted or has format
+   * which isn't supported by this version of JDT, and the jar is indexed from scratch.
+   */
+  void rejected(IndexLocation location) {
+    if (!rejected.add(location.getIndexFile())) {
+      return;
+    }
+    rejects.incrementAndGet();
+    LOG.warn("Shared index {} can't be read, jar will be indexed", location);
+  }
+
+  /** Returns count of jars which indexes are found in the store. */
+  public long getHits() {
+    return hits.get();
+  }
+
+  /** Returns count of jars which indexes are not found in the store. */
+  public long getMisses() {
+    return misses.get();
+  }
+
+  /** Returns count of indexes which are found in the store, but can't be read. */
+  public long getRejects() {
+    return rejects.get();
+  }
+
+  /** Logs counters of the store if there were lookups since the previous call. */
+  void logStatistics() {
+    final long lookups = hits.get() + misses.get();
+    if (lookups != loggedLookups) {
+      loggedLookups = lookups;
+      LOG.info(
+          "Shared indexes of jars, found: {}, not found: {}, rejected: {}",
+          hits.get(),
+          misses.get(),
+          rejects.get());
+    }
+  }
+}
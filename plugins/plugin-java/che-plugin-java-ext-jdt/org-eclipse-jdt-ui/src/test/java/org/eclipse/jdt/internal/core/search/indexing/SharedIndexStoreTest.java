@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jdt.internal.core.search.indexing;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.fest.assertions.Assertions.assertThat;
+
+import com.google.common.hash.Hashing;
+import java.io.File;
+import java.net.URL;
+import java.nio.file.Files;
+import org.eclipse.jdt.internal.core.index.IndexLocation;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SharedIndexStoreTest {
+  @Rule public TemporaryFolder temp = new TemporaryFolder();
+
+  private File jar;
+  private File storeDir;
+  private SharedIndexStore store;
+
+  @Before
+  public void setUp() throws Exception {
+    jar = temp.newFile("lib.jar");
+    Files.write(jar.toPath(), "jar content".getBytes(UTF_8));
+    storeDir = temp.newFolder("shared");
+    store = new SharedIndexStore(storeDir);
+  }
+
+  @Test
+  public void findsIndexOfJarByChecksumOfItsContent() throws Exception {
+    File index = createIndexOf("jar content");
+
+    URL found = store.find(jar);
+
+    assertThat(found).isEqualTo(index.toURI().toURL());
+    assertThat(store.contains(IndexLocation.createIndexLocation(found))).isTrue();
+    assertThat(store.getHits()).isEqualTo(1);
+    assertThat(store.getMisses()).isEqualTo(0);
+  }
+
+  @Test
+  public void doesNotFindIndexOfJarWhichIsNotInStore() throws Exception {
+    createIndexOf("other jar content");
+
+    assertThat(store.find(jar)).isNull();
+    assertThat(store.getHits()).isEqualTo(0);
+    assertThat(store.getMisses()).isEqualTo(1);
+  }
+
+  @Test
+  public void findsIndexOfChangedJarByItsNewContent() throws Exception {
+    createIndexOf("jar content");
+    File newIndex = createIndexOf("new jar content");
+    store.find(jar);
+
+    Files.write(jar.toPath(), "new jar content".getBytes(UTF_8));
+    jar.setLastModified(jar.lastModified() + 1000);
+
+    assertThat(store.find(jar)).isEqualTo(newIndex.toURI().toURL());
+  }
+
+  @Test
+  public void doesNotFindRejectedIndex() throws Exception {
+    createIndexOf("jar content");
+    URL found = store.find(jar);
+
+    store.rejected(IndexLocation.createIndexLocation(found));
+    store.rejected(IndexLocation.createIndexLocation(found));
+
+    assertThat(store.find(jar)).isNull();
+    assertThat(store.getRejects()).isEqualTo(1);
+    assertThat(store.getMisses()).isEqualTo(1);
+  }
+
+  @Test
+  public void doesNotContainIndexOutsideOfStore() throws Exception {
+    File index = temp.newFile("workspace.index");
+
+    assertThat(store.contains(IndexLocation.createIndexLocation(index.toURI().toURL()))).isFalse();
+  }
+
+  private File createIndexOf(String jarContent) throws Exception {
+    String checksum = Hashing.sha1().hashString(jarContent, UTF_8).toString();
+    File index = new File(storeDir, checksum + ".index");
+    Files.write(index.toPath(), "index".getBytes(UTF_8));
+    return index;
+  }
+}
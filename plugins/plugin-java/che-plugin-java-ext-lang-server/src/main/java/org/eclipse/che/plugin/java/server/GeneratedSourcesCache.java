@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.plugin.java.server;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.stream.Collectors.joining;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.ide.ext.java.shared.JarEntry;
+import org.eclipse.che.jdt.util.JarChecksums;
+import org.eclipse.jdt.core.JavaModelException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent cache of the content which is generated for jars without attached sources: stub
+ * sources of binary types and listings of jar roots.
+ *
+ * <p>Content is stored in the folder of the jar named by SHA-1 checksum of the jar content, so it
+ * is reused by all the projects which depend on the same jar and survives restarts of the agent.
+ * Total size of the cache is limited, when the limit is exceeded folders of the least recently used
+ * jars are removed.
+ */
+@Singleton
+public class GeneratedSourcesCache {
+  private static final Logger LOG = LoggerFactory.getLogger(GeneratedSourcesCache.class);
+
+  // is changed when generated content changes, so content generated before is not used
+  private static final String FORMAT_VERSION = "1";
+  private static final String SOURCE_SUFFIX = ".java";
+  private static final String ROOT_CONTENT_FILE = "root-content.json";
+
+  private final File cacheDir;
+  private final long maxSize;
+  private final AtomicLong size;
+
+  private volatile boolean sizeCounted;
+
+  @Inject
+  public GeneratedSourcesCache(
+      @Named("che.jdt.generated_sources.dir") String cacheDir,
+      @Named("che.jdt.generated_sources.max_size_mb") int maxSizeMb) {
+    this.cacheDir = new File(cacheDir, FORMAT_VERSION);
+    this.maxSize = maxSizeMb * 1024L * 1024L;
+    this.size = new AtomicLong();
+  }
+
+  /** Generates content for the cache. */
+  @FunctionalInterface
+  public interface Generator<T> {
+    T generate() throws JavaModelException;
+  }
+
+  /**
+   * Returns source of the type with given fully qualified name from the given jar. Source is
+   * generated with the given generator only if the cache doesn't have it yet.
+   */
+  public String getSource(File jar, String fqn, Generator<String> generator)
+      throws JavaModelException {
+    final File jarDir = getJarDir(jar);
+    if (jarDir == null) {
+      return generator.generate();
+    }
+    final File sourceFile = new File(jarDir, fqn + SOURCE_SUFFIX);
+    final String cached = read(sourceFile);
+    if (cached != null) {
+      return cached;
+    }
+    final String source = generator.generate();
+    write(sourceFile, source);
+    return source;
+  }
+
+  /**
+   * Returns entries of the root of the given jar. Entries are listed with the given generator only
+   * if the cache doesn't have them yet.
+   */
+  public List<JarEntry> getRootContent(File jar, Generator<List<JarEntry>> generator)
+      throws JavaModelException {
+    final File jarDir = getJarDir(jar);
+    if (jarDir == null) {
+      return generator.generate();
+    }
+    final File contentFile = new File(jarDir, ROOT_CONTENT_FILE);
+    final String cached = read(contentFile);
+    if (cached != null) {
+      try {
+        return DtoFactory.getInstance().createListDtoFromJson(cached, JarEntry.class);
+      } catch (RuntimeException e) {
+        LOG.warn("Unable to parse cached content of {}: {}", jar, e.getMessage());
+      }
+    }
+    final List<JarEntry> entries = generator.generate();
+    write(
+        contentFile,
+        entries
+            .stream()
+            .map(entry -> DtoFactory.getInstance().toJson(entry))
+            .collect(joining(",", "[", "]")));
+    return entries;
+  }
+
+  /** Returns folder of the given jar or null if jar can't be read. */
+  private File getJarDir(File jar) {
+    final String checksum = JarChecksums.sha1(jar);
+    return checksum == null ? null : new File(cacheDir, checksum);
+  }
+
+  private String read(File file) {
+    if (!file.isFile()) {
+      return null;
+    }
+    try {
+      final String content = new String(Files.readAllBytes(file.toPath()), UTF_8);
+      // folder modification time shows when the jar was used the last time
+      file.getParentFile().setLastModified(System.currentTimeMillis());
+      return content;
+    } catch (IOException e) {
+      LOG.warn("Unable to read cached content {}: {}", file, e.getMessage());
+      return null;
+    }
+  }
+
+  private void write(File file, String content) {
+    final byte[] bytes = content.getBytes(UTF_8);
+    if (bytes.length > maxSize) {
+      return;
+    }
+    countSize();
+    final File parent = file.getParentFile();
+    File tempFile = null;
+    // content cached before, e.g. if it couldn't be parsed, is replaced and isn't counted anymore
+    long replaced = 0;
+    try {
+      parent.mkdirs();
+      tempFile = File.createTempFile(file.getName(), "tmp", parent);
+      Files.write(tempFile.toPath(), bytes);
+      replaced = file.length();
+      Files.move(tempFile.toPath(), file.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+    } catch (IOException e) {
+      LOG.warn("Unable to cache content {}: {}", file, e.getMessage());
+      if (tempFile != null) {
+        tempFile.delete();
+      }
+      return;
+    }
+    if (size.addAndGet(bytes.length - replaced) > maxSize) {
+      evict(parent);
+    }
+  }
+
+  /** Removes folders of the least recently used jars until the size of the cache fits the limit. */
+  private synchronized void evict(File keep) {
+    final File[] jarDirs = cacheDir.listFiles(File::isDirectory);
+    if (jarDirs == null) {
+      return;
+    }
+    Arrays.sort(jarDirs, Comparator.comparingLong(File::lastModified));
+    for (File jarDir : jarDirs) {
+      if (size.get() <= maxSize) {
+        return;
+      }
+      if (!jarDir.equals(keep)) {
+        size.addAndGet(-delete(jarDir));
+      }
+    }
+  }
+
+  private void countSize() {
+    if (sizeCounted) {
+      return;
+    }
+    synchronized (this) {
+      if (!sizeCounted) {
+        final File[] jarDirs = cacheDir.listFiles(File::isDirectory);
+        long total = 0;
+        if (jarDirs != null) {
+          for (File jarDir : jarDirs) {
+            total += sizeOf(jarDir);
+          }
+        }
+        size.addAndGet(total);
+        sizeCounted = true;
+      }
+    }
+  }
+
+  private static long sizeOf(File jarDir) {
+    final File[] files = jarDir.listFiles();
+    long total = 0;
+    if (files != null) {
+      for (File file : files) {
+        total += file.length();
+      }
+    }
+    return total;
+  }
+
+  /** Deletes folder of the jar and returns count of deleted bytes. */
+  private static long delete(File jarDir) {
+    final File[] files = jarDir.listFiles();
+    long deleted = 0;
+    if (files != null) {
+      for (File file : files) {
+        final long length = file.length();
+        if (file.delete()) {
+          deleted += length;
+        }
+      }
+    }
+    jarDir.delete();
+    return deleted;
+  }
+}
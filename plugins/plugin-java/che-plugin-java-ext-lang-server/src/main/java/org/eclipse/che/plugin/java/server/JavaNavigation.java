@@ -14,6 +14,7 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -41,6 +42,7 @@ import org.eclipse.che.ide.ext.java.shared.dto.model.PackageFragment;
 import org.eclipse.che.ide.ext.java.shared.dto.model.PackageFragmentRoot;
 import org.eclipse.che.ide.ext.java.shared.dto.model.Type;
 import org.eclipse.che.jdt.javadoc.JavaElementLabels;
+import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.jdt.core.IClassFile;
 import org.eclipse.jdt.core.ICodeAssist;
@@ -129,10 +131,17 @@ public class JavaNavigation {
   private Gson gson = new GsonBuilder().disableHtmlEscaping().serializeNulls().create();
   private boolean fFoldPackages = true;
   private SourcesFromBytecodeGenerator sourcesGenerator;
+  private GeneratedSourcesCache sourcesCache;
 
   @Inject
-  public JavaNavigation(SourcesFromBytecodeGenerator sourcesGenerator) {
+  public JavaNavigation(
+      SourcesFromBytecodeGenerator sourcesGenerator, GeneratedSourcesCache sourcesCache) {
     this.sourcesGenerator = sourcesGenerator;
+    this.sourcesCache = sourcesCache;
+  }
+
+  public JavaNavigation(SourcesFromBytecodeGenerator sourcesGenerator) {
+    this(sourcesGenerator, null);
   }
 
   /**
@@ -246,11 +255,38 @@ public class JavaNavigation {
       return NO_ENTRIES;
     }
 
+    File jar = getJarFile(packageFragmentRoot);
+    if (jar != null) {
+      return sourcesCache.getRootContent(
+          jar,
+          () ->
+              convertToJarEntry(
+                  getPackageFragmentRootContent(packageFragmentRoot), packageFragmentRoot));
+    }
+
     Object[] rootContent = getPackageFragmentRootContent(packageFragmentRoot);
 
     return convertToJarEntry(rootContent, packageFragmentRoot);
   }
 
+  /**
+   * Returns jar file of the given root if content of the root can be cached, otherwise returns
+   * null.
+   */
+  private File getJarFile(IPackageFragmentRoot root) {
+    if (sourcesCache == null || !(root instanceof JarPackageFragmentRoot)) {
+      return null;
+    }
+    if (root.isExternal()) {
+      return root.getPath().toFile();
+    }
+    IResource resource = root.getResource();
+    if (resource != null && resource.getLocation() != null) {
+      return resource.getLocation().toFile();
+    }
+    return null;
+  }
+
   /**
    * Get the compilation unit representation of the java file.
    *
@@ -749,8 +785,20 @@ public class JavaNavigation {
         if (classFile.getSourceRange() != null) {
           return createContent(classFile.getSource(), false);
         } else {
-
-          return createContent(sourcesGenerator.generateSource(classFile.getType()), true);
+          IType classFileType = classFile.getType();
+          File jar =
+              getJarFile(
+                  (IPackageFragmentRoot)
+                      classFile.getAncestor(IPackageFragmentRoot.PACKAGE_FRAGMENT_ROOT));
+          if (jar != null) {
+            return createContent(
+                sourcesCache.getSource(
+                    jar,
+                    classFileType.getFullyQualifiedName(),
+                    () -> sourcesGenerator.generateSource(classFileType)),
+                true);
+          }
+          return createContent(sourcesGenerator.generateSource(classFileType), true);
         }
       } else {
         return createContent(type.getCompilationUnit().getSource(), false);
@@ -75,4 +75,11 @@ public class JdtGuiceModule extends AbstractModule {
   protected String provideIndex(@Named("che.workspace.metadata") String wsMetadata) {
     return Paths.get(System.getProperty("user.home"), wsMetadata, "index").toString();
   }
+
+  @Provides
+  @Named("che.jdt.generated_sources.dir")
+  @Singleton
+  protected String provideGeneratedSources(@Named("che.workspace.metadata") String wsMetadata) {
+    return Paths.get(System.getProperty("user.home"), wsMetadata, "generated-sources").toString();
+  }
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.plugin.java.server.che;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Collections.emptyList;
+import static org.fest.assertions.Assertions.assertThat;
+
+import com.google.common.base.Strings;
+import com.google.common.hash.Hashing;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.che.ide.ext.java.shared.JarEntry;
+import org.eclipse.che.plugin.java.server.GeneratedSourcesCache;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GeneratedSourcesCacheTest {
+  @Rule public TemporaryFolder temp = new TemporaryFolder();
+
+  private File jar;
+  private File cacheDir;
+  private AtomicInteger generated;
+
+  @Before
+  public void setUp() throws Exception {
+    jar = temp.newFile("lib.jar");
+    Files.write(jar.toPath(), "jar content".getBytes(UTF_8));
+    cacheDir = temp.newFolder("cache");
+    generated = new AtomicInteger();
+  }
+
+  @Test
+  public void generatesSourceOnlyOnce() throws Exception {
+    GeneratedSourcesCache cache = new GeneratedSourcesCache(cacheDir.getPath(), 1);
+
+    String first = cache.getSource(jar, "a.B", () -> generate("class B {}"));
+    String second = cache.getSource(jar, "a.B", () -> generate("class B {}"));
+
+    assertThat(first).isEqualTo("class B {}");
+    assertThat(second).isEqualTo("class B {}");
+    assertThat(generated.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void reusesSourceGeneratedByPreviousInstance() throws Exception {
+    new GeneratedSourcesCache(cacheDir.getPath(), 1)
+        .getSource(jar, "a.B", () -> generate("class B {}"));
+
+    String source =
+        new GeneratedSourcesCache(cacheDir.getPath(), 1)
+            .getSource(jar, "a.B", () -> generate("class B {}"));
+
+    assertThat(source).isEqualTo("class B {}");
+    assertThat(generated.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void sharesSourcesOfJarsWithTheSameContent() throws Exception {
+    File copy = temp.newFile("copy.jar");
+    Files.copy(jar.toPath(), copy.toPath(), REPLACE_EXISTING);
+    GeneratedSourcesCache cache = new GeneratedSourcesCache(cacheDir.getPath(), 1);
+
+    cache.getSource(jar, "a.B", () -> generate("class B {}"));
+    cache.getSource(copy, "a.B", () -> generate("class B {}"));
+
+    assertThat(generated.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void evictsSourcesOfLeastRecentlyUsedJarsWhenSizeLimitIsExceeded() throws Exception {
+    File other = temp.newFile("other.jar");
+    Files.write(other.toPath(), "other jar content".getBytes(UTF_8));
+    GeneratedSourcesCache cache = new GeneratedSourcesCache(cacheDir.getPath(), 1);
+    String bigSource = Strings.repeat("a", 700 * 1024);
+
+    cache.getSource(jar, "a.B", () -> generate(bigSource));
+    cache.getSource(other, "a.C", () -> generate(bigSource));
+    cache.getSource(other, "a.C", () -> generate(bigSource));
+    cache.getSource(jar, "a.B", () -> generate(bigSource));
+
+    assertThat(generated.get()).isEqualTo(3);
+  }
+
+  @Test
+  public void doesNotCountReplacedContentInSizeOfCache() throws Exception {
+    File other = temp.newFile("other.jar");
+    Files.write(other.toPath(), "other jar content".getBytes(UTF_8));
+    String bigContent = Strings.repeat("a", 700 * 1024);
+    File jarDir =
+        new File(cacheDir, "1/" + Hashing.sha1().hashString("jar content", UTF_8).toString());
+    jarDir.mkdirs();
+    Files.write(new File(jarDir, "root-content.json").toPath(), bigContent.getBytes(UTF_8));
+    GeneratedSourcesCache cache = new GeneratedSourcesCache(cacheDir.getPath(), 1);
+
+    // broken root content is replaced
+    cache.getRootContent(jar, this::listRoot);
+    cache.getSource(other, "a.C", () -> generate(bigContent));
+    cache.getRootContent(jar, this::listRoot);
+
+    assertThat(generated.get()).isEqualTo(2);
+  }
+
+  private String generate(String source) {
+    generated.incrementAndGet();
+    return source;
+  }
+
+  private List<JarEntry> listRoot() {
+    generated.incrementAndGet();
+    return emptyList();
+  }
+}
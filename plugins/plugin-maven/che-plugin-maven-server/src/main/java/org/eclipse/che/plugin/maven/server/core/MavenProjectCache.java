@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.plugin.maven.server.core;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.eclipse.che.maven.data.MavenArtifact;
+import org.eclipse.che.maven.data.MavenKey;
+import org.eclipse.che.maven.data.MavenModel;
+import org.eclipse.che.maven.data.MavenProjectProblem;
+import org.eclipse.che.plugin.maven.server.core.project.MavenModelReaderResult;
+import org.eclipse.che.plugin.maven.server.core.project.MavenProject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent cache of resolved maven project models.
+ *
+ * <p>Each entry is stored in its own file under the cache directory and is keyed by the workspace
+ * path of the project pom. An entry is valid only while the fingerprint of the resolve inputs
+ * (pom content, contents of the parent poms located in the workspace, profiles requested to be
+ * active and inactive, user and global maven settings) is unchanged and every resolved dependency
+ * file still exists, so cached models survive ws-agent restarts and allow classpath to be restored
+ * without invoking maven.
+ */
+@Singleton
+public class MavenProjectCache {
+  private static final Logger LOG = LoggerFactory.getLogger(MavenProjectCache.class);
+
+  private static final String ENTRY_EXTENSION = ".model";
+  private static final String SNAPSHOT = "SNAPSHOT";
+  private static final long REVALIDATE_AFTER_MS = TimeUnit.HOURS.toMillis(24);
+
+  private final Path cacheDir;
+  private final ConcurrentMap<String, Entry> entries;
+
+  @Inject
+  public MavenProjectCache(@Named("che.maven.project.cache.dir") String cacheDir) {
+    this.cacheDir = Paths.get(cacheDir);
+    this.entries = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Returns cached resolve result for the given project if it is still valid.
+   *
+   * @param mavenProject project to find resolve result for
+   * @param activeProfiles profiles which are requested to be active by the resolve
+   * @param inactiveProfiles profiles which are requested to be inactive by the resolve
+   * @param projectLocator finds workspace project by its maven key, used to walk the chain of
+   *     parent poms
+   * @return cached resolve result or {@code null} when there is no valid entry
+   */
+  public MavenModelReaderResult get(
+      MavenProject mavenProject,
+      List<String> activeProfiles,
+      List<String> inactiveProfiles,
+      Function<MavenKey, MavenProject> projectLocator) {
+    String pomPath = mavenProject.getPomPath();
+    if (pomPath == null) {
+      return null;
+    }
+    Entry entry = entries.computeIfAbsent(pomPath, this::load);
+    if (entry == null) {
+      return null;
+    }
+    if (!entry.fingerprint.equals(
+            fingerprint(mavenProject, activeProfiles, inactiveProfiles, projectLocator))
+        || !dependenciesExist(entry.model)) {
+      invalidate(pomPath);
+      return null;
+    }
+    return new MavenModelReaderResult(
+        entry.model,
+        entry.activeProfiles,
+        entry.inactiveProfiles,
+        entry.problems,
+        entry.unresolvedArtifacts);
+  }
+
+  /**
+   * Stores resolve result of the given project. Results that contain problems are not stored,
+   * since they most likely will be different on the next resolve. The result is stored for the
+   * profiles which were requested by the resolve, the profiles activated by it may differ.
+   */
+  public void put(
+      MavenProject mavenProject,
+      List<String> activeProfiles,
+      List<String> inactiveProfiles,
+      MavenModelReaderResult result,
+      Function<MavenKey, MavenProject> projectLocator) {
+    String pomPath = mavenProject.getPomPath();
+    if (pomPath == null) {
+      return;
+    }
+    if (!result.getProblems().isEmpty()) {
+      invalidate(pomPath);
+      return;
+    }
+
+    Entry entry =
+        new Entry(
+            fingerprint(mavenProject, activeProfiles, inactiveProfiles, projectLocator),
+            System.currentTimeMillis(),
+            result.getMavenModel(),
+            new ArrayList<>(result.getActiveProfiles()),
+            new ArrayList<>(result.getInactiveProfiles()),
+            new ArrayList<>(result.getProblems()),
+            new HashSet<>(result.getUnresolvedArtifacts()));
+    entries.put(pomPath, entry);
+    store(pomPath, entry);
+  }
+
+  /**
+   * Checks whether cached result of the given project may be outdated even though its fingerprint
+   * is unchanged, e.g. it depends on snapshot artifacts or hasn't been refreshed for a long time.
+   * Such projects should be resolved once more in background after the cached model is applied.
+   */
+  public boolean isRevalidationRequired(MavenProject mavenProject) {
+    String pomPath = mavenProject.getPomPath();
+    Entry entry = pomPath == null ? null : entries.get(pomPath);
+    if (entry == null) {
+      return false;
+    }
+    if (System.currentTimeMillis() - entry.created > REVALIDATE_AFTER_MS
+        || !entry.unresolvedArtifacts.isEmpty()) {
+      return true;
+    }
+    return entry
+        .model
+        .getDependencies()
+        .stream()
+        .anyMatch(
+            artifact -> artifact.getVersion() != null && artifact.getVersion().endsWith(SNAPSHOT));
+  }
+
+  /** Removes cached result of the project with given workspace pom path. */
+  public void invalidate(String pomPath) {
+    entries.remove(pomPath);
+    try {
+      Files.deleteIfExists(entryFile(pomPath));
+    } catch (IOException e) {
+      LOG.warn("Can't remove maven project cache entry for {}", pomPath, e);
+    }
+  }
+
+  private String fingerprint(
+      MavenProject mavenProject,
+      List<String> activeProfiles,
+      List<String> inactiveProfiles,
+      Function<MavenKey, MavenProject> projectLocator) {
+    Hasher hasher = Hashing.sha1().newHasher();
+    putFile(hasher, mavenProject.getPomFile());
+
+    Set<MavenKey> visited = new HashSet<>();
+    MavenKey parentKey = mavenProject.getParentKey();
+    while (parentKey != null && visited.add(parentKey)) {
+      MavenProject parent = projectLocator.apply(parentKey);
+      if (parent == null) {
+        // parent comes from repository, released parents are immutable
+        hasher.putString(parentKey.toString(), UTF_8);
+        break;
+      }
+      putFile(hasher, parent.getPomFile());
+      parentKey = parent.getParentKey();
+    }
+
+    putStrings(hasher, activeProfiles);
+    putStrings(hasher, inactiveProfiles);
+
+    putFile(hasher, new File(System.getProperty("user.home"), ".m2/settings.xml"));
+    String mavenHome = System.getenv("M2_HOME");
+    if (mavenHome != null) {
+      putFile(hasher, new File(mavenHome, "conf/settings.xml"));
+    }
+    return hasher.hash().toString();
+  }
+
+  private static void putStrings(Hasher hasher, List<String> strings) {
+    if (strings != null) {
+      strings.forEach(string -> hasher.putString(string, UTF_8).putChar('\n'));
+    }
+    hasher.putChar('\0');
+  }
+
+  private static void putFile(Hasher hasher, File file) {
+    hasher.putString(file == null ? "" : file.getPath(), UTF_8);
+    if (file != null && file.isFile()) {
+      try {
+        hasher.putBytes(Files.readAllBytes(file.toPath()));
+      } catch (IOException e) {
+        LOG.debug(e.getMessage(), e);
+        hasher.putLong(System.nanoTime()); // unreadable input never matches
+      }
+    }
+  }
+
+  private static boolean dependenciesExist(MavenModel model) {
+    for (MavenArtifact artifact : model.getDependencies()) {
+      File file = artifact.getFile();
+      if (artifact.isResolved() && file != null && !file.exists()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private Path entryFile(String pomPath) {
+    return cacheDir.resolve(Hashing.sha1().hashString(pomPath, UTF_8) + ENTRY_EXTENSION);
+  }
+
+  private Entry load(String pomPath) {
+    Path file = entryFile(pomPath);
+    if (!Files.isRegularFile(file)) {
+      return null;
+    }
+    try (InputStream in = Files.newInputStream(file);
+        ObjectInputStream objectIn = new ObjectInputStream(in)) {
+      return (Entry) objectIn.readObject();
+    } catch (IOException | ClassNotFoundException | ClassCastException e) {
+      LOG.warn("Can't read maven project cache entry for {}, it will be dropped", pomPath);
+      LOG.debug(e.getMessage(), e);
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException ignored) {
+      }
+      return null;
+    }
+  }
+
+  private void store(String pomPath, Entry entry) {
+    Path file = entryFile(pomPath);
+    try {
+      Files.createDirectories(cacheDir);
+      Path tmp = Files.createTempFile(cacheDir, "entry", ".tmp");
+      try (OutputStream out = Files.newOutputStream(tmp);
+          ObjectOutputStream objectOut = new ObjectOutputStream(out)) {
+        objectOut.writeObject(entry);
+      }
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      LOG.warn("Can't store maven project cache entry for {}", pomPath, e);
+    }
+  }
+
+  private static class Entry implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String fingerprint;
+    private final long created;
+    private final MavenModel model;
+    private final List<String> activeProfiles;
+    private final List<String> inactiveProfiles;
+    private final List<MavenProjectProblem> problems;
+    private final Set<MavenKey> unresolvedArtifacts;
+
+    private Entry(
+        String fingerprint,
+        long created,
+        MavenModel model,
+        List<String> activeProfiles,
+        List<String> inactiveProfiles,
+        List<MavenProjectProblem> problems,
+        Set<MavenKey> unresolvedArtifacts) {
+      this.fingerprint = fingerprint;
+      this.created = created;
+      this.model = model;
+      this.activeProfiles = activeProfiles;
+      this.inactiveProfiles = inactiveProfiles;
+      this.problems = problems;
+      this.unresolvedArtifacts = unresolvedArtifacts;
+    }
+  }
+}
@@ -35,6 +35,7 @@ import org.eclipse.che.maven.server.MavenTerminal;
 import org.eclipse.che.plugin.maven.server.MavenServerManager;
 import org.eclipse.che.plugin.maven.server.MavenServerWrapper;
 import org.eclipse.che.plugin.maven.server.MavenWrapperManager;
+import org.eclipse.che.plugin.maven.server.core.project.MavenModelReaderResult;
 import org.eclipse.che.plugin.maven.server.core.project.MavenProject;
 import org.eclipse.che.plugin.maven.server.core.project.MavenProjectModifications;
 import org.eclipse.core.resources.IProject;
@@ -64,6 +65,7 @@ public class MavenProjectManager {
   private final MavenTerminal terminal;
   private final MavenProgressNotifier mavenNotifier;
   private final Provider<IWorkspace> workspaceProvider;
+  private final MavenProjectCache projectCache;
 
   private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
   private final Lock readLock = readWriteLock.readLock();
@@ -77,12 +79,14 @@ public class MavenProjectManager {
       MavenServerManager serverManager,
       MavenTerminal terminal,
       MavenProgressNotifier mavenNotifier,
-      EclipseWorkspaceProvider workspaceProvider) {
+      EclipseWorkspaceProvider workspaceProvider,
+      MavenProjectCache projectCache) {
     this.wrapperManager = wrapperManager;
     this.serverManager = serverManager;
     this.terminal = terminal;
     this.mavenNotifier = mavenNotifier;
     this.workspaceProvider = workspaceProvider;
+    this.projectCache = projectCache;
     mavenWorkspaceCache = new MavenWorkspaceCache();
     keyToProjectMap = new HashMap<>();
     projectToMavenProjectMap = new HashMap<>();
@@ -113,20 +117,63 @@ public class MavenProjectManager {
     listeners.remove(listener);
   }
 
-  public void resolveMavenProject(IProject project, MavenProject mavenProject) {
+  /**
+   * Resolves maven project. Cached resolve result is used instead of invoking maven when it is
+   * still valid.
+   *
+   * @return {@code true} if project model was restored from cache
+   */
+  public boolean resolveMavenProject(IProject project, MavenProject mavenProject) {
+    return resolveMavenProject(project, mavenProject, true);
+  }
+
+  /**
+   * Resolves maven project.
+   *
+   * @param useCache whether valid cached resolve result may be used instead of invoking maven
+   * @return {@code true} if project model was restored from cache
+   */
+  public boolean resolveMavenProject(
+      IProject project, MavenProject mavenProject, boolean useCache) {
+    // the same profiles are passed to maven and to the cache, so the cached result is keyed by
+    // the profiles it was resolved with even if the project is changed meanwhile
+    List<String> activeProfiles = mavenProject.getActiveProfiles();
+    List<String> inactiveProfiles = mavenProject.getInactiveProfiles();
+    if (useCache) {
+      MavenModelReaderResult cached =
+          projectCache.get(mavenProject, activeProfiles, inactiveProfiles, this::findMavenProject);
+      if (cached != null) {
+        mavenNotifier.setText("Restoring project: " + mavenProject.getName());
+        dispatcher.projectResolved(mavenProject, mavenProject.applyResolveResult(cached));
+        return true;
+      }
+    }
+
     MavenServerWrapper mavenServer =
         wrapperManager.getMavenServer(MavenWrapperManager.ServerType.RESOLVE);
     try {
 
       mavenNotifier.setText("Resolving project: " + mavenProject.getName());
       mavenServer.customize(copyWorkspaceCache(), terminal, mavenNotifier, false, true);
-      MavenProjectModifications modifications =
-          mavenProject.resolve(project, mavenServer, serverManager);
+      MavenModelReaderResult result =
+          mavenProject.resolveModel(
+              project, mavenServer, serverManager, activeProfiles, inactiveProfiles);
+      projectCache.put(
+          mavenProject, activeProfiles, inactiveProfiles, result, this::findMavenProject);
+      MavenProjectModifications modifications = mavenProject.applyResolveResult(result);
       dispatcher.projectResolved(mavenProject, modifications);
 
     } finally {
       wrapperManager.release(mavenServer);
     }
+    return false;
+  }
+
+  /**
+   * Checks whether project model restored from cache should be resolved once more in background.
+   */
+  public boolean isRevalidationRequired(MavenProject mavenProject) {
+    return projectCache.isRevalidationRequired(mavenProject);
   }
 
   public void update(List<IProject> projects, boolean recursive) {
@@ -280,6 +327,7 @@ public class MavenProjectManager {
       }
 
       projectToMavenProjectMap.remove(removedModule.getProject());
+      projectCache.invalidate(removedModule.getPomPath());
       clearMavenKeyMap(removedModule);
       moduleToParentMap.remove(removedModule);
       parentToModulesMap.remove(removedModule);
@@ -429,6 +477,15 @@ public class MavenProjectManager {
     }
   }
 
+  public MavenProject findMavenProject(MavenKey mavenKey) {
+    readLock.lock();
+    try {
+      return keyToProjectMap.get(mavenKey);
+    } finally {
+      readLock.unlock();
+    }
+  }
+
   public MavenWorkspaceCache copyWorkspaceCache() {
     readLock.lock();
     try {
@@ -19,12 +19,31 @@ public class MavenProjectResolveTask implements MavenProjectTask {
   private final MavenProject mavenProject;
   private final MavenProjectManager projectManager;
   private final Runnable afterTask;
+  private final boolean useCache;
+  private final Runnable afterRestore;
 
   public MavenProjectResolveTask(
       MavenProject mavenProject, MavenProjectManager projectManager, Runnable afterTask) {
+    this(mavenProject, projectManager, afterTask, false, null);
+  }
+
+  /**
+   * Creates task which may restore project model from cache instead of resolving it.
+   *
+   * @param useCache whether valid cached model may be used instead of invoking maven
+   * @param afterRestore runs after {@code afterTask} if project model was restored from cache
+   */
+  public MavenProjectResolveTask(
+      MavenProject mavenProject,
+      MavenProjectManager projectManager,
+      Runnable afterTask,
+      boolean useCache,
+      Runnable afterRestore) {
     this.mavenProject = mavenProject;
     this.projectManager = projectManager;
     this.afterTask = afterTask;
+    this.useCache = useCache;
+    this.afterRestore = afterRestore;
   }
 
   @Override
@@ -33,9 +52,12 @@ public class MavenProjectResolveTask implements MavenProjectTask {
     if (!project.exists()) {
       return;
     }
-    projectManager.resolveMavenProject(project, mavenProject);
+    boolean restored = projectManager.resolveMavenProject(project, mavenProject, useCache);
     if (afterTask != null) {
       afterTask.run();
     }
+    if (restored && afterRestore != null) {
+      afterRestore.run();
+    }
   }
 }
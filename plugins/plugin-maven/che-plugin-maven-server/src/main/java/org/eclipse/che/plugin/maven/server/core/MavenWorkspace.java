@@ -179,14 +179,24 @@ public class MavenWorkspace {
     projectsToResolve.clear();
 
     for (MavenProject mavenProject : needResolve) {
+      Runnable updateClasspath =
+          () -> {
+            addSourcesFromBuildHelperPlugin(mavenProject);
+            classpathManager.updateClasspath(mavenProject);
+          };
 
       resolveExecutor.submitTask(
           new MavenProjectResolveTask(
               mavenProject,
               manager,
+              updateClasspath,
+              true,
               () -> {
-                addSourcesFromBuildHelperPlugin(mavenProject);
-                classpathManager.updateClasspath(mavenProject);
+                // cached model is applied, queue resolving to refresh it in background
+                if (manager.isRevalidationRequired(mavenProject)) {
+                  resolveExecutor.submitTask(
+                      new MavenProjectResolveTask(mavenProject, manager, updateClasspath));
+                }
               }));
     }
   }
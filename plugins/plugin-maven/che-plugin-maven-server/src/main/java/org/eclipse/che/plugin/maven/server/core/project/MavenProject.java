@@ -79,6 +79,14 @@ public class MavenProject {
     return info.profilesIds;
   }
 
+  public List<String> getActiveProfiles() {
+    return info.activeProfiles;
+  }
+
+  public List<String> getInactiveProfiles() {
+    return info.inactiveProfiles;
+  }
+
   public List<MavenResource> getResources() {
     return info.resources;
   }
@@ -184,16 +192,52 @@ public class MavenProject {
    */
   public MavenProjectModifications resolve(
       IProject project, MavenServerWrapper mavenServer, MavenServerManager serverManager) {
-    MavenModelReader reader = new MavenModelReader();
+    return applyResolveResult(resolveModel(project, mavenServer, serverManager));
+  }
 
-    MavenModelReaderResult modelReaderResult =
-        reader.resolveMavenProject(
-            getPom(project),
-            mavenServer,
-            info.activeProfiles,
-            info.inactiveProfiles,
-            serverManager);
+  /**
+   * Invoke maven to build project model without applying it to this project.
+   *
+   * @param project to resolve
+   * @param mavenServer the maven server
+   * @return the result of project resolving
+   * @see #applyResolveResult(MavenModelReaderResult)
+   */
+  public MavenModelReaderResult resolveModel(
+      IProject project, MavenServerWrapper mavenServer, MavenServerManager serverManager) {
+    return resolveModel(
+        project, mavenServer, serverManager, info.activeProfiles, info.inactiveProfiles);
+  }
 
+  /**
+   * Invoke maven to build project model with the given profiles without applying it to this
+   * project.
+   *
+   * @param project to resolve
+   * @param mavenServer the maven server
+   * @param activeProfiles profiles which should be active
+   * @param inactiveProfiles profiles which should be inactive
+   * @return the result of project resolving
+   * @see #applyResolveResult(MavenModelReaderResult)
+   */
+  public MavenModelReaderResult resolveModel(
+      IProject project,
+      MavenServerWrapper mavenServer,
+      MavenServerManager serverManager,
+      List<String> activeProfiles,
+      List<String> inactiveProfiles) {
+    MavenModelReader reader = new MavenModelReader();
+    return reader.resolveMavenProject(
+        getPom(project), mavenServer, activeProfiles, inactiveProfiles, serverManager);
+  }
+
+  /**
+   * Applies the result of project resolving, e.g. obtained from maven or restored from cache.
+   *
+   * @param modelReaderResult result of project resolving
+   * @return the modification types that applied to this project
+   */
+  public MavenProjectModifications applyResolveResult(MavenModelReaderResult modelReaderResult) {
     return setModel(modelReaderResult, modelReaderResult.getProblems().isEmpty(), false);
   }
 
@@ -13,8 +13,11 @@ package org.eclipse.che.plugin.maven.server.inject;
 import static com.google.inject.multibindings.Multibinder.newSetBinder;
 
 import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
 import com.google.inject.Singleton;
 import com.google.inject.multibindings.Multibinder;
+import com.google.inject.name.Named;
+import java.nio.file.Paths;
 import java.util.Collections;
 import org.eclipse.che.api.languageserver.launcher.LanguageServerLauncher;
 import org.eclipse.che.api.languageserver.shared.model.LanguageDescription;
@@ -88,4 +91,11 @@ public class MavenModule extends AbstractModule {
         .addBinding()
         .toInstance(description);
   }
+
+  @Provides
+  @Named("che.maven.project.cache.dir")
+  @Singleton
+  protected String provideProjectCacheDir(@Named("che.workspace.metadata") String wsMetadata) {
+    return Paths.get(System.getProperty("user.home"), wsMetadata, "maven", "projects").toString();
+  }
 }
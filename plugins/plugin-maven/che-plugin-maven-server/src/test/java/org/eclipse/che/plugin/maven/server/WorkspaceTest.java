@@ -20,6 +20,7 @@ import static org.mockito.Mockito.when;
 
 import com.google.inject.Provider;
 import java.io.File;
+import java.nio.file.Files;
 import java.rmi.RemoteException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -39,6 +40,7 @@ import org.eclipse.che.maven.data.MavenKey;
 import org.eclipse.che.maven.server.MavenTerminal;
 import org.eclipse.che.plugin.maven.server.core.EclipseWorkspaceProvider;
 import org.eclipse.che.plugin.maven.server.core.MavenExecutorService;
+import org.eclipse.che.plugin.maven.server.core.MavenProjectCache;
 import org.eclipse.che.plugin.maven.server.core.MavenProjectManager;
 import org.eclipse.che.plugin.maven.server.core.MavenWorkspace;
 import org.eclipse.che.plugin.maven.server.core.classpath.ClasspathManager;
@@ -87,7 +89,8 @@ public class WorkspaceTest extends BaseTest {
             mavenServerManager,
             terminal,
             mavenNotifier,
-            new EclipseWorkspaceProvider());
+            new EclipseWorkspaceProvider(),
+            new MavenProjectCache(Files.createTempDirectory("maven-project-cache").toString()));
     mavenWorkspace =
         new MavenWorkspace(
             mavenProjectManager,
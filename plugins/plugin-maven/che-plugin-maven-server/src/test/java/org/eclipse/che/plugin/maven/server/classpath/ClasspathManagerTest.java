@@ -19,6 +19,7 @@ import static org.testng.Assert.assertTrue;
 
 import com.google.inject.Provider;
 import java.io.File;
+import java.nio.file.Files;
 import java.util.Collections;
 import org.eclipse.che.api.project.server.ProjectRegistry;
 import org.eclipse.che.commons.lang.IoUtil;
@@ -27,6 +28,7 @@ import org.eclipse.che.plugin.maven.server.BaseTest;
 import org.eclipse.che.plugin.maven.server.MavenWrapperManager;
 import org.eclipse.che.plugin.maven.server.core.EclipseWorkspaceProvider;
 import org.eclipse.che.plugin.maven.server.core.MavenExecutorService;
+import org.eclipse.che.plugin.maven.server.core.MavenProjectCache;
 import org.eclipse.che.plugin.maven.server.core.MavenProjectManager;
 import org.eclipse.che.plugin.maven.server.core.MavenWorkspace;
 import org.eclipse.che.plugin.maven.server.core.classpath.ClasspathManager;
@@ -74,7 +76,8 @@ public class ClasspathManagerTest extends BaseTest {
             mavenServerManager,
             terminal,
             mavenNotifier,
-            new EclipseWorkspaceProvider());
+            new EclipseWorkspaceProvider(),
+            new MavenProjectCache(Files.createTempDirectory("maven-project-cache").toString()));
     classpathManager =
         new ClasspathManager(
             root.getAbsolutePath(), wrapperManager, mavenProjectManager, terminal, mavenNotifier);
@@ -15,6 +15,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.google.inject.Provider;
+import java.nio.file.Files;
 import java.rmi.RemoteException;
 import java.util.Collections;
 import org.eclipse.che.api.project.server.ProjectRegistry;
@@ -23,6 +24,7 @@ import org.eclipse.che.plugin.maven.server.BaseTest;
 import org.eclipse.che.plugin.maven.server.MavenWrapperManager;
 import org.eclipse.che.plugin.maven.server.core.EclipseWorkspaceProvider;
 import org.eclipse.che.plugin.maven.server.core.MavenExecutorService;
+import org.eclipse.che.plugin.maven.server.core.MavenProjectCache;
 import org.eclipse.che.plugin.maven.server.core.MavenProjectManager;
 import org.eclipse.che.plugin.maven.server.core.MavenWorkspace;
 import org.eclipse.che.plugin.maven.server.core.classpath.ClasspathManager;
@@ -65,7 +67,8 @@ public class OutputPathTest extends BaseTest {
             mavenServerManager,
             terminal,
             mavenNotifier,
-            new EclipseWorkspaceProvider());
+            new EclipseWorkspaceProvider(),
+            new MavenProjectCache(Files.createTempDirectory("maven-project-cache").toString()));
     mavenWorkspace =
         new MavenWorkspace(
             mavenProjectManager,
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.plugin.maven.server.core;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonList;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.eclipse.che.maven.data.MavenArtifact;
+import org.eclipse.che.maven.data.MavenKey;
+import org.eclipse.che.maven.data.MavenModel;
+import org.eclipse.che.plugin.maven.server.core.project.MavenModelReaderResult;
+import org.eclipse.che.plugin.maven.server.core.project.MavenProject;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests for {@link MavenProjectCache}. */
+@Listeners(MockitoTestNGListener.class)
+public class MavenProjectCacheTest {
+  private static final List<String> ACTIVE_PROFILES = singletonList("dev");
+
+  @Mock private MavenProject mavenProject;
+
+  private Path cacheDir;
+  private File pom;
+  private MavenModelReaderResult result;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    cacheDir = Files.createTempDirectory("maven-project-cache");
+    pom = Files.createTempFile("pom", ".xml").toFile();
+    Files.write(pom.toPath(), "<project/>".getBytes());
+
+    when(mavenProject.getPomPath()).thenReturn("/project/pom.xml");
+    when(mavenProject.getPomFile()).thenReturn(pom);
+
+    MavenModel model = new MavenModel();
+    model.setMavenKey(new MavenKey("org.test", "project", "1.0"));
+    model.setDependencies(
+        singletonList(
+            new MavenArtifact(
+                "org.test",
+                "dependency",
+                "1.0",
+                "1.0",
+                "jar",
+                null,
+                "compile",
+                false,
+                "jar",
+                pom,
+                null,
+                true,
+                false)));
+    result = new MavenModelReaderResult(model, emptyList(), emptyList(), emptyList(), emptySet());
+  }
+
+  @Test
+  public void shouldRestoreResultAfterRestart() throws Exception {
+    new MavenProjectCache(cacheDir.toString())
+        .put(mavenProject, ACTIVE_PROFILES, emptyList(), result, key -> null);
+
+    MavenModelReaderResult restored =
+        new MavenProjectCache(cacheDir.toString())
+            .get(mavenProject, ACTIVE_PROFILES, emptyList(), key -> null);
+
+    assertNotNull(restored);
+    assertEquals(restored.getMavenModel().getMavenKey(), result.getMavenModel().getMavenKey());
+    assertEquals(restored.getMavenModel().getDependencies().size(), 1);
+  }
+
+  @Test
+  public void shouldNotReturnResultWhenPomChanged() throws Exception {
+    MavenProjectCache cache = new MavenProjectCache(cacheDir.toString());
+    cache.put(mavenProject, ACTIVE_PROFILES, emptyList(), result, key -> null);
+
+    Files.write(pom.toPath(), "<project><modules/></project>".getBytes());
+
+    assertNull(cache.get(mavenProject, ACTIVE_PROFILES, emptyList(), key -> null));
+    assertNull(
+        new MavenProjectCache(cacheDir.toString())
+            .get(mavenProject, ACTIVE_PROFILES, emptyList(), key -> null));
+  }
+
+  @Test
+  public void shouldNotReturnResultWhenRequestedProfilesChanged() throws Exception {
+    MavenProjectCache cache = new MavenProjectCache(cacheDir.toString());
+    cache.put(mavenProject, ACTIVE_PROFILES, emptyList(), result, key -> null);
+
+    assertNull(cache.get(mavenProject, singletonList("prod"), emptyList(), key -> null));
+  }
+
+  @Test
+  public void shouldReturnResultForRequestedProfilesWhenResolveActivatedOtherProfiles()
+      throws Exception {
+    MavenModelReaderResult activated =
+        new MavenModelReaderResult(
+            result.getMavenModel(), asList("dev", "jdk8"), emptyList(), emptyList(), emptySet());
+    MavenProjectCache cache = new MavenProjectCache(cacheDir.toString());
+    cache.put(mavenProject, ACTIVE_PROFILES, emptyList(), activated, key -> null);
+
+    MavenModelReaderResult restored =
+        cache.get(mavenProject, ACTIVE_PROFILES, emptyList(), key -> null);
+
+    assertNotNull(restored);
+    assertEquals(restored.getActiveProfiles(), asList("dev", "jdk8"));
+  }
+
+  @Test
+  public void shouldRequireRevalidationOfSnapshotDependencies() throws Exception {
+    MavenProjectCache cache = new MavenProjectCache(cacheDir.toString());
+    cache.put(mavenProject, ACTIVE_PROFILES, emptyList(), result, key -> null);
+    assertFalse(cache.isRevalidationRequired(mavenProject));
+
+    result
+        .getMavenModel()
+        .setDependencies(
+            singletonList(
+                new MavenArtifact(
+                    "org.test",
+                    "dependency",
+                    "1.0-SNAPSHOT",
+                    "1.0-SNAPSHOT",
+                    "jar",
+                    null,
+                    "compile",
+                    false,
+                    "jar",
+                    pom,
+                    null,
+                    true,
+                    false)));
+    cache.put(mavenProject, ACTIVE_PROFILES, emptyList(), result, key -> null);
+
+    assertTrue(cache.isRevalidationRequired(mavenProject));
+  }
+}
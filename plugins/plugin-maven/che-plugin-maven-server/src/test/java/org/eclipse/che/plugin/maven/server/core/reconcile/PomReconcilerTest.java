@@ -17,6 +17,7 @@ import static org.mockito.Mockito.when;
 
 import com.google.inject.Provider;
 import java.io.File;
+import java.nio.file.Files;
 import java.rmi.RemoteException;
 import java.util.Collections;
 import java.util.List;
@@ -32,6 +33,7 @@ import org.eclipse.che.plugin.maven.server.BaseTest;
 import org.eclipse.che.plugin.maven.server.MavenWrapperManager;
 import org.eclipse.che.plugin.maven.server.core.EclipseWorkspaceProvider;
 import org.eclipse.che.plugin.maven.server.core.MavenExecutorService;
+import org.eclipse.che.plugin.maven.server.core.MavenProjectCache;
 import org.eclipse.che.plugin.maven.server.core.MavenProjectManager;
 import org.eclipse.che.plugin.maven.server.core.MavenWorkspace;
 import org.eclipse.che.plugin.maven.server.core.classpath.ClasspathManager;
@@ -81,7 +83,8 @@ public class PomReconcilerTest extends BaseTest {
             mavenServerManager,
             terminal,
             mavenNotifier,
-            new EclipseWorkspaceProvider());
+            new EclipseWorkspaceProvider(),
+            new MavenProjectCache(Files.createTempDirectory("maven-project-cache").toString()));
     Provider<ProjectManager> projectManagerProvider =
         (Provider<ProjectManager>) mock(Provider.class);
     when(projectManagerProvider.get()).thenReturn(pm);
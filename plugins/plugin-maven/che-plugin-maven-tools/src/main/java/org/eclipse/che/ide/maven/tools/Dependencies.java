@@ -144,15 +144,22 @@ public class Dependencies {
   }
 
   private void setDependencies(Collection<? extends Dependency> newDependencies) {
-    // removing all dependencies from xml tree
-    for (Dependency dependency : dependencies) {
-      dependency.remove();
-    }
-    // add and associate each new dependency with element in tree
-    dependencies = new ArrayList<>(newDependencies.size());
-    for (Dependency newDependency : newDependencies) {
-      add(newDependency);
-    }
+    // replacing all dependencies is done as a single tree batch
+    // to avoid rewriting whole xml content on each of them
+    dependenciesParent
+        .getTree()
+        .batch(
+            tree -> {
+              // removing all dependencies from xml tree
+              for (Dependency dependency : dependencies) {
+                dependency.remove();
+              }
+              // add and associate each new dependency with element in tree
+              dependencies = new ArrayList<>(newDependencies.size());
+              for (Dependency newDependency : newDependencies) {
+                add(newDependency);
+              }
+            });
   }
 
   private boolean isNew() {
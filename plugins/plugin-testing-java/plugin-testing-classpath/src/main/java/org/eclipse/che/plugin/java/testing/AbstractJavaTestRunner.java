@@ -11,6 +11,7 @@
 package org.eclipse.che.plugin.java.testing;
 
 import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
 import static org.eclipse.jdt.internal.core.JavaProject.hasJavaNature;
 
 import java.io.IOException;
@@ -20,10 +21,12 @@ import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
+import org.eclipse.che.api.testing.server.framework.ShardedTestProcess;
 import org.eclipse.che.api.testing.server.framework.TestRunner;
 import org.eclipse.che.api.testing.shared.TestDetectionContext;
 import org.eclipse.che.api.testing.shared.TestExecutionContext;
 import org.eclipse.che.api.testing.shared.TestPosition;
+import org.eclipse.che.commons.lang.execution.ExecutionException;
 import org.eclipse.che.dto.server.DtoFactory;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.ResourcesPlugin;
@@ -52,10 +55,17 @@ public abstract class AbstractJavaTestRunner implements TestRunner {
   private int debugPort = -1;
   private String workspacePath;
   private JavaTestFinder javaTestFinder;
+  private TestShardPlanner shardPlanner;
 
   public AbstractJavaTestRunner(String workspacePath, JavaTestFinder javaTestFinder) {
+    this(workspacePath, javaTestFinder, null);
+  }
+
+  public AbstractJavaTestRunner(
+      String workspacePath, JavaTestFinder javaTestFinder, TestShardPlanner shardPlanner) {
     this.workspacePath = workspacePath;
     this.javaTestFinder = javaTestFinder;
+    this.shardPlanner = shardPlanner;
   }
 
   @Override
@@ -236,6 +246,66 @@ public abstract class AbstractJavaTestRunner implements TestRunner {
     return emptyList();
   }
 
+  /**
+   * Starts process which runs the given tests. If sharding is enabled, tests of the project, the
+   * folder or the set of classes are split into shards which are run in separate processes at the
+   * same time, the returned process merges their outputs. If tests should be stopped on the first
+   * failure, the returned process stops them even if they are run in a single process.
+   *
+   * @param context information about test runner
+   * @param javaProject current project
+   * @param tests list of full qualified names of test classes
+   * @param launcher starts process which runs given tests
+   */
+  protected Process launchTests(
+      TestExecutionContext context,
+      IJavaProject javaProject,
+      List<String> tests,
+      TestProcessLauncher launcher)
+      throws ExecutionException {
+    if (shardPlanner == null || Boolean.TRUE.equals(context.isDebugModeEnable())) {
+      return launcher.launch(tests);
+    }
+    String projectPath = javaProject.getPath().toString();
+    List<List<String>> shards =
+        isShardable(context) ? shardPlanner.plan(tests, projectPath) : singletonList(tests);
+    if (shards.size() == 1 && !shardPlanner.isStopOnFailure()) {
+      return launcher.launch(tests);
+    }
+
+    List<Process> processes = new ArrayList<>(shards.size());
+    try {
+      for (List<String> shard : shards) {
+        processes.add(launcher.launch(shard));
+      }
+    } catch (ExecutionException e) {
+      processes.forEach(Process::destroy);
+      throw e;
+    }
+    LOG.debug("Running {} test classes in {} JVMs", tests.size(), shards.size());
+    return new ShardedTestProcess(
+        processes,
+        shardPlanner.isStopOnFailure(),
+        durations -> shardPlanner.recordDurations(projectPath, durations));
+  }
+
+  private static boolean isShardable(TestExecutionContext context) {
+    switch (context.getContextType()) {
+      case FOLDER:
+      case PROJECT:
+      case SET:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /** Starts test process which runs the given tests. */
+  @FunctionalInterface
+  protected interface TestProcessLauncher {
+    Process launch(List<String> tests) throws ExecutionException;
+  }
+
   @Override
   public int getDebugPort() {
     return debugPort;
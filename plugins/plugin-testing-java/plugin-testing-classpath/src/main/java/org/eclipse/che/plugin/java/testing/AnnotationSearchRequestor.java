@@ -31,6 +31,11 @@ public class AnnotationSearchRequestor extends SearchRequestor {
     fResult = result;
   }
 
+  /** Creates requestor which collects only types with annotations, without their subtypes. */
+  AnnotationSearchRequestor(Collection<IType> result) {
+    this(null, result);
+  }
+
   @Override
   public void acceptSearchMatch(SearchMatch match) throws CoreException {
     if (match.getAccuracy() == SearchMatch.A_ACCURATE && !match.isInsideDocComment()) {
@@ -47,7 +52,7 @@ public class AnnotationSearchRequestor extends SearchRequestor {
   }
 
   private void addTypeAndSubtypes(IType type) {
-    if (fResult.add(type)) {
+    if (fResult.add(type) && fHierarchy != null) {
       IType[] subclasses = fHierarchy.getSubclasses(type);
       for (IType subclass : subclasses) {
         addTypeAndSubtypes(subclass);
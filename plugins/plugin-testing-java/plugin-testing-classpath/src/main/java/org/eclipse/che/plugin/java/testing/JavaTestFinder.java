@@ -14,6 +14,7 @@ import static com.google.common.base.Strings.isNullOrEmpty;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 
+import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -49,6 +50,18 @@ import org.slf4j.LoggerFactory;
 public class JavaTestFinder {
   private static final Logger LOG = LoggerFactory.getLogger(JavaTestFinder.class);
 
+  private final JavaTestIndex testIndex;
+
+  @Inject
+  public JavaTestFinder(JavaTestIndex testIndex) {
+    this.testIndex = testIndex;
+  }
+
+  /** Creates finder which searches for test classes of a project each time they are requested. */
+  public JavaTestFinder() {
+    this(null);
+  }
+
   /**
    * Finds test method related to the cursor position.
    *
@@ -110,7 +123,8 @@ public class JavaTestFinder {
   }
 
   /**
-   * Finds test classes in project.
+   * Finds test classes in project. Test classes are taken from the {@link JavaTestIndex} if the
+   * finder has one.
    *
    * @param project java project
    * @param testMethodAnnotation java annotation which describes test method in the test framework
@@ -119,6 +133,9 @@ public class JavaTestFinder {
    */
   public List<String> findClassesInProject(
       IJavaProject project, String testMethodAnnotation, String testClassAnnotation) {
+    if (testIndex != null) {
+      return testIndex.getTestClasses(project, testMethodAnnotation, testClassAnnotation);
+    }
     return findClassesInContainer(project, testMethodAnnotation, testClassAnnotation);
   }
 
@@ -184,31 +201,7 @@ public class JavaTestFinder {
       // search for all types with references to RunWith and Test and all subclasses
       HashSet<IType> candidates = new HashSet<>(allClasses.length);
       SearchRequestor requestor = new AnnotationSearchRequestor(hierarchy, candidates);
-
-      IJavaSearchScope scope =
-          SearchEngine.createJavaSearchScope(allClasses, IJavaSearchScope.SOURCES);
-      int matchRule = SearchPattern.R_CASE_SENSITIVE;
-
-      SearchPattern testPattern =
-          SearchPattern.createPattern(
-              testMethodAnnotation,
-              IJavaSearchConstants.ANNOTATION_TYPE,
-              IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
-              matchRule);
-
-      SearchPattern runWithPattern =
-          isNullOrEmpty(testClassAnnotation)
-              ? testPattern
-              : SearchPattern.createPattern(
-                  testClassAnnotation,
-                  IJavaSearchConstants.ANNOTATION_TYPE,
-                  IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
-                  matchRule);
-
-      SearchPattern annotationsPattern = SearchPattern.createOrPattern(runWithPattern, testPattern);
-      SearchParticipant[] searchParticipants =
-          new SearchParticipant[] {SearchEngine.getDefaultSearchParticipant()};
-      new SearchEngine().search(annotationsPattern, searchParticipants, scope, requestor, null);
+      searchAnnotatedTypes(allClasses, testMethodAnnotation, testClassAnnotation, requestor);
 
       // find all classes in the region
       for (IType candidate : candidates) {
@@ -226,7 +219,46 @@ public class JavaTestFinder {
     return result;
   }
 
-  private IRegion getRegion(IJavaElement element) {
+  /**
+   * Searches for references to the test annotations in the sources of the given types.
+   *
+   * @param types types which sources are searched
+   * @param testMethodAnnotation java annotation which describes test method in the test framework
+   * @param testClassAnnotation java annotation which describes test class in the test framework
+   * @param requestor requestor which receives matches
+   */
+  static void searchAnnotatedTypes(
+      IType[] types,
+      String testMethodAnnotation,
+      String testClassAnnotation,
+      SearchRequestor requestor)
+      throws CoreException {
+    IJavaSearchScope scope = SearchEngine.createJavaSearchScope(types, IJavaSearchScope.SOURCES);
+    int matchRule = SearchPattern.R_CASE_SENSITIVE;
+
+    SearchPattern testPattern =
+        SearchPattern.createPattern(
+            testMethodAnnotation,
+            IJavaSearchConstants.ANNOTATION_TYPE,
+            IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
+            matchRule);
+
+    SearchPattern runWithPattern =
+        isNullOrEmpty(testClassAnnotation)
+            ? testPattern
+            : SearchPattern.createPattern(
+                testClassAnnotation,
+                IJavaSearchConstants.ANNOTATION_TYPE,
+                IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
+                matchRule);
+
+    SearchPattern annotationsPattern = SearchPattern.createOrPattern(runWithPattern, testPattern);
+    SearchParticipant[] searchParticipants =
+        new SearchParticipant[] {SearchEngine.getDefaultSearchParticipant()};
+    new SearchEngine().search(annotationsPattern, searchParticipants, scope, requestor, null);
+  }
+
+  static IRegion getRegion(IJavaElement element) {
     IRegion result = JavaCore.newRegion();
     if (element.getElementType() == IJavaElement.JAVA_PROJECT) {
       // for projects only add the contained source folders
@@ -247,7 +279,7 @@ public class JavaTestFinder {
     return result;
   }
 
-  private static boolean isAccessibleClass(IType type) throws JavaModelException {
+  static boolean isAccessibleClass(IType type) throws JavaModelException {
     int flags = type.getFlags();
     if (Flags.isInterface(flags)) {
       return false;
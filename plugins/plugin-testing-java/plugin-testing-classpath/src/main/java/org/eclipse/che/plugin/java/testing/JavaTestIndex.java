@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.plugin.java.testing;
+
+import static java.util.Collections.emptyList;
+
+import com.google.inject.Singleton;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.Flags;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IRegion;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeHierarchy;
+import org.eclipse.jdt.core.JavaCore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Incremental index of test classes of java projects.
+ *
+ * <p>Test classes of a project are discovered with JDT search when they are requested the first
+ * time. After that, java element deltas of reconciles and file changes mark changed compilation
+ * units, and only those units are searched again on the next request. The whole project is
+ * searched again when its classpath or its source folders and packages change.
+ */
+@Singleton
+public class JavaTestIndex implements IElementChangedListener {
+  private static final Logger LOG = LoggerFactory.getLogger(JavaTestIndex.class);
+
+  private static final int PROJECT_CHANGED_FLAGS =
+      IJavaElementDelta.F_CLASSPATH_CHANGED
+          | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED
+          | IJavaElementDelta.F_OPENED
+          | IJavaElementDelta.F_CLOSED;
+
+  private final Map<IndexKey, ProjectTests> projects = new ConcurrentHashMap<>();
+  private final AtomicBoolean subscribed = new AtomicBoolean();
+
+  /**
+   * Returns fully qualified names of test classes of the project.
+   *
+   * @param project java project
+   * @param testMethodAnnotation java annotation which describes test method in the test framework
+   * @param testClassAnnotation java annotation which describes test class in the test framework
+   */
+  public List<String> getTestClasses(
+      IJavaProject project, String testMethodAnnotation, String testClassAnnotation) {
+    if (subscribed.compareAndSet(false, true)) {
+      JavaCore.addElementChangedListener(this);
+    }
+    IndexKey key =
+        new IndexKey(project.getElementName(), testMethodAnnotation, testClassAnnotation);
+    return projects.computeIfAbsent(key, ProjectTests::new).getTestClasses(project);
+  }
+
+  @Override
+  public void elementChanged(ElementChangedEvent event) {
+    if (!projects.isEmpty()) {
+      processDelta(event.getDelta());
+    }
+  }
+
+  private void processDelta(IJavaElementDelta delta) {
+    IJavaElement element = delta.getElement();
+    switch (element.getElementType()) {
+      case IJavaElement.JAVA_MODEL:
+        processChildren(delta);
+        break;
+      case IJavaElement.JAVA_PROJECT:
+        if (delta.getKind() != IJavaElementDelta.CHANGED
+            || (delta.getFlags() & PROJECT_CHANGED_FLAGS) != 0) {
+          invalidate(element.getElementName());
+        } else {
+          processChildren(delta);
+        }
+        break;
+      case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+      case IJavaElement.PACKAGE_FRAGMENT:
+        // changed folders don't report their compilation units, so the whole project is searched
+        if (delta.getKind() != IJavaElementDelta.CHANGED
+            || (delta.getFlags() & IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED) != 0) {
+          invalidate(element.getJavaProject().getElementName());
+        } else {
+          processChildren(delta);
+        }
+        break;
+      case IJavaElement.COMPILATION_UNIT:
+        ICompilationUnit unit = ((ICompilationUnit) element).getPrimary();
+        markChanged(unit.getJavaProject().getElementName(), unit.getHandleIdentifier());
+        break;
+      default:
+        break;
+    }
+  }
+
+  private void processChildren(IJavaElementDelta delta) {
+    for (IJavaElementDelta child : delta.getAffectedChildren()) {
+      processDelta(child);
+    }
+  }
+
+  private void invalidate(String projectName) {
+    for (ProjectTests tests : projects.values()) {
+      if (tests.key.projectName.equals(projectName)) {
+        tests.invalidate();
+      }
+    }
+  }
+
+  private void markChanged(String projectName, String unitHandle) {
+    for (ProjectTests tests : projects.values()) {
+      if (tests.key.projectName.equals(projectName)) {
+        tests.markChanged(unitHandle);
+      }
+    }
+  }
+
+  /**
+   * Test classes of a single project for a single pair of test annotations.
+   *
+   * <p>Changes are recorded without locking, so the JDT listener which notifies about them isn't
+   * blocked while the project is searched. They are applied on the next request.
+   */
+  private static class ProjectTests {
+    final IndexKey key;
+    // key is handle identifier of primary compilation unit
+    final Map<String, List<TypeEntry>> unitTypes = new HashMap<>();
+    final Set<String> changedUnits = ConcurrentHashMap.newKeySet();
+    final AtomicBoolean invalidated = new AtomicBoolean();
+    boolean indexed;
+
+    ProjectTests(IndexKey key) {
+      this.key = key;
+    }
+
+    void invalidate() {
+      invalidated.set(true);
+    }
+
+    void markChanged(String unitHandle) {
+      changedUnits.add(unitHandle);
+    }
+
+    synchronized List<String> getTestClasses(IJavaProject project) {
+      if (invalidated.getAndSet(false)) {
+        reset();
+      }
+      try {
+        if (!indexed) {
+          // units changed while the project is searched are searched again on the next request
+          changedUnits.clear();
+          index(JavaTestFinder.getRegion(project));
+          indexed = true;
+        } else if (!changedUnits.isEmpty()) {
+          IRegion region = JavaCore.newRegion();
+          for (Iterator<String> it = changedUnits.iterator(); it.hasNext(); ) {
+            String unitHandle = it.next();
+            it.remove();
+            unitTypes.remove(unitHandle);
+            IJavaElement unit = JavaCore.create(unitHandle);
+            if (unit != null && unit.exists()) {
+              region.add(unit);
+            }
+          }
+          if (region.getElements().length > 0) {
+            index(region);
+          }
+        }
+      } catch (CoreException e) {
+        LOG.info("Can't build project hierarchy.", e);
+        reset();
+        return emptyList();
+      }
+      return resolveTestClasses();
+    }
+
+    private void reset() {
+      indexed = false;
+      unitTypes.clear();
+    }
+
+    /** Adds all the classes of the region to the index, replacing existing entries. */
+    private void index(IRegion region) throws CoreException {
+      ITypeHierarchy hierarchy = JavaCore.newTypeHierarchy(region, null, null);
+      IType[] allClasses = hierarchy.getAllClasses();
+
+      // search for types with references to test annotations, their subclasses are found later
+      Set<IType> annotated = new HashSet<>();
+      JavaTestFinder.searchAnnotatedTypes(
+          allClasses,
+          key.testMethodAnnotation,
+          key.testClassAnnotation,
+          new AnnotationSearchRequestor(annotated));
+
+      for (IType type : allClasses) {
+        ICompilationUnit unit = type.getCompilationUnit();
+        if (unit == null || !region.contains(type)) {
+          continue;
+        }
+        IType superclass = hierarchy.getSuperclass(type);
+        unitTypes
+            .computeIfAbsent(unit.getPrimary().getHandleIdentifier(), k -> new ArrayList<>())
+            .add(
+                new TypeEntry(
+                    type.getFullyQualifiedName(),
+                    superclass == null ? null : superclass.getFullyQualifiedName(),
+                    annotated.contains(type),
+                    JavaTestFinder.isAccessibleClass(type) && !Flags.isAbstract(type.getFlags())));
+      }
+    }
+
+    /** Returns runnable classes which have test annotations or extend classes which have them. */
+    private List<String> resolveTestClasses() {
+      Map<String, TypeEntry> types = new HashMap<>();
+      for (List<TypeEntry> entries : unitTypes.values()) {
+        for (TypeEntry entry : entries) {
+          types.put(entry.name, entry);
+        }
+      }
+      List<String> result = new LinkedList<>();
+      for (TypeEntry entry : types.values()) {
+        if (entry.runnable && isTest(entry, types)) {
+          result.add(entry.name);
+        }
+      }
+      return result;
+    }
+
+    private static boolean isTest(TypeEntry entry, Map<String, TypeEntry> types) {
+      Set<String> visited = new HashSet<>();
+      TypeEntry current = entry;
+      while (current != null && visited.add(current.name)) {
+        if (current.annotated) {
+          return true;
+        }
+        current = current.superclass == null ? null : types.get(current.superclass);
+      }
+      return false;
+    }
+  }
+
+  private static class TypeEntry {
+    final String name;
+    final String superclass;
+    final boolean annotated;
+    final boolean runnable;
+
+    TypeEntry(String name, String superclass, boolean annotated, boolean runnable) {
+      this.name = name;
+      this.superclass = superclass;
+      this.annotated = annotated;
+      this.runnable = runnable;
+    }
+  }
+
+  private static class IndexKey {
+    final String projectName;
+    final String testMethodAnnotation;
+    final String testClassAnnotation;
+
+    IndexKey(String projectName, String testMethodAnnotation, String testClassAnnotation) {
+      this.projectName = projectName;
+      this.testMethodAnnotation = testMethodAnnotation;
+      this.testClassAnnotation = testClassAnnotation;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof IndexKey)) {
+        return false;
+      }
+      IndexKey other = (IndexKey) obj;
+      return projectName.equals(other.projectName)
+          && Objects.equals(testMethodAnnotation, other.testMethodAnnotation)
+          && Objects.equals(testClassAnnotation, other.testClassAnnotation);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(projectName, testMethodAnnotation, testClassAnnotation);
+    }
+  }
+}
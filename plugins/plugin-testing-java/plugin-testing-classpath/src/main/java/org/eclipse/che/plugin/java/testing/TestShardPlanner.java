@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.plugin.java.testing;
+
+import static java.util.Comparator.comparingLong;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Splits test classes into shards which are run in separate JVMs at the same time.
+ *
+ * <p>Shards are balanced by durations of test classes measured in the previous runs, the longest
+ * classes are distributed first, each of them to the shard with the least total duration. Classes
+ * which weren't run before are considered as long as an average known class. Durations are stored
+ * per project in the workspace metadata directory, so they survive cleaning of the project build.
+ */
+@Singleton
+public class TestShardPlanner {
+  private static final Logger LOG = LoggerFactory.getLogger(TestShardPlanner.class);
+
+  static final String DURATIONS_FILE = "test-durations.properties";
+  private static final long DEFAULT_DURATION = 1000;
+
+  private final int shardCount;
+  private final boolean stopOnFailure;
+  private final File durationsDirectory;
+
+  @Inject
+  public TestShardPlanner(
+      @Named("che.testing.java.shards") int shardCount,
+      @Named("che.testing.java.shards.stop_on_failure") boolean stopOnFailure,
+      @Named("che.workspace.metadata") String wsMetadata) {
+    this(
+        shardCount,
+        stopOnFailure,
+        Paths.get(System.getProperty("user.home"), wsMetadata, "test-durations").toFile());
+  }
+
+  TestShardPlanner(int shardCount, boolean stopOnFailure, File durationsDirectory) {
+    this.shardCount = shardCount;
+    this.stopOnFailure = stopOnFailure;
+    this.durationsDirectory = durationsDirectory;
+  }
+
+  /** Returns maximal count of JVMs which run tests at the same time. */
+  public int getShardCount() {
+    return shardCount;
+  }
+
+  /** Returns true if all the shards should be stopped when any test fails. */
+  public boolean isStopOnFailure() {
+    return stopOnFailure;
+  }
+
+  /**
+   * Splits the given test classes into shards. Returns a single shard if sharding is disabled or
+   * there are not enough classes.
+   *
+   * @param testClasses fully qualified names of test classes
+   * @param projectPath workspace path of the project
+   */
+  public List<List<String>> plan(List<String> testClasses, String projectPath) {
+    int count = Math.min(shardCount, testClasses.size());
+    if (count <= 1) {
+      return Collections.singletonList(testClasses);
+    }
+
+    Map<String, Long> durations = readDurations(projectPath);
+    long defaultDuration =
+        (long)
+            durations
+                .values()
+                .stream()
+                .mapToLong(Long::longValue)
+                .average()
+                .orElse(DEFAULT_DURATION);
+
+    List<String> sorted = new ArrayList<>(testClasses);
+    sorted.sort(
+        comparingLong((String testClass) -> durations.getOrDefault(testClass, defaultDuration))
+            .reversed());
+
+    List<List<String>> shards = new ArrayList<>(count);
+    long[] totals = new long[count];
+    for (int i = 0; i < count; i++) {
+      shards.add(new ArrayList<>());
+    }
+    for (String testClass : sorted) {
+      int lightest = 0;
+      for (int i = 1; i < count; i++) {
+        if (totals[i] < totals[lightest]) {
+          lightest = i;
+        }
+      }
+      shards.get(lightest).add(testClass);
+      totals[lightest] += durations.getOrDefault(testClass, defaultDuration);
+    }
+    return shards;
+  }
+
+  /**
+   * Stores durations of test classes measured in the last run, durations of other classes are
+   * kept.
+   *
+   * @param projectPath workspace path of the project
+   * @param durations durations of test classes in milliseconds by their fully qualified names
+   */
+  public synchronized void recordDurations(String projectPath, Map<String, Long> durations) {
+    if (durations.isEmpty()) {
+      return;
+    }
+    Map<String, Long> all = readDurations(projectPath);
+    all.putAll(durations);
+
+    Properties properties = new Properties();
+    all.forEach((testClass, duration) -> properties.setProperty(testClass, duration.toString()));
+    File file = getDurationsFile(projectPath);
+    file.getParentFile().mkdirs();
+    try (OutputStream out = new FileOutputStream(file)) {
+      properties.store(out, null);
+    } catch (IOException e) {
+      LOG.warn("Can't store durations of tests to {}: {}", file, e.getMessage());
+    }
+  }
+
+  private synchronized Map<String, Long> readDurations(String projectPath) {
+    Map<String, Long> durations = new HashMap<>();
+    File file = getDurationsFile(projectPath);
+    if (!file.isFile()) {
+      return durations;
+    }
+    Properties properties = new Properties();
+    try (InputStream in = new FileInputStream(file)) {
+      properties.load(in);
+    } catch (IOException e) {
+      LOG.warn("Can't read durations of tests from {}: {}", file, e.getMessage());
+      return durations;
+    }
+    for (String testClass : properties.stringPropertyNames()) {
+      try {
+        durations.put(testClass, Long.parseLong(properties.getProperty(testClass)));
+      } catch (NumberFormatException ignored) {
+        // skip broken entry
+      }
+    }
+    return durations;
+  }
+
+  private File getDurationsFile(String projectPath) {
+    return new File(new File(durationsDirectory, projectPath), DURATIONS_FILE);
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.plugin.java.testing;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.testng.Assert.assertEquals;
+
+import com.google.common.collect.ImmutableMap;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Test for {@link TestShardPlanner} */
+public class TestShardPlannerTest {
+  private static final String PROJECT = "/project";
+
+  private File durationsDirectory;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    durationsDirectory = Files.createTempDirectory("test-durations").toFile();
+  }
+
+  @AfterMethod
+  public void tearDown() throws Exception {
+    IoUtil.deleteRecursive(durationsDirectory);
+  }
+
+  @Test
+  public void runsAllTheClassesInSingleShardWhenShardingIsDisabled() throws Exception {
+    TestShardPlanner planner = new TestShardPlanner(1, false, durationsDirectory);
+
+    List<List<String>> shards = planner.plan(asList("a.A", "a.B", "a.C"), PROJECT);
+
+    assertEquals(shards, singletonList(asList("a.A", "a.B", "a.C")));
+  }
+
+  @Test
+  public void doesNotCreateMoreShardsThanClasses() throws Exception {
+    TestShardPlanner planner = new TestShardPlanner(4, false, durationsDirectory);
+
+    List<List<String>> shards = planner.plan(asList("a.A", "a.B"), PROJECT);
+
+    assertEquals(shards.size(), 2);
+  }
+
+  @Test
+  public void balancesShardsByRecordedDurations() throws Exception {
+    TestShardPlanner planner = new TestShardPlanner(2, false, durationsDirectory);
+    planner.recordDurations(
+        PROJECT, ImmutableMap.of("a.Long", 9000L, "a.A", 3000L, "a.B", 3000L, "a.C", 3000L));
+
+    List<List<String>> shards = planner.plan(asList("a.A", "a.B", "a.C", "a.Long"), PROJECT);
+
+    assertEquals(shards, asList(singletonList("a.Long"), asList("a.A", "a.B", "a.C")));
+  }
+
+  @Test
+  public void keepsDurationsOfClassesWhichWereNotRunLastTime() throws Exception {
+    TestShardPlanner planner = new TestShardPlanner(2, false, durationsDirectory);
+    planner.recordDurations(PROJECT, ImmutableMap.of("a.Long", 9000L));
+    planner.recordDurations(PROJECT, ImmutableMap.of("a.A", 1000L, "a.B", 1000L));
+
+    List<List<String>> shards = planner.plan(asList("a.A", "a.B", "a.Long"), PROJECT);
+
+    assertEquals(shards, asList(singletonList("a.Long"), asList("a.A", "a.B")));
+  }
+
+  @Test
+  public void keepsDurationsOfProjectsSeparately() throws Exception {
+    TestShardPlanner planner = new TestShardPlanner(2, false, durationsDirectory);
+    planner.recordDurations("/other", ImmutableMap.of("a.A", 9000L));
+
+    List<List<String>> shards = planner.plan(asList("a.A", "a.B", "a.C"), PROJECT);
+
+    assertEquals(shards, asList(asList("a.A", "a.C"), singletonList("a.B")));
+  }
+}
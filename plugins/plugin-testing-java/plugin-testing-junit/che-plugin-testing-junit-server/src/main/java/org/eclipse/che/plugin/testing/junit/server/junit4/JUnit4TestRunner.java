@@ -26,6 +26,7 @@ import org.eclipse.che.plugin.java.testing.ClasspathUtil;
 import org.eclipse.che.plugin.java.testing.JavaTestAnnotations;
 import org.eclipse.che.plugin.java.testing.JavaTestFinder;
 import org.eclipse.che.plugin.java.testing.ProjectClasspathProvider;
+import org.eclipse.che.plugin.java.testing.TestShardPlanner;
 import org.eclipse.jdt.core.Flags;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaProject;
@@ -45,12 +46,20 @@ public class JUnit4TestRunner extends AbstractJavaTestRunner {
   private JavaTestFinder javaTestFinder;
   private ProjectClasspathProvider classpathProvider;
 
+  public JUnit4TestRunner(
+      String workspacePath,
+      JavaTestFinder javaTestFinder,
+      ProjectClasspathProvider classpathProvider) {
+    this(workspacePath, javaTestFinder, classpathProvider, null);
+  }
+
   @Inject
   public JUnit4TestRunner(
       @Named("che.user.workspaces.storage") String workspacePath,
       JavaTestFinder javaTestFinder,
-      ProjectClasspathProvider classpathProvider) {
-    super(workspacePath, javaTestFinder);
+      ProjectClasspathProvider classpathProvider,
+      TestShardPlanner shardPlanner) {
+    super(workspacePath, javaTestFinder, shardPlanner);
     this.workspacePath = workspacePath;
     this.javaTestFinder = javaTestFinder;
     this.classpathProvider = classpathProvider;
@@ -95,24 +104,42 @@ public class JUnit4TestRunner extends AbstractJavaTestRunner {
   }
 
   private ProcessHandler startTestProcess(IJavaProject javaProject, TestExecutionContext context) {
-    JavaParameters parameters = new JavaParameters();
-    parameters.setJavaExecutable(System.getProperty("java.home") + "/bin/java");
-    parameters.setMainClassName(MAIN_CLASS_NAME);
-    parameters.setWorkingDirectory(workspacePath + javaProject.getPath());
-
-    List<String> classPath = new ArrayList<>();
-    Set<String> projectClassPath = classpathProvider.getProjectClassPath(javaProject);
-    classPath.addAll(projectClassPath);
-    classPath.add(ClasspathUtil.getJarPathForClass(CheJUnitCoreRunner.class));
-    parameters.getClassPath().addAll(classPath);
-
     List<String> suite =
         findTests(
             context,
             javaProject,
             JavaTestAnnotations.JUNIT4X_TEST.getName(),
             JavaTestAnnotations.JUNIT4X_RUN_WITH.getName());
-    for (String element : suite) {
+    List<String> classPath = new ArrayList<>();
+    Set<String> projectClassPath = classpathProvider.getProjectClassPath(javaProject);
+    classPath.addAll(projectClassPath);
+    classPath.add(ClasspathUtil.getJarPathForClass(CheJUnitCoreRunner.class));
+    try {
+      return new ProcessHandler(
+          launchTests(
+              context,
+              javaProject,
+              suite,
+              tests -> createCommand(javaProject, context, classPath, tests).createProcess()));
+    } catch (ExecutionException e) {
+      LOG.error("Can't run JUnit JVM", e);
+    }
+
+    return null;
+  }
+
+  private CommandLine createCommand(
+      IJavaProject javaProject,
+      TestExecutionContext context,
+      List<String> classPath,
+      List<String> tests) {
+    JavaParameters parameters = new JavaParameters();
+    parameters.setJavaExecutable(System.getProperty("java.home") + "/bin/java");
+    parameters.setMainClassName(MAIN_CLASS_NAME);
+    parameters.setWorkingDirectory(workspacePath + javaProject.getPath());
+    parameters.getClassPath().addAll(classPath);
+
+    for (String element : tests) {
       parameters.getParametersList().add(element);
     }
     if (context.isDebugModeEnable()) {
@@ -122,13 +149,6 @@ public class JUnit4TestRunner extends AbstractJavaTestRunner {
           .getVmParameters()
           .add("-Xrunjdwp:transport=dt_socket,server=y,suspend=y,address=" + getDebugPort());
     }
-    CommandLine command = parameters.createCommand();
-    try {
-      return new ProcessHandler(command.createProcess());
-    } catch (ExecutionException e) {
-      LOG.error("Can't run JUnit JVM", e);
-    }
-
-    return null;
+    return parameters.createCommand();
   }
 }
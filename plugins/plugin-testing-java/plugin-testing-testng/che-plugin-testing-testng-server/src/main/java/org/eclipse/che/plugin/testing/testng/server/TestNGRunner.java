@@ -24,6 +24,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.inject.Inject;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
@@ -39,6 +40,7 @@ import org.eclipse.che.plugin.java.testing.ClasspathUtil;
 import org.eclipse.che.plugin.java.testing.JavaTestAnnotations;
 import org.eclipse.che.plugin.java.testing.JavaTestFinder;
 import org.eclipse.che.plugin.java.testing.ProjectClasspathProvider;
+import org.eclipse.che.plugin.java.testing.TestShardPlanner;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.jdt.core.ICompilationUnit;
@@ -53,19 +55,29 @@ public class TestNGRunner extends AbstractJavaTestRunner {
   private static final String TESTNG_NAME = "testng";
   private static final Logger LOG = LoggerFactory.getLogger(TestNGRunner.class);
   private static final String JAVA_IO_TMPDIR = "java.io.tmpdir";
+  private static final String SUITE_FILE_NAME = "che-testng-suite.xml";
 
   private String workspacePath;
   private JavaTestFinder javaTestFinder;
   private final ProjectClasspathProvider classpathProvider;
   private final TestNGSuiteUtil suiteUtil;
 
+  public TestNGRunner(
+      String workspacePath,
+      JavaTestFinder javaTestFinder,
+      ProjectClasspathProvider classpathProvider,
+      TestNGSuiteUtil suiteUtil) {
+    this(workspacePath, javaTestFinder, classpathProvider, suiteUtil, null);
+  }
+
   @Inject
   public TestNGRunner(
       @Named("che.user.workspaces.storage") String workspacePath,
       JavaTestFinder javaTestFinder,
       ProjectClasspathProvider classpathProvider,
-      TestNGSuiteUtil suiteUtil) {
-    super(workspacePath, javaTestFinder);
+      TestNGSuiteUtil suiteUtil,
+      TestShardPlanner shardPlanner) {
+    super(workspacePath, javaTestFinder, shardPlanner);
     this.workspacePath = workspacePath;
     this.javaTestFinder = javaTestFinder;
     this.classpathProvider = classpathProvider;
@@ -84,7 +96,48 @@ public class TestNGRunner extends AbstractJavaTestRunner {
   }
 
   private ProcessHandler startTestProcess(IJavaProject javaProject, TestExecutionContext context) {
-    File suiteFile = createSuite(context, javaProject);
+    List<String> classPath = new ArrayList<>();
+    Set<String> projectClassPath = classpathProvider.getProjectClassPath(javaProject);
+    classPath.addAll(projectClassPath);
+    classPath.add(ClasspathUtil.getJarPathForClass(org.testng.CheTestNG.class));
+    classPath.add(ClasspathUtil.getJarPathForClass(JCommander.class));
+
+    try {
+      String filePath = context.getFilePath();
+      if (!isNullOrEmpty(filePath) && filePath.endsWith(".xml")) {
+        String path =
+            filePath.substring(javaProject.getPath().toString().length(), filePath.length());
+        IFile file = javaProject.getProject().getFile(path);
+        File suiteFile = suiteUtil.writeSuite(System.getProperty(JAVA_IO_TMPDIR), file);
+        return new ProcessHandler(
+            createCommand(javaProject, context, classPath, suiteFile).createProcess());
+      }
+
+      List<String> testSuite =
+          findTests(context, javaProject, JavaTestAnnotations.TESTNG_TEST.getName(), "");
+      AtomicInteger shard = new AtomicInteger();
+      return new ProcessHandler(
+          launchTests(
+              context,
+              javaProject,
+              testSuite,
+              tests -> {
+                File suiteFile =
+                    createSuite(context, javaProject, tests, shard.getAndIncrement());
+                return createCommand(javaProject, context, classPath, suiteFile).createProcess();
+              }));
+    } catch (ExecutionException e) {
+      LOG.error("Can't run TestNG JVM", e);
+    }
+
+    return null;
+  }
+
+  private CommandLine createCommand(
+      IJavaProject javaProject,
+      TestExecutionContext context,
+      List<String> classPath,
+      File suiteFile) {
     if (suiteFile == null) {
       throw new RuntimeException("Can't create TestNG suite xml file.");
     }
@@ -95,11 +148,6 @@ public class TestNGRunner extends AbstractJavaTestRunner {
     String outputDirectory = getOutputDirectory(javaProject);
     parameters.getParametersList().add("-d", outputDirectory);
     parameters.setWorkingDirectory(workspacePath + javaProject.getPath());
-    List<String> classPath = new ArrayList<>();
-    Set<String> projectClassPath = classpathProvider.getProjectClassPath(javaProject);
-    classPath.addAll(projectClassPath);
-    classPath.add(ClasspathUtil.getJarPathForClass(org.testng.CheTestNG.class));
-    classPath.add(ClasspathUtil.getJarPathForClass(JCommander.class));
     parameters.getClassPath().addAll(classPath);
 
     parameters.getParametersList().add("-suiteFile", suiteFile.getAbsolutePath());
@@ -110,31 +158,20 @@ public class TestNGRunner extends AbstractJavaTestRunner {
           .getVmParameters()
           .add("-Xrunjdwp:transport=dt_socket,server=y,suspend=y,address=" + getDebugPort());
     }
-    CommandLine command = parameters.createCommand();
-    try {
-      return new ProcessHandler(command.createProcess());
-    } catch (ExecutionException e) {
-      LOG.error("Can't run TestNG JVM", e);
-    }
-
-    return null;
+    return parameters.createCommand();
   }
 
-  private File createSuite(TestExecutionContext context, IJavaProject javaProject) {
-    String filePath = context.getFilePath();
-    if (!isNullOrEmpty(filePath) && filePath.endsWith(".xml")) {
-      String path =
-          filePath.substring(javaProject.getPath().toString().length(), filePath.length());
-      IFile file = javaProject.getProject().getFile(path);
-      return suiteUtil.writeSuite(System.getProperty(JAVA_IO_TMPDIR), file);
-    }
-    List<String> testSuite =
-        findTests(context, javaProject, JavaTestAnnotations.TESTNG_TEST.getName(), "");
-
-    Map<String, List<String>> classes = buildTestNgSuite(testSuite, context);
+  /**
+   * Writes suite of the given tests. Each shard of the test run gets its own suite file, the first
+   * one is written to the usual che-testng-suite.xml.
+   */
+  private File createSuite(
+      TestExecutionContext context, IJavaProject javaProject, List<String> tests, int shard) {
+    Map<String, List<String>> classes = buildTestNgSuite(tests, context);
+    String fileName = shard == 0 ? SUITE_FILE_NAME : "che-testng-suite-" + shard + ".xml";
 
     return suiteUtil.writeSuite(
-        System.getProperty(JAVA_IO_TMPDIR), javaProject.getElementName(), classes);
+        System.getProperty(JAVA_IO_TMPDIR), fileName, javaProject.getElementName(), classes);
   }
 
   private Map<String, List<String>> buildTestNgSuite(
@@ -34,6 +34,7 @@ import org.testng.xml.XmlTest;
 public class TestNGSuiteUtil {
 
   private static final Logger LOG = LoggerFactory.getLogger(TestNGSuiteUtil.class);
+  private static final String SUITE_FILE_NAME = "che-testng-suite.xml";
 
   /**
    * Creates the suite which is represented by one XML file with name che-testng-suite.xml. It can
@@ -46,6 +47,24 @@ public class TestNGSuiteUtil {
    */
   public File writeSuite(
       String suitePath, String suiteName, Map<String, List<String>> classesAndMethods) {
+    return writeSuite(suitePath, SUITE_FILE_NAME, suiteName, classesAndMethods);
+  }
+
+  /**
+   * Creates the suite which is represented by one XML file with the given name. It can contain one
+   * or more tests.
+   *
+   * @param suitePath path to the suite file
+   * @param fileName name of the suite file
+   * @param suiteName the name of the suite
+   * @param classesAndMethods classes and methods which should be included to the suite.
+   * @return created file with suite
+   */
+  public File writeSuite(
+      String suitePath,
+      String fileName,
+      String suiteName,
+      Map<String, List<String>> classesAndMethods) {
     XmlSuite suite = new XmlSuite();
     XmlTest test = new XmlTest(suite);
     test.setName(suiteName);
@@ -68,7 +87,7 @@ public class TestNGSuiteUtil {
 
     test.setXmlClasses(xmlClasses);
 
-    File result = new File(suitePath, "che-testng-suite.xml");
+    File result = new File(suitePath, fileName);
     try {
       com.google.common.io.Files.write(suite.toXml().getBytes("UTF-8"), result);
     } catch (IOException e) {
@@ -78,7 +97,7 @@ public class TestNGSuiteUtil {
   }
 
   public File writeSuite(String suitePath, IFile file) {
-    File result = new File(suitePath, "che-testng-suite.xml");
+    File result = new File(suitePath, SUITE_FILE_NAME);
     try {
       com.google.common.io.Files.write(ByteStreams.toByteArray(file.getContents()), result);
     } catch (CoreException | IOException e) {
@@ -23,7 +23,9 @@ import org.eclipse.che.api.core.model.project.type.Value;
 import org.eclipse.che.api.project.server.RegisteredProject;
 import org.eclipse.che.api.testing.shared.TestDetectionContext;
 import org.eclipse.che.api.testing.shared.TestPosition;
+import org.eclipse.che.plugin.java.testing.JavaTestAnnotations;
 import org.eclipse.che.plugin.java.testing.JavaTestFinder;
+import org.eclipse.che.plugin.java.testing.JavaTestIndex;
 import org.eclipse.che.plugin.testing.testng.server.TestNGRunner;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaProject;
@@ -196,6 +198,36 @@ public class TestNGTestDiscoveryTest extends BaseTest {
     assertThat(testPositions).isNotNull().isEmpty();
   }
 
+  @Test
+  public void testIndexUpdatesTestClassesOfProjectWhenCompilationUnitsChange() throws Exception {
+    JavaTestFinder finder = new JavaTestFinder(new JavaTestIndex());
+    String testAnnotation = JavaTestAnnotations.TESTNG_TEST.getName();
+    packageFragment.createCompilationUnit(
+        "A.java",
+        "package test;\n"
+            + "public class A {\n"
+            + "    @org.testng.annotations.Test\n"
+            + "    public void foo() {\n"
+            + "    }\n"
+            + "}\n",
+        false,
+        null);
+
+    assertThat(finder.findClassesInProject(javaProject, testAnnotation, ""))
+        .containsOnly("test.A");
+
+    packageFragment.createCompilationUnit(
+        "B.java", "package test;\npublic class B extends A {\n}\n", false, null);
+
+    assertThat(finder.findClassesInProject(javaProject, testAnnotation, ""))
+        .containsOnly("test.A", "test.B");
+
+    packageFragment.createCompilationUnit(
+        "A.java", "package test;\npublic class A {\n}\n", true, null);
+
+    assertThat(finder.findClassesInProject(javaProject, testAnnotation, "")).isEmpty();
+  }
+
   private static class MockTestDetectionContext implements TestDetectionContext {
 
     private String projectPath;
@@ -63,6 +63,12 @@ public class TestingHandler implements TestingMessageVisitor {
         .paramsAsString()
         .noResult()
         .withConsumer(this::handleTestingMessage);
+    configurator
+        .newConfiguration()
+        .methodName(Constants.TESTING_BATCH_RPC_METHOD_NAME)
+        .paramsAsListOfString()
+        .noResult()
+        .withConsumer(messages -> messages.forEach(this::handleTestingMessage));
   }
 
   private void handleTestingMessage(String jsonMessage) {
@@ -10,21 +10,17 @@
  */
 package org.eclipse.che.api.git;
 
-import static com.google.common.collect.Sets.newConcurrentHashSet;
 import static org.eclipse.che.dto.server.DtoFactory.newDto;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.eclipse.che.api.core.jsonrpc.commons.RequestHandlerConfigurator;
-import org.eclipse.che.api.core.jsonrpc.commons.RequestTransmitter;
+import org.eclipse.che.api.core.jsonrpc.impl.JsonRpcSubscriptionRegistry;
 import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.core.notification.EventSubscriber;
 import org.eclipse.che.api.git.shared.EditedRegion;
@@ -38,17 +34,19 @@ import org.eclipse.che.api.git.shared.event.GitRepositoryInitializedEvent;
 
 @Singleton
 public class GitJsonRpcMessenger implements EventSubscriber<GitEvent> {
-  private final Map<String, Set<String>> endpointIdsWithWorkspaceIdAndProjectName =
-      new ConcurrentHashMap<>();
-  private final Set<String> endpointIds = newConcurrentHashSet();
+  private static final String CHECKOUT_OUTPUT_METHOD = "git/checkoutOutput";
+  private static final String STATUS_CHANGED_METHOD = "event/git/statusChanged";
+  /** Status changes are sent to all the subscribers regardless of project. */
+  private static final String ANY_PROJECT = "";
 
   private final EventService eventService;
-  private final RequestTransmitter transmitter;
+  private final JsonRpcSubscriptionRegistry subscriptionRegistry;
 
   @Inject
-  public GitJsonRpcMessenger(EventService eventService, RequestTransmitter transmitter) {
+  public GitJsonRpcMessenger(
+      EventService eventService, JsonRpcSubscriptionRegistry subscriptionRegistry) {
     this.eventService = eventService;
-    this.transmitter = transmitter;
+    this.subscriptionRegistry = subscriptionRegistry;
   }
 
   @PostConstruct
@@ -73,19 +71,8 @@ public class GitJsonRpcMessenger implements EventSubscriber<GitEvent> {
   }
 
   private void handleCheckoutEvent(GitCheckoutEvent event) {
-    endpointIdsWithWorkspaceIdAndProjectName
-        .entrySet()
-        .stream()
-        .filter(it -> it.getValue().contains(event.getWorkspaceId() + event.getProjectName()))
-        .map(Entry::getKey)
-        .forEach(
-            it ->
-                transmitter
-                    .newRequest()
-                    .endpointId(it)
-                    .methodName("git/checkoutOutput")
-                    .paramsAsDto(event)
-                    .sendAndSkipResult());
+    subscriptionRegistry.notify(
+        CHECKOUT_OUTPUT_METHOD, event.getWorkspaceId() + event.getProjectName(), event);
   }
 
   private void handleStatusChangedEvent(GitEvent event) {
@@ -100,14 +87,7 @@ public class GitJsonRpcMessenger implements EventSubscriber<GitEvent> {
 
     StatusChangedEventDto statusChangeEventDto =
         newDto(StatusChangedEventDto.class).withStatus(status).withModifiedFiles(modifiedFiles);
-    for (String endpointId : endpointIds) {
-      transmitter
-          .newRequest()
-          .endpointId(endpointId)
-          .methodName("event/git/statusChanged")
-          .paramsAsDto(statusChangeEventDto)
-          .sendAndSkipResult();
-    }
+    subscriptionRegistry.notify(STATUS_CHANGED_METHOD, ANY_PROJECT, statusChangeEventDto);
   }
 
   @Inject
@@ -118,20 +98,18 @@ public class GitJsonRpcMessenger implements EventSubscriber<GitEvent> {
         .paramsAsString()
         .noResult()
         .withBiConsumer(
-            (endpointId, workspaceIdAndProjectName) -> {
-              endpointIdsWithWorkspaceIdAndProjectName.putIfAbsent(
-                  endpointId, newConcurrentHashSet());
-              endpointIdsWithWorkspaceIdAndProjectName
-                  .get(endpointId)
-                  .add(workspaceIdAndProjectName);
-            });
+            (endpointId, workspaceIdAndProjectName) ->
+                subscriptionRegistry.subscribe(
+                    CHECKOUT_OUTPUT_METHOD, workspaceIdAndProjectName, endpointId));
 
     configurator
         .newConfiguration()
         .methodName("event/git/subscribe")
         .noParams()
         .noResult()
-        .withConsumer(endpointIds::add);
+        .withConsumer(
+            endpointId ->
+                subscriptionRegistry.subscribe(STATUS_CHANGED_METHOD, ANY_PROJECT, endpointId));
   }
 
   @Inject
@@ -142,12 +120,8 @@ public class GitJsonRpcMessenger implements EventSubscriber<GitEvent> {
         .paramsAsString()
         .noResult()
         .withBiConsumer(
-            (endpointId, workspaceIdAndProjectName) -> {
-              endpointIdsWithWorkspaceIdAndProjectName
-                  .getOrDefault(endpointId, newConcurrentHashSet())
-                  .remove(workspaceIdAndProjectName);
-              endpointIdsWithWorkspaceIdAndProjectName.computeIfPresent(
-                  endpointId, (key, value) -> value.isEmpty() ? null : value);
-            });
+            (endpointId, workspaceIdAndProjectName) ->
+                subscriptionRegistry.unsubscribe(
+                    CHECKOUT_OUTPUT_METHOD, workspaceIdAndProjectName, endpointId));
   }
 }
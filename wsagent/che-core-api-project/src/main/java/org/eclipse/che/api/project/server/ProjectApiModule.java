@@ -50,6 +50,7 @@ import org.eclipse.che.api.vfs.watcher.FileWatcherIgnoreFileTracker;
 import org.eclipse.che.api.vfs.watcher.IndexedFileCreateConsumer;
 import org.eclipse.che.api.vfs.watcher.IndexedFileDeleteConsumer;
 import org.eclipse.che.api.vfs.watcher.IndexedFileUpdateConsumer;
+import org.eclipse.che.api.vfs.watcher.Md5SumsInvalidatingConsumer;
 
 /**
  * Guice module contains configuration of Project API components.
@@ -141,6 +142,10 @@ public class ProjectApiModule extends AbstractModule {
     fileUpdateConsumers.addBinding().to(IndexedFileUpdateConsumer.class);
     fileDeleteConsumers.addBinding().to(IndexedFileDeleteConsumer.class);
 
+    fileUpdateConsumers.addBinding().to(Md5SumsInvalidatingConsumer.class);
+    fileDeleteConsumers.addBinding().to(Md5SumsInvalidatingConsumer.class);
+    directoryDeleteConsumers.addBinding().to(Md5SumsInvalidatingConsumer.class);
+
     fileCreateConsumers.addBinding().to(FileWatcherByPathMatcher.class);
     fileDeleteConsumers.addBinding().to(FileWatcherByPathMatcher.class);
     directoryCreateConsumers.addBinding().to(FileWatcherByPathMatcher.class);
@@ -135,10 +135,12 @@ public class ProjectManager {
                 LOG.error("Could not remove or synchronize  project: {}", projectPath);
               }
             });
+    fileWatcherManager.registerRecursively(rootPath);
   }
 
   @PreDestroy
   private void preDestroy() {
+    fileWatcherManager.unRegisterRecursively(vfs.getRoot().getPath().toString());
     fileWatcherManager.unRegisterByPath(rootProjcetOperationSetId);
   }
 
@@ -50,6 +50,7 @@ import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 import org.apache.commons.fileupload.FileItem;
 import org.apache.tika.Tika;
@@ -824,7 +825,7 @@ public class ProjectService extends Service {
     @ApiResponse(code = 404, message = "Not found"),
     @ApiResponse(code = 500, message = "Internal Server Error")
   })
-  public InputStream exportZip(
+  public Response exportZip(
       @ApiParam(value = "Path to resource to be exported") @PathParam("path") String path)
       throws NotFoundException, ForbiddenException, ServerException {
 
@@ -834,7 +835,17 @@ public class ProjectService extends Service {
       throw new NotFoundException("Folder not found " + path);
     }
 
-    return folder.getVirtualFile().zip();
+    final VirtualFile virtualFile = folder.getVirtualFile();
+    // archive is written directly to the response while it is being created
+    final StreamingOutput zip =
+        output -> {
+          try {
+            virtualFile.zip(output);
+          } catch (ForbiddenException | ServerException e) {
+            throw new IOException(e.getMessage(), e);
+          }
+        };
+    return Response.ok(zip, ExtMediaType.APPLICATION_ZIP).build();
   }
 
   @GET
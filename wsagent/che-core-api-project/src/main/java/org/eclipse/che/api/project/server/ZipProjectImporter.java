@@ -12,6 +12,7 @@ package org.eclipse.che.api.project.server;
 
 import static org.eclipse.che.api.project.shared.Constants.ZIP_IMPORTER_ID;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
@@ -21,12 +22,16 @@ import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.model.project.SourceStorage;
+import org.eclipse.che.api.core.util.LineConsumer;
 import org.eclipse.che.api.core.util.LineConsumerFactory;
 import org.eclipse.che.api.project.server.importer.ProjectImporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /** @author Vitaly Parfonov */
 @Singleton
 public class ZipProjectImporter implements ProjectImporter {
+  private static final Logger LOG = LoggerFactory.getLogger(ZipProjectImporter.class);
 
   @Override
   public String getId() {
@@ -74,7 +79,8 @@ public class ZipProjectImporter implements ProjectImporter {
     }
 
     Map<String, String> parameters = storage.getParameters();
-    try (InputStream zip = url.openStream()) {
+    try (LineConsumer output = importOutputConsumerFactory.newLineConsumer();
+        InputStream zip = new ProgressReportingInputStream(url.openStream(), output)) {
       int stripNumber = 0;
       if (parameters != null && parameters.containsKey("skipFirstLevel")) {
         stripNumber = Boolean.parseBoolean(parameters.get("skipFirstLevel")) ? 1 : 0;
@@ -83,6 +89,49 @@ public class ZipProjectImporter implements ProjectImporter {
     }
   }
 
+  /** Reports amount of received bytes of archive to the import output after each megabyte. */
+  private static class ProgressReportingInputStream extends FilterInputStream {
+    private static final long REPORT_STEP_BYTES = 1024 * 1024;
+
+    private final LineConsumer output;
+    private long received;
+
+    ProgressReportingInputStream(InputStream in, LineConsumer output) {
+      super(in);
+      this.output = output;
+    }
+
+    @Override
+    public int read() throws IOException {
+      final int b = super.read();
+      if (b != -1) {
+        onReceived(1);
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      final int read = super.read(b, off, len);
+      if (read > 0) {
+        onReceived(read);
+      }
+      return read;
+    }
+
+    private void onReceived(int count) {
+      final long before = received;
+      received += count;
+      if (received / REPORT_STEP_BYTES > before / REPORT_STEP_BYTES) {
+        try {
+          output.writeLine("Receiving archive: " + received / REPORT_STEP_BYTES + " MB completed");
+        } catch (IOException e) {
+          LOG.error(e.getMessage(), e);
+        }
+      }
+    }
+  }
+
   @Override
   public ImporterCategory getCategory() {
     return ImporterCategory.ARCHIVE;
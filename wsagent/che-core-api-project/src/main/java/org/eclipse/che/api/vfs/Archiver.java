@@ -13,6 +13,7 @@ package org.eclipse.che.api.vfs;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.concurrent.Executor;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.ServerException;
@@ -20,9 +21,27 @@ import org.eclipse.che.api.core.ServerException;
 /** Archiver for compressing and extracting content of folder. */
 public abstract class Archiver {
   protected final VirtualFile folder;
+  protected final ContentReader contentReader;
+  protected final Executor extractExecutor;
 
   protected Archiver(VirtualFile folder) {
+    this(folder, ContentReader.DEFAULT);
+  }
+
+  protected Archiver(VirtualFile folder, ContentReader contentReader) {
+    this(folder, contentReader, null);
+  }
+
+  /**
+   * @param folder folder for compressing or extracting
+   * @param contentReader reads content of files which are written to archive
+   * @param extractExecutor executor which writes extracted files in parallel, if {@code null}
+   *     files are written by the thread which reads archive
+   */
+  protected Archiver(VirtualFile folder, ContentReader contentReader, Executor extractExecutor) {
     this.folder = folder;
+    this.contentReader = contentReader;
+    this.extractExecutor = extractExecutor;
   }
 
   /**
@@ -50,4 +69,17 @@ public abstract class Archiver {
    */
   public abstract void extract(InputStream compressedInput, boolean overwrite, int stripNumber)
       throws IOException, ForbiddenException, ConflictException, ServerException;
+
+  /**
+   * Opens content of files which are written to archive. Content is read while it is being
+   * compressed, so implementation may open stream which reads the file directly instead of copying
+   * it to memory or to temporary file.
+   */
+  @FunctionalInterface
+  public interface ContentReader {
+    /** Reads content with {@link VirtualFile#getContent()}. */
+    ContentReader DEFAULT = VirtualFile::getContent;
+
+    InputStream read(VirtualFile file) throws ForbiddenException, ServerException;
+  }
 }
@@ -10,15 +10,36 @@
  */
 package org.eclipse.che.api.vfs;
 
+import java.util.concurrent.Executor;
+
 public class ArchiverFactory {
+  private final Executor extractExecutor;
+
+  public ArchiverFactory() {
+    this(null);
+  }
+
+  /**
+   * @param extractExecutor executor which writes files extracted by created archivers in parallel,
+   *     if {@code null} files are written by the thread which reads archive
+   */
+  public ArchiverFactory(Executor extractExecutor) {
+    this.extractExecutor = extractExecutor;
+  }
+
   public Archiver createArchiver(VirtualFile folder, String archiveType) {
+    return createArchiver(folder, archiveType, Archiver.ContentReader.DEFAULT);
+  }
+
+  public Archiver createArchiver(
+      VirtualFile folder, String archiveType, Archiver.ContentReader contentReader) {
     if (archiveType == null) {
       throw new IllegalArgumentException("Archive type might not be null");
     }
     if ("zip".equals(archiveType.toLowerCase())) {
-      return new ZipArchiver(folder);
+      return new ZipArchiver(folder, contentReader, extractExecutor);
     } else if ("tar".equals(archiveType.toLowerCase())) {
-      return new TarArchiver(folder);
+      return new TarArchiver(folder, contentReader, extractExecutor);
     }
     throw new IllegalArgumentException(String.format("Unsupported archive type %s", archiveType));
   }
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.vfs;
+
+import com.google.common.io.ByteStreams;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import org.eclipse.che.api.core.ApiException;
+import org.eclipse.che.api.core.ConflictException;
+import org.eclipse.che.api.core.ForbiddenException;
+import org.eclipse.che.api.core.ServerException;
+
+/**
+ * Writes files extracted from archive to the virtual file system.
+ *
+ * <p>Archive is read sequentially, but content of small files is buffered and files are created
+ * by the given executor in parallel, so creating and indexing of extracted files doesn't wait for
+ * each other. Big files are written by the thread which reads archive. Amount of buffered content
+ * is limited, reading of archive waits while buffered files are written.
+ *
+ * <p>If executor is {@code null} all the files are written by the thread which reads archive.
+ */
+class ExtractedFileWriter {
+  static final int MAX_PARALLEL_FILE_SIZE = 1024 * 1024; // 1M
+  static final int MAX_BUFFERED_BYTES = 16 * MAX_PARALLEL_FILE_SIZE;
+  // is counted in addition to content length of each file, so count of pending files is limited
+  private static final int FILE_OVERHEAD_BYTES = 1024;
+
+  private final Executor executor;
+  private final Semaphore bufferedBytes;
+  private final Phaser pendingWrites;
+  private final AtomicReference<ApiException> failure;
+  private final Set<Path> writtenPaths;
+
+  ExtractedFileWriter(Executor executor) {
+    this.executor = executor;
+    this.bufferedBytes = new Semaphore(MAX_BUFFERED_BYTES);
+    this.pendingWrites = new Phaser(1);
+    this.failure = new AtomicReference<>();
+    this.writtenPaths = new HashSet<>();
+  }
+
+  /**
+   * Creates file with the given name in {@code parent} folder or updates content of the existing
+   * one. Content is read before this method returns, but the file may be written later, call
+   * {@link #await()} to wait until all the files are written.
+   */
+  void write(VirtualFile parent, String name, InputStream content, boolean overwrite)
+      throws IOException, ForbiddenException, ConflictException, ServerException {
+    checkFailure();
+    if (executor == null) {
+      doWrite(parent, name, content, overwrite);
+      return;
+    }
+
+    if (!writtenPaths.add(parent.getPath().newPath(name))) {
+      // the same file is met in archive twice, the last one has to win
+      await();
+    }
+
+    final byte[] head =
+        ByteStreams.toByteArray(ByteStreams.limit(content, MAX_PARALLEL_FILE_SIZE));
+    if (head.length == MAX_PARALLEL_FILE_SIZE) {
+      final InputStream fullContent =
+          new SequenceInputStream(new ByteArrayInputStream(head), content);
+      doWrite(parent, name, fullContent, overwrite);
+      return;
+    }
+
+    final int permits = head.length + FILE_OVERHEAD_BYTES;
+    try {
+      bufferedBytes.acquire(permits);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ServerException("Extracting of archive is interrupted");
+    }
+    pendingWrites.register();
+    try {
+      executor.execute(
+          () -> {
+            try {
+              if (failure.get() == null) {
+                doWrite(parent, name, new ByteArrayInputStream(head), overwrite);
+              }
+            } catch (ApiException e) {
+              failure.compareAndSet(null, e);
+            } catch (RuntimeException e) {
+              failure.compareAndSet(null, new ServerException(e.getMessage(), e));
+            } finally {
+              bufferedBytes.release(permits);
+              pendingWrites.arriveAndDeregister();
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      bufferedBytes.release(permits);
+      pendingWrites.arriveAndDeregister();
+      doWrite(parent, name, new ByteArrayInputStream(head), overwrite);
+    }
+  }
+
+  /** Waits until all the files are written and rethrows the first error if any. */
+  void await() throws ForbiddenException, ConflictException, ServerException {
+    if (executor != null) {
+      try {
+        pendingWrites.awaitAdvanceInterruptibly(pendingWrites.arrive());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ServerException("Extracting of archive is interrupted");
+      }
+    }
+    checkFailure();
+  }
+
+  /**
+   * Skips writing of files which are not written yet and waits for files which are being written.
+   * Should be called when extracting of archive fails, doesn't throw errors of written files.
+   */
+  void cancel() {
+    failure.compareAndSet(null, new ServerException("Extracting of archive is cancelled"));
+    if (executor != null) {
+      pendingWrites.awaitAdvance(pendingWrites.arrive());
+    }
+  }
+
+  private void checkFailure() throws ForbiddenException, ConflictException, ServerException {
+    final ApiException e = failure.get();
+    if (e instanceof ForbiddenException) {
+      throw (ForbiddenException) e;
+    } else if (e instanceof ConflictException) {
+      throw (ConflictException) e;
+    } else if (e instanceof ServerException) {
+      throw (ServerException) e;
+    } else if (e != null) {
+      throw new ServerException(e.getServiceError());
+    }
+  }
+
+  private static void doWrite(
+      VirtualFile parent, String name, InputStream content, boolean overwrite)
+      throws ForbiddenException, ConflictException, ServerException {
+    VirtualFile file = parent.getChild(Path.of(name));
+    if (file == null) {
+      parent.createFile(name, content);
+    } else {
+      if (overwrite) {
+        file.updateContent(content);
+      } else {
+        throw new ConflictException(String.format("File '%s' already exists", file.getPath()));
+      }
+    }
+  }
+}
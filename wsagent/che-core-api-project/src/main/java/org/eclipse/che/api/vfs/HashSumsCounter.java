@@ -26,6 +26,9 @@ import org.eclipse.che.commons.lang.Pair;
 /**
  * Traverses recursively all files in folder given in constructor and calculates hash sum for each
  * file. Algorithm specified by {@code hashFunction} is used for calculating hash sum.
+ *
+ * <p>Hash sums of files are calculated by {@link #countHashSum(VirtualFile)} which reads whole
+ * content of the file, subclasses may override it to reuse previously calculated hash sums.
  */
 public class HashSumsCounter implements VirtualFileVisitor {
   private final VirtualFile folder;
@@ -55,20 +58,25 @@ public class HashSumsCounter implements VirtualFileVisitor {
   @Override
   public void visit(VirtualFile virtualFile) throws ServerException {
     if (virtualFile.isFile()) {
-      try (InputStream in = virtualFile.getContent()) {
-        final Hasher hasher = hashFunction.newHasher();
-        ByteStreams.copy(in, asOutputStream(hasher));
-        final String hexHash = hasher.hash().toString();
-        hashSums.add(Pair.of(hexHash, virtualFile.getPath().subPath(folder.getPath()).toString()));
-      } catch (IOException e) {
-        throw new ServerException(e);
-      } catch (ForbiddenException e) {
-        throw new ServerException(e.getServiceError());
-      }
+      final String hexHash = countHashSum(virtualFile);
+      hashSums.add(Pair.of(hexHash, virtualFile.getPath().subPath(folder.getPath()).toString()));
     } else {
       for (VirtualFile child : virtualFile.getChildren()) {
         child.accept(this);
       }
     }
   }
+
+  /** Calculates hash sum of the file content represented as HEX String. */
+  protected String countHashSum(VirtualFile file) throws ServerException {
+    try (InputStream in = file.getContent()) {
+      final Hasher hasher = hashFunction.newHasher();
+      ByteStreams.copy(in, asOutputStream(hasher));
+      return hasher.hash().toString();
+    } catch (IOException e) {
+      throw new ServerException(e);
+    } catch (ForbiddenException e) {
+      throw new ServerException(e.getServiceError());
+    }
+  }
 }
@@ -14,6 +14,7 @@ import com.google.common.io.ByteStreams;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.concurrent.Executor;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
@@ -27,6 +28,14 @@ public class TarArchiver extends Archiver {
     super(folder);
   }
 
+  public TarArchiver(VirtualFile folder, ContentReader contentReader) {
+    super(folder, contentReader);
+  }
+
+  public TarArchiver(VirtualFile folder, ContentReader contentReader, Executor extractExecutor) {
+    super(folder, contentReader, extractExecutor);
+  }
+
   @Override
   public void compress(OutputStream tarOutput) throws IOException, ServerException {
     compress(tarOutput, VirtualFileFilter.ACCEPT_ALL);
@@ -75,7 +84,7 @@ public class TarArchiver extends Archiver {
         tarEntry.setSize(virtualFile.getLength());
         tarEntry.setModTime(virtualFile.getLastModificationDate());
         tarOutputStream.putArchiveEntry(tarEntry);
-        try (InputStream content = virtualFile.getContent()) {
+        try (InputStream content = contentReader.read(virtualFile)) {
           ByteStreams.copy(content, tarOutputStream);
         }
       }
@@ -90,6 +99,7 @@ public class TarArchiver extends Archiver {
   @Override
   public void extract(InputStream tarInput, boolean overwrite, int stripNumber)
       throws IOException, ForbiddenException, ConflictException, ServerException {
+    final ExtractedFileWriter writer = new ExtractedFileWriter(extractExecutor);
     try (TarArchiveInputStream tarInputStream = new TarArchiveInputStream(tarInput)) {
       InputStream notClosableInputStream = new NotClosableInputStream(tarInputStream);
       TarArchiveEntry tarEntry;
@@ -121,18 +131,11 @@ public class TarArchiver extends Archiver {
           extractFolder = neededParent;
         }
 
-        String fileName = relativePath.getName();
-        VirtualFile file = extractFolder.getChild(Path.of(fileName));
-        if (file == null) {
-          extractFolder.createFile(fileName, notClosableInputStream);
-        } else {
-          if (overwrite) {
-            file.updateContent(notClosableInputStream);
-          } else {
-            throw new ConflictException(String.format("File '%s' already exists", file.getPath()));
-          }
-        }
+        writer.write(extractFolder, relativePath.getName(), notClosableInputStream, overwrite);
       }
+      writer.await();
+    } finally {
+      writer.cancel();
     }
   }
 }
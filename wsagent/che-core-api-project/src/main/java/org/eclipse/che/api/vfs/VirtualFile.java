@@ -482,6 +482,17 @@ public interface VirtualFile extends Comparable<VirtualFile> {
    */
   InputStream zip() throws ForbiddenException, ServerException;
 
+  /**
+   * Writes content of folder denoted by this VirtualFile as zip archive to the given output. Unlike
+   * {@link #zip()} archive is not kept in memory or in temporary file but is written to the output
+   * while it is being created.
+   *
+   * @param zipOutput output for zip archive, it is closed when archive is written
+   * @throws ForbiddenException if this item does not denote a folder
+   * @throws ServerException if other error occurs
+   */
+  void zip(OutputStream zipOutput) throws ForbiddenException, ServerException;
+
   /**
    * Extracts zip archive to the folder denoted by this VirtualFile.
    *
@@ -510,6 +521,16 @@ public interface VirtualFile extends Comparable<VirtualFile> {
    */
   InputStream tar() throws ForbiddenException, ServerException;
 
+  /**
+   * Writes content of folder denoted by this VirtualFile as TAR archive to the given output.
+   *
+   * @param tarOutput output for TAR archive, it is closed when archive is written
+   * @throws ForbiddenException if this item does not denote a folder
+   * @throws ServerException if other error occurs
+   * @see #zip(OutputStream)
+   */
+  void tar(OutputStream tarOutput) throws ForbiddenException, ServerException;
+
   /**
    * Extracts tar archive to the folder denoted by this VirtualFile.
    *
@@ -10,10 +10,14 @@
  */
 package org.eclipse.che.api.vfs;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.io.ByteStreams;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -24,10 +28,24 @@ import org.eclipse.che.api.vfs.util.NotClosableInputStream;
 import org.eclipse.che.api.vfs.util.ZipContent;
 
 public class ZipArchiver extends Archiver {
+  /** Extensions of files which content is already compressed and is stored in archive as is. */
+  private static final Set<String> COMPRESSED_EXTENSIONS =
+      ImmutableSet.of(
+          "zip", "jar", "war", "ear", "gz", "tgz", "bz2", "xz", "7z", "rar", "png", "jpg", "jpeg",
+          "gif", "ico", "mp3", "mp4", "avi", "pdf", "woff", "woff2");
+
   public ZipArchiver(VirtualFile folder) {
     super(folder);
   }
 
+  public ZipArchiver(VirtualFile folder, ContentReader contentReader) {
+    super(folder, contentReader);
+  }
+
+  public ZipArchiver(VirtualFile folder, ContentReader contentReader, Executor extractExecutor) {
+    super(folder, contentReader, extractExecutor);
+  }
+
   @Override
   public void compress(OutputStream zipOutput) throws IOException, ServerException {
     compress(zipOutput, VirtualFileFilter.ACCEPT_ALL);
@@ -68,11 +86,14 @@ public class ZipArchiver extends Archiver {
       throws ServerException {
     try {
       ZipEntry zipEntry = new ZipEntry(getZipEntryName(virtualFile));
+      // deflating of already compressed content takes CPU time but doesn't reduce its size
+      zipOutputStream.setLevel(
+          isCompressed(virtualFile) ? Deflater.NO_COMPRESSION : Deflater.DEFAULT_COMPRESSION);
       zipOutputStream.putNextEntry(zipEntry);
       if (virtualFile.isFolder()) {
         zipEntry.setTime(0);
       } else {
-        try (InputStream content = virtualFile.getContent()) {
+        try (InputStream content = contentReader.read(virtualFile)) {
           ByteStreams.copy(content, zipOutputStream);
         }
         zipEntry.setTime(virtualFile.getLastModificationDate());
@@ -85,9 +106,19 @@ public class ZipArchiver extends Archiver {
     }
   }
 
+  private static boolean isCompressed(VirtualFile virtualFile) {
+    if (virtualFile.isFolder()) {
+      return false;
+    }
+    final String name = virtualFile.getName();
+    final int dot = name.lastIndexOf('.');
+    return dot > 0 && COMPRESSED_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase());
+  }
+
   @Override
   public void extract(InputStream zipInput, boolean overwrite, int stripNumber)
       throws IOException, ForbiddenException, ConflictException, ServerException {
+    final ExtractedFileWriter writer = new ExtractedFileWriter(extractExecutor);
     try (ZipInputStream zip = new ZipInputStream(ZipContent.of(zipInput).getContent())) {
       InputStream notClosableInputStream = new NotClosableInputStream(zip);
       ZipEntry zipEntry;
@@ -119,19 +150,12 @@ public class ZipArchiver extends Archiver {
           extractFolder = neededParent;
         }
 
-        String fileName = relativePath.getName();
-        VirtualFile file = extractFolder.getChild(Path.of(fileName));
-        if (file == null) {
-          extractFolder.createFile(fileName, notClosableInputStream);
-        } else {
-          if (overwrite) {
-            file.updateContent(notClosableInputStream);
-          } else {
-            throw new ConflictException(String.format("File '%s' already exists", file.getPath()));
-          }
-        }
+        writer.write(extractFolder, relativePath.getName(), notClosableInputStream, overwrite);
         zip.closeEntry();
       }
+      writer.await();
+    } finally {
+      writer.cancel();
     }
   }
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.vfs.impl.file;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.function.Consumer;
+import org.eclipse.che.api.vfs.Path;
+
+/**
+ * Content of the file of {@link LocalVirtualFileSystem} which is read directly from the file with
+ * {@link FileChannel} instead of being copied to memory or to temporary file.
+ *
+ * <p>Path lock of the file is not held while content is read. Before the file is updated {@link
+ * LocalVirtualFileSystem} switches all streams opened for the file to the snapshot of its current
+ * content with {@link #detach(File)}, so the file is copied only if it is updated while somebody
+ * reads it and readers always get the content which file had when the stream was opened.
+ */
+class FileContentStream extends InputStream {
+  private final Path path;
+  private final Consumer<FileContentStream> closeCallback;
+
+  private FileChannel channel;
+  private long position;
+  private long mark;
+  private boolean closed;
+
+  FileContentStream(Path path, File file, Consumer<FileContentStream> closeCallback)
+      throws IOException {
+    this.path = path;
+    this.channel = FileChannel.open(file.toPath(), READ);
+    this.closeCallback = closeCallback;
+  }
+
+  /** Returns path of the file which content is read by this stream. */
+  Path getPath() {
+    return path;
+  }
+
+  @Override
+  public synchronized int read() throws IOException {
+    final byte[] b = new byte[1];
+    return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+  }
+
+  @Override
+  public synchronized int read(byte[] b, int off, int len) throws IOException {
+    ensureOpen();
+    if (len == 0) {
+      return 0;
+    }
+    final int read = channel.read(ByteBuffer.wrap(b, off, len), position);
+    if (read > 0) {
+      position += read;
+    }
+    return read;
+  }
+
+  @Override
+  public synchronized long skip(long n) throws IOException {
+    ensureOpen();
+    if (n <= 0) {
+      return 0;
+    }
+    final long skipped = Math.min(n, Math.max(0, channel.size() - position));
+    position += skipped;
+    return skipped;
+  }
+
+  @Override
+  public synchronized int available() throws IOException {
+    ensureOpen();
+    return (int) Math.min(Integer.MAX_VALUE, Math.max(0, channel.size() - position));
+  }
+
+  @Override
+  public boolean markSupported() {
+    return true;
+  }
+
+  @Override
+  public synchronized void mark(int readLimit) {
+    mark = position;
+  }
+
+  @Override
+  public synchronized void reset() throws IOException {
+    ensureOpen();
+    position = mark;
+  }
+
+  /**
+   * Switches this stream to the snapshot of the file content. Position of the stream is kept, so
+   * reading continues from the same place in the snapshot.
+   */
+  synchronized void detach(File snapshot) throws IOException {
+    if (closed) {
+      return;
+    }
+    final FileChannel snapshotChannel = FileChannel.open(snapshot.toPath(), READ);
+    channel.close();
+    channel = snapshotChannel;
+  }
+
+  @Override
+  public void close() throws IOException {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      channel.close();
+    }
+    closeCallback.accept(this);
+  }
+
+  private void ensureOpen() throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+  }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.vfs.impl.file;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.io.Files;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.vfs.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent store of hash sums of files of {@link LocalVirtualFileSystem}.
+ *
+ * <p>Hash sum of a file is stored together with size and modification time of the file and is
+ * reused while they are not changed, so counting of hash sums of a folder reads only new and
+ * modified files. Hash sums of recently modified files are not stored, as such files may be
+ * modified again without changing of modification time because of time resolution of file system.
+ *
+ * <p>Store is loaded from the file on the first usage and is saved by {@link #save()}.
+ */
+class FileHashStore {
+  private static final Logger LOG = LoggerFactory.getLogger(FileHashStore.class);
+
+  private static final int FORMAT_VERSION = 1;
+  private static final long RACY_MODIFICATION_MS = 2_000;
+
+  private final File storeFile;
+  private final HashFunction hashFunction;
+  private final ConcurrentNavigableMap<String, FileHash> hashes;
+  private final AtomicBoolean modified;
+
+  private volatile boolean loaded;
+
+  FileHashStore(File storeFile, HashFunction hashFunction) {
+    this.storeFile = storeFile;
+    this.hashFunction = hashFunction;
+    this.hashes = new ConcurrentSkipListMap<>();
+    this.modified = new AtomicBoolean();
+  }
+
+  /** Returns hash sum of the file content represented as HEX String. */
+  String getHash(LocalVirtualFile file) throws ServerException {
+    load();
+    final File ioFile = file.toIoFile();
+    final String key = file.getPath().toString();
+    final long size = ioFile.length();
+    final long lastModified = ioFile.lastModified();
+
+    final FileHash stored = hashes.get(key);
+    if (stored != null && stored.size == size && stored.lastModified == lastModified) {
+      return stored.hash;
+    }
+
+    final String hash;
+    try {
+      hash = Files.asByteSource(ioFile).hash(hashFunction).toString();
+    } catch (IOException e) {
+      throw new ServerException(e);
+    }
+    if (ioFile.length() == size
+        && ioFile.lastModified() == lastModified
+        && System.currentTimeMillis() - lastModified >= RACY_MODIFICATION_MS) {
+      hashes.put(key, new FileHash(size, lastModified, hash));
+      modified.set(true);
+    } else if (stored != null && hashes.remove(key, stored)) {
+      modified.set(true);
+    }
+    return hash;
+  }
+
+  /** Removes hash sums of the item with given path and all its descendants. */
+  void invalidate(Path path) {
+    load();
+    if (path.isRoot()) {
+      if (!hashes.isEmpty()) {
+        hashes.clear();
+        modified.set(true);
+      }
+      return;
+    }
+    final String key = path.toString();
+    // all the descendants are between "key/" and "key0" as '0' follows '/'
+    final Map<String, FileHash> descendants = hashes.subMap(key + '/', key + '0');
+    boolean removed = hashes.remove(key) != null;
+    if (!descendants.isEmpty()) {
+      descendants.clear();
+      removed = true;
+    }
+    if (removed) {
+      modified.set(true);
+    }
+  }
+
+  /** Writes stored hash sums to the file if they are modified since the last saving. */
+  synchronized void save() {
+    if (!loaded || !modified.compareAndSet(true, false)) {
+      return;
+    }
+    final File parent = storeFile.getParentFile();
+    File tempFile = null;
+    try {
+      parent.mkdirs();
+      tempFile = File.createTempFile(storeFile.getName(), "tmp", parent);
+      try (DataOutputStream dos =
+          new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+        dos.writeInt(FORMAT_VERSION);
+        dos.writeInt(hashes.size());
+        for (Map.Entry<String, FileHash> entry : hashes.entrySet()) {
+          final FileHash fileHash = entry.getValue();
+          dos.writeUTF(entry.getKey());
+          dos.writeLong(fileHash.size);
+          dos.writeLong(fileHash.lastModified);
+          dos.writeUTF(fileHash.hash);
+        }
+      }
+      java.nio.file.Files.move(
+          tempFile.toPath(), storeFile.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+    } catch (IOException e) {
+      LOG.warn("Unable save hash sums of files to {}: {}", storeFile, e.getMessage());
+      modified.set(true);
+      if (tempFile != null) {
+        tempFile.delete();
+      }
+    }
+  }
+
+  private void load() {
+    if (loaded) {
+      return;
+    }
+    synchronized (this) {
+      if (loaded) {
+        return;
+      }
+      if (storeFile.exists()) {
+        try (DataInputStream dis =
+            new DataInputStream(new BufferedInputStream(new FileInputStream(storeFile)))) {
+          if (dis.readInt() == FORMAT_VERSION) {
+            final int count = dis.readInt();
+            for (int i = 0; i < count; i++) {
+              final String key = dis.readUTF();
+              final long size = dis.readLong();
+              final long lastModified = dis.readLong();
+              hashes.put(key, new FileHash(size, lastModified, dis.readUTF()));
+            }
+          }
+        } catch (IOException e) {
+          LOG.warn("Unable load hash sums of files from {}: {}", storeFile, e.getMessage());
+          hashes.clear();
+        }
+      }
+      loaded = true;
+    }
+  }
+
+  private static class FileHash {
+    final long size;
+    final long lastModified;
+    final String hash;
+
+    FileHash(long size, long lastModified, String hash) {
+      this.size = size;
+      this.lastModified = lastModified;
+      this.hash = hash;
+    }
+  }
+}
@@ -37,6 +37,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FilenameFilter;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -45,6 +46,10 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ExecutionException;
 import java.util.function.BiConsumer;
 import org.eclipse.che.api.core.ConflictException;
@@ -89,6 +94,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
   private static final FileLock NO_LOCK = new FileLock("no_lock", 0);
   private static final String FILE_PROPERTIES_DIR = VFS_SERVICE_DIR + File.separatorChar + "props";
   private static final String PROPERTIES_FILE_SUFFIX = "_props";
+  private static final String MD5_SUMS_FILE = VFS_SERVICE_DIR + File.separatorChar + "md5sums";
 
   private static final FilenameFilter DOT_VFS_DIR_FILTER =
       (dir, name) -> !(VFS_SERVICE_DIR.equals(name));
@@ -141,6 +147,9 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
   private final FileMetadataSerializer metadataSerializer;
   private final LoadingCache<Path, Map<String, String>> metadataCache;
 
+  private final FileHashStore md5Store;
+  private final ConcurrentNavigableMap<String, Set<FileContentStream>> contentStreams;
+
   @SuppressWarnings("unchecked")
   public LocalVirtualFileSystem(
       File ioRoot,
@@ -170,6 +179,9 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
             .maximumSize(256)
             .expireAfterAccess(10, MINUTES)
             .build(new FilePropertiesCacheLoader());
+
+    md5Store = new FileHashStore(new File(ioRoot, MD5_SUMS_FILE), Hashing.md5());
+    contentStreams = new ConcurrentSkipListMap<>();
   }
 
   @Override
@@ -185,6 +197,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
   @Override
   public void close() throws ServerException {
     cleanUpCaches();
+    md5Store.save();
     if (searcherProvider != null) {
       Searcher searcher = searcherProvider.getSearcher(this, false);
       if (searcher != null) {
@@ -437,12 +450,17 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
             String.format("Item '%s' already exists", newVirtualFile.getName()));
       }
 
-      doCopy(virtualFile, newVirtualFile);
-      addInSearcher(newVirtualFile);
-
       final Path path = virtualFile.getPath();
       final boolean isFile = virtualFile.isFile();
-      doDelete(virtualFile, lockToken);
+      try {
+        doCopy(virtualFile, newVirtualFile);
+        addInSearcher(newVirtualFile);
+        doDelete(virtualFile, lockToken);
+      } finally {
+        // md5sums of both items are dropped even if the item is renamed partially
+        md5Store.invalidate(path);
+        md5Store.invalidate(newPath);
+      }
       deleteInSearcher(path, isFile);
 
       return newVirtualFile;
@@ -501,13 +519,17 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
       }
     }
 
-    doCopy(virtualFile, newVirtualFile);
-    addInSearcher(newVirtualFile);
-
-    final Path path = virtualFile.getPath();
     final boolean isFile = virtualFile.isFile();
-    doDelete(virtualFile, lockToken);
-    deleteInSearcher(path, isFile);
+    try {
+      doCopy(virtualFile, newVirtualFile);
+      addInSearcher(newVirtualFile);
+      doDelete(virtualFile, lockToken);
+    } finally {
+      // md5sums of both items are dropped even if the item is moved partially
+      md5Store.invalidate(sourcePath);
+      md5Store.invalidate(newPath);
+    }
+    deleteInSearcher(sourcePath, isFile);
 
     return newVirtualFile;
   }
@@ -516,21 +538,16 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
     if (virtualFile.isFile()) {
       final PathLockFactory.PathLock lock =
           pathLockFactory.getLock(virtualFile.getPath(), false).acquire(WAIT_FOR_FILE_LOCK_TIMEOUT);
-      File spoolFile = null;
       try {
         final File ioFile = virtualFile.toIoFile();
         final long fileLength = ioFile.length();
         if (fileLength <= MAX_BUFFER_SIZE) {
           return new ByteArrayInputStream(Files.toByteArray(ioFile));
         }
-        // Copy this file to be able release the file lock before leave this method.
-        spoolFile = File.createTempFile("spool_file", null);
-        Files.copy(ioFile, spoolFile);
-        return new DeleteOnCloseFileInputStream(spoolFile);
+        // Big file is read directly, lock is not needed after the file is opened as content of
+        // the file is copied for opened streams only if it is updated while they are read.
+        return openContentStream(virtualFile);
       } catch (IOException e) {
-        if (spoolFile != null) {
-          FileCleaner.addFile(spoolFile);
-        }
         String errorMessage = String.format("Unable get content of '%s'", virtualFile.getPath());
         LOG.error(errorMessage + "\n" + e.getMessage(), e);
         throw new ServerException(errorMessage);
@@ -554,8 +571,10 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
       final PathLockFactory.PathLock lock =
           pathLockFactory.getLock(virtualFile.getPath(), true).acquire(WAIT_FOR_FILE_LOCK_TIMEOUT);
       try {
+        detachContentStreams(virtualFile);
         doUpdateContent(virtualFile, content);
       } finally {
+        md5Store.invalidate(virtualFile.getPath());
         lock.release();
       }
       updateInSearcher(virtualFile);
@@ -593,12 +612,15 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
               ioFile.toPath(),
               StandardCopyOption.REPLACE_EXISTING,
               StandardCopyOption.ATOMIC_MOVE);
+          // opened streams keep reading replaced file
+          forgetContentStreams(virtualFile.getPath());
         } finally {
           tempFile.delete();
         }
       } catch (IOException e) {
         throw new ServerException(e);
       } finally {
+        md5Store.invalidate(virtualFile.getPath());
         lock.release();
       }
       updateInSearcher(virtualFile);
@@ -616,6 +638,73 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
     return File.createTempFile(prefix, suffix, vfsDir);
   }
 
+  private InputStream openContentStream(LocalVirtualFile virtualFile) throws IOException {
+    final FileContentStream stream =
+        new FileContentStream(
+            virtualFile.getPath(), virtualFile.toIoFile(), this::onContentStreamClosed);
+    contentStreams.compute(
+        stream.getPath().toString(),
+        (key, streams) -> {
+          final Set<FileContentStream> result =
+              streams == null ? ConcurrentHashMap.newKeySet() : streams;
+          result.add(stream);
+          return result;
+        });
+    return stream;
+  }
+
+  private void onContentStreamClosed(FileContentStream stream) {
+    contentStreams.computeIfPresent(
+        stream.getPath().toString(),
+        (key, streams) -> {
+          streams.remove(stream);
+          return streams.isEmpty() ? null : streams;
+        });
+  }
+
+  /**
+   * Switches streams opened for the file to the snapshot of its current content. Must be called
+   * under exclusive lock of the file before its content is changed in place.
+   */
+  private void detachContentStreams(LocalVirtualFile virtualFile) throws ServerException {
+    final Set<FileContentStream> streams = contentStreams.remove(virtualFile.getPath().toString());
+    if (streams == null || streams.isEmpty()) {
+      return;
+    }
+    File snapshot = null;
+    try {
+      snapshot = File.createTempFile("snapshot", null);
+      Files.copy(virtualFile.toIoFile(), snapshot);
+      for (FileContentStream stream : streams) {
+        stream.detach(snapshot);
+      }
+    } catch (IOException e) {
+      String errorMessage = String.format("Unable set content of '%s'", virtualFile.getPath());
+      LOG.error(errorMessage + "\n" + e.getMessage(), e);
+      throw new ServerException(errorMessage);
+    } finally {
+      // snapshot stays readable through opened channels until they are closed
+      if (snapshot != null && !snapshot.delete()) {
+        FileCleaner.addFile(snapshot);
+      }
+    }
+  }
+
+  /**
+   * Stops tracking of streams opened for the item with given path and all its descendants. Should
+   * be called when item is replaced or removed, streams keep reading the removed files.
+   */
+  private void forgetContentStreams(Path path) {
+    if (path.isRoot()) {
+      contentStreams.clear();
+      return;
+    }
+    final String key = path.toString();
+    contentStreams.remove(key);
+    // all the descendants are between "key/" and "key0" as '0' follows '/'
+    contentStreams.subMap(key + '/', key + '0').clear();
+  }
+
   private void doUpdateContent(LocalVirtualFile virtualFile, InputStream content)
       throws ServerException {
     try {
@@ -674,6 +763,8 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
       }
     }
 
+    md5Store.invalidate(virtualFile.getPath());
+    forgetContentStreams(virtualFile.getPath());
     if (!deleteRecursive(virtualFile.toIoFile())) {
       LOG.error("Unable delete file {}", virtualFile.toIoFile());
       throw new ServerException(String.format("Unable delete item '%s'", virtualFile.getPath()));
@@ -693,6 +784,20 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
     }
   }
 
+  void zip(LocalVirtualFile folder, OutputStream zipOutput)
+      throws ForbiddenException, ServerException {
+    if (archiverFactory == null)
+      throw new ServerException(
+          "VFS: Could not create zip archiver. Archiver Factory is not properly configured (is null)");
+
+    if (folder.isFolder()) {
+      compress(archiverFactory.createArchiver(folder, "zip", this::openArchivedContent), zipOutput);
+    } else {
+      throw new ForbiddenException(
+          String.format("Unable export to zip. Item '%s' is not a folder", folder.getPath()));
+    }
+  }
+
   void unzip(LocalVirtualFile parent, InputStream zipped, boolean overwrite, int stripNumber)
       throws ForbiddenException, ConflictException, ServerException {
     if (archiverFactory == null)
@@ -700,8 +805,9 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
           "VFS: Could not create zip archiver. Archiver Factory is not properly configured (is null)");
 
     if (parent.isFolder()) {
+      // extracted files are added in searcher when they are created or updated
       extract(archiverFactory.createArchiver(parent, "zip"), zipped, overwrite, stripNumber);
-      addInSearcher(parent);
+      md5Store.invalidate(parent.getPath());
     } else {
       throw new ForbiddenException(
           String.format("Unable import zip content. Item '%s' is not a folder", parent.getPath()));
@@ -722,6 +828,21 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
     }
   }
 
+  void tar(LocalVirtualFile folder, OutputStream tarOutput)
+      throws ForbiddenException, ServerException {
+    if (archiverFactory == null)
+      throw new ServerException(
+          "VFS: Could not create tar archiver. Archiver Factory is not properly configured (is null)");
+
+    if (folder.isFolder()) {
+      compress(archiverFactory.createArchiver(folder, "tar", this::openArchivedContent), tarOutput);
+    } else {
+      throw new ForbiddenException(
+          String.format(
+              "Unable export to tar archive. Item '%s' is not a folder", folder.getPath()));
+    }
+  }
+
   void untar(LocalVirtualFile parent, InputStream tarArchive, boolean overwrite, int stripNumber)
       throws ForbiddenException, ConflictException, ServerException {
     if (archiverFactory == null)
@@ -729,8 +850,9 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
           "VFS: Could not create tar archiver. Archiver Factory is not properly configured (is null)");
 
     if (parent.isFolder()) {
+      // extracted files are added in searcher when they are created or updated
       extract(archiverFactory.createArchiver(parent, "tar"), tarArchive, overwrite, stripNumber);
-      addInSearcher(parent);
+      md5Store.invalidate(parent.getPath());
     } else {
       throw new ForbiddenException(
           String.format("Unable import tar archive. Item '%s' is not a folder", parent.getPath()));
@@ -753,6 +875,52 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
     }
   }
 
+  private void compress(Archiver archiver, OutputStream output) throws ServerException {
+    try {
+      archiver.compress(output, dotGitFilter());
+    } catch (IOException e) {
+      throw new ServerException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Opens content of the file which is written directly to archive without copying it to memory or
+   * to temporary file. File is locked for reading until returned stream is closed.
+   */
+  private InputStream openArchivedContent(VirtualFile virtualFile)
+      throws ForbiddenException, ServerException {
+    if (!virtualFile.isFile()) {
+      throw new ForbiddenException(
+          String.format("Unable get content. Item '%s' is not a file", virtualFile.getPath()));
+    }
+    final PathLockFactory.PathLock lock =
+        pathLockFactory.getLock(virtualFile.getPath(), false).acquire(WAIT_FOR_FILE_LOCK_TIMEOUT);
+    try {
+      final File ioFile = ((LocalVirtualFile) virtualFile).toIoFile();
+      return new FilterInputStream(new FileInputStream(ioFile)) {
+        private boolean closed;
+
+        @Override
+        public void close() throws IOException {
+          if (closed) {
+            return;
+          }
+          closed = true;
+          try {
+            super.close();
+          } finally {
+            lock.release();
+          }
+        }
+      };
+    } catch (IOException e) {
+      lock.release();
+      String errorMessage = String.format("Unable get content of '%s'", virtualFile.getPath());
+      LOG.error(errorMessage + "\n" + e.getMessage(), e);
+      throw new ServerException(errorMessage);
+    }
+  }
+
   private void extract(
       Archiver archiver, InputStream compressed, boolean overwrite, int stripNumber)
       throws ConflictException, ServerException, ForbiddenException {
@@ -1007,7 +1175,40 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
     if (virtualFile.isFile()) {
       return emptyList();
     }
-    return new HashSumsCounter(virtualFile, Hashing.md5()).countHashSums();
+    try {
+      return new StoredHashSumsCounter(virtualFile).countHashSums();
+    } finally {
+      md5Store.save();
+    }
+  }
+
+  /**
+   * Removes stored md5sums of the item with given path and all its descendants. Stored md5sums are
+   * checked against size and modification time of files, this method allows to drop them when file
+   * is known to be modified, e.g. on file watcher events.
+   *
+   * @param path path of modified or removed item
+   */
+  public void invalidateMd5Sums(Path path) {
+    md5Store.invalidate(path);
+  }
+
+  /** Counts md5sums of files reusing those which are stored and not changed since then. */
+  private class StoredHashSumsCounter extends HashSumsCounter {
+    StoredHashSumsCounter(LocalVirtualFile folder) {
+      super(folder, Hashing.md5());
+    }
+
+    @Override
+    protected String countHashSum(VirtualFile file) throws ServerException {
+      final PathLockFactory.PathLock lock =
+          pathLockFactory.getLock(file.getPath(), false).acquire(WAIT_FOR_FILE_LOCK_TIMEOUT);
+      try {
+        return md5Store.getHash((LocalVirtualFile) file);
+      } finally {
+        lock.release();
+      }
+    }
   }
 
   private String toIoPath(Path vfsPath) {
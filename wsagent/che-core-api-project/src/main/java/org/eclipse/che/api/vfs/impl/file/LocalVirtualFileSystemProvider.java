@@ -10,9 +10,13 @@
  */
 package org.eclipse.che.api.vfs.impl.file;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -21,18 +25,41 @@ import org.eclipse.che.api.vfs.AbstractVirtualFileSystemProvider;
 import org.eclipse.che.api.vfs.ArchiverFactory;
 import org.eclipse.che.api.vfs.VirtualFileSystem;
 import org.eclipse.che.api.vfs.search.SearcherProvider;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
 
 @Singleton
 public class LocalVirtualFileSystemProvider extends AbstractVirtualFileSystemProvider {
   private final File rootDirectory;
   private final SearcherProvider searcherProvider;
+  private final ExecutorService extractExecutor;
 
+  public LocalVirtualFileSystemProvider(File rootDirectory, SearcherProvider searcherProvider)
+      throws IOException {
+    this(rootDirectory, searcherProvider, 1);
+  }
+
+  /**
+   * @param extractThreads count of threads which write files extracted from imported archives, if
+   *     it is not greater than 1 files are written by the thread which reads archive
+   */
   @Inject
   public LocalVirtualFileSystemProvider(
-      @Named("che.user.workspaces.storage") File rootDirectory, SearcherProvider searcherProvider)
+      @Named("che.user.workspaces.storage") File rootDirectory,
+      SearcherProvider searcherProvider,
+      @Named("che.fs.extract.threads") int extractThreads)
       throws IOException {
     this.rootDirectory = rootDirectory;
     this.searcherProvider = searcherProvider;
+    this.extractExecutor =
+        extractThreads > 1
+            ? Executors.newFixedThreadPool(
+                extractThreads,
+                new ThreadFactoryBuilder()
+                    .setNameFormat("VfsExtractor-%d")
+                    .setDaemon(true)
+                    .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                    .build())
+            : null;
     Files.createDirectories(rootDirectory.toPath());
   }
 
@@ -40,6 +67,13 @@ public class LocalVirtualFileSystemProvider extends AbstractVirtualFileSystemPro
   protected VirtualFileSystem createVirtualFileSystem(CloseCallback closeCallback)
       throws ServerException {
     return new LocalVirtualFileSystem(
-        rootDirectory, new ArchiverFactory(), searcherProvider, closeCallback);
+        rootDirectory, new ArchiverFactory(extractExecutor), searcherProvider, closeCallback);
+  }
+
+  @PreDestroy
+  void shutdownExtractExecutor() {
+    if (extractExecutor != null) {
+      extractExecutor.shutdown();
+    }
   }
 }
@@ -665,6 +665,18 @@ public class MemoryVirtualFile implements VirtualFile {
     }
   }
 
+  @Override
+  public void zip(OutputStream zipOutput) throws ForbiddenException, ServerException {
+    checkExistence();
+
+    if (isFolder()) {
+      compress(fileSystem.getArchiverFactory().createArchiver(this, "zip"), zipOutput);
+    } else {
+      throw new ForbiddenException(
+          String.format("Unable export to zip. Item '%s' is not a folder", getPath()));
+    }
+  }
+
   @Override
   public void unzip(InputStream zipped, boolean overwrite, int stripNumber)
       throws ForbiddenException, ServerException, ConflictException {
@@ -676,7 +688,6 @@ public class MemoryVirtualFile implements VirtualFile {
           zipped,
           overwrite,
           stripNumber);
-      addInSearcher(this);
     } else {
       throw new ForbiddenException(
           String.format("Unable import zip. Item '%s' is not a folder", getPath()));
@@ -695,6 +706,18 @@ public class MemoryVirtualFile implements VirtualFile {
     }
   }
 
+  @Override
+  public void tar(OutputStream tarOutput) throws ForbiddenException, ServerException {
+    checkExistence();
+
+    if (isFolder()) {
+      compress(fileSystem.getArchiverFactory().createArchiver(this, "tar"), tarOutput);
+    } else {
+      throw new ForbiddenException(
+          String.format("Unable export to tar archive. Item '%s' is not a folder", getPath()));
+    }
+  }
+
   @Override
   public void untar(InputStream tarArchive, boolean overwrite, int stripNumber)
       throws ForbiddenException, ConflictException, ServerException {
@@ -706,7 +729,6 @@ public class MemoryVirtualFile implements VirtualFile {
           tarArchive,
           overwrite,
           stripNumber);
-      addInSearcher(this);
     } else {
       throw new ForbiddenException(
           String.format("Unable import tar archive. Item '%s' is not a folder", getPath()));
@@ -723,6 +745,14 @@ public class MemoryVirtualFile implements VirtualFile {
     }
   }
 
+  private void compress(Archiver archiver, OutputStream output) throws ServerException {
+    try {
+      archiver.compress(output);
+    } catch (IOException e) {
+      throw new ServerException(e.getMessage(), e);
+    }
+  }
+
   private void extract(
       Archiver archiver, InputStream compressed, boolean overwrite, int stripNumber)
       throws ConflictException, ServerException, ForbiddenException {
@@ -10,24 +10,29 @@
  */
 package org.eclipse.che.api.vfs.watcher;
 
-import static java.nio.file.FileVisitResult.CONTINUE;
-import static java.nio.file.FileVisitResult.SKIP_SUBTREE;
-import static java.nio.file.Files.exists;
-import static java.nio.file.Files.walkFileTree;
-import static java.util.stream.Collectors.toSet;
+import static java.nio.file.Files.newDirectoryStream;
+import static java.nio.file.Files.readAttributes;
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.inject.Inject;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.FileVisitResult;
+import java.nio.file.DirectoryStream;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
-import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -38,12 +43,34 @@ import org.slf4j.LoggerFactory;
 /**
  * Walks a file system tree, register addition, update and removal of file system items. On events
  * runs corresponding consumers that can be registered in DI configuration modules.
+ *
+ * <p>The whole tree is walked only once, after that walker keeps a snapshot of the tree and
+ * verifies it incrementally:
+ *
+ * <ul>
+ *   <li>paths reported by {@link FileWatcherEventHandler} are verified on the next walk;
+ *   <li>each walk verifies a limited count of directories, so the whole tree is verified during
+ *       one or more walks (verification cycle);
+ *   <li>directory is listed again only when its modification time is changed, as adding, removing
+ *       or renaming of an entry changes modification time of the directory;
+ *   <li>files are checked for modification during each N-th verification cycle only, as their
+ *       modification doesn't change modification time of the parent directory.
+ * </ul>
  */
 @Singleton
 public class FileTreeWalker {
   private static final Logger LOG = LoggerFactory.getLogger(FileTreeWalker.class);
 
-  private final File root;
+  /**
+   * Directory which was modified recently may be modified again without changing its modification
+   * time because of the time resolution of file system, such directories are always listed.
+   */
+  private static final long RACY_MODIFICATION_MS = 2_000;
+
+  private final Path root;
+  private final Path absoluteRoot;
+  private final int maxDirectoriesPerRun;
+  private final int fullVerificationPeriod;
 
   private final Set<Consumer<Path>> directoryUpdateConsumers;
   private final Set<Consumer<Path>> directoryCreateConsumers;
@@ -55,8 +82,13 @@ public class FileTreeWalker {
   private final Set<Consumer<Path>> fileDeleteConsumers;
   private final Set<PathMatcher> fileExcludes;
 
-  private final Map<Path, Long> files = new HashMap<>();
-  private final Map<Path, Long> directories = new HashMap<>();
+  private final Interner<String> names = Interners.newWeakInterner();
+  private final Set<Path> invalidated = ConcurrentHashMap.newKeySet();
+  private final Deque<Node> pending = new ArrayDeque<>();
+
+  private Node rootNode;
+  private long cycle;
+  private boolean fullCycle;
 
   @Inject
   public FileTreeWalker(
@@ -68,8 +100,13 @@ public class FileTreeWalker {
       @Named("che.fs.file.update") Set<Consumer<Path>> fileUpdateConsumers,
       @Named("che.fs.file.create") Set<Consumer<Path>> fileCreateConsumers,
       @Named("che.fs.file.delete") Set<Consumer<Path>> fileDeleteConsumers,
-      @Named("che.fs.file.excludes") Set<PathMatcher> fileExcludes) {
-    this.root = root;
+      @Named("che.fs.file.excludes") Set<PathMatcher> fileExcludes,
+      @Named("che.fs.tree_walker.max_directories_per_run") int maxDirectoriesPerRun,
+      @Named("che.fs.tree_walker.full_verification_period") int fullVerificationPeriod) {
+    this.root = root.toPath();
+    this.absoluteRoot = this.root.toAbsolutePath().normalize();
+    this.maxDirectoriesPerRun = maxDirectoriesPerRun;
+    this.fullVerificationPeriod = fullVerificationPeriod;
 
     this.directoryUpdateConsumers = directoryUpdateConsumers;
     this.directoryCreateConsumers = directoryCreateConsumers;
@@ -83,79 +120,322 @@ public class FileTreeWalker {
     this.fileExcludes = fileExcludes;
   }
 
+  @Inject
+  void subscribe(FileWatcherEventHandler eventHandler) {
+    eventHandler.addListener(this::invalidate);
+  }
+
+  /**
+   * Marks file system item as possibly changed, so it and its parent directory are verified during
+   * the next walk regardless of verification cycle.
+   *
+   * @param path absolute path of created, modified or removed item
+   */
+  public void invalidate(Path path) {
+    invalidated.add(path);
+  }
+
   @ScheduleRate(period = 10)
   void walk() {
     try {
       LOG.debug("Tree walk started");
 
-      Set<Path> deletedFiles = files.keySet().stream().filter(it -> !exists(it)).collect(toSet());
-      fileDeleteConsumers.forEach(deletedFiles::forEach);
-      files.keySet().removeAll(deletedFiles);
-
-      Set<Path> deletedDirectories =
-          directories.keySet().stream().filter(it -> !exists(it)).collect(toSet());
-      directoryDeleteConsumers.forEach(deletedDirectories::forEach);
-      directories.keySet().removeAll(deletedDirectories);
-
-      walkFileTree(
-          root.toPath(),
-          new SimpleFileVisitor<Path>() {
-            @Override
-            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
-                throws IOException {
-              for (PathMatcher matcher : directoryExcludes) {
-                if (matcher.matches(dir)) {
-                  return SKIP_SUBTREE;
-                }
-              }
-
-              updateFsTreeAndAcceptConsumables(
-                  directories, directoryUpdateConsumers, directoryCreateConsumers, dir, attrs);
-
-              return CONTINUE;
-            }
-
-            @Override
-            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
-              for (PathMatcher matcher : fileExcludes) {
-                if (matcher.matches(file)) {
-                  return CONTINUE;
-                }
-              }
-
-              updateFsTreeAndAcceptConsumables(
-                  files, fileUpdateConsumers, fileCreateConsumers, file, attrs);
-
-              return CONTINUE;
-            }
-          });
+      final BasicFileAttributes rootAttrs = readAttributesIfExists(root);
+      if (rootAttrs == null || !rootAttrs.isDirectory()) {
+        if (rootNode != null) {
+          remove(rootNode);
+          rootNode = null;
+        }
+        pending.clear();
+        invalidated.clear();
+        return;
+      }
+
+      if (rootNode == null) {
+        invalidated.clear();
+        rootNode = new Node(null, null, true, rootAttrs.lastModifiedTime().toMillis());
+        accept(directoryCreateConsumers, root);
+        scan(rootNode, root);
+      } else {
+        verifyInvalidated();
+        verifyNext();
+      }
       LOG.debug("Tree walk finished");
+    } catch (Exception e) {
+      LOG.error("Error while walking file tree", e);
+    }
+  }
+
+  private void verifyInvalidated() throws IOException {
+    final Set<Node> verified = new HashSet<>();
+    for (Iterator<Path> it = invalidated.iterator(); it.hasNext(); ) {
+      final Path path = it.next();
+      it.remove();
+
+      final Node parent = findNearestDirectory(path.getParent());
+      if (parent != null && verified.add(parent)) {
+        verify(parent, true, true);
+      }
+      final Node node = find(path);
+      if (node != null && node.directory && !node.removed && verified.add(node)) {
+        verify(node, true, true);
+      }
+    }
+  }
+
+  private void verifyNext() throws IOException {
+    if (pending.isEmpty()) {
+      cycle++;
+      fullCycle = cycle % fullVerificationPeriod == 0;
+      pending.add(rootNode);
+      LOG.debug("Verification cycle {} started, full: {}", cycle, fullCycle);
+    }
+    for (int i = 0; i < maxDirectoriesPerRun && !pending.isEmpty(); i++) {
+      final Node dir = pending.poll();
+      if (dir.removed) {
+        continue;
+      }
+      verify(dir, fullCycle, false);
+      if (!dir.removed) {
+        for (Node child : dir.children.values()) {
+          if (child.directory) {
+            pending.add(child);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Verifies directory and its direct entries.
+   *
+   * @param dir directory to verify
+   * @param checkFiles whether files of directory must be checked for modification even if
+   *     directory itself is not modified
+   * @param forceList whether directory must be listed even if it is not modified
+   */
+  private void verify(Node dir, boolean checkFiles, boolean forceList) throws IOException {
+    final Path path = dir.toPath(root);
+    final BasicFileAttributes attrs = readAttributesIfExists(path);
+    if (attrs == null || !attrs.isDirectory()) {
+      remove(dir);
+      if (attrs != null && dir.parent != null) {
+        add(dir.parent, path, attrs);
+      }
+      return;
+    }
+
+    final long lastModified = attrs.lastModifiedTime().toMillis();
+    final boolean listChanged = forceList || lastModified != dir.lastModified || dir.racy;
+    if (lastModified != dir.lastModified) {
+      dir.lastModified = lastModified;
+      accept(directoryUpdateConsumers, path);
+    }
+    dir.racy = isRacy(lastModified);
+
+    if (listChanged) {
+      list(dir, path);
+    } else if (checkFiles) {
+      for (Node child : new ArrayList<>(dir.children.values())) {
+        if (!child.directory) {
+          refresh(child, child.toPath(root));
+        }
+      }
+    }
+  }
+
+  /** Lists directory and synchronizes its entries with the snapshot. */
+  private void list(Node dir, Path path) throws IOException {
+    final Set<String> listed = new HashSet<>();
+    try (DirectoryStream<Path> entries = newDirectoryStream(path)) {
+      for (Path entry : entries) {
+        final String name = entry.getFileName().toString();
+        listed.add(name);
+
+        final Node child = dir.children.get(name);
+        if (child == null) {
+          final BasicFileAttributes attrs = readAttributesIfExists(entry);
+          if (attrs != null) {
+            add(dir, entry, attrs);
+          }
+        } else if (!child.directory) {
+          refresh(child, entry);
+        }
+      }
+    } catch (NoSuchFileException e) {
+      remove(dir);
+      return;
+    } catch (IOException e) {
+      LOG.debug("Can't list directory '{}', it will be listed again: {}", path, e.getMessage());
+      dir.racy = true;
+      return;
+    }
+    for (Node child : new ArrayList<>(dir.children.values())) {
+      if (!listed.contains(child.name)) {
+        remove(child);
+      }
+    }
+  }
+
+  /** Lists new directory and adds all its entries to the snapshot. */
+  private void scan(Node dir, Path path) throws IOException {
+    try (DirectoryStream<Path> entries = newDirectoryStream(path)) {
+      for (Path entry : entries) {
+        final BasicFileAttributes attrs = readAttributesIfExists(entry);
+        if (attrs != null) {
+          add(dir, entry, attrs);
+        }
+      }
     } catch (NoSuchFileException e) {
       LOG.debug(
           "Trying to process a file, however seems like it is already not present: {}",
           e.getMessage());
-    } catch (Exception e) {
-      LOG.error("Error while walking file tree", e);
+    } catch (IOException e) {
+      LOG.debug("Can't list directory '{}', it will be listed again: {}", path, e.getMessage());
+      dir.racy = true;
     }
   }
 
-  private void updateFsTreeAndAcceptConsumables(
-      Map<Path, Long> items,
-      Set<Consumer<Path>> updateConsumer,
-      Set<Consumer<Path>> createConsumer,
-      Path path,
-      BasicFileAttributes attrs) {
-    Long lastModifiedActual = attrs.lastModifiedTime().toMillis();
-
-    if (items.containsKey(path)) {
-      Long lastModifiedStored = items.get(path);
-      if (!lastModifiedActual.equals(lastModifiedStored)) {
-        updateConsumer.forEach(it -> it.accept(path));
-        items.put(path, lastModifiedActual);
+  private void add(Node parent, Path path, BasicFileAttributes attrs) throws IOException {
+    final String name = names.intern(path.getFileName().toString());
+    final long lastModified = attrs.lastModifiedTime().toMillis();
+    if (attrs.isDirectory()) {
+      if (matches(directoryExcludes, path)) {
+        return;
       }
+      final Node dir = new Node(parent, name, true, lastModified);
+      dir.racy = isRacy(lastModified);
+      parent.children.put(name, dir);
+      accept(directoryCreateConsumers, path);
+      scan(dir, path);
     } else {
-      createConsumer.forEach(it -> it.accept(path));
-      items.put(path, lastModifiedActual);
+      if (matches(fileExcludes, path)) {
+        return;
+      }
+      parent.children.put(name, new Node(parent, name, false, lastModified));
+      accept(fileCreateConsumers, path);
+    }
+  }
+
+  private void refresh(Node file, Path path) throws IOException {
+    final BasicFileAttributes attrs = readAttributesIfExists(path);
+    if (attrs == null || attrs.isDirectory()) {
+      remove(file);
+      if (attrs != null) {
+        add(file.parent, path, attrs);
+      }
+      return;
+    }
+    final long lastModified = attrs.lastModifiedTime().toMillis();
+    if (lastModified != file.lastModified) {
+      file.lastModified = lastModified;
+      accept(fileUpdateConsumers, path);
+    }
+  }
+
+  /** Removes item with all its descendants from the snapshot. */
+  private void remove(Node node) {
+    if (node.removed) {
+      return;
+    }
+    if (node.directory) {
+      for (Node child : new ArrayList<>(node.children.values())) {
+        remove(child);
+      }
+    }
+    if (node.parent != null) {
+      node.parent.children.remove(node.name);
+    }
+    node.removed = true;
+    accept(node.directory ? directoryDeleteConsumers : fileDeleteConsumers, node.toPath(root));
+  }
+
+  private Node find(Path path) {
+    if (rootNode == null || path == null) {
+      return null;
+    }
+    final Path normalized = path.toAbsolutePath().normalize();
+    if (!normalized.startsWith(absoluteRoot)) {
+      return null;
+    }
+    Node node = rootNode;
+    for (Path name : absoluteRoot.relativize(normalized)) {
+      if (name.toString().isEmpty()) {
+        continue;
+      }
+      if (!node.directory) {
+        return null;
+      }
+      node = node.children.get(name.toString());
+      if (node == null) {
+        return null;
+      }
+    }
+    return node;
+  }
+
+  private Node findNearestDirectory(Path path) {
+    for (Path current = path; current != null; current = current.getParent()) {
+      final Node node = find(current);
+      if (node != null) {
+        return node.directory ? node : null;
+      }
+      if (!current.toAbsolutePath().normalize().startsWith(absoluteRoot)) {
+        return null;
+      }
+    }
+    return null;
+  }
+
+  private static BasicFileAttributes readAttributesIfExists(Path path) throws IOException {
+    try {
+      return readAttributes(path, BasicFileAttributes.class, NOFOLLOW_LINKS);
+    } catch (NoSuchFileException e) {
+      return null;
+    }
+  }
+
+  private static boolean isRacy(long lastModified) {
+    return System.currentTimeMillis() - lastModified < RACY_MODIFICATION_MS;
+  }
+
+  private static boolean matches(Set<PathMatcher> matchers, Path path) {
+    for (PathMatcher matcher : matchers) {
+      if (matcher.matches(path)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static void accept(Set<Consumer<Path>> consumers, Path path) {
+    consumers.forEach(it -> it.accept(path));
+  }
+
+  /**
+   * File system item in the snapshot. Keeps only the interned name of the item, the path is
+   * restored from the names of ancestors.
+   */
+  private static final class Node {
+    private final Node parent;
+    private final String name;
+    private final boolean directory;
+    private final Map<String, Node> children;
+
+    private long lastModified;
+    private boolean racy;
+    private boolean removed;
+
+    private Node(Node parent, String name, boolean directory, long lastModified) {
+      this.parent = parent;
+      this.name = name;
+      this.directory = directory;
+      this.lastModified = lastModified;
+      this.children = directory ? new HashMap<>() : null;
+    }
+
+    private Path toPath(Path root) {
+      return parent == null ? root : parent.toPath(root).resolve(name);
     }
   }
 }
@@ -10,6 +10,7 @@
  */
 package org.eclipse.che.api.vfs.watcher;
 
+import static com.google.common.collect.Sets.newConcurrentHashSet;
 import static com.google.common.collect.Sets.newHashSet;
 import static java.nio.file.Files.isDirectory;
 import static org.eclipse.che.api.vfs.watcher.FileWatcherUtils.toInternalPath;
@@ -39,6 +40,7 @@ public class FileWatcherEventHandler {
   private final AtomicInteger idCounter = new AtomicInteger();
 
   private final Map<Path, Set<FileWatcherOperation>> operations = new ConcurrentHashMap<>();
+  private final Set<Consumer<Path>> listeners = newConcurrentHashSet();
 
   private final File root;
 
@@ -99,6 +101,16 @@ public class FileWatcherEventHandler {
     return dir;
   }
 
+  /**
+   * Adds listener which is notified with path of each handled event regardless of operations
+   * registered for the path. Path is passed in a normal operation system file system form.
+   *
+   * @param listener listener
+   */
+  void addListener(Consumer<Path> listener) {
+    listeners.add(listener);
+  }
+
   /**
    * Handles event passed form file watcher system. Path parameter is expected to be passed in a
    * normal operation system file system form and is transformed into internal virtual file system
@@ -113,6 +125,8 @@ public class FileWatcherEventHandler {
     Set<FileWatcherOperation> dirOperations = operations.get(dir);
     Set<FileWatcherOperation> itemOperations = operations.get(path);
 
+    listeners.forEach(it -> it.accept(path));
+
     if (dirOperations != null) {
       dirOperations
           .stream()
@@ -85,6 +85,31 @@ public class FileWatcherManager {
     return fileWatcherByPathValue.watch(toNormalPath(root, path), create, modify, delete);
   }
 
+  /**
+   * Start watching a directory and all its not excluded subdirectories, including those which are
+   * created later. Events are passed to consumers registered with {@link #registerByPath} and
+   * {@link #registerByMatcher} methods. Path is expected to be in absolute form in internal virtual
+   * file system format.
+   *
+   * @param path absolute internal path of directory
+   */
+  public void registerRecursively(String path) {
+    LOG.debug("Registering directory tree with path '{}'", path);
+
+    service.registerRecursively(toNormalPath(root, path));
+  }
+
+  /**
+   * Stops watching a directory tree registered with {@link #registerRecursively(String)} method.
+   *
+   * @param path absolute internal path of directory
+   */
+  public void unRegisterRecursively(String path) {
+    LOG.debug("Canceling registering of directory tree with path '{}'", path);
+
+    service.unRegisterRecursively(toNormalPath(root, path));
+  }
+
   /**
    * Stops watching a file system item. More accurately it cancels registration of an operation set
    * identified by a parameter to a specific path, so any event related to that path no longer calls
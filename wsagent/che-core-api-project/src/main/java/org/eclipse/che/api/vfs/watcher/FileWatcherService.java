@@ -11,7 +11,12 @@
 package org.eclipse.che.api.vfs.watcher;
 
 import static java.lang.Thread.currentThread;
+import static java.nio.file.FileVisitResult.CONTINUE;
+import static java.nio.file.FileVisitResult.SKIP_SUBTREE;
 import static java.nio.file.Files.exists;
+import static java.nio.file.Files.getLastModifiedTime;
+import static java.nio.file.Files.isDirectory;
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
@@ -23,13 +28,18 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchEvent.Kind;
 import java.nio.file.WatchEvent.Modifier;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -37,12 +47,15 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.function.Predicate;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.eclipse.che.commons.schedule.ScheduleDelay;
+import org.eclipse.che.commons.schedule.ScheduleRate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -53,6 +66,11 @@ import org.slf4j.LoggerFactory;
  * ordinary java file system paths in counter to che virtual file system which may have custom root
  * element and structure. Transforming one we of path representation into another and backwards is
  * the responsibility of upper services.
+ *
+ * <p>Directories can be registered either one by one or recursively. Recursive registration skips
+ * excluded directories and registers directories created later within the registered tree. The
+ * count of watch keys (e.g. inotify watches) created by recursive registrations is limited, when
+ * the limit is reached the rest of the tree is polled for modifications instead of being watched.
  */
 @Singleton
 public class FileWatcherService {
@@ -62,13 +80,24 @@ public class FileWatcherService {
   private final AtomicBoolean running = new AtomicBoolean();
 
   private final Map<WatchKey, Path> keys = new ConcurrentHashMap<>();
+  private final Map<Path, WatchKey> watchKeys = new ConcurrentHashMap<>();
   private final Map<Path, Integer> registrations = new ConcurrentHashMap<>();
+  private final Map<Path, Integer> recursiveRegistrations = new ConcurrentHashMap<>();
+  /** Directory -> count of recursive registrations of the trees it is registered within */
+  private final Map<Path, Integer> treeRegistrations = new ConcurrentHashMap<>();
+  private final Map<Path, PolledDirectory> polledDirectories = new ConcurrentHashMap<>();
+
+  private final AtomicLong events = new AtomicLong();
+  private final AtomicLong polledEvents = new AtomicLong();
+  private long loggedEvents;
+  private long loggedTime = System.currentTimeMillis();
 
   private final FileWatcherExcludePatternsRegistry excludePatternsRegistry;
   private final FileWatcherEventHandler handler;
   private final WatchService service;
   private final Modifier[] eventModifiers;
   private final Kind<?>[] eventKinds;
+  private final int maxRecursiveWatches;
 
   private ExecutorService executor;
 
@@ -76,10 +105,12 @@ public class FileWatcherService {
   public FileWatcherService(
       FileWatcherExcludePatternsRegistry excludePatternsRegistry,
       FileWatcherEventHandler handler,
-      WatchService service) {
+      WatchService service,
+      @Named("che.fs.watcher.max_recursive_watches") int maxRecursiveWatches) {
     this.excludePatternsRegistry = excludePatternsRegistry;
     this.handler = handler;
     this.service = service;
+    this.maxRecursiveWatches = maxRecursiveWatches;
 
     this.eventModifiers = getWatchEventModifiers();
     this.eventKinds = getWatchEventKinds();
@@ -182,26 +213,73 @@ public class FileWatcherService {
       return;
     }
     LOG.debug("Registering directory '{}'", dir);
-    if (keys.values().contains(dir)) {
-      int previous = registrations.get(dir);
-      LOG.debug(
-          "Directory is already being watched, increasing watch counter, previous value: {}",
-          previous);
-      registrations.put(dir, previous + 1);
-    } else {
-      try {
-        LOG.debug("Starting watching directory '{}'", dir);
-        synchronized (keys) {
-          WatchKey watchKey = dir.register(service, eventKinds, eventModifiers);
-          keys.put(watchKey, dir);
-          registrations.put(dir, 1);
-        }
-      } catch (IOException e) {
-        LOG.error("Can't register dir {} in file watch service", dir, e);
+    synchronized (keys) {
+      watch(dir, false);
+    }
+  }
+
+  /**
+   * Registers a directory and all its not excluded subdirectories, including subdirectories which
+   * are created later, for tracking of corresponding entry creation, modification or deletion
+   * events. Each directory of the tree is registered the same way as with {@link #register(Path)}
+   * method, but once the limit of watch keys created by recursive registrations is reached the
+   * rest of directories are polled for modifications instead. Events of polled directories are
+   * reported as modification of the directory itself.
+   *
+   * @param dir root directory of the tree
+   */
+  public void registerRecursively(Path dir) {
+    if (!isDirectory(dir)) {
+      LOG.debug("Trying to register directory tree '{}' but it does not exist", dir);
+      return;
+    }
+    LOG.debug("Registering directory tree '{}'", dir);
+    synchronized (keys) {
+      recursiveRegistrations.merge(dir, 1, Integer::sum);
+      registerTree(dir);
+    }
+  }
+
+  /**
+   * Cancels registration of a directory tree registered with {@link #registerRecursively(Path)}.
+   * Registration counters of all the existing directories of the tree are decreased by one.
+   *
+   * @param dir root directory of the tree
+   */
+  public void unRegisterRecursively(Path dir) {
+    LOG.debug("Canceling directory tree '{}' registration", dir);
+    synchronized (keys) {
+      if (!recursiveRegistrations.containsKey(dir)) {
+        LOG.debug("Trying to unregister directory tree '{}' while it is not registered", dir);
+        return;
+      }
+      recursiveRegistrations.computeIfPresent(dir, (k, v) -> v == 1 ? null : v - 1);
+      if (isDirectory(dir)) {
+        unRegisterTree(dir);
       }
     }
   }
 
+  /** Returns count of directories which are being watched with watch keys. */
+  public int getWatchedDirectoriesCount() {
+    return watchKeys.size();
+  }
+
+  /** Returns count of directories which are being polled as watch keys limit is reached. */
+  public int getPolledDirectoriesCount() {
+    return polledDirectories.size();
+  }
+
+  /** Returns count of events passed to the handler since the service is started. */
+  public long getEventsCount() {
+    return events.get();
+  }
+
+  /** Returns count of events which are produced by polling of directories. */
+  public long getPolledEventsCount() {
+    return polledEvents.get();
+  }
+
   /**
    * Cancels registration of a directory for being watched. Each call of this method decreases by
    * one registration counter that corresponds to directory specified by the argument. If
@@ -216,36 +294,13 @@ public class FileWatcherService {
   void unRegister(Path dir) {
     LOG.debug("Canceling directory '{}' registration", dir);
 
-    Predicate<Entry<WatchKey, Path>> equalsDir = it -> it.getValue().equals(dir);
-
-    if (!exists(dir)) {
-      LOG.debug("Trying to unregister directory '{}' while it does not exist", dir);
-
-      registrations.remove(dir);
-
-      keys.entrySet().stream().filter(equalsDir).map(Entry::getKey).forEach(WatchKey::cancel);
-      keys.entrySet().removeIf(equalsDir);
-
-      return;
-    }
-
-    if (!registrations.containsKey(dir)) {
-      LOG.debug("Trying to unregister directory '{}' while it is not registered", dir);
-      return;
-    }
-
-    int previous = registrations.get(dir);
-    if (previous == 1) {
-      LOG.debug("Stopping watching directory '{}'", dir);
-      registrations.remove(dir);
-
-      keys.entrySet().stream().filter(equalsDir).map(Entry::getKey).forEach(WatchKey::cancel);
-      keys.entrySet().removeIf(equalsDir);
-    } else {
-      LOG.debug(
-          "Directory is being watched by someone else, decreasing watch counter, previous value: {}",
-          previous);
-      registrations.put(dir, previous - 1);
+    synchronized (keys) {
+      if (!exists(dir)) {
+        LOG.debug("Trying to unregister directory '{}' while it does not exist", dir);
+        cancel(dir);
+        return;
+      }
+      unwatch(dir);
     }
   }
 
@@ -315,7 +370,16 @@ public class FileWatcherService {
             continue;
           }
 
+          events.incrementAndGet();
           handler.handle(path, kind);
+
+          if (kind == ENTRY_CREATE && isDirectory(path, NOFOLLOW_LINKS)) {
+            synchronized (keys) {
+              if (isRecursivelyRegistered(dir)) {
+                registerNewTree(path);
+              }
+            }
+          }
         }
 
         resetAndRemove(watchKey, dir);
@@ -330,12 +394,245 @@ public class FileWatcherService {
     }
   }
 
+  /**
+   * Checks directories which are polled instead of being watched and reports modification of those
+   * which are changed since the previous check.
+   */
+  @ScheduleRate(initialDelay = 10, periodParameterName = "che.fs.watcher.poll_period_s")
+  void poll() {
+    if (suspended.get() || polledDirectories.isEmpty()) {
+      return;
+    }
+    for (Entry<Path, PolledDirectory> entry : polledDirectories.entrySet()) {
+      Path dir = entry.getKey();
+      PolledDirectory polled = entry.getValue();
+      long lastModified;
+      try {
+        lastModified = getLastModifiedTime(dir).toMillis();
+      } catch (NoSuchFileException e) {
+        // removal is reported by the parent directory
+        if (polledDirectories.remove(dir, polled)) {
+          treeRegistrations.remove(dir);
+        }
+        continue;
+      } catch (IOException e) {
+        LOG.debug("Can't check modification of polled directory '{}': {}", dir, e.getMessage());
+        continue;
+      }
+      if (lastModified == polled.lastModified) {
+        continue;
+      }
+      polled.lastModified = lastModified;
+      if (excludePatternsRegistry.isExcluded(dir)) {
+        continue;
+      }
+      polledEvents.incrementAndGet();
+      events.incrementAndGet();
+      handler.handle(dir, ENTRY_MODIFY);
+      registerNewSubdirectories(dir);
+    }
+  }
+
+  /** Logs count of watched and polled directories and events rate. */
+  @ScheduleDelay(initialDelay = 60, delay = 60)
+  void logStatistics() {
+    long now = System.currentTimeMillis();
+    long total = events.get();
+    if (LOG.isDebugEnabled()) {
+      LOG.debug(
+          "Watched directories: {}, polled directories: {}, events: {}, polled events: {}, "
+              + "events per minute: {}",
+          watchKeys.size(),
+          polledDirectories.size(),
+          total,
+          polledEvents.get(),
+          (total - loggedEvents) * 60_000 / Math.max(now - loggedTime, 1));
+    }
+    loggedEvents = total;
+    loggedTime = now;
+  }
+
+  /**
+   * Starts watching directory or increases its registration counter if it is already watched.
+   *
+   * @param dir directory
+   * @param recursive whether directory is registered as a part of recursive registration, such
+   *     registrations are limited by the count of watch keys
+   * @return true if directory is watched, false otherwise
+   */
+  private boolean watch(Path dir, boolean recursive) {
+    Integer previous = registrations.get(dir);
+    if (previous != null) {
+      LOG.debug(
+          "Directory is already being watched, increasing watch counter, previous value: {}",
+          previous);
+      registrations.put(dir, previous + 1);
+      return true;
+    }
+    if (recursive && watchKeys.size() >= maxRecursiveWatches) {
+      return false;
+    }
+    try {
+      LOG.debug("Starting watching directory '{}'", dir);
+      WatchKey watchKey = dir.register(service, eventKinds, eventModifiers);
+      keys.put(watchKey, dir);
+      watchKeys.put(dir, watchKey);
+      registrations.put(dir, 1);
+      return true;
+    } catch (IOException e) {
+      if (recursive) {
+        // most likely the limit of watches of the file system is reached
+        LOG.warn("Can't register dir {} in file watch service: {}", dir, e.getMessage());
+      } else {
+        LOG.error("Can't register dir {} in file watch service", dir, e);
+      }
+      return false;
+    }
+  }
+
+  /** Decreases registration counter of directory and stops watching it when counter is zero. */
+  private void unwatch(Path dir) {
+    Integer previous = registrations.get(dir);
+    if (previous == null) {
+      LOG.debug("Trying to unregister directory '{}' while it is not registered", dir);
+    } else if (previous == 1) {
+      LOG.debug("Stopping watching directory '{}'", dir);
+      cancel(dir);
+    } else {
+      LOG.debug(
+          "Directory is being watched by someone else, decreasing watch counter, previous value: {}",
+          previous);
+      registrations.put(dir, previous - 1);
+    }
+  }
+
+  private void cancel(Path dir) {
+    registrations.remove(dir);
+    treeRegistrations.remove(dir);
+    WatchKey watchKey = watchKeys.remove(dir);
+    if (watchKey != null) {
+      watchKey.cancel();
+      keys.remove(watchKey);
+    }
+  }
+
+  private void registerTree(Path dir) {
+    walkTree(
+        dir,
+        (path, attrs) -> {
+          treeRegistrations.merge(path, 1, Integer::sum);
+          if (!polledDirectories.containsKey(path) && !watch(path, true)) {
+            polledDirectories.put(path, new PolledDirectory(attrs.lastModifiedTime().toMillis()));
+          }
+        });
+  }
+
+  /**
+   * Registers tree which is created within recursively registered one, if it is not yet. Plain
+   * registrations of the directory are not taken into account, so its subdirectories are
+   * registered even if the directory itself is already watched.
+   */
+  private void registerNewTree(Path dir) {
+    if (!treeRegistrations.containsKey(dir)) {
+      registerTree(dir);
+    }
+  }
+
+  private void unRegisterTree(Path dir) {
+    walkTree(
+        dir,
+        (path, attrs) -> {
+          Integer previous = treeRegistrations.get(path);
+          if (previous == null) {
+            // directory is not registered within a tree, e.g. it is created while suspended
+            return;
+          }
+          if (previous == 1) {
+            treeRegistrations.remove(path);
+          } else {
+            treeRegistrations.put(path, previous - 1);
+          }
+          if (!polledDirectories.containsKey(path)) {
+            unwatch(path);
+          } else if (previous == 1) {
+            polledDirectories.remove(path);
+          }
+        });
+  }
+
+  /** Visits all not excluded directories of the tree, symbolic links are not followed. */
+  private void walkTree(Path dir, DirectoryVisitor visitor) {
+    try {
+      Files.walkFileTree(
+          dir,
+          new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path path, BasicFileAttributes attrs) {
+              if (excludePatternsRegistry.isExcluded(path)) {
+                return SKIP_SUBTREE;
+              }
+              visitor.visit(path, attrs);
+              return CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path path, IOException e) {
+              LOG.debug("Can't visit '{}': {}", path, e.getMessage());
+              return CONTINUE;
+            }
+          });
+    } catch (IOException e) {
+      LOG.error("Can't walk directory tree {}", dir, e);
+    }
+  }
+
+  private void registerNewSubdirectories(Path dir) {
+    synchronized (keys) {
+      if (!isRecursivelyRegistered(dir)) {
+        return;
+      }
+      try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+        for (Path entry : entries) {
+          if (isDirectory(entry, NOFOLLOW_LINKS)) {
+            registerNewTree(entry);
+          }
+        }
+      } catch (IOException e) {
+        LOG.debug("Can't list polled directory '{}': {}", dir, e.getMessage());
+      }
+    }
+  }
+
+  private boolean isRecursivelyRegistered(Path dir) {
+    for (Path current = dir; current != null; current = current.getParent()) {
+      if (recursiveRegistrations.containsKey(current)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private void resetAndRemove(WatchKey watchKey, Path dir) {
     if (!watchKey.reset()) {
       if (dir != null) {
         registrations.remove(dir);
+        treeRegistrations.remove(dir);
+        watchKeys.remove(dir, watchKey);
       }
       keys.remove(watchKey);
     }
   }
+
+  private interface DirectoryVisitor {
+    void visit(Path dir, BasicFileAttributes attrs);
+  }
+
+  /** Directory which is polled for modifications as it can't be watched. */
+  private static class PolledDirectory {
+    private volatile long lastModified;
+
+    private PolledDirectory(long lastModified) {
+      this.lastModified = lastModified;
+    }
+  }
 }
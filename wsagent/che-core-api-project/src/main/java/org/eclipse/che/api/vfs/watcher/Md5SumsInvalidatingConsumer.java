@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.vfs.watcher;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.vfs.VirtualFileSystem;
+import org.eclipse.che.api.vfs.VirtualFileSystemProvider;
+import org.eclipse.che.api.vfs.impl.file.LocalVirtualFileSystem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/** Drops stored md5sums of modified and removed items of {@link LocalVirtualFileSystem}. */
+@Singleton
+public class Md5SumsInvalidatingConsumer implements Consumer<Path> {
+  private static final Logger LOG = LoggerFactory.getLogger(Md5SumsInvalidatingConsumer.class);
+
+  private final File root;
+  private final VirtualFileSystemProvider vfsProvider;
+
+  @Inject
+  public Md5SumsInvalidatingConsumer(
+      @Named("che.user.workspaces.storage") File root, VirtualFileSystemProvider vfsProvider) {
+    this.root = root;
+    this.vfsProvider = vfsProvider;
+  }
+
+  @Override
+  public void accept(Path path) {
+    try {
+      VirtualFileSystem virtualFileSystem = vfsProvider.getVirtualFileSystem();
+      if (virtualFileSystem instanceof LocalVirtualFileSystem) {
+        Path innerPath = root.toPath().relativize(path);
+        ((LocalVirtualFileSystem) virtualFileSystem)
+            .invalidateMd5Sums(org.eclipse.che.api.vfs.Path.ROOT.newPath(innerPath.toString()));
+      }
+    } catch (ServerException e) {
+      LOG.error("Issue happened during invalidating md5sums of modified file", e);
+    }
+  }
+}
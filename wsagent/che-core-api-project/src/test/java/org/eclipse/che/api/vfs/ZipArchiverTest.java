@@ -19,6 +19,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import com.google.common.base.Strings;
 import com.google.common.io.ByteStreams;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -27,6 +28,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -111,6 +114,29 @@ public class ZipArchiverTest {
         new ByteArrayInputStream(compressedFolder.toByteArray()), entries);
   }
 
+  @Test
+  public void storesAlreadyCompressedFilesWithoutCompression() throws Exception {
+    VirtualFile folder = vfsRoot.createFolder("arc");
+    String content = Strings.repeat(TEST_CONTENT, 1000);
+    folder.createFile("lib.jar", content);
+    folder.createFile("text.txt", content);
+    ByteArrayOutputStream compressedFolder = new ByteArrayOutputStream();
+
+    new ZipArchiver(folder).compress(compressedFolder);
+
+    Map<String, Long> compressedSizes = newHashMap();
+    try (ZipInputStream zip =
+        new ZipInputStream(new ByteArrayInputStream(compressedFolder.toByteArray()))) {
+      ZipEntry zipEntry;
+      while ((zipEntry = zip.getNextEntry()) != null) {
+        assertEquals(content, new String(ByteStreams.toByteArray(zip)));
+        compressedSizes.put(zipEntry.getName(), zipEntry.getCompressedSize());
+      }
+    }
+    assertTrue(compressedSizes.get("lib.jar") >= content.length());
+    assertTrue(compressedSizes.get("text.txt") < content.length());
+  }
+
   @Test
   public void extractsArchiveToFolder() throws Exception {
     byte[] archive = createTestZipArchive();
@@ -125,6 +151,45 @@ public class ZipArchiverTest {
     assertEquals(readArchiveEntries(new ByteArrayInputStream(archive)), entries);
   }
 
+  @Test
+  public void extractsArchiveToFolderWithParallelWriters() throws Exception {
+    byte[] archive = createTestZipArchive();
+    VirtualFile folder = vfsRoot.createFolder("folder");
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    try {
+      new ZipArchiver(folder, Archiver.ContentReader.DEFAULT, executor)
+          .extract(new ByteArrayInputStream(archive), false, 0);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    Map<String, String> entries =
+        getFileTreeAsList(folder)
+            .stream()
+            .collect(toMap(f -> getZipEntryName(folder, f), this::readContentUnchecked));
+
+    assertEquals(readArchiveEntries(new ByteArrayInputStream(archive)), entries);
+  }
+
+  @Test
+  public void failsExtractArchiveWithParallelWritersWhenItContainsItemWithSameName()
+      throws Exception {
+    byte[] archive = createTestZipArchive();
+    VirtualFile folder = vfsRoot.createFolder("folder");
+    VirtualFile existingFile =
+        folder.createFolder("arc").createFolder("b").createFile("_b.txt", "xxx");
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    try {
+      new ZipArchiver(folder, Archiver.ContentReader.DEFAULT, executor)
+          .extract(new ByteArrayInputStream(archive), false, 0);
+      thrown.expect(ConflictException.class);
+    } catch (ConflictException expected) {
+      assertEquals("xxx", existingFile.getContentAsString());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   @Test
   public void extractsArchiveToFolderAndSkipsRootFolderFromArchive() throws Exception {
     byte[] archive = createTestZipArchive();
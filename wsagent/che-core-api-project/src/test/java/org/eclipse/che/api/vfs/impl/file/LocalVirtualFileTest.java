@@ -13,6 +13,7 @@ package org.eclipse.che.api.vfs.impl.file;
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Sets.newHashSet;
 import static java.util.stream.Collectors.toList;
+import static org.eclipse.che.api.vfs.impl.file.LocalVirtualFileSystem.MAX_BUFFER_SIZE;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
@@ -25,10 +26,12 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.hash.Hashing;
 import com.google.common.io.ByteSource;
 import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
@@ -41,6 +44,11 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.ServerException;
@@ -49,11 +57,15 @@ import org.eclipse.che.api.vfs.AbstractVirtualFileSystemProvider;
 import org.eclipse.che.api.vfs.Archiver;
 import org.eclipse.che.api.vfs.ArchiverFactory;
 import org.eclipse.che.api.vfs.Path;
+import org.eclipse.che.api.vfs.TarArchiver;
 import org.eclipse.che.api.vfs.VirtualFile;
 import org.eclipse.che.api.vfs.VirtualFileFilter;
+import org.eclipse.che.api.vfs.VirtualFileSystemProvider;
 import org.eclipse.che.api.vfs.VirtualFileVisitor;
+import org.eclipse.che.api.vfs.ZipArchiver;
 import org.eclipse.che.api.vfs.search.Searcher;
 import org.eclipse.che.api.vfs.search.SearcherProvider;
+import org.eclipse.che.api.vfs.watcher.Md5SumsInvalidatingConsumer;
 import org.eclipse.che.commons.lang.IoUtil;
 import org.eclipse.che.commons.lang.NameGenerator;
 import org.eclipse.che.commons.lang.Pair;
@@ -317,6 +329,85 @@ public class LocalVirtualFileTest {
     assertEquals(expected, newHashSet(folder.countMd5Sums()));
   }
 
+  @Test
+  public void recountsMd5SumsOfInvalidatedFiles() throws Exception {
+    VirtualFile root = getRoot();
+    VirtualFile folder = root.createFolder(generateFolderName());
+    VirtualFile file = folder.createFile(generateFileName(), "xxx");
+    long lastModified = System.currentTimeMillis() - 60_000;
+    assertTrue(file.toIoFile().setLastModified(lastModified));
+    String storedMd5Sum = countMd5Sum(file);
+    assertEquals(storedMd5Sum, folder.countMd5Sums().get(0).first);
+
+    Files.write("yyy".getBytes(), file.toIoFile());
+    assertTrue(file.toIoFile().setLastModified(lastModified));
+    assertEquals(storedMd5Sum, folder.countMd5Sums().get(0).first);
+
+    fileSystem.invalidateMd5Sums(file.getPath());
+    assertEquals(countMd5Sum(file), folder.countMd5Sums().get(0).first);
+  }
+
+  @Test
+  public void recountsMd5SumsOfFileCreatedInPlaceOfRenamedFile() throws Exception {
+    VirtualFile root = getRoot();
+    VirtualFile folder = root.createFolder(generateFolderName());
+    VirtualFile file = folder.createFile("file", "xxx");
+    long lastModified = System.currentTimeMillis() - 60_000;
+    assertTrue(file.toIoFile().setLastModified(lastModified));
+    folder.countMd5Sums();
+
+    VirtualFile renamed = file.rename("renamed");
+    File replacement = new File(folder.toIoFile(), "file");
+    Files.write("yyy".getBytes(), replacement);
+    assertTrue(replacement.setLastModified(lastModified));
+
+    Set<Pair<String, String>> expected =
+        newHashSet(
+            Pair.of(countMd5Sum(renamed), "renamed"),
+            Pair.of(countMd5Sum(folder.getChild(Path.of("file"))), "file"));
+    assertEquals(expected, newHashSet(folder.countMd5Sums()));
+  }
+
+  @Test
+  public void recountsMd5SumsOfFileCreatedInPlaceOfMovedFile() throws Exception {
+    VirtualFile root = getRoot();
+    VirtualFile folder = root.createFolder(generateFolderName());
+    VirtualFile target = root.createFolder(generateFolderName());
+    VirtualFile file = folder.createFile("file", "xxx");
+    long lastModified = System.currentTimeMillis() - 60_000;
+    assertTrue(file.toIoFile().setLastModified(lastModified));
+    folder.countMd5Sums();
+
+    file.moveTo(target);
+    File replacement = new File(folder.toIoFile(), "file");
+    Files.write("yyy".getBytes(), replacement);
+    assertTrue(replacement.setLastModified(lastModified));
+
+    assertEquals(
+        countMd5Sum(folder.getChild(Path.of("file"))), folder.countMd5Sums().get(0).first);
+  }
+
+  @Test
+  public void recountsMd5SumsOfFilesModifiedOnFileSystem() throws Exception {
+    VirtualFile root = getRoot();
+    VirtualFile folder = root.createFolder(generateFolderName());
+    VirtualFile file = folder.createFile(generateFileName(), "xxx");
+    long lastModified = System.currentTimeMillis() - 60_000;
+    assertTrue(file.toIoFile().setLastModified(lastModified));
+    String storedMd5Sum = countMd5Sum(file);
+    assertEquals(storedMd5Sum, folder.countMd5Sums().get(0).first);
+    VirtualFileSystemProvider fileSystemProvider = mock(VirtualFileSystemProvider.class);
+    when(fileSystemProvider.getVirtualFileSystem()).thenReturn(fileSystem);
+    Md5SumsInvalidatingConsumer watcherConsumer =
+        new Md5SumsInvalidatingConsumer(testDirectory, fileSystemProvider);
+
+    Files.write("yyy".getBytes(), file.toIoFile());
+    assertTrue(file.toIoFile().setLastModified(lastModified));
+    watcherConsumer.accept(file.toIoFile().toPath());
+
+    assertEquals(countMd5Sum(file), folder.countMd5Sums().get(0).first);
+  }
+
   @Test
   public void returnsEmptyListWhenCountMd5SumsOnFile() throws Exception {
     VirtualFile root = getRoot();
@@ -411,6 +502,40 @@ public class LocalVirtualFileTest {
     assertEquals(DEFAULT_CONTENT, new String(bytes));
   }
 
+  @Test
+  public void readsPreviousContentOfBigFileWhenFileIsUpdatedWhileItIsRead() throws Exception {
+    VirtualFile root = getRoot();
+    String content = Strings.repeat("a", MAX_BUFFER_SIZE + 1);
+    VirtualFile file = root.createFile(generateFileName(), content);
+
+    byte[] bytes = new byte[content.length()];
+    try (InputStream contentStream = file.getContent()) {
+      ByteStreams.readFully(contentStream, bytes, 0, 10);
+      file.updateContent(Strings.repeat("b", MAX_BUFFER_SIZE + 1));
+      ByteStreams.readFully(contentStream, bytes, 10, bytes.length - 10);
+      assertEquals(-1, contentStream.read());
+    }
+
+    assertEquals(content, new String(bytes));
+    assertionHelper.assertThatIoFileHasContent(
+        file.getPath(), Strings.repeat("b", MAX_BUFFER_SIZE + 1).getBytes());
+  }
+
+  @Test
+  public void readsContentOfBigFileWhenFileIsDeletedWhileItIsRead() throws Exception {
+    VirtualFile root = getRoot();
+    String content = Strings.repeat("a", MAX_BUFFER_SIZE + 1);
+    VirtualFile file = root.createFile(generateFileName(), content);
+
+    byte[] bytes;
+    try (InputStream contentStream = file.getContent()) {
+      file.delete();
+      bytes = ByteStreams.toByteArray(contentStream);
+    }
+
+    assertEquals(content, new String(bytes));
+  }
+
   @Test
   public void getsContentAsBytes() throws Exception {
     VirtualFile root = getRoot();
@@ -1432,6 +1557,25 @@ public class LocalVirtualFileTest {
     verify(archiver).compress(any(OutputStream.class), any(VirtualFileFilter.class));
   }
 
+  @Test
+  public void streamsFolderToZipArchiveAndReleasesLocksOfFiles() throws Exception {
+    VirtualFile folder = getRoot().createFolder(generateFolderName());
+    VirtualFile file = folder.createFile(generateFileName(), DEFAULT_CONTENT);
+    when(archiverFactory.createArchiver(eq(folder), eq("zip"), any(Archiver.ContentReader.class)))
+        .thenAnswer(invocation -> new ZipArchiver(folder, invocation.getArgument(2)));
+    ByteArrayOutputStream zipOutput = new ByteArrayOutputStream();
+
+    folder.zip(zipOutput);
+
+    try (ZipInputStream zip =
+        new ZipInputStream(new ByteArrayInputStream(zipOutput.toByteArray()))) {
+      assertEquals(file.getName(), zip.getNextEntry().getName());
+      assertEquals(DEFAULT_CONTENT, new String(ByteStreams.toByteArray(zip)));
+    }
+    file.updateContent("updated");
+    assertEquals("updated", file.getContentAsString());
+  }
+
   @Test
   public void failsZipFile() throws Exception {
     VirtualFile root = getRoot();
@@ -1784,23 +1928,40 @@ public class LocalVirtualFileTest {
   }
 
   @Test
-  public void addFolderInSearcherAfterExtractZipArchive() throws Exception {
+  public void addsExtractedFilesInSearcherAfterExtractZipArchive() throws Exception {
     VirtualFile folder = getRoot().createFolder(generateFolderName());
+    when(archiverFactory.createArchiver(eq(folder), eq("zip"))).thenReturn(new ZipArchiver(folder));
+    ByteArrayOutputStream zip = new ByteArrayOutputStream();
+    try (ZipOutputStream zipOut = new ZipOutputStream(zip)) {
+      zipOut.putNextEntry(new ZipEntry("a/file.txt"));
+      zipOut.write(DEFAULT_CONTENT_BYTES);
+    }
     Mockito.reset(searcher);
-    Archiver archiver = mock(Archiver.class);
-    when(archiverFactory.createArchiver(eq(folder), eq("zip"))).thenReturn(archiver);
-    folder.unzip(new ByteArrayInputStream(new byte[0]), false, 0);
-    verify(searcher).add(folder);
+
+    folder.unzip(new ByteArrayInputStream(zip.toByteArray()), false, 0);
+
+    verify(searcher).add(folder.getChild(Path.of("a/file.txt")));
+    verify(searcher, never()).add(folder);
   }
 
   @Test
-  public void addFolderInSearcherAfterExtractTarArchive() throws Exception {
+  public void addsExtractedFilesInSearcherAfterExtractTarArchive() throws Exception {
     VirtualFile folder = getRoot().createFolder(generateFolderName());
+    when(archiverFactory.createArchiver(eq(folder), eq("tar"))).thenReturn(new TarArchiver(folder));
+    ByteArrayOutputStream tar = new ByteArrayOutputStream();
+    try (TarArchiveOutputStream tarOut = new TarArchiveOutputStream(tar)) {
+      TarArchiveEntry entry = new TarArchiveEntry("a/file.txt");
+      entry.setSize(DEFAULT_CONTENT_BYTES.length);
+      tarOut.putArchiveEntry(entry);
+      tarOut.write(DEFAULT_CONTENT_BYTES);
+      tarOut.closeArchiveEntry();
+    }
     Mockito.reset(searcher);
-    Archiver archiver = mock(Archiver.class);
-    when(archiverFactory.createArchiver(eq(folder), eq("tar"))).thenReturn(archiver);
-    folder.untar(new ByteArrayInputStream(new byte[0]), false, 0);
-    verify(searcher).add(folder);
+
+    folder.untar(new ByteArrayInputStream(tar.toByteArray()), false, 0);
+
+    verify(searcher).add(folder.getChild(Path.of("a/file.txt")));
+    verify(searcher, never()).add(folder);
   }
 
   private VirtualFile getRoot() {
@@ -31,6 +31,7 @@ import com.google.common.hash.Hashing;
 import com.google.common.io.ByteSource;
 import com.google.common.io.ByteStreams;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Collections;
@@ -38,14 +39,20 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.vfs.Archiver;
 import org.eclipse.che.api.vfs.ArchiverFactory;
 import org.eclipse.che.api.vfs.Path;
+import org.eclipse.che.api.vfs.TarArchiver;
 import org.eclipse.che.api.vfs.VirtualFile;
 import org.eclipse.che.api.vfs.VirtualFileVisitor;
+import org.eclipse.che.api.vfs.ZipArchiver;
 import org.eclipse.che.api.vfs.search.Searcher;
 import org.eclipse.che.api.vfs.search.SearcherProvider;
 import org.eclipse.che.commons.lang.NameGenerator;
@@ -1672,23 +1679,40 @@ public class MemoryVirtualFileTest {
   }
 
   @Test
-  public void addFolderInSearcherAfterExtractZipArchive() throws Exception {
+  public void addsExtractedFilesInSearcherAfterExtractZipArchive() throws Exception {
     VirtualFile folder = getRoot().createFolder(generateFolderName());
+    when(archiverFactory.createArchiver(eq(folder), eq("zip"))).thenReturn(new ZipArchiver(folder));
+    ByteArrayOutputStream zip = new ByteArrayOutputStream();
+    try (ZipOutputStream zipOut = new ZipOutputStream(zip)) {
+      zipOut.putNextEntry(new ZipEntry("a/file.txt"));
+      zipOut.write(DEFAULT_CONTENT_BYTES);
+    }
     Mockito.reset(searcher);
-    Archiver archiver = mock(Archiver.class);
-    when(archiverFactory.createArchiver(eq(folder), eq("zip"))).thenReturn(archiver);
-    folder.unzip(new ByteArrayInputStream(new byte[0]), false, 0);
-    verify(searcher).add(folder);
+
+    folder.unzip(new ByteArrayInputStream(zip.toByteArray()), false, 0);
+
+    verify(searcher).add(folder.getChild(Path.of("a/file.txt")));
+    verify(searcher, never()).add(folder);
   }
 
   @Test
-  public void addFolderInSearcherAfterExtractTarArchive() throws Exception {
+  public void addsExtractedFilesInSearcherAfterExtractTarArchive() throws Exception {
     VirtualFile folder = getRoot().createFolder(generateFolderName());
+    when(archiverFactory.createArchiver(eq(folder), eq("tar"))).thenReturn(new TarArchiver(folder));
+    ByteArrayOutputStream tar = new ByteArrayOutputStream();
+    try (TarArchiveOutputStream tarOut = new TarArchiveOutputStream(tar)) {
+      TarArchiveEntry entry = new TarArchiveEntry("a/file.txt");
+      entry.setSize(DEFAULT_CONTENT_BYTES.length);
+      tarOut.putArchiveEntry(entry);
+      tarOut.write(DEFAULT_CONTENT_BYTES);
+      tarOut.closeArchiveEntry();
+    }
     Mockito.reset(searcher);
-    Archiver archiver = mock(Archiver.class);
-    when(archiverFactory.createArchiver(eq(folder), eq("tar"))).thenReturn(archiver);
-    folder.untar(new ByteArrayInputStream(new byte[0]), false, 0);
-    verify(searcher).add(folder);
+
+    folder.untar(new ByteArrayInputStream(tar.toByteArray()), false, 0);
+
+    verify(searcher).add(folder.getChild(Path.of("a/file.txt")));
+    verify(searcher, never()).add(folder);
   }
 
   private VirtualFile getRoot() {
@@ -17,8 +17,10 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 import java.io.File;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
+import java.nio.file.attribute.FileTime;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.function.Consumer;
@@ -74,7 +76,9 @@ public class FileTreeWalkerTest {
             fileUpdateConsumers,
             fileCreateConsumers,
             fileDeleteConsumers,
-            fileExcludes);
+            fileExcludes,
+            10_000,
+            1);
   }
 
   @After
@@ -190,4 +194,35 @@ public class FileTreeWalkerTest {
     fileTreeWalker.walk();
     verify(directoryCreatedConsumerMock, never()).accept(file.toPath());
   }
+
+  @Test
+  public void shouldNotListNotModifiedDirectoryUntilItIsInvalidated() throws Exception {
+    fileTreeWalker =
+        new FileTreeWalker(
+            rootFolder.getRoot(),
+            directoryUpdateConsumers,
+            directoryCreateConsumers,
+            directoryDeleteConsumers,
+            directoryExcludes,
+            fileUpdateConsumers,
+            fileCreateConsumers,
+            fileDeleteConsumers,
+            fileExcludes,
+            10_000,
+            1_000);
+    fileCreateConsumers.add(fileCreatedConsumerMock);
+    FileTime lastModified = FileTime.fromMillis(System.currentTimeMillis() - 60_000);
+    Path folder = rootFolder.newFolder(TEST_FOLDER_NAME).toPath();
+    Files.setLastModifiedTime(folder, lastModified);
+    fileTreeWalker.walk();
+
+    Path file = Files.createFile(folder.resolve(TEST_FILE_NAME));
+    Files.setLastModifiedTime(folder, lastModified);
+    fileTreeWalker.walk();
+    verify(fileCreatedConsumerMock, never()).accept(file);
+
+    fileTreeWalker.invalidate(file);
+    fileTreeWalker.walk();
+    verify(fileCreatedConsumerMock).accept(file);
+  }
 }
@@ -15,18 +15,22 @@ import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
 import static org.apache.commons.io.FileUtils.write;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.after;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.FileSystems;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Rule;
@@ -55,7 +59,8 @@ public class FileWatcherServiceTest {
 
   @BeforeClass
   public void setUp() throws Exception {
-    service = new FileWatcherService(fileWatcherExcludePatternsRegistry, handler, watchService);
+    service =
+        new FileWatcherService(fileWatcherExcludePatternsRegistry, handler, watchService, 1_000);
 
     service.start();
   }
@@ -251,4 +256,80 @@ public class FileWatcherServiceTest {
     createDirectory(path.resolve(FILE_NAME));
     verify(handler, after(TIMEOUT_VALUE).never()).handle(path, ENTRY_MODIFY);
   }
+
+  @Test
+  public void shouldWatchRecursivelyRegisteredFolderForFileCreationInSubfolder() throws Exception {
+    Path folder = rootFolder.newFolder(FOLDER_NAME).toPath();
+    service.registerRecursively(rootFolder.getRoot().toPath());
+
+    Path path = Files.createFile(folder.resolve(FILE_NAME));
+
+    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_CREATE);
+  }
+
+  @Test
+  public void shouldNotWatchExcludedFolderOfRecursivelyRegisteredFolder() throws Exception {
+    Path folder = rootFolder.newFolder(FOLDER_NAME).toPath();
+    when(fileWatcherExcludePatternsRegistry.isExcluded(folder)).thenReturn(true);
+    service.registerRecursively(rootFolder.getRoot().toPath());
+
+    Path path = Files.createFile(folder.resolve(FILE_NAME));
+
+    verify(handler, after(TIMEOUT_VALUE).never()).handle(path, ENTRY_CREATE);
+  }
+
+  @Test
+  public void shouldPollFoldersOfRecursivelyRegisteredFolderWhenWatchesLimitIsReached()
+      throws Exception {
+    FileWatcherService limitedService =
+        new FileWatcherService(
+            fileWatcherExcludePatternsRegistry,
+            handler,
+            FileSystems.getDefault().newWatchService(),
+            1);
+    Path folder = rootFolder.newFolder(FOLDER_NAME).toPath();
+    Files.setLastModifiedTime(folder, FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+    limitedService.registerRecursively(rootFolder.getRoot().toPath());
+
+    assertEquals(1, limitedService.getWatchedDirectoriesCount());
+    assertEquals(1, limitedService.getPolledDirectoriesCount());
+
+    Files.createFile(folder.resolve(FILE_NAME));
+    limitedService.resume();
+    limitedService.poll();
+
+    verify(handler).handle(folder, ENTRY_MODIFY);
+
+    limitedService.unRegisterRecursively(rootFolder.getRoot().toPath());
+    assertEquals(0, limitedService.getWatchedDirectoriesCount());
+    assertEquals(0, limitedService.getPolledDirectoriesCount());
+  }
+
+  @Test
+  public void shouldRegisterRecursivelyNewFolderWhichIsAlreadyRegistered() throws Exception {
+    FileWatcherService limitedService =
+        new FileWatcherService(
+            fileWatcherExcludePatternsRegistry,
+            handler,
+            FileSystems.getDefault().newWatchService(),
+            0);
+    Path root = rootFolder.getRoot().toPath();
+    Files.setLastModifiedTime(root, FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+    limitedService.registerRecursively(root);
+    assertEquals(1, limitedService.getPolledDirectoriesCount());
+
+    Path folder = rootFolder.newFolder(FOLDER_NAME).toPath();
+    createDirectory(folder.resolve(FOLDER_NAME));
+    limitedService.register(folder);
+    limitedService.resume();
+    limitedService.poll();
+
+    verify(handler).handle(root, ENTRY_MODIFY);
+    assertEquals(1, limitedService.getWatchedDirectoriesCount());
+    assertEquals(2, limitedService.getPolledDirectoriesCount());
+
+    limitedService.unRegisterRecursively(root);
+    assertEquals(1, limitedService.getWatchedDirectoriesCount());
+    assertEquals(0, limitedService.getPolledDirectoriesCount());
+  }
 }
@@ -17,6 +17,8 @@ public class Constants {
   @Deprecated public static final String TESTING_OUTPUT_CHANNEL_NAME = "testing:output";
 
   public static final String TESTING_RPC_METHOD_NAME = "testing/message";
+  /** Method which sends several testing messages in order, params are list of messages */
+  public static final String TESTING_BATCH_RPC_METHOD_NAME = "testing/messages";
   public static final String TESTING_RPC_TEST_DETECTION_NAME = "testing/testDetection";
 
   public static final String RUN_TESTS_METHOD = "testing/runTest";
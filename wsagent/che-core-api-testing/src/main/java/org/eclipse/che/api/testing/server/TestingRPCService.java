@@ -13,6 +13,7 @@ package org.eclipse.che.api.testing.server;
 import java.util.ArrayList;
 import java.util.List;
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 import org.eclipse.che.api.core.jsonrpc.commons.RequestHandlerConfigurator;
 import org.eclipse.che.api.core.jsonrpc.commons.RequestTransmitter;
@@ -34,15 +35,31 @@ public class TestingRPCService {
 
   private final RequestTransmitter requestTransmitter;
   private final TestFrameworkRegistry frameworkRegistry;
+  private final int maxBatchMessages;
+  private final long maxBatchDelayMs;
 
   private String endpoint;
   private TestMessagesOutputTransmitter outputTransmitter;
 
-  @Inject
   public TestingRPCService(
       RequestTransmitter requestTransmitter, TestFrameworkRegistry frameworkRegistry) {
+    this(
+        requestTransmitter,
+        frameworkRegistry,
+        TestMessagesOutputTransmitter.DEFAULT_MAX_BATCH_MESSAGES,
+        TestMessagesOutputTransmitter.DEFAULT_MAX_BATCH_DELAY_MS);
+  }
+
+  @Inject
+  public TestingRPCService(
+      RequestTransmitter requestTransmitter,
+      TestFrameworkRegistry frameworkRegistry,
+      @Named("che.testing.output.batch.max_messages") int maxBatchMessages,
+      @Named("che.testing.output.batch.max_delay_ms") long maxBatchDelayMs) {
     this.requestTransmitter = requestTransmitter;
     this.frameworkRegistry = frameworkRegistry;
+    this.maxBatchMessages = maxBatchMessages;
+    this.maxBatchDelayMs = maxBatchDelayMs;
   }
 
   @Inject
@@ -76,7 +93,8 @@ public class TestingRPCService {
       }
       ProcessHandler processHandler = testRunner.execute(context);
       outputTransmitter =
-          new TestMessagesOutputTransmitter(processHandler, requestTransmitter, endpoint);
+          new TestMessagesOutputTransmitter(
+              processHandler, requestTransmitter, endpoint, maxBatchMessages, maxBatchDelayMs);
       if (context.isDebugModeEnable()) {
         testLaunchResult.withDebugPort(testRunner.getDebugPort());
       }
@@ -0,0 +1,603 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.testing.server.framework;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.eclipse.che.api.testing.server.messages.ServerTestingMessage;
+import org.eclipse.che.api.testing.shared.messages.TestingMessageNames;
+import org.eclipse.che.commons.lang.execution.ProcessHandler;
+
+/**
+ * Process which runs tests in several processes (shards) at the same time and merges their outputs
+ * into the output of a single test run, so it can be handled by {@link ProcessHandler} and {@link
+ * TestMessagesOutputTransmitter} as usual.
+ *
+ * <p>Testing messages describe test tree by their order, so messages of different shards can't be
+ * mixed. Top level suites started with {@code testSuiteStarted} which have the same name, e.g. the
+ * suite of the project, are merged: the suite is started once and is finished when none of shards
+ * is in it. Each suite on the next level, e.g. the suite of a test class, is written as a whole:
+ * messages of the shard which is in the middle of such a suite are written immediately, messages
+ * of other shards are queued until that suite is finished. The same is true for top level suites
+ * which can't be merged. Reporter attachment and root name are written once, test counts of shards
+ * are summed up. If shard terminates in the middle of a suite, e.g. it crashes or is stopped, its
+ * open suites are finished on its behalf.
+ *
+ * <p>Standard error streams of shards are merged line by line.
+ *
+ * <p>Memory used for merging is bounded. Reader of a shard stops reading its output while the shard
+ * has too many queued lines, and readers of all the shards stop while too much of merged output is
+ * not consumed, so the shard processes are paused until the output is consumed.
+ */
+public class ShardedTestProcess extends Process {
+  /** Maximal count of queued lines of a shard, reader of the shard waits when it is reached. */
+  private static final int MAX_QUEUED_LINES = 10_000;
+  /** Maximal size of merged output which is not read yet, writers wait when it is reached. */
+  private static final int MAX_BUFFERED_BYTES = 1024 * 1024;
+
+  private final List<Process> processes;
+  private final boolean stopOnFailure;
+  private final Consumer<Map<String, Long>> durationsConsumer;
+  private final List<Shard> shards;
+  private final MergedInputStream inputStream;
+  private final MergedInputStream errorStream;
+  private final AtomicInteger readers;
+  private final CountDownLatch merged;
+  private final AtomicBoolean stopped;
+  private final Map<String, Long> durations;
+
+  private Shard owner;
+  /** Name of the merged top level suite which is started and not finished yet. */
+  private String sharedSuite;
+  /** Count of shards which are in the merged top level suite. */
+  private int sharedSuiteShards;
+  /** Line which finishes the merged top level suite. */
+  private String sharedSuiteEnd;
+
+  private boolean reporterAttached;
+  private boolean rootPresented;
+  private int testCount;
+
+  /**
+   * Creates process which merges outputs of the given processes.
+   *
+   * @param processes started processes, each of them runs its own part of tests
+   * @param stopOnFailure whether all the processes should be destroyed when any test fails
+   * @param durationsConsumer receives durations of the suites which don't contain other suites,
+   *     e.g. test classes, in milliseconds when all the processes are terminated. Durations are
+   *     keyed by the path of suite location, e.g. fully qualified name of test class for {@code
+   *     java:suite://...} location, or by suite name if it has no location. May be {@code null}
+   */
+  public ShardedTestProcess(
+      List<Process> processes,
+      boolean stopOnFailure,
+      Consumer<Map<String, Long>> durationsConsumer) {
+    this.processes = new ArrayList<>(processes);
+    this.stopOnFailure = stopOnFailure;
+    this.durationsConsumer = durationsConsumer;
+    this.shards = new ArrayList<>(processes.size());
+    this.inputStream = new MergedInputStream();
+    this.errorStream = new MergedInputStream();
+    this.readers = new AtomicInteger(processes.size() * 2);
+    this.merged = new CountDownLatch(1);
+    this.stopped = new AtomicBoolean();
+    this.durations = new HashMap<>();
+
+    for (int i = 0; i < processes.size(); i++) {
+      shards.add(new Shard());
+    }
+    for (int i = 0; i < processes.size(); i++) {
+      Process process = processes.get(i);
+      Shard shard = shards.get(i);
+      startReader(
+          "Test shard " + i + " output reader",
+          process.getInputStream(),
+          line -> onLine(shard, line),
+          () -> onShardFinished(shard));
+      startReader(
+          "Test shard " + i + " error reader",
+          process.getErrorStream(),
+          line -> errorStream.write(line + '\n'),
+          () -> {});
+    }
+    if (processes.isEmpty()) {
+      onAllFinished();
+    }
+  }
+
+  private void startReader(
+      String name, InputStream stream, Consumer<String> lineConsumer, Runnable onFinished) {
+    Thread thread =
+        new Thread(
+            () -> {
+              try (BufferedReader reader =
+                  new BufferedReader(new InputStreamReader(stream, UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                  lineConsumer.accept(line);
+                }
+              } catch (IOException ignored) {
+                // stream is closed when the process is destroyed
+              } finally {
+                onFinished.run();
+                if (readers.decrementAndGet() == 0) {
+                  onAllFinished();
+                }
+              }
+            },
+            name);
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  private synchronized void onLine(Shard shard, String line) {
+    ServerTestingMessage message = parse(line);
+    if (message != null) {
+      String messageName = message.getName();
+      if (TestingMessageNames.TEST_FAILED.equals(messageName) && stopOnFailure) {
+        stopAll();
+      }
+      updateOpenSuites(shard, message);
+    }
+    shard.queue.add(new Line(line, message));
+    drain();
+    while (shard.queue.size() >= MAX_QUEUED_LINES) {
+      try {
+        // queue of the shard is drained by readers of other shards
+        wait();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  private void updateOpenSuites(Shard shard, ServerTestingMessage message) {
+    String messageName = message.getName();
+    if (TestingMessageNames.TEST_SUITE_STARTED.equals(messageName)
+        || TestingMessageNames.SUITE_TREE_STARTED.equals(messageName)) {
+      if (!shard.openSuites.isEmpty()) {
+        shard.openSuites.getLast().nested = true;
+      }
+      shard.openSuites.addLast(new OpenSuite(messageName, message.getAttributes()));
+    } else if (TestingMessageNames.TEST_SUITE_FINISHED.equals(messageName)
+        || TestingMessageNames.SUITE_TREE_ENDED.equals(messageName)) {
+      if (!shard.openSuites.isEmpty()) {
+        OpenSuite suite = shard.openSuites.removeLast();
+        if (TestingMessageNames.TEST_SUITE_STARTED.equals(suite.messageName) && !suite.nested) {
+          durations.put(suite.key, System.currentTimeMillis() - suite.startTime);
+        }
+      }
+    }
+  }
+
+  private synchronized void onShardFinished(Shard shard) {
+    // finishes suites which are left open, so suites of other shards are not nested into them
+    List<OpenSuite> openSuites = new ArrayList<>(shard.openSuites);
+    Collections.reverse(openSuites);
+    for (OpenSuite suite : openSuites) {
+      String closingName =
+          TestingMessageNames.TEST_SUITE_STARTED.equals(suite.messageName)
+              ? TestingMessageNames.TEST_SUITE_FINISHED
+              : TestingMessageNames.SUITE_TREE_ENDED;
+      ServerTestingMessage message =
+          new ServerTestingMessage(closingName, Collections.singletonMap("name", suite.name)) {};
+      shard.queue.add(new Line(toLine(message), message));
+    }
+    shard.openSuites.clear();
+    shard.finished = true;
+    drain();
+    if (shards.stream().allMatch(s -> s.finished && s.queue.isEmpty())) {
+      finishSharedSuite();
+    }
+  }
+
+  private void onAllFinished() {
+    if (durationsConsumer != null) {
+      Map<String, Long> result;
+      synchronized (this) {
+        result = new HashMap<>(durations);
+      }
+      durationsConsumer.accept(result);
+    }
+    inputStream.finish();
+    errorStream.finish();
+    merged.countDown();
+  }
+
+  /**
+   * Writes queued lines of shards keeping each suite which is not merged, e.g. suite of a test
+   * class, together.
+   */
+  private void drain() {
+    boolean written = true;
+    while (written) {
+      written = false;
+      for (Shard shard : shards) {
+        if (owner != null && owner != shard) {
+          continue;
+        }
+        while (!shard.queue.isEmpty() && write(shard, shard.queue.peek())) {
+          shard.queue.poll();
+          written = true;
+          if (!isInSuite(shard)) {
+            // lets other shards write their suites
+            break;
+          }
+        }
+        owner = isInSuite(shard) && !shard.finished ? shard : null;
+        if (owner != null) {
+          break;
+        }
+      }
+      if (owner != null) {
+        break;
+      }
+    }
+    // wakes up readers of the shards which queues are drained
+    notifyAll();
+  }
+
+  /** Returns true if the shard is in the middle of a suite which is not merged. */
+  private static boolean isInSuite(Shard shard) {
+    return shard.depth > (shard.inSharedSuite ? 1 : 0);
+  }
+
+  /**
+   * Writes the line of the given shard.
+   *
+   * @return false if the line can't be written until other shards leave the merged top level
+   *     suite
+   */
+  private boolean write(Shard shard, Line line) {
+    ServerTestingMessage message = line.message;
+    if (message == null) {
+      inputStream.write(line.text + '\n');
+      return true;
+    }
+    switch (message.getName()) {
+      case TestingMessageNames.TEST_REPORTER_ATTACHED:
+        if (reporterAttached) {
+          return true;
+        }
+        reporterAttached = true;
+        break;
+      case TestingMessageNames.ROOT_PRESENTATION:
+        if (rootPresented) {
+          return true;
+        }
+        rootPresented = true;
+        break;
+      case TestingMessageNames.TEST_COUNT:
+        writeTestCount(message);
+        return true;
+      case TestingMessageNames.TEST_SUITE_STARTED:
+        if (shard.depth == 0) {
+          return startSharedSuite(shard, line);
+        }
+        shard.depth++;
+        break;
+      case TestingMessageNames.TEST_SUITE_FINISHED:
+        if (shard.depth == 1 && shard.inSharedSuite) {
+          // the suite is finished when none of shards is in it
+          shard.depth = 0;
+          shard.inSharedSuite = false;
+          sharedSuiteShards--;
+          sharedSuiteEnd = line.text;
+          return true;
+        }
+        shard.depth = Math.max(0, shard.depth - 1);
+        break;
+      case TestingMessageNames.SUITE_TREE_STARTED:
+        if (shard.depth == 0 && !leaveSharedSuite()) {
+          return false;
+        }
+        shard.depth++;
+        break;
+      case TestingMessageNames.SUITE_TREE_ENDED:
+        shard.depth = Math.max(0, shard.depth - 1);
+        break;
+      default:
+        if (shard.depth == 0 && !leaveSharedSuite()) {
+          return false;
+        }
+        break;
+    }
+    inputStream.write(line.text + '\n');
+    return true;
+  }
+
+  /** Starts the top level suite or joins the same named one started by another shard. */
+  private boolean startSharedSuite(Shard shard, Line line) {
+    String name = String.valueOf(line.message.getAttributes().get("name"));
+    if (sharedSuite == null || !sharedSuite.equals(name)) {
+      if (!leaveSharedSuite()) {
+        return false;
+      }
+      inputStream.write(line.text + '\n');
+      sharedSuite = name;
+    }
+    sharedSuiteShards++;
+    shard.depth = 1;
+    shard.inSharedSuite = true;
+    return true;
+  }
+
+  /**
+   * Finishes the merged top level suite if none of shards is in it.
+   *
+   * @return false if there are shards in the merged top level suite
+   */
+  private boolean leaveSharedSuite() {
+    if (sharedSuiteShards > 0) {
+      return false;
+    }
+    finishSharedSuite();
+    return true;
+  }
+
+  private void finishSharedSuite() {
+    if (sharedSuite != null) {
+      inputStream.write(sharedSuiteEnd + '\n');
+      sharedSuite = null;
+      sharedSuiteEnd = null;
+    }
+  }
+
+  private void writeTestCount(ServerTestingMessage message) {
+    try {
+      testCount += Integer.parseInt(message.getAttributes().get("count"));
+    } catch (NumberFormatException e) {
+      return;
+    }
+    Map<String, String> attributes = message.getAttributes();
+    attributes.put("count", String.valueOf(testCount));
+    ServerTestingMessage total =
+        new ServerTestingMessage(TestingMessageNames.TEST_COUNT, attributes) {};
+    inputStream.write(toLine(total) + '\n');
+  }
+
+  private static String toLine(ServerTestingMessage message) {
+    return ServerTestingMessage.TESTING_MESSAGE_START
+        + message.asJsonString()
+        + ServerTestingMessage.TESTING_MESSAGE_END;
+  }
+
+  private static ServerTestingMessage parse(String line) {
+    try {
+      return ServerTestingMessage.parse(line.trim());
+    } catch (RuntimeException e) {
+      return null;
+    }
+  }
+
+  /** Destroys all the processes, output they have already written is still merged. */
+  private void stopAll() {
+    if (stopped.compareAndSet(false, true)) {
+      for (Process process : processes) {
+        process.destroy();
+      }
+    }
+  }
+
+  @Override
+  public OutputStream getOutputStream() {
+    return new OutputStream() {
+      @Override
+      public void write(int b) throws IOException {
+        throw new IOException("Input of sharded test processes is not supported");
+      }
+
+      @Override
+      public void close() throws IOException {
+        for (Process process : processes) {
+          process.getOutputStream().close();
+        }
+      }
+    };
+  }
+
+  @Override
+  public InputStream getInputStream() {
+    return inputStream;
+  }
+
+  @Override
+  public InputStream getErrorStream() {
+    return errorStream;
+  }
+
+  /** Waits until all the processes are terminated and all their output is merged. */
+  @Override
+  public int waitFor() throws InterruptedException {
+    for (Process process : processes) {
+      process.waitFor();
+    }
+    merged.await();
+    return exitValue();
+  }
+
+  @Override
+  public boolean waitFor(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    for (Process process : processes) {
+      if (!process.waitFor(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+        return false;
+      }
+    }
+    return merged.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+  }
+
+  /** Returns exit code of the first failed process or {@code 0} if all of them succeeded. */
+  @Override
+  public int exitValue() {
+    if (merged.getCount() > 0) {
+      throw new IllegalThreadStateException("Test processes have not exited");
+    }
+    for (Process process : processes) {
+      int exitValue = process.exitValue();
+      if (exitValue != 0) {
+        return exitValue;
+      }
+    }
+    return 0;
+  }
+
+  @Override
+  public void destroy() {
+    stopped.set(true);
+    for (Process process : processes) {
+      process.destroy();
+    }
+  }
+
+  private static class Shard {
+    // suites which are started and not finished in the output of shard
+    final LinkedList<OpenSuite> openSuites = new LinkedList<>();
+    final LinkedList<Line> queue = new LinkedList<>();
+    // depth of written messages
+    int depth;
+    boolean inSharedSuite;
+    boolean finished;
+  }
+
+  private static class OpenSuite {
+    final String messageName;
+    final String name;
+    final String key;
+    final long startTime;
+    boolean nested;
+
+    OpenSuite(String messageName, Map<String, String> attributes) {
+      this.messageName = messageName;
+      this.name = attributes.get("name");
+      String location = attributes.get("location");
+      int pathStart = location == null ? -1 : location.indexOf("://");
+      this.key =
+          pathStart < 0 || pathStart + 3 == location.length()
+              ? name
+              : location.substring(pathStart + 3);
+      this.startTime = System.currentTimeMillis();
+    }
+  }
+
+  private static class Line {
+    final String text;
+    final ServerTestingMessage message;
+
+    Line(String text, ServerTestingMessage message) {
+      this.text = text;
+      this.message = message;
+    }
+  }
+
+  /** Stream which is read by {@link ProcessHandler} and written by readers of shards. */
+  private static class MergedInputStream extends InputStream {
+    private final LinkedList<byte[]> chunks = new LinkedList<>();
+    private int offset;
+    private int available;
+    private boolean finished;
+    private boolean closed;
+
+    synchronized void write(String text) {
+      byte[] bytes = text.getBytes(UTF_8);
+      while (available >= MAX_BUFFERED_BYTES && !closed) {
+        try {
+          wait();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+      if (bytes.length > 0 && !closed) {
+        chunks.add(bytes);
+        available += bytes.length;
+        notifyAll();
+      }
+    }
+
+    synchronized void finish() {
+      finished = true;
+      notifyAll();
+    }
+
+    @Override
+    public synchronized int read() throws IOException {
+      byte[] single = new byte[1];
+      return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public synchronized int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      while (available == 0 && !finished && !closed) {
+        try {
+          wait();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IOException("Reading of test output is interrupted");
+        }
+      }
+      if (available == 0) {
+        return -1;
+      }
+      int read = 0;
+      while (read < len && !chunks.isEmpty()) {
+        byte[] chunk = chunks.getFirst();
+        int count = Math.min(len - read, chunk.length - offset);
+        System.arraycopy(chunk, offset, b, off + read, count);
+        read += count;
+        offset += count;
+        if (offset == chunk.length) {
+          chunks.removeFirst();
+          offset = 0;
+        }
+      }
+      available -= read;
+      // wakes up writers waiting for free space
+      notifyAll();
+      return read;
+    }
+
+    @Override
+    public synchronized int available() {
+      return available;
+    }
+
+    /** Drops the output which is not read yet, the further output is dropped too. */
+    @Override
+    public synchronized void close() {
+      closed = true;
+      chunks.clear();
+      offset = 0;
+      available = 0;
+      notifyAll();
+    }
+  }
+}
@@ -10,31 +10,84 @@
  */
 package org.eclipse.che.api.testing.server.framework;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 import org.eclipse.che.api.core.jsonrpc.commons.RequestTransmitter;
 import org.eclipse.che.api.testing.server.messages.ServerTestingMessage;
 import org.eclipse.che.api.testing.server.messages.UncapturedOutputMessage;
 import org.eclipse.che.api.testing.shared.Constants;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
 import org.eclipse.che.commons.lang.execution.ProcessEvent;
 import org.eclipse.che.commons.lang.execution.ProcessHandler;
 import org.eclipse.che.commons.lang.execution.ProcessListener;
 import org.eclipse.che.commons.lang.execution.ProcessOutputType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-/** Process and send testing messages to the client */
+/**
+ * Process and send testing messages to the client.
+ *
+ * <p>Messages are sent in batches: the first message of a batch waits for the following ones at
+ * most the given delay, batch is sent earlier when it reaches the given count of messages or size.
+ * Messages are queued and sent by a single thread, so their order is kept. When the queue is full
+ * reading of the process output waits until queued messages are sent.
+ */
 public class TestMessagesOutputTransmitter {
+  private static final Logger LOG = LoggerFactory.getLogger(TestMessagesOutputTransmitter.class);
+
+  public static final int DEFAULT_MAX_BATCH_MESSAGES = 500;
+  public static final long DEFAULT_MAX_BATCH_DELAY_MS = 50;
+
+  private static final int MAX_BATCH_CHARS = 64 * 1024;
+  private static final int QUEUE_BATCHES = 4;
+  // marks the end of the messages, is never sent
+  private static final Object END = new Object();
 
   private final RequestTransmitter requestTransmitter;
   private final String endpoint;
   private final LineSplitter lineSplitter;
+  private final int maxBatchMessages;
+  private final long maxBatchDelayMs;
+  private final BlockingQueue<Object> queue;
   private ProcessHandler processHandler;
 
   public TestMessagesOutputTransmitter(
       ProcessHandler processHandler, RequestTransmitter requestTransmitter, String endpoint) {
+    this(
+        processHandler,
+        requestTransmitter,
+        endpoint,
+        DEFAULT_MAX_BATCH_MESSAGES,
+        DEFAULT_MAX_BATCH_DELAY_MS);
+  }
+
+  public TestMessagesOutputTransmitter(
+      ProcessHandler processHandler,
+      RequestTransmitter requestTransmitter,
+      String endpoint,
+      int maxBatchMessages,
+      long maxBatchDelayMs) {
     this.processHandler = processHandler;
     this.requestTransmitter = requestTransmitter;
     this.endpoint = endpoint;
+    this.maxBatchMessages = Math.max(1, maxBatchMessages);
+    this.maxBatchDelayMs = maxBatchDelayMs;
+    this.queue = new ArrayBlockingQueue<>(this.maxBatchMessages * QUEUE_BATCHES);
 
     lineSplitter = new LineSplitter(this::processLine);
 
+    new ThreadFactoryBuilder()
+        .setNameFormat("TestMessagesSender-%d")
+        .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+        .setDaemon(true)
+        .build()
+        .newThread(this::sendMessages)
+        .start();
+
     processHandler.addProcessListener(
         new ProcessListener() {
           @Override
@@ -69,23 +122,13 @@ public class TestMessagesOutputTransmitter {
 
   private void sendOutput(String text, ProcessOutputType outputType) {
     UncapturedOutputMessage message = new UncapturedOutputMessage(text, outputType);
-    requestTransmitter
-        .newRequest()
-        .endpointId(endpoint)
-        .methodName(Constants.TESTING_RPC_METHOD_NAME)
-        .paramsAsString(message.asJsonString())
-        .sendAndSkipResult();
+    enqueue(message.asJsonString());
   }
 
   private boolean processTestingMessage(String line) {
     ServerTestingMessage message = ServerTestingMessage.parse(line.trim());
     if (message != null) {
-      requestTransmitter
-          .newRequest()
-          .endpointId(endpoint)
-          .methodName(Constants.TESTING_RPC_METHOD_NAME)
-          .paramsAsString(message.asJsonString())
-          .sendAndSkipResult();
+      enqueue(message.asJsonString());
       return true;
     }
     return false;
@@ -93,12 +136,8 @@ public class TestMessagesOutputTransmitter {
 
   private void processTestingStopped() {
     lineSplitter.flush();
-    requestTransmitter
-        .newRequest()
-        .endpointId(endpoint)
-        .methodName(Constants.TESTING_RPC_METHOD_NAME)
-        .paramsAsString(ServerTestingMessage.FINISH_TESTING.asJsonString())
-        .sendAndSkipResult();
+    enqueue(ServerTestingMessage.FINISH_TESTING.asJsonString());
+    enqueue(END);
   }
 
   private void process(String text, ProcessOutputType outputType) {
@@ -106,11 +145,62 @@ public class TestMessagesOutputTransmitter {
   }
 
   private void processStartTesting() {
+    enqueue(ServerTestingMessage.TESTING_STARTED.asJsonString());
+  }
+
+  /** Queues the message, waits while the queue is full. */
+  private void enqueue(Object message) {
+    try {
+      queue.put(message);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** Sends queued messages until the end of the messages. */
+  private void sendMessages() {
+    List<String> batch = new ArrayList<>(maxBatchMessages);
+    try {
+      boolean end = false;
+      while (!end) {
+        Object message = queue.take();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxBatchDelayMs);
+        int chars = 0;
+        while (message != null) {
+          if (message == END) {
+            end = true;
+            break;
+          }
+          String text = (String) message;
+          batch.add(text);
+          chars += text.length();
+          if (batch.size() >= maxBatchMessages || chars >= MAX_BATCH_CHARS) {
+            break;
+          }
+          message = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+        try {
+          send(batch);
+        } catch (RuntimeException e) {
+          // keep sending, otherwise the queue fills up and the process output reader blocks
+          LOG.error("Can't send {} testing messages to '{}'", batch.size(), endpoint, e);
+        }
+        batch.clear();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void send(List<String> batch) {
+    if (batch.isEmpty()) {
+      return;
+    }
     requestTransmitter
         .newRequest()
         .endpointId(endpoint)
-        .methodName(Constants.TESTING_RPC_METHOD_NAME)
-        .paramsAsString(ServerTestingMessage.TESTING_STARTED.asJsonString())
+        .methodName(Constants.TESTING_BATCH_RPC_METHOD_NAME)
+        .paramsAsListOfString(new ArrayList<>(batch))
         .sendAndSkipResult();
   }
 
@@ -0,0 +1,369 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.testing.server;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import org.eclipse.che.api.testing.server.framework.ShardedTestProcess;
+import org.eclipse.che.api.testing.server.messages.ServerTestingMessage;
+import org.testng.annotations.Test;
+
+public class ShardedTestProcessTest {
+
+  @Test
+  public void mergesOutputsOfShardsIntoSingleTestTree() throws Exception {
+    ShardedTestProcess process =
+        new ShardedTestProcess(
+            asList(
+                new FakeProcess(preamble() + suite("a.A1", 20) + suite("a.A2", 20)),
+                new FakeProcess(preamble() + suite("b.B1", 20) + "some output\n")),
+            false,
+            null);
+
+    List<ServerTestingMessage> messages = readMessages(process);
+
+    assertEquals(count(messages, "testReporterAttached"), 1);
+    assertEquals(count(messages, "rootName"), 1);
+    assertEquals(count(messages, "testSuiteStarted"), 3);
+    assertEquals(count(messages, "testStarted"), 60);
+    assertTestsAreInTheirSuites(messages);
+  }
+
+  @Test
+  public void mergesSameNamedTopLevelSuitesOfShards() throws Exception {
+    ShardedTestProcess process =
+        new ShardedTestProcess(
+            asList(
+                new FakeProcess(
+                    preamble()
+                        + started("project")
+                        + suite("a.A1", 20)
+                        + suite("a.A2", 20)
+                        + finished("project")),
+                new FakeProcess(
+                    preamble() + started("project") + suite("b.B1", 20) + finished("project"))),
+            false,
+            null);
+
+    List<ServerTestingMessage> messages = readMessages(process);
+
+    assertEquals(count(messages, "testSuiteStarted"), 4);
+    assertEquals(count(messages, "testSuiteFinished"), 4);
+    assertEquals(count(messages, "testStarted"), 60);
+    assertTestsAreInTheirSuites(messages, "project");
+  }
+
+  @Test
+  public void finishesSuitesOfShardWhichTerminatedInTheMiddleOfSuite() throws Exception {
+    ShardedTestProcess process =
+        new ShardedTestProcess(
+            asList(
+                new FakeProcess(preamble() + started("a.A1") + test("a.A1", 0)),
+                new FakeProcess(preamble() + suite("b.B1", 5))),
+            false,
+            null);
+
+    List<ServerTestingMessage> messages = readMessages(process);
+
+    assertEquals(count(messages, "testSuiteFinished"), 2);
+    assertTestsAreInTheirSuites(messages);
+  }
+
+  @Test
+  public void sumsTestCountsOfShards() throws Exception {
+    ShardedTestProcess process =
+        new ShardedTestProcess(
+            asList(
+                new FakeProcess(message("testCount", "count", "3")),
+                new FakeProcess(message("testCount", "count", "4"))),
+            false,
+            null);
+
+    List<ServerTestingMessage> messages = readMessages(process);
+
+    assertEquals(messages.get(1).getAttributes().get("count"), "7");
+  }
+
+  @Test
+  public void reportsDurationsOfSuitesByTheirNames() throws Exception {
+    AtomicReference<Map<String, Long>> durations = new AtomicReference<>();
+    ShardedTestProcess process =
+        new ShardedTestProcess(
+            asList(
+                new FakeProcess(preamble() + suite("a.A1", 1) + suite("a.A2", 1)),
+                new FakeProcess(preamble() + suite("b.B1", 1))),
+            false,
+            durations::set);
+
+    readMessages(process);
+
+    assertEquals(durations.get().keySet().size(), 3);
+    assertTrue(durations.get().keySet().containsAll(asList("a.A1", "a.A2", "b.B1")));
+  }
+
+  @Test
+  public void reportsDurationsOfTestClassesByTheirLocations() throws Exception {
+    AtomicReference<Map<String, Long>> durations = new AtomicReference<>();
+    ShardedTestProcess process =
+        new ShardedTestProcess(
+            asList(
+                new FakeProcess(
+                    preamble()
+                        + started("project")
+                        + classSuite("a.A1")
+                        + classSuite("a.A2")
+                        + finished("project")),
+                new FakeProcess(
+                    preamble() + started("project") + classSuite("b.B1") + finished("project"))),
+            false,
+            durations::set);
+
+    readMessages(process);
+
+    assertEquals(durations.get().keySet().size(), 3);
+    assertTrue(durations.get().keySet().containsAll(asList("a.A1", "a.A2", "b.B1")));
+  }
+
+  @Test
+  public void destroysAllShardsOnFirstFailureWhenRequested() throws Exception {
+    FakeProcess running = new FakeProcess(null);
+    String failed =
+        preamble()
+            + started("a.A1")
+            + message("testStarted", "name", "a.A1.test")
+            + message("testFailed", "name", "a.A1.test")
+            + message("testSuiteFinished", "name", "a.A1");
+    ShardedTestProcess process =
+        new ShardedTestProcess(asList(new FakeProcess(failed), running), true, null);
+
+    List<ServerTestingMessage> messages = readMessages(process);
+
+    assertTrue(running.destroyed);
+    assertEquals(count(messages, "testFailed"), 1);
+  }
+
+  @Test
+  public void destroysSingleShardOnFailureWhenRequested() throws Exception {
+    String failed =
+        preamble()
+            + started("a.A1")
+            + message("testStarted", "name", "a.A1.test")
+            + message("testFailed", "name", "a.A1.test")
+            + message("testSuiteFinished", "name", "a.A1");
+    FakeProcess running = new FakeProcess(failed, true);
+    ShardedTestProcess process = new ShardedTestProcess(singletonList(running), true, null);
+
+    List<ServerTestingMessage> messages = readMessages(process);
+
+    assertTrue(running.destroyed);
+    assertEquals(count(messages, "testFailed"), 1);
+  }
+
+  @Test
+  public void mergesOutputsWhichDoNotFitIntoQueuesOfShards() throws Exception {
+    // more lines than a shard may queue
+    int tests = 10_000;
+    ShardedTestProcess process =
+        new ShardedTestProcess(
+            asList(
+                new FakeProcess(preamble() + suite("a.A1", tests)),
+                new FakeProcess(preamble() + suite("b.B1", tests))),
+            false,
+            null);
+
+    List<ServerTestingMessage> messages = readMessages(process);
+
+    assertEquals(count(messages, "testStarted"), tests * 2);
+    assertTestsAreInTheirSuites(messages);
+  }
+
+  private static List<ServerTestingMessage> readMessages(ShardedTestProcess process)
+      throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    try (InputStream input = process.getInputStream()) {
+      byte[] buffer = new byte[8192];
+      int read;
+      while ((read = input.read(buffer)) != -1) {
+        output.write(buffer, 0, read);
+      }
+    }
+    process.waitFor();
+    List<ServerTestingMessage> messages = new ArrayList<>();
+    for (String line : new String(output.toByteArray(), UTF_8).split("\n")) {
+      ServerTestingMessage message = ServerTestingMessage.parse(line);
+      if (message != null) {
+        messages.add(message);
+      }
+    }
+    return messages;
+  }
+
+  /** Checks that only the given merged suites contain other suites. */
+  private static void assertTestsAreInTheirSuites(
+      List<ServerTestingMessage> messages, String... mergedSuites) {
+    LinkedList<String> suites = new LinkedList<>();
+    for (ServerTestingMessage message : messages) {
+      String name = message.getAttributes().get("name");
+      switch (message.getName()) {
+        case "testSuiteStarted":
+          assertTrue(
+              asList(mergedSuites).containsAll(suites),
+              "Suite " + name + " is nested into " + suites);
+          suites.push(name);
+          break;
+        case "testSuiteFinished":
+          assertEquals(suites.pop(), name);
+          break;
+        case "testStarted":
+        case "testFinished":
+          assertEquals(name.substring(0, name.lastIndexOf('.')), suites.peek());
+          break;
+        default:
+          break;
+      }
+    }
+    assertTrue(suites.isEmpty());
+  }
+
+  private static long count(List<ServerTestingMessage> messages, String name) {
+    return messages.stream().filter(message -> name.equals(message.getName())).count();
+  }
+
+  private static String preamble() {
+    return message("testReporterAttached", null, null) + message("rootName", "name", "Suite");
+  }
+
+  private static String suite(String name, int tests) {
+    StringBuilder suite = new StringBuilder(started(name));
+    for (int i = 0; i < tests; i++) {
+      suite.append(test(name, i));
+    }
+    return suite.append(message("testSuiteFinished", "name", name)).toString();
+  }
+
+  /** Suite of a test class as it is reported by TestNG, named by the simple name of the class. */
+  private static String classSuite(String testClass) {
+    String simpleName = testClass.substring(testClass.lastIndexOf('.') + 1);
+    return String.format(
+            "@@<{\"name\":\"testSuiteStarted\", \"attributes\":{\"name\":\"%s\", "
+                + "\"location\":\"java:suite://%s\"}}>\n",
+            simpleName, testClass)
+        + test(simpleName, 0)
+        + finished(simpleName);
+  }
+
+  private static String started(String suite) {
+    return message("testSuiteStarted", "name", suite);
+  }
+
+  private static String finished(String suite) {
+    return message("testSuiteFinished", "name", suite);
+  }
+
+  private static String test(String suite, int index) {
+    return message("testStarted", "name", suite + ".test" + index)
+        + message("testFinished", "name", suite + ".test" + index);
+  }
+
+  private static String message(String name, String attribute, String value) {
+    if (attribute == null) {
+      return "@@<{\"name\":\"" + name + "\"}>\n";
+    }
+    return String.format(
+        "@@<{\"name\":\"%s\", \"attributes\":{\"%s\":\"%s\"}}>\n", name, attribute, value);
+  }
+
+  /**
+   * Process which prints the given output and terminates, or waits until it is destroyed if output
+   * is null.
+   */
+  private static class FakeProcess extends Process {
+    private final InputStream output;
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    volatile boolean destroyed;
+
+    FakeProcess(String output) {
+      this(output, output == null);
+    }
+
+    /** Creates process which prints the given output and waits until it is destroyed if asked. */
+    FakeProcess(String output, boolean waitForDestroy) {
+      InputStream printed =
+          new ByteArrayInputStream(output == null ? new byte[0] : output.getBytes(UTF_8));
+      if (waitForDestroy) {
+        InputStream waiting =
+            new InputStream() {
+              @Override
+              public int read() throws IOException {
+                try {
+                  terminated.await();
+                } catch (InterruptedException e) {
+                  throw new IOException(e);
+                }
+                return -1;
+              }
+            };
+        this.output = new SequenceInputStream(printed, waiting);
+      } else {
+        this.output = printed;
+        terminated.countDown();
+      }
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+      return new ByteArrayOutputStream();
+    }
+
+    @Override
+    public InputStream getInputStream() {
+      return output;
+    }
+
+    @Override
+    public InputStream getErrorStream() {
+      return new ByteArrayInputStream(new byte[0]);
+    }
+
+    @Override
+    public int waitFor() throws InterruptedException {
+      terminated.await();
+      return exitValue();
+    }
+
+    @Override
+    public int exitValue() {
+      return destroyed ? 143 : 0;
+    }
+
+    @Override
+    public void destroy() {
+      destroyed = true;
+      terminated.countDown();
+    }
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.testing.server;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.che.api.core.jsonrpc.commons.RequestTransmitter;
+import org.eclipse.che.api.core.jsonrpc.commons.transmission.EndpointIdConfigurator;
+import org.eclipse.che.api.core.jsonrpc.commons.transmission.MethodNameConfigurator;
+import org.eclipse.che.api.core.jsonrpc.commons.transmission.ParamsConfigurator;
+import org.eclipse.che.api.core.jsonrpc.commons.transmission.SendConfiguratorFromMany;
+import org.eclipse.che.api.testing.server.framework.TestMessagesOutputTransmitter;
+import org.eclipse.che.api.testing.server.messages.ServerTestingMessage;
+import org.eclipse.che.api.testing.shared.Constants;
+import org.eclipse.che.commons.lang.execution.ProcessHandler;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class TestMessagesOutputTransmitterTest {
+  private static final int TESTS = 1000;
+
+  private List<List<String>> batches;
+  private CountDownLatch finished;
+  private RequestTransmitter transmitter;
+  private AtomicInteger failures;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    batches = new CopyOnWriteArrayList<>();
+    finished = new CountDownLatch(1);
+    failures = new AtomicInteger();
+    transmitter = mock(RequestTransmitter.class);
+    EndpointIdConfigurator endpointIdConfigurator = mock(EndpointIdConfigurator.class);
+    MethodNameConfigurator methodNameConfigurator = mock(MethodNameConfigurator.class);
+    ParamsConfigurator paramsConfigurator = mock(ParamsConfigurator.class);
+    when(transmitter.newRequest()).thenReturn(endpointIdConfigurator);
+    when(endpointIdConfigurator.endpointId(anyString())).thenReturn(methodNameConfigurator);
+    when(methodNameConfigurator.methodName(Constants.TESTING_BATCH_RPC_METHOD_NAME))
+        .thenReturn(paramsConfigurator);
+    when(paramsConfigurator.paramsAsListOfString(anyList()))
+        .thenAnswer(
+            invocation -> {
+              @SuppressWarnings("unchecked")
+              List<String> batch = (List<String>) invocation.getArguments()[0];
+              if (failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("Session is closed");
+              }
+              batches.add(batch);
+              if (batch.contains(ServerTestingMessage.FINISH_TESTING.asJsonString())) {
+                finished.countDown();
+              }
+              return mock(SendConfiguratorFromMany.class);
+            });
+  }
+
+  @Test
+  public void sendsMessagesInOrderInBatches() throws Exception {
+    StringBuilder output = new StringBuilder();
+    for (int i = 0; i < TESTS; i++) {
+      output.append("@@<{\"name\":\"testStarted\", \"attributes\":{\"name\":\"test").append(i);
+      output.append("\"}}>\n");
+      output.append("output of test").append(i).append('\n');
+    }
+    ProcessHandler processHandler = new ProcessHandler(new FakeProcess(output.toString()));
+
+    new TestMessagesOutputTransmitter(processHandler, transmitter, "endpoint", 100, 1000);
+
+    assertTrue(finished.await(10, TimeUnit.SECONDS));
+    List<String> messages = new ArrayList<>();
+    for (List<String> batch : batches) {
+      assertTrue(batch.size() <= 100);
+      messages.addAll(batch);
+    }
+    assertEquals(messages.size(), TESTS * 2 + 2);
+    assertTrue(batches.size() < messages.size() / 10);
+    assertEquals(messages.get(0), ServerTestingMessage.TESTING_STARTED.asJsonString());
+    for (int i = 0; i < TESTS; i++) {
+      assertTrue(messages.get(1 + i * 2).contains("\"test" + i + "\""));
+      assertTrue(messages.get(2 + i * 2).contains("output of test" + i));
+    }
+    assertEquals(
+        messages.get(messages.size() - 1), ServerTestingMessage.FINISH_TESTING.asJsonString());
+  }
+
+  @Test
+  public void keepsSendingMessagesWhenBatchIsNotSent() throws Exception {
+    failures.set(3);
+    StringBuilder output = new StringBuilder();
+    for (int i = 0; i < TESTS; i++) {
+      output.append("output of test").append(i).append('\n');
+    }
+    ProcessHandler processHandler = new ProcessHandler(new FakeProcess(output.toString()));
+
+    new TestMessagesOutputTransmitter(processHandler, transmitter, "endpoint", 10, 1000);
+
+    assertTrue(finished.await(10, TimeUnit.SECONDS));
+    List<String> messages = new ArrayList<>();
+    batches.forEach(messages::addAll);
+    assertEquals(
+        messages.get(messages.size() - 1), ServerTestingMessage.FINISH_TESTING.asJsonString());
+  }
+
+  /** Process which prints the given output and exits. */
+  private static class FakeProcess extends Process {
+    private final InputStream output;
+
+    FakeProcess(String output) {
+      this.output = new ByteArrayInputStream(output.getBytes(UTF_8));
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+      return new ByteArrayOutputStream();
+    }
+
+    @Override
+    public InputStream getInputStream() {
+      return output;
+    }
+
+    @Override
+    public InputStream getErrorStream() {
+      return new ByteArrayInputStream(new byte[0]);
+    }
+
+    @Override
+    public int waitFor() throws InterruptedException {
+      // lets the process handler start reading of the output
+      Thread.sleep(100);
+      return 0;
+    }
+
+    @Override
+    public int exitValue() {
+      return 0;
+    }
+
+    @Override
+    public void destroy() {}
+  }
+}
@@ -10,50 +10,33 @@
  */
 package org.eclipse.che.api.machine.server.event;
 
-import static com.google.common.collect.Sets.newConcurrentHashSet;
-
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.eclipse.che.api.core.jsonrpc.commons.RequestHandlerConfigurator;
-import org.eclipse.che.api.core.jsonrpc.commons.RequestTransmitter;
+import org.eclipse.che.api.core.jsonrpc.impl.JsonRpcSubscriptionRegistry;
 import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.core.notification.EventSubscriber;
 import org.eclipse.che.api.machine.shared.dto.event.MachineStatusEvent;
 
 @Singleton
 public class MachineStateJsonRpcMessenger implements EventSubscriber<MachineStatusEvent> {
-  private final RequestTransmitter transmitter;
-  private final EventService eventService;
+  private static final String CHANGED_METHOD = "event:environment-status:changed";
 
-  private final Map<String, Set<String>> endpointIds = new ConcurrentHashMap<>();
+  private final JsonRpcSubscriptionRegistry subscriptionRegistry;
+  private final EventService eventService;
 
   @Inject
-  public MachineStateJsonRpcMessenger(RequestTransmitter transmitter, EventService eventService) {
-    this.transmitter = transmitter;
+  public MachineStateJsonRpcMessenger(
+      JsonRpcSubscriptionRegistry subscriptionRegistry, EventService eventService) {
+    this.subscriptionRegistry = subscriptionRegistry;
     this.eventService = eventService;
   }
 
   @Override
   public void onEvent(MachineStatusEvent event) {
-    String id = event.getWorkspaceId();
-    endpointIds
-        .entrySet()
-        .stream()
-        .filter(it -> it.getValue().contains(id))
-        .map(Map.Entry::getKey)
-        .forEach(
-            it ->
-                transmitter
-                    .newRequest()
-                    .endpointId(it)
-                    .methodName("event:environment-status:changed")
-                    .paramsAsDto(event)
-                    .sendAndSkipResult());
+    subscriptionRegistry.notify(CHANGED_METHOD, event.getWorkspaceId(), event);
   }
 
   @Inject
@@ -65,10 +48,8 @@ public class MachineStateJsonRpcMessenger implements EventSubscriber<MachineStat
         .paramsAsString()
         .noResult()
         .withBiConsumer(
-            (endpointId, workspaceId) -> {
-              endpointIds.putIfAbsent(endpointId, newConcurrentHashSet());
-              endpointIds.get(endpointId).add(workspaceId);
-            });
+            (endpointId, workspaceId) ->
+                subscriptionRegistry.subscribe(CHANGED_METHOD, workspaceId, endpointId));
   }
 
   @Inject
@@ -79,16 +60,8 @@ public class MachineStateJsonRpcMessenger implements EventSubscriber<MachineStat
         .paramsAsString()
         .noResult()
         .withBiConsumer(
-            (endpointId, workspaceId) -> {
-              Set<String> workspaceIds = endpointIds.get(endpointId);
-              if (workspaceIds != null) {
-                workspaceIds.remove(workspaceId);
-
-                if (workspaceIds.isEmpty()) {
-                  endpointIds.remove(endpointId);
-                }
-              }
-            });
+            (endpointId, workspaceId) ->
+                subscriptionRegistry.unsubscribe(CHANGED_METHOD, workspaceId, endpointId));
   }
 
   @PostConstruct
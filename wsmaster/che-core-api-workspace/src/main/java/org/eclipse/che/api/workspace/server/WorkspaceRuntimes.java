@@ -227,7 +227,7 @@ public class WorkspaceRuntimes {
     // publish event synchronously as the task may not be executed by
     // executors service(due to legal cancellation), clients still have
     // to receive STOPPED -> STARTING event
-    eventsService.publish(
+    publishStatusEvent(
         DtoFactory.newDto(WorkspaceStatusEvent.class)
             .withWorkspaceId(workspaceId)
             .withStatus(WorkspaceStatus.STARTING)
@@ -708,7 +708,7 @@ public class WorkspaceRuntimes {
     } catch (EnvironmentException | ServerException | ConflictException | AgentException x) {
       // environment can't be started for some reason, STARTING -> STOPPED
       removeState(workspaceId);
-      eventsService.publish(
+      publishStatusEvent(
           DtoFactory.newDto(WorkspaceStatusEvent.class)
               .withWorkspaceId(workspaceId)
               .withEventType(EventType.ERROR)
@@ -749,7 +749,7 @@ public class WorkspaceRuntimes {
     }
 
     // normally started, notify clients
-    eventsService.publish(
+    publishStatusEvent(
         DtoFactory.newDto(WorkspaceStatusEvent.class)
             .withWorkspaceId(workspaceId)
             .withStatus(WorkspaceStatus.RUNNING)
@@ -759,14 +759,14 @@ public class WorkspaceRuntimes {
 
   /** STOPPING -> remove runtime -> STOPPED. */
   private void removeStateAndPublishStopEvents(String workspaceId) {
-    eventsService.publish(
+    publishStatusEvent(
         DtoFactory.newDto(WorkspaceStatusEvent.class)
             .withWorkspaceId(workspaceId)
             .withPrevStatus(STARTING)
             .withStatus(WorkspaceStatus.STOPPING)
             .withEventType(EventType.STOPPING));
     removeState(workspaceId);
-    eventsService.publish(
+    publishStatusEvent(
         DtoFactory.newDto(WorkspaceStatusEvent.class)
             .withWorkspaceId(workspaceId)
             .withPrevStatus(WorkspaceStatus.STOPPING)
@@ -777,7 +777,7 @@ public class WorkspaceRuntimes {
   /** Stops the workspace publishing all the necessary events. */
   private void stopEnvironmentAndPublishEvents(String workspaceId, WorkspaceStatus prevStatus)
       throws ServerException, EnvironmentException {
-    eventsService.publish(
+    publishStatusEvent(
         DtoFactory.newDto(WorkspaceStatusEvent.class)
             .withWorkspaceId(workspaceId)
             .withPrevStatus(prevStatus)
@@ -787,7 +787,7 @@ public class WorkspaceRuntimes {
     try {
       envEngine.stop(workspaceId);
     } catch (Exception x) {
-      eventsService.publish(
+      publishStatusEvent(
           DtoFactory.newDto(WorkspaceStatusEvent.class)
               .withWorkspaceId(workspaceId)
               .withPrevStatus(WorkspaceStatus.STOPPING)
@@ -802,7 +802,7 @@ public class WorkspaceRuntimes {
         throw new ServerException(wrap.getMessage(), wrap);
       }
     }
-    eventsService.publish(
+    publishStatusEvent(
         DtoFactory.newDto(WorkspaceStatusEvent.class)
             .withWorkspaceId(workspaceId)
             .withPrevStatus(WorkspaceStatus.STOPPING)
@@ -838,10 +838,18 @@ public class WorkspaceRuntimes {
     }
   }
 
+  /**
+   * Publishes immutable copy of the given event, so the event may be safely shared by subscribers
+   * notified in different threads.
+   */
+  private void publishStatusEvent(WorkspaceStatusEvent event) {
+    eventsService.publish(DtoFactory.snapshotDto(event));
+  }
+
   /** Creates a snapshot and changes status SNAPSHOTTING -> RUNNING. */
   private void snapshotAndUpdateStatus(String workspaceId)
       throws NotFoundException, ConflictException, ServerException {
-    eventsService.publish(
+    publishStatusEvent(
         DtoFactory.newDto(WorkspaceStatusEvent.class)
             .withWorkspaceId(workspaceId)
             .withStatus(WorkspaceStatus.SNAPSHOTTING)
@@ -863,7 +871,7 @@ public class WorkspaceRuntimes {
       } catch (ServerException | NotFoundException x) {
         if (machine.getConfig().isDev()) {
           compareAndSetStatus(workspaceId, WorkspaceStatus.SNAPSHOTTING, WorkspaceStatus.RUNNING);
-          eventsService.publish(
+          publishStatusEvent(
               DtoFactory.newDto(WorkspaceStatusEvent.class)
                   .withWorkspaceId(workspaceId)
                   .withStatus(WorkspaceStatus.RUNNING)
@@ -899,7 +907,7 @@ public class WorkspaceRuntimes {
           newSnapshots.size());
       removeBinaries(newSnapshots);
       compareAndSetStatus(workspaceId, WorkspaceStatus.SNAPSHOTTING, WorkspaceStatus.RUNNING);
-      eventsService.publish(
+      publishStatusEvent(
           DtoFactory.newDto(WorkspaceStatusEvent.class)
               .withWorkspaceId(workspaceId)
               .withStatus(WorkspaceStatus.RUNNING)
@@ -909,7 +917,7 @@ public class WorkspaceRuntimes {
       throw x;
     }
     compareAndSetStatus(workspaceId, WorkspaceStatus.SNAPSHOTTING, WorkspaceStatus.RUNNING);
-    eventsService.publish(
+    publishStatusEvent(
         DtoFactory.newDto(WorkspaceStatusEvent.class)
             .withStatus(WorkspaceStatus.RUNNING)
             .withWorkspaceId(workspaceId)
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.workspace.server.stack;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.inject.Singleton;
+import org.eclipse.che.api.workspace.server.model.impl.stack.StackImpl;
+import org.eclipse.che.api.workspace.shared.dto.stack.StackDto;
+import org.eclipse.che.dto.server.DtoFactory;
+
+/**
+ * Keeps immutable DTOs of stacks returned by {@link StackService}, so a stack is converted to DTO
+ * only when it is changed. Stacks have no version, so the cached DTO is returned only if the stack
+ * is equal to the one it was converted from. The cache is shared between requests and threads, it
+ * keeps only DTOs made immutable with {@link DtoFactory#snapshot(Object)}.
+ */
+@Singleton
+public class StackDtoCache {
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+  /**
+   * Returns DTO of the given stack with links based on the given service URI, or {@code null} if
+   * there is no such DTO in the cache.
+   */
+  public StackDto get(StackImpl stack, String serviceUri) {
+    final Entry entry = entries.get(stack.getId());
+    if (entry == null || !entry.serviceUri.equals(serviceUri) || !entry.stack.equals(stack)) {
+      return null;
+    }
+    return entry.dto;
+  }
+
+  /**
+   * Caches immutable DTO of the given stack.
+   *
+   * @param stack stack the DTO is converted from, it is copied
+   * @param serviceUri service URI the DTO links are based on
+   * @param dto immutable DTO
+   */
+  public void put(StackImpl stack, String serviceUri, StackDto dto) {
+    entries.put(stack.getId(), new Entry(new StackImpl(stack), serviceUri, dto));
+  }
+
+  /** Removes DTO of the stack with the given id from the cache. */
+  public void invalidate(String stackId) {
+    entries.remove(stackId);
+  }
+
+  private static class Entry {
+    final StackImpl stack;
+    final String serviceUri;
+    final StackDto dto;
+
+    Entry(StackImpl stack, String serviceUri, StackDto dto) {
+      this.stack = stack;
+      this.serviceUri = serviceUri;
+      this.dto = dto;
+    }
+  }
+}
@@ -23,6 +23,7 @@ import static org.eclipse.che.api.workspace.shared.Constants.LINK_REL_REMOVE_STA
 import static org.eclipse.che.api.workspace.shared.Constants.LINK_REL_SEARCH_STACKS;
 import static org.eclipse.che.api.workspace.shared.Constants.LINK_REL_UPDATE_STACK;
 import static org.eclipse.che.api.workspace.shared.Constants.LINK_REL_UPLOAD_ICON;
+import static org.eclipse.che.dto.server.DtoFactory.snapshotDto;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -74,11 +75,13 @@ public class StackService extends Service {
 
   private final StackDao stackDao;
   private final StackValidator stackValidator;
+  private final StackDtoCache dtoCache;
 
   @Inject
-  public StackService(StackDao stackDao, StackValidator stackValidator) {
+  public StackService(StackDao stackDao, StackValidator stackValidator, StackDtoCache dtoCache) {
     this.stackDao = stackDao;
     this.stackValidator = stackValidator;
+    this.dtoCache = dtoCache;
   }
 
   @POST
@@ -200,6 +203,7 @@ public class StackService extends Service {
   public void removeStack(@ApiParam("The stack id") @PathParam("id") final String id)
       throws ApiException {
     stackDao.remove(id);
+    dtoCache.invalidate(id);
   }
 
   @GET
@@ -339,8 +343,17 @@ public class StackService extends Service {
     stackDao.update(stack);
   }
 
+  /**
+   * Returns immutable DTO of the given stack with its links. DTO is converted once and reused while
+   * the stack and the service URI the links are based on are the same.
+   */
   private StackDto asStackDto(StackImpl stack) {
     final UriBuilder builder = getServiceContext().getServiceUriBuilder();
+    final String serviceUri = builder.clone().build().toString();
+    final StackDto cached = dtoCache.get(stack, serviceUri);
+    if (cached != null) {
+      return cached;
+    }
 
     List<Link> links = new ArrayList<>();
     final Link removeLink =
@@ -374,6 +387,8 @@ public class StackService extends Service {
       links.add(deleteIcon);
       links.add(getIconLink);
     }
-    return asDto(stack).withLinks(links);
+    final StackDto dto = snapshotDto(asDto(stack).withLinks(links));
+    dtoCache.put(stack, serviceUri, dto);
+    return dto;
   }
 }
@@ -31,6 +31,8 @@ import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
 
 import com.jayway.restassured.response.Response;
 import java.lang.reflect.Field;
@@ -65,6 +67,7 @@ import org.everrest.core.RequestFilter;
 import org.everrest.core.impl.uri.UriBuilderImpl;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.testng.MockitoTestNGListener;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Listeners;
@@ -134,6 +137,8 @@ public class StackServiceTest {
 
   @Mock StackValidator validator;
 
+  @Spy StackDtoCache dtoCache = new StackDtoCache();
+
   @InjectMocks StackService service;
 
   @BeforeMethod
@@ -308,6 +313,20 @@ public class StackServiceTest {
     assertEquals(result.getCreator(), stackImpl.getCreator());
   }
 
+  @Test
+  public void shouldReuseDtoOfUnchangedStackUntilItIsRemoved() throws Exception {
+    when(stackDao.getById(STACK_ID)).thenReturn(stackImpl);
+
+    StackDto first = service.getStack(STACK_ID);
+    StackDto second = service.getStack(STACK_ID);
+    service.removeStack(STACK_ID);
+    StackDto third = service.getStack(STACK_ID);
+
+    assertSame(second, first);
+    assertNotSame(third, first);
+    assertEquals(third, first);
+  }
+
   @Test
   public void stackShouldBeUpdated() throws NotFoundException, ServerException, ConflictException {
     final String updatedDescription = "some description";